@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Load test of {@link AsyncSentimentAnalyzer}, which compares a fixed pool of platform threads with an executor
+ * starting a virtual thread per request. Every benchmark thread is a client that sends a tweet and waits for its
+ * score, so that {@link AsyncScoringBenchmark#CLIENTS} requests are in flight at any time. The throughput is in
+ * requests per second and the sampled latencies, whose p99 is reported by JMH, include the time spent queued.
+ * The virtual threads need Java 21, so on an older JVM only {@code -p executor=platform} can be run.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(AsyncScoringBenchmark.CLIENTS)
+@Fork(1)
+public class AsyncScoringBenchmark {
+    /**
+     * Number of requests in flight.
+     */
+    static final int CLIENTS = 64;
+
+    /**
+     * Executor of the analyzer: a pool with a platform thread per core, or a virtual thread per request.
+     */
+    @Param({"platform", "virtual"})
+    private String executor;
+
+    /**
+     * The tweets which are sent by the clients.
+     */
+    private List<String> tweets;
+
+    /**
+     * Executor on which the tweets are scored.
+     */
+    private ExecutorService executorService;
+
+    /**
+     * Analyzer running on {@link AsyncScoringBenchmark#executorService}.
+     */
+    private AsyncSentimentAnalyzer analyzer;
+
+    @Setup
+    public void setUp() {
+        tweets = GroundTruthCorpus.TWEETS.readTexts();
+        if ("virtual".equals(executor)) {
+            executorService = AsyncSentimentAnalyzer.newVirtualThreadPerTaskExecutor()
+                .orElseThrow(() -> new IllegalStateException("Virtual threads need Java 21 or later."));
+        } else {
+            executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+        analyzer = new AsyncSentimentAnalyzer(executorService);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public SentimentPolarities request(final Client client) {
+        return analyzer.getScoresFor(tweets.get(client.next(tweets.size()))).join();
+    }
+
+    /**
+     * A client, which sends the tweets one after the other, starting at a different tweet than the others.
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        /**
+         * Index of the next tweet.
+         */
+        private int index = (int) Thread.currentThread().getId() * 31;
+
+        /**
+         * Get the index of the next tweet to send.
+         *
+         * @param count the number of tweets
+         * @return the index
+         */
+        int next(final int count) {
+            index = (index + 1) % count;
+            return index;
+        }
+    }
+}
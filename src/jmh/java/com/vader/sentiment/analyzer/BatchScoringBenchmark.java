@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures the throughput of scoring short texts one by one against scoring them in batches of different sizes.
+ * Every invocation scores the same {@link BatchScoringBenchmark#DOCUMENTS} tweets, split into batches of
+ * {@link BatchScoringBenchmark#batchSize}, so the scores are in documents per second for every batch size.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchScoringBenchmark {
+    /**
+     * Number of documents scored by every invocation.
+     */
+    private static final int DOCUMENTS = 65536;
+
+    /**
+     * Number of documents per batch.
+     */
+    @Param({"1", "64", "1024", "65536"})
+    private int batchSize;
+
+    /**
+     * The documents, split into batches.
+     */
+    private List<List<String>> batches;
+
+    /**
+     * Scorer used for the columnar batches.
+     */
+    private SentimentScorer scorer;
+
+    /**
+     * Columns reused for all the columnar batches.
+     */
+    private SentimentColumns columns;
+
+    @Setup
+    public void setUp() {
+        final List<String> tweets = GroundTruthCorpus.TWEETS.readTexts();
+        final List<String> documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(tweets.get(i % tweets.size()));
+        }
+        batches = new ArrayList<>();
+        for (int start = 0; start < DOCUMENTS; start += batchSize) {
+            batches.add(documents.subList(start, Math.min(DOCUMENTS, start + batchSize)));
+        }
+        scorer = new SentimentScorer();
+        columns = new SentimentColumns(batchSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void oneByOne(final Blackhole blackhole) {
+        for (final List<String> batch : batches) {
+            for (final String document : batch) {
+                blackhole.consume(SentimentAnalyzer.getScoresFor(document));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void batches(final Blackhole blackhole) {
+        for (final List<String> batch : batches) {
+            blackhole.consume(SentimentAnalyzer.getScoresForAll(batch));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void columnarBatches(final Blackhole blackhole) {
+        for (final List<String> batch : batches) {
+            scorer.scoreAll(batch, columns);
+            blackhole.consume(columns.getCompoundPolarities());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures the scoring of a conversation after every message, made of {@code messages} tweets, by scoring the
+ * whole transcript again with {@link SentimentAnalyzer#getScoresFor(String)} and by appending the message to an
+ * {@link IncrementalSentimentScorer}. The scores are in milliseconds per conversation.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConversationScoringBenchmark {
+    /**
+     * Number of messages of the conversation.
+     */
+    @Param({"100", "1000"})
+    private int messages;
+
+    /**
+     * The messages of the conversation.
+     */
+    private List<String> conversation;
+
+    @Setup
+    public void setUp() {
+        conversation = GroundTruthCorpus.TWEETS.readTexts().subList(0, messages);
+    }
+
+    @Benchmark
+    public void rescored(final Blackhole blackhole) {
+        final StringBuilder transcript = new StringBuilder();
+        for (final String message : conversation) {
+            transcript.append(message).append('\n');
+            blackhole.consume(SentimentAnalyzer.getScoresFor(transcript.toString()));
+        }
+    }
+
+    @Benchmark
+    public void incremental(final Blackhole blackhole) {
+        final IncrementalSentimentScorer scorer = new IncrementalSentimentScorer();
+        for (final String message : conversation) {
+            scorer.append(message);
+            scorer.append("\n");
+            blackhole.consume(scorer.getPolarities());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures the scoring of one large document, made of the editorial snippets repeated up to {@code megabytes}
+ * million characters, with a blank line after every fifth snippet so that the document has paragraphs.
+ * The document is scored as a single text, as a single text read in windows by a {@link StreamingSentimentScorer},
+ * sentence by sentence on the calling thread, and sentence by sentence with a {@link ParallelSentimentScorer}.
+ * Run with {@code -prof gc} to compare the memory each of them allocates.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class DocumentScoringBenchmark {
+    /**
+     * Size of the document, in millions of characters.
+     */
+    @Param({"1", "100"})
+    private int megabytes;
+
+    /**
+     * The document being scored.
+     */
+    private String document;
+
+    /**
+     * The scorer that splits the sentences of the document across the common pool.
+     */
+    private ParallelSentimentScorer parallelScorer;
+
+    /**
+     * The scorer that reads the document in windows.
+     */
+    private StreamingSentimentScorer streamingScorer;
+
+    @Setup
+    public void setUp() {
+        final List<String> snippets = GroundTruthCorpus.NYT_EDITORIALS.readTexts();
+        final int length = megabytes * 1_000_000;
+        final StringBuilder builder = new StringBuilder(length + 4096);
+        for (int i = 0; builder.length() < length; i++) {
+            builder.append(snippets.get(i % snippets.size())).append(i % 5 == 4 ? "\n\n" : " ");
+        }
+        builder.setLength(length);
+        document = builder.toString();
+        parallelScorer = new ParallelSentimentScorer();
+        streamingScorer = new StreamingSentimentScorer();
+    }
+
+    @Benchmark
+    public SentimentPolarities wholeDocument() {
+        return SentimentAnalyzer.getScoresFor(document);
+    }
+
+    @Benchmark
+    public SentimentPolarities streamedDocument() throws IOException {
+        return streamingScorer.score(new StringReader(document));
+    }
+
+    @Benchmark
+    public DocumentSentiment sentences() {
+        return SentimentAnalyzer.getDocumentScoresFor(document);
+    }
+
+    @Benchmark
+    public DocumentSentiment parallelSentences() {
+        return parallelScorer.scoreDocument(document);
+    }
+}
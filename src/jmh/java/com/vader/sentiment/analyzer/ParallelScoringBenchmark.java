@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures how {@link ParallelSentimentScorer} scales with the number of threads, on a batch that mixes tweets,
+ * editorial snippets and a few editorials of several pages. A parallel stream over the same batch, which splits
+ * it by the number of strings, is measured on the same pool for comparison.
+ * The scores are in milliseconds per batch.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScoringBenchmark {
+    /**
+     * Number of editorials of several pages in the batch.
+     */
+    private static final int LONG_DOCUMENTS = 16;
+
+    /**
+     * Number of snippets joined into an editorial of several pages.
+     */
+    private static final int SNIPPETS_PER_LONG_DOCUMENT = 500;
+
+    /**
+     * Number of threads of the pool.
+     */
+    @Param({"1", "2", "4", "8", "16", "32"})
+    private int threads;
+
+    /**
+     * The batch of strings.
+     */
+    private List<String> documents;
+
+    /**
+     * Pool of {@link ParallelScoringBenchmark#threads} threads.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Scorer running on {@link ParallelScoringBenchmark#pool}.
+     */
+    private ParallelSentimentScorer scorer;
+
+    @Setup
+    public void setUp() {
+        final List<String> editorials = GroundTruthCorpus.NYT_EDITORIALS.readTexts();
+        documents = new ArrayList<>(GroundTruthCorpus.TWEETS.readTexts());
+        documents.addAll(editorials);
+        // the long documents are put at the start, where a split by the number of strings puts them together
+        for (int i = 0; i < LONG_DOCUMENTS; i++) {
+            final int start = (i * SNIPPETS_PER_LONG_DOCUMENT) % (editorials.size() - SNIPPETS_PER_LONG_DOCUMENT);
+            documents.add(i, String.join(" ", editorials.subList(start, start + SNIPPETS_PER_LONG_DOCUMENT)));
+        }
+        pool = new ForkJoinPool(threads);
+        scorer = new ParallelSentimentScorer(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<SentimentPolarities> costSplitForkJoin() {
+        return scorer.scoreAll(documents);
+    }
+
+    @Benchmark
+    public List<SentimentPolarities> countSplitParallelStream() {
+        return pool.submit(() -> documents.parallelStream()
+            .map(SentimentAnalyzer::getScoresFor)
+            .collect(Collectors.toList())).join();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Compares looking up the scores of the tweets in a {@link PersistentSentimentCache} which holds all of them with
+ * scoring the tweets again. The scores are in documents per second.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistentSentimentCacheBenchmark {
+    /**
+     * Number of tweets of the corpus.
+     */
+    private static final int TWEETS = 4200;
+
+    /**
+     * The tweets.
+     */
+    private List<String> tweets;
+
+    /**
+     * Path of the cache file.
+     */
+    private Path file;
+
+    /**
+     * The cache, which holds the scores of all the tweets.
+     */
+    private PersistentSentimentCache cache;
+
+    @Setup
+    public void setUp() throws IOException {
+        tweets = GroundTruthCorpus.TWEETS.readTexts().subList(0, TWEETS);
+        file = Files.createTempFile("sentiment_cache", ".bin");
+        Files.delete(file);
+        cache = PersistentSentimentCache.open(file);
+        tweets.forEach(cache::getScoresFor);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cache.close();
+        Files.deleteIfExists(cache.getTablePath());
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TWEETS)
+    public void score(final Blackhole blackhole) {
+        for (final String tweet : tweets) {
+            blackhole.consume(SentimentAnalyzer.getScoresFor(tweet));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TWEETS)
+    public void lookUp(final Blackhole blackhole) {
+        for (final String tweet : tweets) {
+            blackhole.consume(cache.getScoresFor(tweet));
+        }
+    }
+}
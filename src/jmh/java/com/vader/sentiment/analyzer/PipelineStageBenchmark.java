@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenSequence;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * Measures each stage of the sentiment analysis of a text on its own: the tokenization into
+ * {@link TextProperties}, the valence of each token, the adjustment for the conjunction "but" and the
+ * normalization of the valences into polarity scores, next to the analysis from end to end. The input of a stage
+ * is the output of the stages before it, which is computed once for every text of the corpus in the setup.
+ * Each invocation processes one text, so the allocation rate of the GC profiler is per text.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineStageBenchmark {
+    /**
+     * Dataset to analyze.
+     */
+    @Param({"AMAZON_REVIEWS", "MOVIE_REVIEWS", "NYT_EDITORIALS", "TWEETS"})
+    private GroundTruthCorpus corpus;
+
+    /**
+     * Texts of {@link PipelineStageBenchmark#corpus}.
+     */
+    private List<String> texts;
+
+    /**
+     * Vocabulary the texts are analyzed with.
+     */
+    private Vocabulary vocabulary;
+
+    /**
+     * Tokenized version of each text.
+     */
+    private TextProperties[] textProperties;
+
+    /**
+     * Valence of the tokens of each text, before the adjustment for conjunctions.
+     */
+    private float[][] tokenValences;
+
+    /**
+     * Valence of the tokens of each text, after the adjustment for conjunctions.
+     */
+    private float[][] adjustedValences;
+
+    /**
+     * Valence adjustment factor for the punctuations of each text.
+     */
+    private float[] punctuationAmplifiers;
+
+    /**
+     * Properties which are reset with each text, as {@link SentimentScorer} does.
+     */
+    private final TextProperties reusedTextProperties = new TextProperties();
+
+    /**
+     * Array in which the valences of a text are computed, large enough for the longest text.
+     */
+    private float[] valences;
+
+    /**
+     * Array in which the polarity scores of a text are computed.
+     */
+    private final float[] polarities = new float[SentimentScorer.POLARITY_COUNT];
+
+    /**
+     * Index of the next text to analyze.
+     */
+    private int nextText;
+
+    @Setup
+    public void setUp() throws IOException {
+        texts = corpus.readTexts();
+        vocabulary = LexiconRegistry.current();
+        textProperties = new TextProperties[texts.size()];
+        tokenValences = new float[texts.size()][];
+        adjustedValences = new float[texts.size()][];
+        punctuationAmplifiers = new float[texts.size()];
+        int maxTokens = 0;
+        for (int index = 0; index < texts.size(); index++) {
+            final TextProperties properties =
+                new TextProperties(texts.get(index), TokenizerMode.getDefault(), vocabulary);
+            final TokenSequence tokens = properties.getTokens();
+            final float[] sentiments = new float[tokens.size()];
+            SentimentAnalyzer.getTokenWiseSentiment(tokens, properties.isYelling(),
+                SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON, 0, tokens.size(), -1, sentiments);
+            textProperties[index] = properties;
+            tokenValences[index] = sentiments;
+            adjustedValences[index] = Arrays.copyOf(sentiments, sentiments.length);
+            SentimentAnalyzer.adjustValenceIfHasConjunction(tokens, adjustedValences[index]);
+            punctuationAmplifiers[index] = SentimentAnalyzer.boostByPunctuation(properties);
+            maxTokens = Math.max(maxTokens, tokens.size());
+        }
+        valences = new float[maxTokens];
+    }
+
+    /**
+     * Get the index of the next text of the corpus, wrapping around at its end.
+     *
+     * @return the index
+     */
+    private int nextIndex() {
+        final int index = nextText;
+        nextText = (nextText + 1) % texts.size();
+        return index;
+    }
+
+    @Benchmark
+    public TextProperties constructTextProperties() throws IOException {
+        return new TextProperties(texts.get(nextIndex()), TokenizerMode.getDefault(), vocabulary);
+    }
+
+    @Benchmark
+    public TextProperties resetTextProperties() throws IOException {
+        reusedTextProperties.reset(texts.get(nextIndex()), TokenizerMode.getDefault(), vocabulary);
+        return reusedTextProperties;
+    }
+
+    @Benchmark
+    public float[] tokenValences() {
+        final TextProperties properties = textProperties[nextIndex()];
+        final TokenSequence tokens = properties.getTokens();
+        SentimentAnalyzer.getTokenWiseSentiment(tokens, properties.isYelling(),
+            SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON, 0, tokens.size(), -1, valences);
+        return valences;
+    }
+
+    @Benchmark
+    public float[] conjunction() {
+        final int index = nextIndex();
+        final float[] sentiments = tokenValences[index];
+        System.arraycopy(sentiments, 0, valences, 0, sentiments.length);
+        SentimentAnalyzer.adjustValenceIfHasConjunction(textProperties[index].getTokens(), valences);
+        return valences;
+    }
+
+    @Benchmark
+    public float[] normalization() {
+        final int index = nextIndex();
+        final float[] sentiments = adjustedValences[index];
+        SentimentAnalyzer.getPolarityScores(sentiments, sentiments.length, punctuationAmplifiers[index], polarities);
+        return polarities;
+    }
+
+    @Benchmark
+    public SentimentPolarities endToEnd() {
+        return SentimentAnalyzer.getScoresFor(texts.get(nextIndex()));
+    }
+}
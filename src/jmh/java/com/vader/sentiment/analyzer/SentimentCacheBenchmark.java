@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures {@link SentimentCache} on a stream of duplicates, whose strings are drawn from the tweets and editorial
+ * snippets with a Zipf distribution: the string of rank k comes up in proportion to 1 / k^{@code skew}. Every
+ * string of the stream is a separate copy, as it would be when read from a feed, so duplicates are found by their
+ * content.
+ * The cache is emptied before every iteration, and its hit rate is printed at the end of the trial.
+ * The scores are in documents per second.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentimentCacheBenchmark {
+    /**
+     * Number of documents of the stream.
+     */
+    private static final int DOCUMENTS = 65536;
+
+    /**
+     * Exponent of the Zipf distribution; the higher, the more duplicates.
+     */
+    @Param({"0.8", "1.0", "1.2"})
+    private double skew;
+
+    /**
+     * Largest number of strings kept by the cache.
+     */
+    @Param({"1024", "8192"})
+    private long cacheSize;
+
+    /**
+     * The stream of documents.
+     */
+    private List<String> documents;
+
+    /**
+     * The cache being measured.
+     */
+    private SentimentCache cache;
+
+    @Setup
+    public void setUp() {
+        final List<String> texts = new ArrayList<>(GroundTruthCorpus.TWEETS.readTexts());
+        texts.addAll(GroundTruthCorpus.NYT_EDITORIALS.readTexts());
+        final Random random = new Random(42L);
+        final double[] cumulative = new double[texts.size()];
+        double total = 0.0;
+        for (int rank = 0; rank < texts.size(); rank++) {
+            total += 1.0 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            final int found = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            final int rank = Math.min(found >= 0 ? found : -found - 1, texts.size() - 1);
+            documents.add(new String(texts.get(rank).toCharArray()));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpCache() {
+        cache = new SentimentCache(cacheSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%nhit rate: %.3f, evictions: %d%n", cache.stats().hitRate(),
+            cache.stats().evictionCount());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void uncached(final Blackhole blackhole) {
+        for (final String document : documents) {
+            blackhole.consume(SentimentAnalyzer.getScoresFor(document));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DOCUMENTS)
+    public void cached(final Blackhole blackhole) {
+        for (final String document : documents) {
+            blackhole.consume(cache.getScoresFor(document));
+        }
+    }
+}
@@ -0,0 +1,447 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vader.sentiment.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.analyzer.SentimentPolarities;
+import com.vader.sentiment.metrics.LatencyHistogram;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Load test of {@link SentimentAnalyzer#getScoresFor(String)} with many concurrent callers, on the texts of the
+ * ground truth corpora. For each thread count of a sweep, the threads call the analyzer for a warm-up period and
+ * then for a measured period, and the latencies are recorded in a {@link LatencyHistogram} per thread.
+ * <p>
+ * Two workload models are supported:
+ * <ul>
+ * <li>{@code open}: the calls arrive at a fixed total rate, shared by the threads. The latency of a call is
+ * measured from the time it was scheduled, so a call which had to wait for a slow call before it is counted with
+ * the wait, as it would be by a client which does not wait for the previous answer. When the analyzer cannot keep
+ * up with the rate, the calls fall behind their schedule and the trial lasts until all of them are made.</li>
+ * <li>{@code closed}: each thread makes its next call as soon as the previous one returns. A call which takes
+ * longer than the mean latency of the thread during the warm-up also counts the calls which it delayed, see
+ * {@link LatencyHistogram#recordValueWithExpectedInterval(long, long)}.</li>
+ * </ul>
+ * In both models, the uncorrected latency of the calls themselves is reported as the service time. The results
+ * are printed, one line per thread count, and written as JSON by {@link LoadTestReport} with {@code --report}.
+ * <p>
+ * Usage, with the classpath of the tests: {@code LoadGenerator [--model open|closed] [--threads 1,2,4]
+ * [--rate callsPerSecond] [--warmup seconds] [--duration seconds] [--corpus ALL|TWEETS|...] [--report file]}.
+ *
+ * @author Animesh Pandey
+ */
+public final class LoadGenerator {
+    /**
+     * Time given to the threads of a trial to start before they make their first call.
+     */
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * Time before a scheduled call from which a waiting thread stops parking, see
+     * {@link LoadGenerator#waitUntil(long)}.
+     */
+    private static final long PARK_MARGIN_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    /**
+     * Seed of the shuffle of the texts, so that every run calls the analyzer with the same texts.
+     */
+    private static final long SHUFFLE_SEED = 42L;
+
+    /**
+     * Default values of the options.
+     */
+    private static final String[][] DEFAULT_OPTIONS = {
+        {"model", "closed"},
+        {"threads", "1,2,4,8,16,32,64"},
+        {"rate", "10000"},
+        {"warmup", "5"},
+        {"duration", "10"},
+        {"corpus", "ALL"},
+        {"report", ""},
+    };
+
+    /**
+     * True for the open model, false for the closed one.
+     */
+    private final boolean openModel;
+
+    /**
+     * Total number of calls per second of the open model.
+     */
+    private final double rate;
+
+    /**
+     * Length of the warm-up period of every trial.
+     */
+    private final long warmupNanos;
+
+    /**
+     * Length of the measured period of every trial.
+     */
+    private final long durationNanos;
+
+    /**
+     * Texts which are scored, in the order the threads go through them.
+     */
+    private final List<String> texts;
+
+    /**
+     * Sum of the compound scores, so that the calls cannot be left out by the JIT compiler.
+     */
+    private volatile double sink;
+
+    /**
+     * Create a load generator.
+     *
+     * @param openModel     true for the open model, false for the closed one
+     * @param rate          total number of calls per second of the open model
+     * @param warmupNanos   length of the warm-up period of every trial
+     * @param durationNanos length of the measured period of every trial
+     * @param texts         texts which are scored
+     */
+    LoadGenerator(final boolean openModel, final double rate, final long warmupNanos, final long durationNanos,
+                  final List<String> texts) {
+        this.openModel = openModel;
+        this.rate = rate;
+        this.warmupNanos = warmupNanos;
+        this.durationNanos = durationNanos;
+        this.texts = texts;
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException, ExecutionException {
+        final Map<String, String> options = parseOptions(args);
+        final String model = options.get("model").toLowerCase(Locale.ROOT);
+        if (!"open".equals(model) && !"closed".equals(model)) {
+            throw new IllegalArgumentException("Unknown model " + model + ", expected open or closed.");
+        }
+        final double rate = Double.parseDouble(options.get("rate"));
+        if ("open".equals(model) && rate <= 0.0) {
+            throw new IllegalArgumentException("The rate of the open model should be positive.");
+        }
+        final String corpus = options.get("corpus").toUpperCase(Locale.ROOT);
+        final List<Integer> threadCounts = new ArrayList<>();
+        for (String threadCount : options.get("threads").split(",")) {
+            threadCounts.add(Integer.parseInt(threadCount.trim()));
+        }
+        final LoadGenerator loadGenerator = new LoadGenerator("open".equals(model), rate,
+            TimeUnit.MILLISECONDS.toNanos((long) (Double.parseDouble(options.get("warmup")) * 1000)),
+            TimeUnit.MILLISECONDS.toNanos((long) (Double.parseDouble(options.get("duration")) * 1000)),
+            readTexts(corpus));
+
+        final LoadTestReport report = new LoadTestReport();
+        report.addSetting("model", model);
+        if (loadGenerator.openModel) {
+            report.addSetting("rate", rate);
+        }
+        report.addSetting("corpus", corpus);
+        report.addSetting("texts", loadGenerator.texts.size());
+        report.addSetting("warmupSeconds", Double.parseDouble(options.get("warmup")));
+        report.addSetting("durationSeconds", Double.parseDouble(options.get("duration")));
+        report.addSetting("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.addSetting("javaVersion", System.getProperty("java.version"));
+        report.addSetting("javaVmName", System.getProperty("java.vm.name"));
+
+        double baselineThroughputPerThread = Double.NaN;
+        for (int threads : threadCounts) {
+            final LoadTestReport.Trial trial = loadGenerator.runTrial(threads, baselineThroughputPerThread);
+            if (Double.isNaN(baselineThroughputPerThread)) {
+                baselineThroughputPerThread = trial.getThroughput() / threads;
+            }
+            report.addTrial(trial);
+            System.out.println(model + " " + trial.summary());
+        }
+
+        if (!options.get("report").isEmpty()) {
+            final Path reportFile = Paths.get(options.get("report"));
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+            System.out.println("Report written to " + reportFile.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Parse the options given as {@code --name value} pairs.
+     *
+     * @param args the command line arguments
+     * @return the value of every option, with the defaults of the options which are not given
+     */
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String[] option : DEFAULT_OPTIONS) {
+            options.put(option[0], option[1]);
+        }
+        for (int index = 0; index < args.length; index += 2) {
+            final String name = args[index].startsWith("--") ? args[index].substring(2) : args[index];
+            if (!options.containsKey(name) || index + 1 >= args.length) {
+                throw new IllegalArgumentException("Unknown option or missing value: " + Arrays.toString(args));
+            }
+            options.put(name, args[index + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Read the texts of a corpus, or of all the corpora mixed together.
+     *
+     * @param corpus name of a {@link GroundTruthCorpus}, or ALL
+     * @return the texts
+     */
+    private static List<String> readTexts(final String corpus) {
+        if (!"ALL".equals(corpus)) {
+            return GroundTruthCorpus.valueOf(corpus).readTexts();
+        }
+        final List<String> texts = new ArrayList<>();
+        for (GroundTruthCorpus groundTruthCorpus : GroundTruthCorpus.values()) {
+            texts.addAll(groundTruthCorpus.readTexts());
+        }
+        Collections.shuffle(texts, new Random(SHUFFLE_SEED));
+        return Collections.unmodifiableList(texts);
+    }
+
+    /**
+     * Run the load test with a number of threads: a warm-up period whose latencies are discarded, then the
+     * measured period.
+     *
+     * @param threads                     number of threads which call the analyzer
+     * @param baselineThroughputPerThread throughput per thread of the trial with the fewest threads, or NaN if
+     *                                    this is that trial
+     * @return the result of the measured period
+     * @throws InterruptedException if the thread is interrupted while waiting for the callers
+     * @throws ExecutionException   if a call failed
+     */
+    LoadTestReport.Trial runTrial(final int threads, final double baselineThroughputPerThread)
+        throws InterruptedException, ExecutionException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final Worker[] workers = new Worker[threads];
+            for (int index = 0; index < threads; index++) {
+                workers[index] = new Worker(index, threads);
+            }
+            runPeriod(executor, workers, warmupNanos);
+            for (Worker worker : workers) {
+                worker.endWarmUp();
+            }
+
+            final long gcCountBefore = gcCount();
+            final long gcTimeBefore = gcTimeMillis();
+            final long elapsedNanos = runPeriod(executor, workers, durationNanos);
+            final long gcCount = gcCount() - gcCountBefore;
+            final long gcTimeMillis = gcTimeMillis() - gcTimeBefore;
+
+            final LatencyHistogram responseTime = new LatencyHistogram();
+            final LatencyHistogram serviceTime = new LatencyHistogram();
+            for (Worker worker : workers) {
+                responseTime.add(worker.responseTime);
+                serviceTime.add(worker.serviceTime);
+            }
+            final long operations = serviceTime.getTotalCount();
+            final double throughput = operations * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+            // The throughput of the open model is its rate, whatever the number of threads.
+            double scalingEfficiency = Double.NaN;
+            if (!openModel) {
+                scalingEfficiency = Double.isNaN(baselineThroughputPerThread)
+                    ? 1.0 : throughput / threads / baselineThroughputPerThread;
+            }
+            return new LoadTestReport.Trial(threads, operations, throughput, scalingEfficiency, gcCount,
+                gcTimeMillis, responseTime, serviceTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Let all the workers call the analyzer for a period, starting at the same time.
+     *
+     * @param executor    runs the workers
+     * @param workers     the workers, one per thread
+     * @param periodNanos length of the period
+     * @return the time from the start of the period to the return of the last call
+     * @throws InterruptedException if the thread is interrupted while waiting for the callers
+     * @throws ExecutionException   if a call failed
+     */
+    private long runPeriod(final ExecutorService executor, final Worker[] workers, final long periodNanos)
+        throws InterruptedException, ExecutionException {
+        final long startNanos = System.nanoTime() + START_DELAY_NANOS;
+        final long endNanos = startNanos + periodNanos;
+        final List<Future<Long>> futures = new ArrayList<>(workers.length);
+        for (Worker worker : workers) {
+            futures.add(executor.submit(() -> worker.run(startNanos, endNanos)));
+        }
+        long lastNanos = endNanos;
+        for (Future<Long> future : futures) {
+            lastNanos = Math.max(lastNanos, future.get());
+        }
+        return lastNanos - startNanos;
+    }
+
+    private static long gcCount() {
+        long count = 0L;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(bean.getCollectionCount(), 0L);
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0L;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(bean.getCollectionTime(), 0L);
+        }
+        return time;
+    }
+
+    /**
+     * Wait until a time. A thread which is parked usually wakes up tens of microseconds late, which would be
+     * counted in the latency of the open model, so the thread is only parked until shortly before the time and
+     * then yields until it is reached.
+     *
+     * @param deadlineNanos the time, as given by {@link System#nanoTime()}
+     */
+    private static void waitUntil(final long deadlineNanos) {
+        long remainingNanos;
+        while ((remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+            if (remainingNanos > PARK_MARGIN_NANOS) {
+                LockSupport.parkNanos(remainingNanos - PARK_MARGIN_NANOS);
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * One of the threads which call the analyzer, with its own histograms.
+     */
+    private final class Worker {
+        /**
+         * Time between two calls of this worker in the open model.
+         */
+        private final long intervalNanos;
+
+        /**
+         * Offset of the first call of this worker from the start of a period in the open model, so that the
+         * calls of the workers are spread evenly.
+         */
+        private final long offsetNanos;
+
+        /**
+         * Latencies as seen by the caller, corrected for coordinated omission.
+         */
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+
+        /**
+         * Latencies of the calls themselves.
+         */
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        /**
+         * Time between two calls expected in the closed model, the mean latency of the warm-up period, or 0
+         * during the warm-up.
+         */
+        private long expectedIntervalNanos;
+
+        /**
+         * Position of the next text to score.
+         */
+        private int nextText;
+
+        Worker(final int index, final int threads) {
+            intervalNanos = openModel ? (long) (threads * (double) TimeUnit.SECONDS.toNanos(1) / rate) : 0L;
+            offsetNanos = intervalNanos * index / threads;
+            nextText = (int) ((long) texts.size() * index / threads);
+        }
+
+        /**
+         * Forget the latencies of the warm-up period, and keep their mean as the expected interval of the
+         * closed model.
+         */
+        void endWarmUp() {
+            expectedIntervalNanos = openModel ? 0L : (long) serviceTime.getMean();
+            responseTime.reset();
+            serviceTime.reset();
+        }
+
+        /**
+         * Call the analyzer from the start to the end of a period.
+         *
+         * @param startNanos start of the period
+         * @param endNanos   end of the period, after which no call is made
+         * @return the time the last call returned
+         */
+        long run(final long startNanos, final long endNanos) {
+            double compoundSum = 0.0;
+            long scheduledNanos = startNanos + offsetNanos;
+            long returnedNanos = startNanos;
+            waitUntil(scheduledNanos);
+            while (scheduledNanos < endNanos) {
+                final long calledNanos = System.nanoTime();
+                final SentimentPolarities polarities = SentimentAnalyzer.getScoresFor(texts.get(nextText));
+                returnedNanos = System.nanoTime();
+                compoundSum += polarities.getCompoundPolarity();
+                nextText = (nextText + 1) % texts.size();
+
+                serviceTime.recordValue(returnedNanos - calledNanos);
+                if (openModel) {
+                    responseTime.recordValue(returnedNanos - scheduledNanos);
+                    scheduledNanos += intervalNanos;
+                    waitUntil(scheduledNanos);
+                } else {
+                    responseTime.recordValueWithExpectedInterval(returnedNanos - calledNanos,
+                        expectedIntervalNanos);
+                    scheduledNanos = returnedNanos;
+                }
+            }
+            sink += compoundSum;
+            return returnedNanos;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vader.sentiment.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import com.vader.sentiment.metrics.LatencyHistogram;
+
+/**
+ * Results of a run of {@link LoadGenerator}: the settings of the run and, for every thread count of the sweep,
+ * the throughput and the percentiles of the latencies. The report is written as JSON with one field per line, so
+ * that the reports of two versions can be compared with a diff as well as read by a script.
+ *
+ * @author Animesh Pandey
+ */
+public final class LoadTestReport {
+    /**
+     * Percentiles which are reported for every latency histogram.
+     */
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    /**
+     * Settings of the run, in the order they are written.
+     */
+    private final List<String[]> settings = new ArrayList<>();
+
+    /**
+     * Result for each thread count, in the order they were run.
+     */
+    private final List<Trial> trials = new ArrayList<>();
+
+    /**
+     * Add a setting of the run.
+     *
+     * @param name  name of the setting
+     * @param value its value, which is written as a JSON string unless it is a number
+     */
+    public void addSetting(final String name, final Object value) {
+        settings.add(new String[]{name, value instanceof Number ? value.toString() : quote(value.toString())});
+    }
+
+    /**
+     * Add the result of a trial.
+     *
+     * @param trial the result
+     */
+    public void addTrial(final Trial trial) {
+        trials.add(trial);
+    }
+
+    /**
+     * Write the report as JSON.
+     *
+     * @param writer where the report is written
+     * @throws IOException if the report cannot be written
+     */
+    public void writeJson(final Writer writer) throws IOException {
+        writer.write("{\n");
+        for (String[] setting : settings) {
+            writer.write("  " + quote(setting[0]) + ": " + setting[1] + ",\n");
+        }
+        writer.write("  \"trials\": [");
+        for (int index = 0; index < trials.size(); index++) {
+            writer.write(index == 0 ? "\n" : ",\n");
+            trials.get(index).writeJson(writer);
+        }
+        writer.write("\n  ]\n}\n");
+    }
+
+    /**
+     * Quote a string for JSON. The strings of a report are names and settings, so only quotes and backslashes
+     * are escaped.
+     *
+     * @param value the string
+     * @return the JSON string
+     */
+    private static String quote(final String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /**
+     * Format a number with a point as the decimal separator, whatever the default locale.
+     *
+     * @param value the number
+     * @return the formatted number
+     */
+    private static String format(final double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * Result of the load test with one thread count.
+     */
+    public static final class Trial {
+        /**
+         * Number of threads which called the analyzer.
+         */
+        private final int threads;
+
+        /**
+         * Number of calls in the measured period.
+         */
+        private final long operations;
+
+        /**
+         * Calls per second in the measured period.
+         */
+        private final double throughput;
+
+        /**
+         * Throughput per thread relative to the trial with the fewest threads, which is 1 when the throughput
+         * grows in proportion to the number of threads, or NaN when the throughput is set by the workload.
+         */
+        private final double scalingEfficiency;
+
+        /**
+         * Number of garbage collections in the measured period.
+         */
+        private final long gcCount;
+
+        /**
+         * Time spent in garbage collections in the measured period, in milliseconds.
+         */
+        private final long gcTimeMillis;
+
+        /**
+         * Latencies as seen by the callers, corrected for coordinated omission.
+         */
+        private final LatencyHistogram responseTime;
+
+        /**
+         * Latencies of the calls themselves, from the moment they were actually made.
+         */
+        private final LatencyHistogram serviceTime;
+
+        /**
+         * Create the result of a trial.
+         *
+         * @param threads           number of threads which called the analyzer
+         * @param operations        number of calls in the measured period
+         * @param throughput        calls per second in the measured period
+         * @param scalingEfficiency throughput per thread relative to the trial with the fewest threads, or NaN
+         * @param gcCount           number of garbage collections in the measured period
+         * @param gcTimeMillis      time spent in garbage collections in the measured period, in milliseconds
+         * @param responseTime      latencies as seen by the callers, corrected for coordinated omission
+         * @param serviceTime       latencies of the calls themselves
+         */
+        public Trial(final int threads, final long operations, final double throughput,
+                     final double scalingEfficiency, final long gcCount, final long gcTimeMillis,
+                     final LatencyHistogram responseTime, final LatencyHistogram serviceTime) {
+            this.threads = threads;
+            this.operations = operations;
+            this.throughput = throughput;
+            this.scalingEfficiency = scalingEfficiency;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+
+        /**
+         * @return the number of calls per second in the measured period
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        /**
+         * Get a line which sums up this trial, with the latencies in microseconds.
+         *
+         * @return the summary
+         */
+        public String summary() {
+            return String.format(Locale.ROOT,
+                "threads=%-3d ops=%-9d throughput=%.1f/s efficiency=%.2f gc=%d (%d ms) "
+                    + "response p50=%.1f p99=%.1f p99.9=%.1f max=%.1f us, service p50=%.1f p99=%.1f max=%.1f us",
+                threads, operations, throughput, scalingEfficiency, gcCount, gcTimeMillis,
+                responseTime.getValueAtPercentile(50.0) / 1000.0, responseTime.getValueAtPercentile(99.0) / 1000.0,
+                responseTime.getValueAtPercentile(99.9) / 1000.0, responseTime.getMaxValue() / 1000.0,
+                serviceTime.getValueAtPercentile(50.0) / 1000.0, serviceTime.getValueAtPercentile(99.0) / 1000.0,
+                serviceTime.getMaxValue() / 1000.0);
+        }
+
+        /**
+         * Write this trial as a JSON object.
+         *
+         * @param writer where the trial is written
+         * @throws IOException if the trial cannot be written
+         */
+        private void writeJson(final Writer writer) throws IOException {
+            writer.write("    {\n");
+            writer.write("      \"threads\": " + threads + ",\n");
+            writer.write("      \"operations\": " + operations + ",\n");
+            writer.write("      \"throughput\": " + format(throughput) + ",\n");
+            if (!Double.isNaN(scalingEfficiency)) {
+                writer.write("      \"scalingEfficiency\": " + format(scalingEfficiency) + ",\n");
+            }
+            writer.write("      \"gcCount\": " + gcCount + ",\n");
+            writer.write("      \"gcTimeMillis\": " + gcTimeMillis + ",\n");
+            writeJson(writer, "responseTimeNanos", responseTime);
+            writer.write(",\n");
+            writeJson(writer, "serviceTimeNanos", serviceTime);
+            writer.write("\n    }");
+        }
+
+        /**
+         * Write the percentiles of a histogram as a JSON object.
+         *
+         * @param writer    where the histogram is written
+         * @param name      name of the field
+         * @param histogram the histogram
+         * @throws IOException if the histogram cannot be written
+         */
+        private static void writeJson(final Writer writer, final String name, final LatencyHistogram histogram)
+            throws IOException {
+            writer.write("      " + quote(name) + ": {\n");
+            writer.write("        \"count\": " + histogram.getTotalCount() + ",\n");
+            writer.write("        \"mean\": " + format(histogram.getMean()) + ",\n");
+            for (double percentile : PERCENTILES) {
+                writer.write("        " + quote("p" + String.valueOf(percentile).replaceAll("\\.0$", "")) + ": "
+                    + histogram.getValueAtPercentile(percentile) + ",\n");
+            }
+            writer.write("        \"max\": " + histogram.getMaxValue() + "\n");
+            writer.write("      }");
+        }
+    }
+}
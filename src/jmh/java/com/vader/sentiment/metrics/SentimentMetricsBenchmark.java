@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.analyzer.SentimentPolarities;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Measures the overhead of recording the metrics of the analyzer, by scoring the texts of a corpus with no
+ * metrics installed, with {@link RecordingSentimentMetrics} timing the stages of one text out of
+ * {@link RecordingSentimentMetrics#DEFAULT_STAGE_SAMPLING_INTERVAL}, and timing the stages of every text.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentMetricsBenchmark {
+    /**
+     * Dataset to score.
+     */
+    @Param({"TWEETS", "NYT_EDITORIALS"})
+    private GroundTruthCorpus corpus;
+
+    /**
+     * Number of texts out of which one has its stages timed, or 0 for no metrics.
+     */
+    @Param({"0", "32", "1"})
+    private int stageSamplingInterval;
+
+    /**
+     * Texts of {@link SentimentMetricsBenchmark#corpus}.
+     */
+    private List<String> texts;
+
+    /**
+     * Index of the next text to score.
+     */
+    private int nextText;
+
+    @Setup
+    public void setUp() {
+        texts = corpus.readTexts();
+        if (stageSamplingInterval > 0) {
+            SentimentMetricsRegistry.install(new RecordingSentimentMetrics(stageSamplingInterval));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        SentimentMetricsRegistry.uninstall();
+    }
+
+    /**
+     * Get the next text from the corpus, wrapping around at its end.
+     *
+     * @return the text
+     */
+    private String nextText() {
+        final String text = texts.get(nextText);
+        nextText = (nextText + 1) % texts.size();
+        return text;
+    }
+
+    @Benchmark
+    public SentimentPolarities getScoresFor() {
+        return SentimentAnalyzer.getScoresFor(nextText());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * Compares building a new {@link InputAnalyzer}, and hence new Lucene tokenizers, for every document against
+ * re-using the analyzer owned by the current thread.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputAnalyzerBenchmark {
+    /**
+     * Dataset to tokenize.
+     */
+    @Param({"TWEETS", "NYT_EDITORIALS"})
+    private GroundTruthCorpus corpus;
+
+    /**
+     * Texts of {@link InputAnalyzerBenchmark#corpus}.
+     */
+    private List<String> texts;
+
+    /**
+     * Index of the next text to tokenize.
+     */
+    private int nextText;
+
+    @Setup
+    public void setUp() {
+        texts = corpus.readTexts();
+    }
+
+    /**
+     * Get the next text from the corpus, wrapping around at its end.
+     *
+     * @return the text
+     */
+    private String nextText() {
+        final String text = texts.get(nextText);
+        nextText = (nextText + 1) % texts.size();
+        return text;
+    }
+
+    /**
+     * Tokenize a text twice like {@link TextProperties} does, with the given analyzer.
+     *
+     * @param analyzer  the analyzer to use
+     * @param blackhole consumer of the tokens
+     * @throws IOException if Lucene fails to tokenize the text
+     */
+    private void tokenize(final InputAnalyzer analyzer, final Blackhole blackhole) throws IOException {
+        final String text = nextText();
+        analyzer.removePunctuation(text, blackhole::consume);
+        analyzer.keepPunctuation(text, blackhole::consume);
+    }
+
+    @Benchmark
+    public void perCallConstruction(final Blackhole blackhole) throws IOException {
+        tokenize(new InputAnalyzer(), blackhole);
+    }
+
+    @Benchmark
+    public void threadLocalReuse(final Blackhole blackhole) throws IOException {
+        tokenize(InputAnalyzer.getThreadLocalInstance(), blackhole);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares looking up the lower case tokens of a corpus in the valency map of {@link Utils#VOCABULARY}, the way the
+ * sentiment analyzer did with a containsKey followed by a get, against a {@link Lexicon} of the same words, both by
+ * string and by a range of characters. Each invocation looks up all the tokens of one text.
+ *
+ * @author Animesh Pandey
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexiconBenchmark {
+    /**
+     * Dataset whose tokens are looked up.
+     */
+    @Param({"TWEETS", "NYT_EDITORIALS"})
+    private GroundTruthCorpus corpus;
+
+    /**
+     * The words of {@link Utils#VOCABULARY} with their valencies, in a {@link Lexicon}.
+     */
+    private Lexicon lexicon;
+
+    /**
+     * Lower case tokens of each text of the {@link LexiconBenchmark#corpus}.
+     */
+    private List<String[]> tokens;
+
+    /**
+     * Characters of each text of the {@link LexiconBenchmark#corpus}, in lower case.
+     */
+    private List<char[]> texts;
+
+    /**
+     * Start and end of each token in {@link LexiconBenchmark#texts}, one after the other.
+     */
+    private List<int[]> offsets;
+
+    /**
+     * Index of the next text.
+     */
+    private int nextText;
+
+    @Setup
+    public void setUp() {
+        lexicon = Lexicon.of(Utils.VOCABULARY.getValencies());
+        tokens = new ArrayList<>();
+        texts = new ArrayList<>();
+        offsets = new ArrayList<>();
+        for (String text : corpus.readTexts()) {
+            final String lowerCaseText = text.toLowerCase(Locale.ROOT);
+            final String[] textTokens = lowerCaseText.trim().split("\\s+");
+            final int[] textOffsets = new int[textTokens.length * 2];
+            int start = 0;
+            for (int i = 0; i < textTokens.length; i++) {
+                start = lowerCaseText.indexOf(textTokens[i], start);
+                textOffsets[2 * i] = start;
+                textOffsets[2 * i + 1] = start + textTokens[i].length();
+                start += textTokens[i].length();
+            }
+            tokens.add(textTokens);
+            texts.add(lowerCaseText.toCharArray());
+            offsets.add(textOffsets);
+        }
+        System.out.printf("%nLexicon: %d words, about %d bytes%n", lexicon.size(), lexicon.memoryFootprint());
+    }
+
+    /**
+     * Move to the next text of the corpus, wrapping around at its end.
+     *
+     * @return index of the text
+     */
+    private int nextText() {
+        final int text = nextText;
+        nextText = (nextText + 1) % tokens.size();
+        return text;
+    }
+
+    @Benchmark
+    public float hashMap() {
+        final Map<String, Float> dictionary = Utils.VOCABULARY.getValencies();
+        float sum = 0.0F;
+        for (String token : tokens.get(nextText())) {
+            if (dictionary.containsKey(token)) {
+                sum += dictionary.get(token);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float lexiconByString() {
+        float sum = 0.0F;
+        for (String token : tokens.get(nextText())) {
+            final int slot = lexicon.find(token);
+            if (slot != Lexicon.NOT_FOUND) {
+                sum += lexicon.getValenceAt(slot);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float lexiconByCharRange() {
+        final int text = nextText();
+        final char[] chars = texts.get(text);
+        final int[] textOffsets = offsets.get(text);
+        float sum = 0.0F;
+        for (int i = 0; i < textOffsets.length; i += 2) {
+            final int slot = lexicon.find(chars, textOffsets[i], textOffsets[i + 1]);
+            if (slot != Lexicon.NOT_FOUND) {
+                sum += lexicon.getValenceAt(slot);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TokenizerMode;
+
+/**
+ * The AsyncSentimentAnalyzer class scores strings without blocking the caller, on a pluggable {@link Executor},
+ * and completes a {@link CompletableFuture} with the scores, so that it fits into an asynchronous pipeline.
+ * The scorers are borrowed from a pool by every task instead of being owned by the threads of the executor, so
+ * that the analyzer works as well on an executor that starts a virtual thread per task as on a pool of platform
+ * threads. The virtual threads of Java 21 are looked up at runtime, so the library keeps working on Java 9, where
+ * the default executor is the {@link ForkJoinPool#commonPool()}. On Java 19 and 20 the virtual threads are a preview
+ * feature, which is not used either. An instance is thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+public final class AsyncSentimentAnalyzer {
+    /**
+     * First Java feature version in which the virtual threads are no longer a preview feature.
+     */
+    static final int VIRTUAL_THREAD_FEATURE_VERSION = 21;
+
+    /**
+     * Factory of an executor that starts a virtual thread per task, or null before Java 21.
+     */
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR =
+        findVirtualThreadExecutorFactory(Runtime.version().major());
+
+    /**
+     * Executor on which the strings are scored.
+     */
+    private final Executor executor;
+
+    /**
+     * Scorers lent to the tasks scoring the strings.
+     */
+    private final ScorerPool scorers;
+
+    /**
+     * Scorer of the batches of strings, which shares the executor and the scorers.
+     */
+    private final ParallelSentimentScorer batchScorer;
+
+    /**
+     * Creates an analyzer that runs on {@link AsyncSentimentAnalyzer#defaultExecutor()} with the default tokenizer.
+     */
+    public AsyncSentimentAnalyzer() {
+        this(defaultExecutor());
+    }
+
+    /**
+     * Creates an analyzer that runs on the given executor with the default tokenizer.
+     *
+     * @param executor the executor on which the strings are scored.
+     */
+    public AsyncSentimentAnalyzer(final Executor executor) {
+        this(executor, TokenizerMode.getDefault());
+    }
+
+    /**
+     * Creates an analyzer that runs on the given executor.
+     *
+     * @param executor      the executor on which the strings are scored.
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     */
+    public AsyncSentimentAnalyzer(final Executor executor, final TokenizerMode tokenizerMode) {
+        Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.executor = Preconditions.checkNotNull(executor, "Executor should not be null.");
+        this.scorers = new ScorerPool(tokenizerMode, SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON);
+        final int parallelism = executor instanceof ForkJoinPool
+            ? ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        this.batchScorer = new ParallelSentimentScorer(executor, parallelism, scorers,
+            ParallelSentimentScorer.DEFAULT_MIN_SPLIT_COST);
+    }
+
+    /**
+     * Score a string on the executor.
+     *
+     * @param inputString the string to be analyzed.
+     * @return a future that completes with the score of the string.
+     */
+    public CompletableFuture<SentimentPolarities> getScoresFor(final String inputString) {
+        return CompletableFuture.supplyAsync(() -> scorers.score(inputString), executor);
+    }
+
+    /**
+     * Score a batch of strings on the executor. The batch is split by the length of its strings, as with
+     * {@link ParallelSentimentScorer}.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return a future that completes with the scores of the strings, in the same order as the strings.
+     */
+    public CompletableFuture<List<SentimentPolarities>> getScoresForAll(final List<String> inputStrings) {
+        return batchScorer.scoreAllAsync(inputStrings);
+    }
+
+    /**
+     * Get the executor used by {@link AsyncSentimentAnalyzer#AsyncSentimentAnalyzer()}, which is a shared
+     * executor starting a virtual thread per task on Java 21 and later, and the {@link ForkJoinPool#commonPool()}
+     * before, or if the virtual thread executor could not be created.
+     *
+     * @return the default executor
+     */
+    public static Executor defaultExecutor() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null ? VirtualThreadExecutorHolder.EXECUTOR : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Check if this JVM has virtual threads, i.e. if it runs Java 21 or later.
+     *
+     * @return true if {@link AsyncSentimentAnalyzer#newVirtualThreadPerTaskExecutor()} returns an executor
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task, with
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}, which the caller should shut down when it is done.
+     *
+     * @return the executor, or an empty optional before Java 21
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        return newExecutor(NEW_VIRTUAL_THREAD_EXECUTOR);
+    }
+
+    /**
+     * Create an executor with the given factory.
+     *
+     * @param factory the static factory of the executor, or null
+     * @return the executor, or an empty optional if the factory is null
+     * @throws IllegalStateException if the factory failed
+     */
+    static Optional<ExecutorService> newExecutor(final Method factory) {
+        if (factory == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Virtual thread executor could not be created.", ex);
+        }
+    }
+
+    /**
+     * Create the shared executor with the given factory, falling back to the {@link ForkJoinPool#commonPool()} if
+     * the factory is null or fails.
+     *
+     * @param factory the static factory of the executor, or null
+     * @return the executor
+     */
+    static Executor newDefaultExecutor(final Method factory) {
+        try {
+            return newExecutor(factory).map(Executor.class::cast).orElseGet(ForkJoinPool::commonPool);
+        } catch (IllegalStateException ex) {
+            LoggerFactory.getLogger(AsyncSentimentAnalyzer.class)
+                .warn("Virtual thread executor could not be created, using the common pool", ex);
+            return ForkJoinPool.commonPool();
+        }
+    }
+
+    /**
+     * Look up the factory of the executors starting a virtual thread per task. The factory exists on Java 19 and
+     * 20 as well, but it throws there unless the preview features are enabled, so it is only returned from Java 21.
+     *
+     * @param featureVersion the feature version of the running Java
+     * @return the factory, or null before Java 21
+     */
+    static Method findVirtualThreadExecutorFactory(final int featureVersion) {
+        if (featureVersion < VIRTUAL_THREAD_FEATURE_VERSION) {
+            return null;
+        }
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Holder of the shared virtual thread executor, which is created on first use only.
+     */
+    private static final class VirtualThreadExecutorHolder {
+        /**
+         * Executor starting a virtual thread per task, which is never shut down, since its threads are daemons.
+         */
+        private static final Executor EXECUTOR = newDefaultExecutor(NEW_VIRTUAL_THREAD_EXECUTOR);
+
+        /**
+         * Not to be instantiated.
+         */
+        private VirtualThreadExecutorHolder() {
+        }
+    }
+}
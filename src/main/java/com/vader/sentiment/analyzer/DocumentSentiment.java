@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.SentenceSegmenter;
+
+/**
+ * This class holds the scores of the sentences of a document, which are split by {@link SentenceSegmenter} and
+ * scored one by one, so that the rules of one sentence, like the "but" rule, do not reach into the others. The
+ * sentences are held as their positions in the document and their scores as {@link SentimentColumns}, so a large
+ * document takes a few arrays of primitives rather than an object per sentence.
+ * The scores of the whole document are aggregated from the scores of its sentences: the compound score is the
+ * mean of the compound scores of the sentences, as recommended by VADER for texts of several sentences, and the
+ * positive, negative and neutral proportions are the means of the proportions of the sentences, weighted by the
+ * length of the sentences, so that they stay proportions of the text. Sentences without any token are left out.
+ *
+ * @author Animesh Pandey
+ */
+public final class DocumentSentiment {
+    /**
+     * Number of sentences for which space is allocated at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The document.
+     */
+    private final String document;
+
+    /**
+     * Index of the first character of each sentence.
+     */
+    private int[] starts = new int[INITIAL_CAPACITY];
+
+    /**
+     * Index after the last character of each sentence.
+     */
+    private int[] ends = new int[INITIAL_CAPACITY];
+
+    /**
+     * Index of the paragraph of each sentence.
+     */
+    private int[] paragraphs = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of sentences.
+     */
+    private int size;
+
+    /**
+     * The scores of the sentences.
+     */
+    private final SentimentColumns columns;
+
+    /**
+     * The scores of the whole document, which are set once all the sentences are scored.
+     */
+    private SentimentPolarities documentPolarities;
+
+    /**
+     * Split a document into sentences, whose scores are then set by the caller.
+     *
+     * @param document the document
+     */
+    DocumentSentiment(final String document) {
+        this.document = Preconditions.checkNotNull(document, "Document should not be null.");
+        SentenceSegmenter.segment(document, this::addSentence);
+        this.columns = new SentimentColumns(size);
+        columns.resize(size);
+    }
+
+    /**
+     * Append a sentence.
+     *
+     * @param start     index of the first character of the sentence
+     * @param end       index after the last character of the sentence
+     * @param paragraph index of the paragraph of the sentence
+     */
+    private void addSentence(final int start, final int end, final int paragraph) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            paragraphs = Arrays.copyOf(paragraphs, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        paragraphs[size] = paragraph;
+        size++;
+    }
+
+    /**
+     * Aggregate the scores of the sentences into the scores of the document, once they are all set.
+     */
+    void aggregate() {
+        final float[] positive = columns.getPositivePolarities();
+        final float[] negative = columns.getNegativePolarities();
+        final float[] neutral = columns.getNeutralPolarities();
+        final float[] compound = columns.getCompoundPolarities();
+        double positiveSum = 0.0;
+        double negativeSum = 0.0;
+        double neutralSum = 0.0;
+        double compoundSum = 0.0;
+        long totalLength = 0L;
+        int scoredSentences = 0;
+        for (int index = 0; index < size; index++) {
+            if (positive[index] + negative[index] + neutral[index] > 0.0F) {
+                final int length = ends[index] - starts[index];
+                positiveSum += (double) positive[index] * length;
+                negativeSum += (double) negative[index] * length;
+                neutralSum += (double) neutral[index] * length;
+                compoundSum += compound[index];
+                totalLength += length;
+                scoredSentences++;
+            }
+        }
+        if (scoredSentences == 0) {
+            documentPolarities = SentimentPolarities.emptySentimentState();
+        } else {
+            documentPolarities = new SentimentPolarities(
+                SentimentAnalyzer.roundDecimal((float) (positiveSum / totalLength), 3),
+                SentimentAnalyzer.roundDecimal((float) (negativeSum / totalLength), 3),
+                SentimentAnalyzer.roundDecimal((float) (neutralSum / totalLength), 3),
+                SentimentAnalyzer.roundDecimal((float) (compoundSum / scoredSentences), 4));
+        }
+    }
+
+    /**
+     * Get the number of sentences.
+     *
+     * @return the number of sentences
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the text of a sentence.
+     *
+     * @param index index of the sentence
+     * @return the sentence, without the whitespace around it
+     */
+    public String getSentence(final int index) {
+        Preconditions.checkElementIndex(index, size);
+        return document.substring(starts[index], ends[index]);
+    }
+
+    /**
+     * Get the length of a sentence.
+     *
+     * @param index index of the sentence
+     * @return the number of characters of the sentence
+     */
+    int getLength(final int index) {
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * Get the position of the first character of a sentence in the document.
+     *
+     * @param index index of the sentence
+     * @return the index of the first character
+     */
+    public int getStart(final int index) {
+        Preconditions.checkElementIndex(index, size);
+        return starts[index];
+    }
+
+    /**
+     * Get the position after the last character of a sentence in the document.
+     *
+     * @param index index of the sentence
+     * @return the index after the last character
+     */
+    public int getEnd(final int index) {
+        Preconditions.checkElementIndex(index, size);
+        return ends[index];
+    }
+
+    /**
+     * Get the paragraph of a sentence. Paragraphs are separated by blank lines.
+     *
+     * @param index index of the sentence
+     * @return the index of the paragraph
+     */
+    public int getParagraph(final int index) {
+        Preconditions.checkElementIndex(index, size);
+        return paragraphs[index];
+    }
+
+    /**
+     * Get the scores of a sentence.
+     *
+     * @param index index of the sentence
+     * @return the scores of the sentence
+     */
+    public SentimentPolarities getPolarities(final int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * Get the scores of all the sentences as objects.
+     *
+     * @return the scores, in the order of the sentences
+     */
+    public List<SentimentPolarities> getSentencePolarities() {
+        final List<SentimentPolarities> results = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            results.add(columns.get(index));
+        }
+        return results;
+    }
+
+    /**
+     * Get the scores of all the sentences as columns.
+     *
+     * @return the scores, in the order of the sentences
+     */
+    public SentimentColumns getSentenceColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the scores of the whole document, aggregated from the scores of its sentences.
+     *
+     * @return the scores of the document
+     */
+    public SentimentPolarities getDocumentPolarities() {
+        return documentPolarities;
+    }
+}
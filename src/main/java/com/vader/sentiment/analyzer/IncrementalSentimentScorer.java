@@ -0,0 +1,554 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenSequence;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.Constants;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.SentimentModifyingTokens;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The IncrementalSentimentScorer class scores a text which grows at its end, like the transcript of a conversation,
+ * without scoring it again from the start whenever text is appended. Its scores are always those that
+ * {@link SentimentAnalyzer#getScoresFor(String)} gives for the whole text appended so far.
+ * The text appended is tokenized and scored up to its last white space, except for its last tokens, which are
+ * kept along with the {@link Constants#MAX_GRAM_WINDOW_SIZE} + 1 tokens before them:
+ * - the n-gram, negation and idiom rules look back from a token to the tokens kept before it,
+ * - the last tokens are only scored for good once the tokens after them are known, as the rules look ahead of a
+ * token up to the end of an idiom or of a lexicon entry of several words,
+ * - the rules that depend on the whole text, i.e. the conjunction "but", the yelling words and the punctuations,
+ * are applied to sums of valences, see {@link ValenceTally}.
+ * The scores are computed by scoring the tokens kept as if the text ended there, so appending text and getting
+ * the scores costs as much as the text appended and a few tokens, and the memory used does not grow with the text.
+ * The state of the scorer can be saved with {@link IncrementalSentimentScorer#snapshot()}, e.g. between the
+ * messages of a conversation, and restored with {@link IncrementalSentimentScorer#restore(byte[])}.
+ * An instance is not thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+public final class IncrementalSentimentScorer {
+    /**
+     * Number of characters after which a text without white spaces is scored, even though this splits a token.
+     */
+    static final int MAX_UNBROKEN_LENGTH = 4096;
+
+    /**
+     * The first four bytes of a snapshot, "VSIS".
+     */
+    private static final int MAGIC = 0x56534953;
+
+    /**
+     * Version of the format of a snapshot.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Size of a snapshot without the characters of the {@link IncrementalSentimentScorer#window}, in bytes.
+     */
+    private static final int SNAPSHOT_HEADER_SIZE = 2 * Integer.BYTES + 2 + 6 * Integer.BYTES
+        + 2 * ValenceTally.SERIALIZED_SIZE;
+
+    /**
+     * Number of tokens kept before the tokens left unscored, for the rules that look back from a token.
+     */
+    private static final int LOOK_BEHIND = Constants.MAX_GRAM_WINDOW_SIZE + 1;
+
+    /**
+     * Number of tokens for which space is allocated at first in {@link IncrementalSentimentScorer#valences}.
+     */
+    private static final int INITIAL_VALENCE_CAPACITY = 64;
+
+    /**
+     * Tokenizer used for the text scored by this object.
+     */
+    private final TokenizerMode tokenizerMode;
+
+    /**
+     * Flag that specifies if the lexicon entries of several words are matched, see
+     * {@link SentimentAnalyzer#MULTI_WORD_LEXICON_PROPERTY}.
+     */
+    private final boolean matchMultiWordLexicon;
+
+    /**
+     * Properties of the window being scored, which are reset for every window.
+     */
+    private final TextProperties textProperties = new TextProperties();
+
+    /**
+     * The text which is not scored for good: the tokens kept from the text scored, followed by the text appended
+     * since then.
+     */
+    private final StringBuilder window = new StringBuilder();
+
+    /**
+     * Tokens kept from the window scored, see {@link IncrementalSentimentScorer#keepTokens(String, TokenSequence,
+     * int)}.
+     */
+    private final StringBuilder keptTokens = new StringBuilder();
+
+    /**
+     * Sums of the valences of the tokens scored for good, as if the text had yelling words only if both tokens in
+     * all caps and other tokens have been appended.
+     */
+    private final ValenceTally tally = new ValenceTally();
+
+    /**
+     * Sums of the valences of the tokens scored for good as if the text had yelling words, which are kept as long
+     * as all the tokens appended are in all caps, since a single token which is not would make all of them yelling.
+     */
+    private final ValenceTally yellingTally = new ValenceTally();
+
+    /**
+     * Sums of the valences of all the tokens, including those which are not scored for good yet.
+     */
+    private final ValenceTally scoresTally = new ValenceTally();
+
+    /**
+     * Scores of the text, which are overwritten every time they are computed.
+     */
+    private final float[] polarities = new float[SentimentScorer.POLARITY_COUNT];
+
+    /**
+     * Valence of each token of the window being scored, which is grown when a window has more tokens.
+     */
+    private float[] valences = new float[INITIAL_VALENCE_CAPACITY];
+
+    /**
+     * Snapshot of the lexicon used for the text.
+     */
+    private Vocabulary vocabulary;
+
+    /**
+     * Number of tokens left unscored at the end of a window, which is enough for the rules that look ahead of a
+     * token and for the longest phrase of the {@link IncrementalSentimentScorer#vocabulary}.
+     */
+    private int lookAhead;
+
+    /**
+     * Number of characters at the start of the {@link IncrementalSentimentScorer#window} taken by tokens which are
+     * scored for good.
+     */
+    private int scoredLength;
+
+    /**
+     * Number of characters at the start of the {@link IncrementalSentimentScorer#window} taken by the tokens kept
+     * from the window scored.
+     */
+    private int keptLength;
+
+    /**
+     * Number of tokens at the start of the tokens left unscored which are part of a lexicon entry of several
+     * words that starts before them, and are therefore neutral.
+     */
+    private int phraseTokensLeft;
+
+    /**
+     * Flag that specifies if a token in all caps has been appended.
+     */
+    private boolean hasAllCapsToken;
+
+    /**
+     * Flag that specifies if a token which is not in all caps has been appended.
+     */
+    private boolean hasOtherToken;
+
+    /**
+     * Number of '!'s appended, which stops being counted past {@link Constants#MAX_EXCLAMATION_MARKS}.
+     */
+    private int exclamationCount;
+
+    /**
+     * Number of '?'s appended, which stops being counted past {@link Constants#MAX_QUESTION_MARKS}.
+     */
+    private int questionMarkCount;
+
+    /**
+     * Creates a scorer of an empty text that uses the default tokenizer, see {@link TokenizerMode#getDefault()}.
+     */
+    public IncrementalSentimentScorer() {
+        this(TokenizerMode.getDefault());
+    }
+
+    /**
+     * Creates a scorer of an empty text that uses the given tokenizer.
+     *
+     * @param tokenizerMode the tokenizer used to split up the text.
+     */
+    public IncrementalSentimentScorer(final TokenizerMode tokenizerMode) {
+        this.tokenizerMode = Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.matchMultiWordLexicon = SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON;
+        clear();
+    }
+
+    /**
+     * Append text at the end of the text scored, as is: separate texts, like the messages of a conversation,
+     * should be appended with a white space or a line break between them.
+     *
+     * @param text the text to be appended.
+     * @throws UncheckedIOException if there is an issue with the lucene analyzers
+     */
+    public void append(final CharSequence text) {
+        for (int index = 0; index < text.length(); index++) {
+            countPunctuation(text.charAt(index));
+        }
+        window.append(text);
+        try {
+            scoreWindow();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Append tokens at the end of the text scored, each of them after a space.
+     *
+     * @param tokens the tokens to be appended.
+     * @throws UncheckedIOException if there is an issue with the lucene analyzers
+     */
+    public void appendTokens(final Iterable<? extends CharSequence> tokens) {
+        for (final CharSequence token : tokens) {
+            window.append(' ');
+            for (int index = 0; index < token.length(); index++) {
+                countPunctuation(token.charAt(index));
+            }
+            window.append(token);
+        }
+        try {
+            scoreWindow();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Get the scores of the whole text appended so far.
+     *
+     * @return the scores of the text
+     * @throws UncheckedIOException if there is an issue with the lucene analyzers
+     */
+    public SentimentPolarities getPolarities() {
+        try {
+            return computePolarities();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Remove all the text, so that this object scores a new text, with the lexicon that is current when this is
+     * called.
+     */
+    public void clear() {
+        vocabulary = LexiconRegistry.current();
+        lookAhead = Math.max(Constants.MAX_GRAM_WINDOW_SIZE, vocabulary.getPhrases().getMaxLength()) - 1;
+        window.setLength(0);
+        tally.clear();
+        yellingTally.clear();
+        scoredLength = 0;
+        keptLength = 0;
+        phraseTokensLeft = 0;
+        hasAllCapsToken = false;
+        hasOtherToken = false;
+        exclamationCount = 0;
+        questionMarkCount = 0;
+    }
+
+    /**
+     * Save the state of this object, which holds the sums of the valences and the few tokens which are not scored
+     * for good, so that the text can be scored further by another object, possibly in another JVM.
+     *
+     * @return the state of this object, as bytes
+     */
+    public byte[] snapshot() {
+        final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE + window.length() * Character.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(FORMAT_VERSION);
+        buffer.put((byte) tokenizerMode.ordinal());
+        buffer.put((byte) ((hasAllCapsToken ? 1 : 0) | (hasOtherToken ? 2 : 0)));
+        buffer.putInt(exclamationCount);
+        buffer.putInt(questionMarkCount);
+        buffer.putInt(scoredLength);
+        buffer.putInt(keptLength);
+        buffer.putInt(phraseTokensLeft);
+        tally.writeTo(buffer);
+        yellingTally.writeTo(buffer);
+        buffer.putInt(window.length());
+        for (int index = 0; index < window.length(); index++) {
+            buffer.putChar(window.charAt(index));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Replace the state of this object with one saved by {@link IncrementalSentimentScorer#snapshot()}, from an
+     * object that uses the same tokenizer. The text appended from then on is scored with the lexicon that is
+     * current when this is called.
+     *
+     * @param snapshot the state saved
+     * @throws IllegalArgumentException if the snapshot is not one of this class or was saved with another tokenizer
+     */
+    public void restore(final byte[] snapshot) {
+        final ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        Preconditions.checkArgument(snapshot.length >= SNAPSHOT_HEADER_SIZE && buffer.getInt() == MAGIC,
+            "Not a snapshot of an incremental scorer.");
+        final int version = buffer.getInt();
+        Preconditions.checkArgument(version == FORMAT_VERSION, "Unsupported version of the snapshot: %s", version);
+        Preconditions.checkArgument(buffer.get() == tokenizerMode.ordinal(),
+            "Snapshot was saved with another tokenizer than %s.", tokenizerMode);
+        clear();
+        final byte flags = buffer.get();
+        hasAllCapsToken = (flags & 1) != 0;
+        hasOtherToken = (flags & 2) != 0;
+        exclamationCount = buffer.getInt();
+        questionMarkCount = buffer.getInt();
+        scoredLength = buffer.getInt();
+        keptLength = buffer.getInt();
+        phraseTokensLeft = buffer.getInt();
+        tally.readFrom(buffer);
+        yellingTally.readFrom(buffer);
+        final int length = buffer.getInt();
+        Preconditions.checkArgument(length == buffer.remaining() / Character.BYTES,
+            "Snapshot of an incremental scorer is truncated.");
+        for (int index = 0; index < length; index++) {
+            window.append(buffer.getChar());
+        }
+    }
+
+    /**
+     * Append characters at the end of the text scored, without scoring them.
+     *
+     * @param chars  the characters to be appended
+     * @param offset index of the first character
+     * @param count  number of characters
+     */
+    void add(final char[] chars, final int offset, final int count) {
+        for (int index = offset; index < offset + count; index++) {
+            countPunctuation(chars[index]);
+        }
+        window.append(chars, offset, count);
+    }
+
+    /**
+     * Get the number of characters appended since the last window was scored.
+     *
+     * @return number of characters
+     */
+    int getAppendedLength() {
+        return window.length() - keptLength;
+    }
+
+    /**
+     * Count a '!' or a '?' that is appended.
+     *
+     * @param character the character appended
+     */
+    private void countPunctuation(final char character) {
+        if (character == SentimentModifyingTokens.EXCLAMATION_MARK.getValue().charAt(0)) {
+            exclamationCount = Math.min(exclamationCount + 1, Constants.MAX_EXCLAMATION_MARKS + 1);
+        } else if (character == SentimentModifyingTokens.QUESTION_MARK.getValue().charAt(0)) {
+            questionMarkCount = Math.min(questionMarkCount + 1, Constants.MAX_QUESTION_MARKS + 1);
+        }
+    }
+
+    /**
+     * Tokenize the {@link IncrementalSentimentScorer#window} up to its last white space, score its tokens for good
+     * but the last ones, and keep these along with the tokens before them.
+     *
+     * @return true if the window was scored, false if it has to wait for a white space
+     * @throws IOException if there was an issue while Lucene was processing the window
+     */
+    boolean scoreWindow() throws IOException {
+        final int end = findWindowEnd();
+        if (end < 0) {
+            return false;
+        }
+        final String text = window.substring(0, end);
+        final TokenSequence tokens = tokenize(text);
+        final int from = findFirstUnscored(tokens);
+        final int to = Math.max(from, tokens.size() - lookAhead);
+        final boolean hadAllCapsToken = hasAllCapsToken;
+        final boolean hadOtherToken = hasOtherToken;
+        for (int index = from; index < tokens.size(); index++) {
+            if (tokens.hasFlag(index, TokenSequence.ALL_CAPS)) {
+                hasAllCapsToken = true;
+            } else {
+                hasOtherToken = true;
+            }
+        }
+        if (hadAllCapsToken && !hadOtherToken && hasOtherToken) {
+            tally.set(yellingTally);
+        }
+        final int phraseEnd = from + phraseTokensLeft - 1;
+        final int lastPhraseEnd = addValences(tally, tokens, hasAllCapsToken && hasOtherToken, from, to, phraseEnd);
+        if (hasAllCapsToken && !hasOtherToken) {
+            addValences(yellingTally, tokens, true, from, to, phraseEnd);
+        }
+        phraseTokensLeft = Math.max(0, lastPhraseEnd - to + 1);
+        window.delete(0, end);
+        keepTokens(text, tokens, to);
+        return true;
+    }
+
+    /**
+     * Compute the scores of the whole text appended so far, by scoring the tokens which are not scored for good
+     * as if the text ended with them.
+     *
+     * @return the scores of the text
+     * @throws IOException if there was an issue while Lucene was processing the window
+     */
+    SentimentPolarities computePolarities() throws IOException {
+        final TokenSequence tokens = tokenize(window.toString());
+        final int from = findFirstUnscored(tokens);
+        boolean hasAllCaps = hasAllCapsToken;
+        boolean hasOther = hasOtherToken;
+        for (int index = from; index < tokens.size(); index++) {
+            if (tokens.hasFlag(index, TokenSequence.ALL_CAPS)) {
+                hasAllCaps = true;
+            } else {
+                hasOther = true;
+            }
+        }
+        scoresTally.set(hasAllCapsToken && !hasOtherToken && hasOther ? yellingTally : tally);
+        addValences(scoresTally, tokens, hasAllCaps && hasOther, from, tokens.size(), from + phraseTokensLeft - 1);
+        scoresTally.getPolarityScores(SentimentAnalyzer.boostByPunctuation(exclamationCount, questionMarkCount),
+            polarities);
+        return new SentimentPolarities(polarities[SentimentScorer.POSITIVE], polarities[SentimentScorer.NEGATIVE],
+            polarities[SentimentScorer.NEUTRAL], polarities[SentimentScorer.COMPOUND]);
+    }
+
+    /**
+     * Find the end of the {@link IncrementalSentimentScorer#window}, which is its last white space after the
+     * tokens kept, or its end if there is no such white space in the last
+     * {@link IncrementalSentimentScorer#MAX_UNBROKEN_LENGTH} characters.
+     *
+     * @return the end of the window, or -1 if it has to wait for more characters
+     */
+    private int findWindowEnd() {
+        for (int index = window.length() - 1; index >= keptLength; index--) {
+            if (Character.isWhitespace(window.charAt(index))) {
+                return index;
+            }
+        }
+        if (window.length() - keptLength < MAX_UNBROKEN_LENGTH) {
+            return -1;
+        }
+        return Character.isHighSurrogate(window.charAt(window.length() - 1)) ? window.length() - 1 : window.length();
+    }
+
+    /**
+     * Tokenize the text of a window and make room for the valences of its tokens.
+     *
+     * @param text the text of the window
+     * @return the tokens of the window
+     * @throws IOException if there was an issue while Lucene was processing the window
+     */
+    private TokenSequence tokenize(final String text) throws IOException {
+        textProperties.reset(text, tokenizerMode, vocabulary);
+        final TokenSequence tokens = textProperties.getTokens();
+        if (valences.length < tokens.size()) {
+            valences = new float[Math.max(tokens.size(), valences.length * 2)];
+        }
+        return tokens;
+    }
+
+    /**
+     * Find the first token of a window which is not scored for good.
+     *
+     * @param tokens the tokens of the window
+     * @return position of the token, or the number of tokens if they are all scored
+     */
+    private int findFirstUnscored(final TokenSequence tokens) {
+        int from = 0;
+        while (from < tokens.size() && tokens.getStart(from) < scoredLength) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Compute the valences of the tokens in a range and add them to a tally.
+     *
+     * @param valenceTally    the tally to which the valences are added
+     * @param tokens          the tokens of the window
+     * @param inputHasYelling true if the text has yelling words
+     * @param from            position of the first token of the range
+     * @param to              position after the last token of the range
+     * @param phraseEnd       position of the last token of a lexicon entry of several words which starts before
+     *                        the range, or less than from if there is none
+     * @return position of the last token of the last lexicon entry of several words
+     */
+    private int addValences(final ValenceTally valenceTally, final TokenSequence tokens,
+                            final boolean inputHasYelling, final int from, final int to, final int phraseEnd) {
+        final int lastPhraseEnd = SentimentAnalyzer.getTokenWiseSentiment(tokens, inputHasYelling,
+            matchMultiWordLexicon, from, to, phraseEnd, valences);
+        for (int index = from; index < to; index++) {
+            valenceTally.add(tokens, index, valences[index]);
+        }
+        return lastPhraseEnd;
+    }
+
+    /**
+     * Insert at the start of the {@link IncrementalSentimentScorer#window} the last tokens scored for good, which
+     * the rules look back to, and the tokens left unscored. Each token is kept with the punctuations that were
+     * stripped from it, and the characters between tokens are replaced by a single space, so that the tokens kept
+     * take a bounded number of characters.
+     *
+     * @param text   the text of the window that was scored
+     * @param tokens the tokens of the text
+     * @param to     position after the last token scored for good
+     */
+    private void keepTokens(final String text, final TokenSequence tokens, final int to) {
+        keptTokens.setLength(0);
+        int newScoredLength = 0;
+        int bound = 0;
+        for (int index = Math.max(0, to - LOOK_BEHIND); index < tokens.size(); index++) {
+            int start = tokens.getStart(index);
+            while (start > bound && !Character.isWhitespace(text.charAt(start - 1))) {
+                start--;
+            }
+            final int nextStart = index + 1 < tokens.size() ? tokens.getStart(index + 1) : text.length();
+            int end = tokens.getEnd(index);
+            while (end < nextStart && !Character.isWhitespace(text.charAt(end))) {
+                end++;
+            }
+            keptTokens.append(text, start, end).append(' ');
+            if (index < to) {
+                newScoredLength = keptTokens.length();
+            }
+            bound = end;
+        }
+        window.insert(0, keptTokens);
+        scoredLength = newScoredLength;
+        keptLength = keptTokens.length();
+    }
+}
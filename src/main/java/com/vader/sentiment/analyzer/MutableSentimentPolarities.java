@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+/**
+ * This class holds the same scores as {@link SentimentPolarities}, but can be overwritten with the scores of
+ * another string. A caller that scores many strings with a {@link SentimentScorer} can pass the same object for
+ * every string, so that no object is allocated for the scores of each string.
+ *
+ * @author Animesh Pandey
+ * @see SentimentPolarities
+ */
+public final class MutableSentimentPolarities {
+    /**
+     * This represents proportion of text that is positive.
+     */
+    private float positivePolarity;
+
+    /**
+     * This represents proportion of text that is negative.
+     */
+    private float negativePolarity;
+
+    /**
+     * This represents proportion of text that is neutral.
+     */
+    private float neutralPolarity;
+
+    /**
+     * This represents compound score.
+     */
+    private float compoundPolarity;
+
+    /**
+     * Set all the scores.
+     *
+     * @param positive proportion of text that is positive.
+     * @param negative proportion of text that is negative.
+     * @param neutral  proportion of text that is neutral.
+     * @param compound compound score.
+     */
+    void set(final float positive, final float negative, final float neutral, final float compound) {
+        this.positivePolarity = positive;
+        this.negativePolarity = negative;
+        this.neutralPolarity = neutral;
+        this.compoundPolarity = compound;
+    }
+
+    /**
+     * Copy the current scores to an immutable object.
+     *
+     * @return an object of {@link SentimentPolarities} holding the current scores.
+     */
+    public SentimentPolarities toSentimentPolarities() {
+        return new SentimentPolarities(positivePolarity, negativePolarity, neutralPolarity, compoundPolarity);
+    }
+
+    public float getPositivePolarity() {
+        return positivePolarity;
+    }
+
+    public float getNegativePolarity() {
+        return negativePolarity;
+    }
+
+    public float getNeutralPolarity() {
+        return neutralPolarity;
+    }
+
+    public float getCompoundPolarity() {
+        return compoundPolarity;
+    }
+
+    @Override
+    public String toString() {
+        return "MutableSentimentPolarities{"
+            + "positivePolarity=" + positivePolarity
+            + ", negativePolarity=" + negativePolarity
+            + ", neutralPolarity=" + neutralPolarity
+            + ", compoundPolarity=" + compoundPolarity
+            + '}';
+    }
+}
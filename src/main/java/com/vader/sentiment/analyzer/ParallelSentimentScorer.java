@@ -0,0 +1,437 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The ParallelSentimentScorer class scores a batch of strings on several threads, and returns the scores in the
+ * same order as the strings. The batch is split by the estimated cost of scoring its strings, which is their
+ * length plus a fixed cost per string, instead of by the number of strings, so that a batch that mixes short
+ * tweets and long editorials is spread evenly over the threads.
+ * On a {@link ForkJoinPool}, the batch is split recursively into two halves of equal cost, which are scored as
+ * fork/join tasks until a range costs less than the threshold. On any other {@link Executor}, the batch is split
+ * up front into consecutive chunks of about the same cost, which are submitted to the executor.
+ * Every range of strings is scored with a {@link SentimentScorer} borrowed from a pool, so that the scorers are
+ * set up once even on an executor that starts a new thread per task, like the virtual threads of Java 21. All the
+ * strings of a batch are scored with the lexicon that is current when the batch is started. The batch can be
+ * scored synchronously or asynchronously. An instance is thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+public final class ParallelSentimentScorer {
+    /**
+     * Cost of scoring a string in addition to the cost of its characters, i.e. the cost of scoring an empty
+     * string in number of characters.
+     */
+    static final int COST_PER_STRING = 64;
+
+    /**
+     * Default smallest cost of a range of strings that is split further, in number of characters.
+     */
+    static final int DEFAULT_MIN_SPLIT_COST = 16 * 1024;
+
+    /**
+     * Number of ranges per thread the batch is split into, at least, so that threads which finish early can take
+     * over the work of the others.
+     */
+    private static final int RANGES_PER_THREAD = 4;
+
+    /**
+     * Executor on which the strings are scored.
+     */
+    private final Executor executor;
+
+    /**
+     * Number of threads of {@link ParallelSentimentScorer#executor}.
+     */
+    private final int parallelism;
+
+    /**
+     * Smallest cost of a range of strings that is split further.
+     */
+    private final int minSplitCost;
+
+    /**
+     * Scorers lent to the tasks scoring the strings.
+     */
+    private final ScorerPool scorers;
+
+    /**
+     * Creates a scorer that runs on the {@link ForkJoinPool#commonPool()} with the default tokenizer.
+     */
+    public ParallelSentimentScorer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a scorer that runs on the given pool with the default tokenizer.
+     *
+     * @param pool the pool on which the strings are scored.
+     */
+    public ParallelSentimentScorer(final ForkJoinPool pool) {
+        this(pool, pool.getParallelism(), TokenizerMode.getDefault(), DEFAULT_MIN_SPLIT_COST);
+    }
+
+    /**
+     * Creates a scorer that runs on the given executor.
+     *
+     * @param executor      the executor on which the strings are scored. If it is a {@link ForkJoinPool}, the
+     *                      strings are scored as fork/join tasks.
+     * @param parallelism   the number of threads of the executor, used to decide how finely the batch is split.
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     * @param minSplitCost  the smallest cost of a range of strings that is split further, which is the length of
+     *                      the strings plus {@link ParallelSentimentScorer#COST_PER_STRING} per string.
+     */
+    public ParallelSentimentScorer(final Executor executor, final int parallelism,
+                                   final TokenizerMode tokenizerMode, final int minSplitCost) {
+        this(executor, parallelism, new ScorerPool(
+            Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null."),
+            SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON), minSplitCost);
+    }
+
+    /**
+     * Creates a scorer that runs on the given executor with the scorers of the given pool.
+     *
+     * @param executor     the executor on which the strings are scored.
+     * @param parallelism  the number of threads of the executor.
+     * @param scorers      the pool of scorers lent to the tasks.
+     * @param minSplitCost the smallest cost of a range of strings that is split further.
+     */
+    ParallelSentimentScorer(final Executor executor, final int parallelism, final ScorerPool scorers,
+                            final int minSplitCost) {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism should be positive: %s", parallelism);
+        Preconditions.checkArgument(minSplitCost > 0, "Split cost should be positive: %s", minSplitCost);
+        this.executor = Preconditions.checkNotNull(executor, "Executor should not be null.");
+        this.parallelism = parallelism;
+        this.minSplitCost = minSplitCost;
+        this.scorers = scorers;
+    }
+
+    /**
+     * Score a batch of strings in parallel.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return the scores of the strings, in the same order as the strings.
+     */
+    public List<SentimentPolarities> scoreAll(final List<String> inputStrings) {
+        final SentimentColumns columns = new SentimentColumns(inputStrings.size());
+        scoreAll(inputStrings, columns);
+        return toList(columns);
+    }
+
+    /**
+     * Score a batch of strings in parallel into columns, which are cleared first.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @param columns      the columns that are filled with the scores of the strings, in the same order as the
+     *                     strings.
+     */
+    public void scoreAll(final List<String> inputStrings, final SentimentColumns columns) {
+        run(newBatch(inputStrings, columns));
+    }
+
+    /**
+     * Split a document into sentences and score them in parallel, each on its own, see {@link DocumentSentiment}.
+     * The document is split on the calling thread.
+     *
+     * @param document the document to be analyzed.
+     * @return the scores of the sentences and of the whole document.
+     */
+    public DocumentSentiment scoreDocument(final String document) {
+        final DocumentSentiment result = new DocumentSentiment(document);
+        run(new Batch(result.size(), result::getSentence, result::getLength, result.getSentenceColumns()));
+        result.aggregate();
+        return result;
+    }
+
+    /**
+     * Score a batch of strings in parallel, without waiting for the scores.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return a future that completes with the scores of the strings, in the same order as the strings.
+     */
+    public CompletableFuture<List<SentimentPolarities>> scoreAllAsync(final List<String> inputStrings) {
+        final SentimentColumns columns = new SentimentColumns(inputStrings.size());
+        return newBatch(inputStrings, columns).submit().thenApply(ignored -> toList(columns));
+    }
+
+    /**
+     * Create a batch of a list of strings.
+     *
+     * @param inputStrings the strings to be analyzed
+     * @param columns      the columns into which the scores are written
+     * @return the batch
+     */
+    private Batch newBatch(final List<String> inputStrings, final SentimentColumns columns) {
+        final String[] strings = inputStrings.toArray(new String[0]);
+        return new Batch(strings.length, index -> strings[index], index -> strings[index].length(), columns);
+    }
+
+    /**
+     * Score a batch and wait until all its strings are scored.
+     *
+     * @param batch the batch
+     */
+    private void run(final Batch batch) {
+        if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(batch.newTask());
+        } else {
+            try {
+                batch.submit().join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Convert columns of scores to objects.
+     *
+     * @param columns the scores
+     * @return the scores as a list of objects
+     */
+    private static List<SentimentPolarities> toList(final SentimentColumns columns) {
+        final List<SentimentPolarities> results = new ArrayList<>(columns.size());
+        for (int index = 0; index < columns.size(); index++) {
+            results.add(columns.get(index));
+        }
+        return results;
+    }
+
+    /**
+     * A batch of strings being scored, along with the cumulative cost of its strings.
+     */
+    private final class Batch {
+        /**
+         * Number of strings.
+         */
+        private final int size;
+
+        /**
+         * The strings to be analyzed, by index.
+         */
+        private final IntFunction<String> strings;
+
+        /**
+         * The vocabulary with which all the strings are scored.
+         */
+        private final Vocabulary vocabulary;
+
+        /**
+         * The columns into which the scores are written.
+         */
+        private final SentimentColumns columns;
+
+        /**
+         * The cost of the strings before each index, i.e. the cost of the strings from index i to index j is
+         * costs[j] - costs[i].
+         */
+        private final long[] costs;
+
+        /**
+         * Smallest cost of a range of strings that is split further.
+         */
+        private final long splitCost;
+
+        /**
+         * Creates a batch with the current lexicon, computes the cost of its strings and clears the columns.
+         *
+         * @param size    the number of strings
+         * @param strings the strings to be analyzed, by index, which are only requested when they are scored
+         * @param lengths the lengths of the strings, by index
+         * @param columns the columns into which the scores are written
+         */
+        private Batch(final int size, final IntFunction<String> strings, final IntUnaryOperator lengths,
+                      final SentimentColumns columns) {
+            this.size = size;
+            this.strings = strings;
+            this.vocabulary = LexiconRegistry.current();
+            this.columns = columns;
+            this.costs = new long[size + 1];
+            for (int index = 0; index < size; index++) {
+                costs[index + 1] = costs[index] + lengths.applyAsInt(index) + COST_PER_STRING;
+            }
+            this.splitCost = Math.max(minSplitCost, cost(0, size) / ((long) parallelism * RANGES_PER_THREAD));
+            columns.resize(size);
+        }
+
+        /**
+         * Create the fork/join task that scores all the strings.
+         *
+         * @return the task
+         */
+        private ScoringTask newTask() {
+            return new ScoringTask(this, 0, size);
+        }
+
+        /**
+         * Submit the strings to the executor, as a single fork/join task on a {@link ForkJoinPool}, or else as
+         * consecutive ranges of about {@link Batch#splitCost}.
+         *
+         * @return a future that completes when all the strings are scored
+         */
+        private CompletableFuture<Void> submit() {
+            if (size == 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (executor instanceof ForkJoinPool) {
+                return CompletableFuture.runAsync(() -> newTask().invoke(), executor);
+            }
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            int start = 0;
+            while (start < size) {
+                final int rangeStart = start;
+                final int rangeEnd = findEnd(rangeStart, splitCost);
+                futures.add(CompletableFuture.runAsync(() -> score(rangeStart, rangeEnd), executor));
+                start = rangeEnd;
+            }
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        }
+
+        /**
+         * Get the cost of a range of strings.
+         *
+         * @param start index of the first string
+         * @param end   index after the last string
+         * @return the estimated cost of scoring the strings
+         */
+        private long cost(final int start, final int end) {
+            return costs[end] - costs[start];
+        }
+
+        /**
+         * Find the index which splits a range of at least two strings into two ranges of about the same cost.
+         *
+         * @param start index of the first string
+         * @param end   index after the last string
+         * @return index of the first string of the second range, which is after start and before end
+         */
+        private int findMiddle(final int start, final int end) {
+            final long middleCost = costs[start] + cost(start, end) / 2;
+            int middle = Arrays.binarySearch(costs, start + 1, end, middleCost);
+            if (middle < 0) {
+                middle = -middle - 1;
+            }
+            return Math.min(Math.max(middle, start + 1), end - 1);
+        }
+
+        /**
+         * Find the end of a range which starts at the given index and costs about the given cost.
+         *
+         * @param start index of the first string
+         * @param cost  the cost of the range
+         * @return index after the last string of the range, which is after start
+         */
+        private int findEnd(final int start, final long cost) {
+            int end = Arrays.binarySearch(costs, start + 1, costs.length, costs[start] + cost);
+            if (end < 0) {
+                end = -end - 1;
+            }
+            return Math.min(Math.max(end, start + 1), size);
+        }
+
+        /**
+         * Score a range of strings on the current thread.
+         *
+         * @param start index of the first string
+         * @param end   index after the last string
+         */
+        private void score(final int start, final int end) {
+            final SentimentScorer scorer = scorers.acquire();
+            try {
+                for (int index = start; index < end; index++) {
+                    columns.set(index, scorer.score(strings.apply(index), vocabulary));
+                }
+            } finally {
+                scorers.release(scorer);
+            }
+        }
+    }
+
+    /**
+     * Fork/join task that scores a range of strings of a batch, splitting it in two if it costs too much.
+     */
+    private static final class ScoringTask extends RecursiveAction {
+        /**
+         * Serial version of this class.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The batch whose strings are scored.
+         */
+        private final transient Batch batch;
+
+        /**
+         * Index of the first string.
+         */
+        private final int start;
+
+        /**
+         * Index after the last string.
+         */
+        private final int end;
+
+        /**
+         * Creates a task for a range of strings.
+         *
+         * @param batch the batch whose strings are scored
+         * @param start index of the first string
+         * @param end   index after the last string
+         */
+        private ScoringTask(final Batch batch, final int start, final int end) {
+            this.batch = batch;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > 1 && batch.cost(start, end) > batch.splitCost) {
+                final int middle = batch.findMiddle(start, end);
+                invokeAll(new ScoringTask(batch, start, middle), new ScoringTask(batch, middle, end));
+            } else {
+                batch.score(start, end);
+            }
+        }
+    }
+}
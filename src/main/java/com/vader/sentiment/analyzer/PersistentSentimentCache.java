@@ -0,0 +1,864 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.vader.sentiment.metrics.SentimentMetrics;
+import com.vader.sentiment.metrics.SentimentMetricsRegistry;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The PersistentSentimentCache class keeps the scores of the strings in a memory-mapped file, so that they are
+ * not computed again after the JVM restarts. The file is a hash table with open addressing and linear probing,
+ * whose slots hold the 128-bit murmur3 hash of a string, the version of the lexicon and of the tokenizer it was
+ * scored with, its four scores and a checksum of all of these. The version is computed from
+ * {@link Vocabulary#getFingerprint()}, so it is the same in every JVM for the same lexicon.
+ * Any number of threads can look up scores without locking, while the strings which are not found are added by
+ * one thread at a time. The checksum is written last, so a slot that is read while it is written, or that was
+ * half written when the process crashed, does not match its checksum and is ignored.
+ * The table is kept in a file next to the cache file, named after it with a generation number, e.g.
+ * {@code scores.bin.3}, and the cache file only points at the current generation. When the table gets too full,
+ * it is copied into the table file of the next generation, of twice the size, and the pointer is then updated in
+ * place, so that a crash leaves either the old or the new table and a mapped file is never replaced, which would
+ * fail on Windows. The old table file is deleted, or, if it cannot be while it is mapped, when the cache is opened
+ * again. {@link PersistentSentimentCache#compact()} copies the table in the same way, keeping only the scores of
+ * the current lexicon.
+ * The cache file and the table files start with a header of {@value PersistentSentimentCache#HEADER_SIZE} bytes,
+ * which holds the magic number and the format version as big-endian ints, followed by the generation as a
+ * big-endian long in the cache file or by the number of slots as a big-endian int in a table file, padded with
+ * zeros. The header of a table file is followed by the slots of {@value PersistentSentimentCache#SLOT_SIZE}
+ * bytes. A single process should write to a cache at a time.
+ *
+ * @author Animesh Pandey
+ */
+public final class PersistentSentimentCache implements Closeable {
+    /**
+     * Name of this kind of cache in the {@link SentimentMetrics}.
+     */
+    static final String CACHE_NAME = "PersistentSentimentCache";
+
+    /**
+     * Default number of slots of a new file.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Largest number of slots, so that the file can be mapped into a single buffer.
+     */
+    static final int MAX_CAPACITY = 1 << 25;
+
+    /**
+     * Smallest number of slots of a compacted file.
+     */
+    private static final int MIN_COMPACT_CAPACITY = 1 << 10;
+
+    /**
+     * The first four bytes of the file, "VSSC".
+     */
+    private static final int MAGIC = 0x56535343;
+
+    /**
+     * Version of the format of the file, which is changed whenever the scores of a string change.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Size of the header, in bytes.
+     */
+    private static final int HEADER_SIZE = 16;
+
+    /**
+     * Size of a slot, in bytes.
+     */
+    private static final int SLOT_SIZE = 48;
+
+    /**
+     * Offset of the high half of the hash of the string, in a slot.
+     */
+    private static final int HASH_HIGH = 0;
+
+    /**
+     * Offset of the low half of the hash of the string, in a slot.
+     */
+    private static final int HASH_LOW = 8;
+
+    /**
+     * Offset of the version of the lexicon and the tokenizer, in a slot.
+     */
+    private static final int VERSION = 16;
+
+    /**
+     * Offset of the four scores, in a slot, in the order of {@link SentimentScorer#POSITIVE},
+     * {@link SentimentScorer#NEGATIVE}, {@link SentimentScorer#NEUTRAL} and {@link SentimentScorer#COMPOUND}.
+     */
+    private static final int POLARITIES = 24;
+
+    /**
+     * Offset of the checksum, in a slot. A slot whose checksum is 0 is empty.
+     */
+    private static final int CHECKSUM = 40;
+
+    /**
+     * Largest percentage of the slots which are used before the table is grown.
+     */
+    private static final int MAX_LOAD_PERCENT = 70;
+
+    /**
+     * First multiplier of the keys of murmur3.
+     */
+    private static final long MURMUR_C1 = 0x87c37b91114253d5L;
+
+    /**
+     * Second multiplier of the keys of murmur3.
+     */
+    private static final long MURMUR_C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * Multiplier mixing the fields of a slot into its checksum.
+     */
+    private static final long CHECKSUM_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Path of the cache file, which points at the current table file.
+     */
+    private final Path path;
+
+    /**
+     * Tokenizer used by the scorers.
+     */
+    private final TokenizerMode tokenizerMode;
+
+    /**
+     * Scorers of the strings which are not found.
+     */
+    private final ScorerPool scorers;
+
+    /**
+     * Number of strings found in the file.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * Number of strings which were scored.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * The table currently mapped, which is replaced when it grows or is compacted.
+     */
+    private volatile Table table;
+
+    /**
+     * The last vocabulary used, with its version.
+     */
+    private volatile VersionedVocabulary versionedVocabulary;
+
+    /**
+     * Number of slots used, which is only used by the writer.
+     */
+    private int size;
+
+    /**
+     * Creates a cache and maps its file.
+     *
+     * @param path            the path of the file
+     * @param tokenizerMode   the tokenizer used to split up the strings
+     * @param initialCapacity the number of slots of the file, if it is created
+     * @throws IOException if the file could not be created or is not a valid cache
+     */
+    PersistentSentimentCache(final Path path, final TokenizerMode tokenizerMode, final int initialCapacity)
+            throws IOException {
+        Preconditions.checkArgument(Integer.bitCount(initialCapacity) == 1 && initialCapacity <= MAX_CAPACITY,
+            "Initial capacity should be a power of two up to %s: %s", MAX_CAPACITY, initialCapacity);
+        this.path = Preconditions.checkNotNull(path, "Path should not be null.");
+        this.tokenizerMode = Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.scorers = new ScorerPool(tokenizerMode, SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON);
+        synchronized (this) {
+            if (Files.exists(path)) {
+                final long generation = readGeneration(path);
+                table = Table.map(tablePath(generation), generation);
+                size = table.countUsedSlots(version -> true);
+            } else {
+                table = rewrite(null, initialCapacity, version -> false);
+            }
+            deleteStaleTables(table.generation);
+        }
+    }
+
+    /**
+     * Open a cache file with the default tokenizer, or create it if it does not exist.
+     *
+     * @param path the path of the file.
+     * @return the cache.
+     * @throws IOException if the file could not be created or is not a valid cache.
+     */
+    public static PersistentSentimentCache open(final Path path) throws IOException {
+        return open(path, TokenizerMode.getDefault());
+    }
+
+    /**
+     * Open a cache file, or create it if it does not exist.
+     *
+     * @param path          the path of the file.
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     * @return the cache.
+     * @throws IOException if the file could not be created or is not a valid cache.
+     */
+    public static PersistentSentimentCache open(final Path path, final TokenizerMode tokenizerMode)
+            throws IOException {
+        return new PersistentSentimentCache(path, tokenizerMode, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Get the scores of a string from the file, or score it and add its scores if they are not there. If the
+     * scores cannot be added because the file could not be grown, they are returned anyway.
+     *
+     * @param inputString the string to be analyzed.
+     * @return an object of {@link SentimentPolarities} which will hold all the sentiment scores.
+     */
+    public SentimentPolarities getScoresFor(final String inputString) {
+        Preconditions.checkNotNull(inputString, "Input string should not be null.");
+        final VersionedVocabulary vocabulary = currentVocabulary();
+        final long[] hash = new long[2];
+        hash128(inputString, hash);
+        final long hashHigh = hash[0];
+        final long hashLow = hash[1];
+        final SentimentPolarities cached = table.find(hashHigh, hashLow, vocabulary.version);
+        final SentimentMetrics metrics = SentimentMetricsRegistry.current();
+        if (cached != null) {
+            hitCount.increment();
+            if (metrics.isEnabled()) {
+                metrics.recordCacheLookup(CACHE_NAME, true);
+            }
+            return cached;
+        }
+        missCount.increment();
+        if (metrics.isEnabled()) {
+            metrics.recordCacheLookup(CACHE_NAME, false);
+        }
+        final SentimentPolarities result = scorers.score(inputString, vocabulary.vocabulary);
+        try {
+            add(hashHigh, hashLow, vocabulary.version, result);
+        } catch (IOException ex) {
+            LoggerFactory.getLogger(PersistentSentimentCache.class).warn("Sentiment cache could not be grown", ex);
+        }
+        return result;
+    }
+
+    /**
+     * Copy the table into a new file, keeping only the scores of the current lexicon and tokenizer, and replace
+     * the file with it.
+     *
+     * @throws IOException if the new file could not be written
+     */
+    public synchronized void compact() throws IOException {
+        final long currentVersion = currentVocabulary().version;
+        final Table current = table;
+        final int used = current.countUsedSlots(version -> version == currentVersion);
+        int capacity = MIN_COMPACT_CAPACITY;
+        while (isOverloaded(used, capacity) && capacity < MAX_CAPACITY) {
+            capacity *= 2;
+        }
+        table = rewrite(current, capacity, version -> version == currentVersion);
+    }
+
+    /**
+     * Write the scores added so far to the disk.
+     */
+    public void flush() {
+        table.buffer.force();
+    }
+
+    /**
+     * Write the scores added so far to the disk. The file stays mapped until the cache is garbage collected.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Get the number of strings in the file, of all the lexicons.
+     *
+     * @return the number of strings
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of slots of the file.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return table.capacity;
+    }
+
+    /**
+     * Get the path of the table file currently mapped.
+     *
+     * @return the path of the table file
+     */
+    Path getTablePath() {
+        return tablePath(table.generation);
+    }
+
+    /**
+     * Get the number of strings which were found in the file since it was opened.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get the number of strings which were scored since the file was opened.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get the current vocabulary with its version, which is computed once per vocabulary.
+     *
+     * @return the current vocabulary
+     */
+    private VersionedVocabulary currentVocabulary() {
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        VersionedVocabulary result = versionedVocabulary;
+        if (result == null || result.vocabulary != vocabulary) {
+            result = new VersionedVocabulary(vocabulary, Hashing.murmur3_128().newHasher()
+                .putLong(vocabulary.getFingerprint())
+                .putString(tokenizerMode.name(), StandardCharsets.UTF_8)
+                .putBoolean(SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON)
+                .hash().asLong());
+            versionedVocabulary = result;
+        }
+        return result;
+    }
+
+    /**
+     * Add the scores of a string, unless they are already there, growing the table first if it is too full.
+     *
+     * @param hashHigh high half of the hash of the string
+     * @param hashLow  low half of the hash of the string
+     * @param version  version of the lexicon and tokenizer
+     * @param scores   the scores of the string
+     * @throws IOException if the table could not be grown
+     */
+    private synchronized void add(final long hashHigh, final long hashLow, final long version,
+                                  final SentimentPolarities scores) throws IOException {
+        if (isOverloaded(size + 1, table.capacity)) {
+            if (table.capacity >= MAX_CAPACITY) {
+                return;
+            }
+            table = rewrite(table, table.capacity * 2, slotVersion -> true);
+        }
+        if (table.add(hashHigh, hashLow, version, scores.getPositivePolarity(), scores.getNegativePolarity(),
+            scores.getNeutralPolarity(), scores.getCompoundPolarity())) {
+            size++;
+        }
+    }
+
+    /**
+     * Check if a table would be too full.
+     *
+     * @param used     number of slots used
+     * @param capacity number of slots
+     * @return true if the table should be grown
+     */
+    private static boolean isOverloaded(final long used, final int capacity) {
+        return used * 100 > (long) capacity * MAX_LOAD_PERCENT;
+    }
+
+    /**
+     * Copy some slots of a table into the table file of the next generation, and then point the cache file at it.
+     * The table file of the source is deleted if it can be. The size is set to the number of slots copied.
+     *
+     * @param source   the table to copy, or null to create an empty table
+     * @param capacity the number of slots of the new table, a power of two
+     * @param filter   the versions of the slots to copy
+     * @return the new table
+     * @throws IOException if the new file could not be written
+     */
+    private Table rewrite(final Table source, final int capacity, final LongPredicate filter) throws IOException {
+        final long generation = source == null ? 1L : source.generation + 1L;
+        final Table target;
+        try (FileChannel channel = FileChannel.open(tablePath(generation), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            target = new Table(channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * SLOT_SIZE), capacity, generation);
+        }
+        target.buffer.putInt(0, MAGIC);
+        target.buffer.putInt(4, FORMAT_VERSION);
+        target.buffer.putInt(8, capacity);
+        int copied = 0;
+        final int sourceCapacity = source == null ? 0 : source.capacity;
+        for (int index = 0; index < sourceCapacity; index++) {
+            final int offset = Table.offset(index);
+            if (source.isValid(offset) && filter.test(source.buffer.getLong(offset + VERSION))) {
+                target.add(source.buffer.getLong(offset + HASH_HIGH), source.buffer.getLong(offset + HASH_LOW),
+                    source.buffer.getLong(offset + VERSION), source.buffer.getFloat(offset + POLARITIES),
+                    source.buffer.getFloat(offset + POLARITIES + 4), source.buffer.getFloat(offset + POLARITIES + 8),
+                    source.buffer.getFloat(offset + POLARITIES + 12));
+                copied++;
+            }
+        }
+        target.buffer.force();
+        writeGeneration(generation);
+        size = copied;
+        if (source != null) {
+            deleteTable(source.generation);
+        }
+        return target;
+    }
+
+    /**
+     * Get the path of the table file of a generation.
+     *
+     * @param generation the generation of the table
+     * @return the path of its file
+     */
+    private Path tablePath(final long generation) {
+        return path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    /**
+     * Read the generation of the current table from a cache file, and check its header.
+     *
+     * @param path the path of the cache file
+     * @return the generation
+     * @throws IOException if the file could not be read or is not a valid cache
+     */
+    private static long readGeneration(final Path path) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            int read = 0;
+            while (read >= 0 && header.hasRemaining()) {
+                read = channel.read(header);
+            }
+        }
+        if (header.hasRemaining()) {
+            throw new IOException("Truncated sentiment cache: " + path);
+        }
+        checkHeader(header, path);
+        return header.getLong(8);
+    }
+
+    /**
+     * Point the cache file at the table of a generation, creating the file if it does not exist. The generation
+     * is written in place, so that the file is never replaced.
+     *
+     * @param generation the generation of the current table
+     * @throws IOException if the file could not be written
+     */
+    private void writeGeneration(final long generation) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, FORMAT_VERSION);
+        header.putLong(8, generation);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Check the magic number and the format version at the start of a cache file or a table file.
+     *
+     * @param header the header of the file
+     * @param path   the path of the file, for the error message
+     * @throws IOException if the file is not a cache of this version
+     */
+    private static void checkHeader(final ByteBuffer header, final Path path) throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a sentiment cache: " + path);
+        }
+        if (header.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported version of the sentiment cache: " + header.getInt(4));
+        }
+    }
+
+    /**
+     * Delete the table file of a generation which is no longer used. The file cannot be deleted on Windows while
+     * it is still mapped, in which case it is deleted when the cache is opened again.
+     *
+     * @param generation the generation of the table
+     */
+    private void deleteTable(final long generation) {
+        try {
+            Files.deleteIfExists(tablePath(generation));
+        } catch (IOException ex) {
+            LoggerFactory.getLogger(PersistentSentimentCache.class)
+                .debug("Old sentiment cache table could not be deleted yet", ex);
+        }
+    }
+
+    /**
+     * Delete the table files of the other generations, which were left by a crash or could not be deleted while
+     * they were mapped.
+     *
+     * @param generation the generation of the current table
+     */
+    private void deleteStaleTables(final long generation) {
+        final String prefix = path.getFileName() + ".";
+        final DirectoryStream.Filter<Path> isStaleTable = file -> {
+            final String name = file.getFileName().toString();
+            return name.length() > prefix.length() && name.startsWith(prefix)
+                && name.substring(prefix.length()).chars().allMatch(Character::isDigit)
+                && !name.equals(prefix + generation);
+        };
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path.toAbsolutePath().getParent(),
+            isStaleTable)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException ex) {
+            LoggerFactory.getLogger(PersistentSentimentCache.class)
+                .debug("Old sentiment cache tables could not be deleted", ex);
+        }
+    }
+
+    /**
+     * Compute the 128-bit murmur3 hash of the UTF-16LE bytes of a string, which is the same as
+     * {@code Hashing.murmur3_128().hashUnencodedChars(text)} of Guava, but mixes the characters in blocks of
+     * eight instead of feeding them one by one to a streaming hasher.
+     *
+     * @param text the string
+     * @param hash array into which the two halves of the hash are written
+     */
+    static void hash128(final String text, final long[] hash) {
+        final int length = text.length();
+        final int blockEnd = length & ~7;
+        long hash1 = 0L;
+        long hash2 = 0L;
+        for (int index = 0; index < blockEnd; index += 8) {
+            hash1 ^= mixKey1(chars(text, index, 4));
+            hash1 = (Long.rotateLeft(hash1, 27) + hash2) * 5 + 0x52dce729;
+            hash2 ^= mixKey2(chars(text, index + 4, 4));
+            hash2 = (Long.rotateLeft(hash2, 31) + hash1) * 5 + 0x38495ab5;
+        }
+        final int tail = length - blockEnd;
+        if (tail > 4) {
+            hash2 ^= mixKey2(chars(text, blockEnd + 4, tail - 4));
+        }
+        if (tail > 0) {
+            hash1 ^= mixKey1(chars(text, blockEnd, Math.min(tail, 4)));
+        }
+        hash1 ^= length * 2L;
+        hash2 ^= length * 2L;
+        hash1 += hash2;
+        hash2 += hash1;
+        hash1 = finalMix(hash1);
+        hash2 = finalMix(hash2);
+        hash1 += hash2;
+        hash2 += hash1;
+        hash[0] = hash1;
+        hash[1] = hash2;
+    }
+
+    /**
+     * Read up to four characters of a string as a little-endian long.
+     *
+     * @param text  the string
+     * @param start index of the first character
+     * @param count number of characters
+     * @return the characters
+     */
+    private static long chars(final String text, final int start, final int count) {
+        long result = 0L;
+        for (int index = 0; index < count; index++) {
+            result |= (long) text.charAt(start + index) << (index * 16);
+        }
+        return result;
+    }
+
+    /**
+     * Mix the first key of a block of murmur3.
+     *
+     * @param key the key
+     * @return the mixed key
+     */
+    private static long mixKey1(final long key) {
+        return Long.rotateLeft(key * MURMUR_C1, 31) * MURMUR_C2;
+    }
+
+    /**
+     * Mix the second key of a block of murmur3.
+     *
+     * @param key the key
+     * @return the mixed key
+     */
+    private static long mixKey2(final long key) {
+        return Long.rotateLeft(key * MURMUR_C2, 33) * MURMUR_C1;
+    }
+
+    /**
+     * The final mix of murmur3.
+     *
+     * @param value the value
+     * @return the mixed value
+     */
+    private static long finalMix(final long value) {
+        long result = value;
+        result ^= result >>> 33;
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        result ^= result >>> 33;
+        return result;
+    }
+
+    /**
+     * Compute the checksum of a slot.
+     *
+     * @param hashHigh high half of the hash of the string
+     * @param hashLow  low half of the hash of the string
+     * @param version  version of the lexicon and tokenizer
+     * @param scores1  the positive and negative scores, as the bits of two floats
+     * @param scores2  the neutral and compound scores, as the bits of two floats
+     * @return the checksum, which is never 0
+     */
+    private static long checksum(final long hashHigh, final long hashLow, final long version, final long scores1,
+                                 final long scores2) {
+        long result = (hashHigh ^ (hashHigh >>> 31)) * CHECKSUM_MULTIPLIER + hashLow;
+        result = (result ^ (result >>> 31)) * CHECKSUM_MULTIPLIER + version;
+        result = (result ^ (result >>> 31)) * CHECKSUM_MULTIPLIER + scores1;
+        result = (result ^ (result >>> 31)) * CHECKSUM_MULTIPLIER + scores2;
+        result = (result ^ (result >>> 29)) * CHECKSUM_MULTIPLIER;
+        return result == 0L ? 1L : result;
+    }
+
+    /**
+     * A mapped table.
+     */
+    private static final class Table {
+        /**
+         * The mapped file.
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * The number of slots, a power of two.
+         */
+        private final int capacity;
+
+        /**
+         * The generation of the table, which numbers its file.
+         */
+        private final long generation;
+
+        /**
+         * Creates a table.
+         *
+         * @param buffer     the mapped file
+         * @param capacity   the number of slots
+         * @param generation the generation of the table
+         */
+        private Table(final MappedByteBuffer buffer, final int capacity, final long generation) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.generation = generation;
+        }
+
+        /**
+         * Map an existing table file and check its header.
+         *
+         * @param path       the path of the table file
+         * @param generation the generation of the table
+         * @return the table
+         * @throws IOException if the file could not be mapped or is not a valid cache
+         */
+        private static Table map(final Path path, final long generation) throws IOException {
+            final MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() < HEADER_SIZE) {
+                    throw new IOException("Truncated sentiment cache: " + path);
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            checkHeader(buffer, path);
+            final int capacity = buffer.getInt(8);
+            if (Integer.bitCount(capacity) != 1 || capacity > MAX_CAPACITY
+                || buffer.capacity() != HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+                throw new IOException("Truncated sentiment cache: " + path);
+            }
+            return new Table(buffer, capacity, generation);
+        }
+
+        /**
+         * Get the offset of a slot.
+         *
+         * @param index the index of the slot
+         * @return the offset of the slot in the file
+         */
+        private static int offset(final int index) {
+            return HEADER_SIZE + index * SLOT_SIZE;
+        }
+
+        /**
+         * Check if a slot holds a string whose checksum is right.
+         *
+         * @param offset the offset of the slot
+         * @return true if the slot is valid
+         */
+        private boolean isValid(final int offset) {
+            final long checksum = buffer.getLong(offset + CHECKSUM);
+            return checksum != 0L && checksum == checksum(buffer.getLong(offset + HASH_HIGH),
+                buffer.getLong(offset + HASH_LOW), buffer.getLong(offset + VERSION),
+                buffer.getLong(offset + POLARITIES), buffer.getLong(offset + POLARITIES + 8));
+        }
+
+        /**
+         * Count the valid slots of the given versions.
+         *
+         * @param filter the versions of the slots to count
+         * @return the number of slots
+         */
+        private int countUsedSlots(final LongPredicate filter) {
+            int count = 0;
+            for (int index = 0; index < capacity; index++) {
+                final int offset = offset(index);
+                if (isValid(offset) && filter.test(buffer.getLong(offset + VERSION))) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Find the scores of a string.
+         *
+         * @param hashHigh high half of the hash of the string
+         * @param hashLow  low half of the hash of the string
+         * @param version  version of the lexicon and tokenizer
+         * @return the scores, or null if they are not in the table
+         */
+        private SentimentPolarities find(final long hashHigh, final long hashLow, final long version) {
+            final int mask = capacity - 1;
+            int index = (int) hashLow & mask;
+            for (int probe = 0; probe < capacity; probe++) {
+                final int offset = offset(index);
+                if (buffer.getLong(offset + CHECKSUM) == 0L) {
+                    return null;
+                }
+                if (buffer.getLong(offset + HASH_LOW) == hashLow && buffer.getLong(offset + HASH_HIGH) == hashHigh
+                    && buffer.getLong(offset + VERSION) == version && isValid(offset)) {
+                    return new SentimentPolarities(buffer.getFloat(offset + POLARITIES),
+                        buffer.getFloat(offset + POLARITIES + 4), buffer.getFloat(offset + POLARITIES + 8),
+                        buffer.getFloat(offset + POLARITIES + 12));
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        /**
+         * Add the scores of a string to the first free slot, unless they are already there. The checksum is
+         * written last, so that the slot is ignored until it is complete.
+         *
+         * @param hashHigh high half of the hash of the string
+         * @param hashLow  low half of the hash of the string
+         * @param version  version of the lexicon and tokenizer
+         * @param positive proportion of text that is positive
+         * @param negative proportion of text that is negative
+         * @param neutral  proportion of text that is neutral
+         * @param compound compound score
+         * @return true if a slot was used, false if the scores were already there
+         */
+        private boolean add(final long hashHigh, final long hashLow, final long version, final float positive,
+                            final float negative, final float neutral, final float compound) {
+            final int mask = capacity - 1;
+            int index = (int) hashLow & mask;
+            while (buffer.getLong(offset(index) + CHECKSUM) != 0L) {
+                final int offset = offset(index);
+                if (buffer.getLong(offset + HASH_LOW) == hashLow && buffer.getLong(offset + HASH_HIGH) == hashHigh
+                    && buffer.getLong(offset + VERSION) == version && isValid(offset)) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            final int offset = offset(index);
+            buffer.putLong(offset + HASH_HIGH, hashHigh);
+            buffer.putLong(offset + HASH_LOW, hashLow);
+            buffer.putLong(offset + VERSION, version);
+            buffer.putFloat(offset + POLARITIES, positive);
+            buffer.putFloat(offset + POLARITIES + 4, negative);
+            buffer.putFloat(offset + POLARITIES + 8, neutral);
+            buffer.putFloat(offset + POLARITIES + 12, compound);
+            buffer.putLong(offset + CHECKSUM, checksum(hashHigh, hashLow, version,
+                buffer.getLong(offset + POLARITIES), buffer.getLong(offset + POLARITIES + 8)));
+            return true;
+        }
+    }
+
+    /**
+     * A vocabulary with the version under which the scores computed with it are stored.
+     */
+    private static final class VersionedVocabulary {
+        /**
+         * The vocabulary.
+         */
+        private final Vocabulary vocabulary;
+
+        /**
+         * The version of the vocabulary and of the tokenizer.
+         */
+        private final long version;
+
+        /**
+         * Creates a versioned vocabulary.
+         *
+         * @param vocabulary the vocabulary
+         * @param version    the version of the vocabulary and of the tokenizer
+         */
+        private VersionedVocabulary(final Vocabulary vocabulary, final long version) {
+            this.vocabulary = vocabulary;
+            this.version = version;
+        }
+    }
+}
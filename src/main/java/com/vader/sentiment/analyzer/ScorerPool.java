@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * Pool of {@link SentimentScorer}s that are lent to the tasks scoring strings, instead of being owned by the
+ * threads running the tasks. A thread-local scorer is set up once per thread, which is fine for a pool of
+ * platform threads but would be set up again for every task on a new virtual thread. A scorer is created only
+ * when all the others are lent. At most {@link ScorerPool#getMaxIdleScorers()} scorers are kept once they are given
+ * back, by default {@link ScorerPool#IDLE_SCORERS_PER_PROCESSOR} per processor, and the others are dropped, so that
+ * a burst of tasks running at the same time, e.g. on virtual threads, does not leave thousands of idle scorers.
+ * This class is thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+final class ScorerPool {
+    /**
+     * Number of idle scorers kept per available processor by default.
+     */
+    static final int IDLE_SCORERS_PER_PROCESSOR = 2;
+
+    /**
+     * Tokenizer used by the scorers.
+     */
+    private final TokenizerMode tokenizerMode;
+
+    /**
+     * Flag that specifies if the scorers match the lexicon entries of several words.
+     */
+    private final boolean matchMultiWordLexicon;
+
+    /**
+     * Scorers which are not lent.
+     */
+    private final Queue<SentimentScorer> idleScorers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of scorers in {@link ScorerPool#idleScorers}, or about to be added to it.
+     */
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Maximum number of scorers in {@link ScorerPool#idleScorers}.
+     */
+    private final int maxIdleScorers;
+
+    /**
+     * Creates an empty pool of scorers, which keeps {@link ScorerPool#IDLE_SCORERS_PER_PROCESSOR} idle scorers per
+     * available processor.
+     *
+     * @param tokenizerMode         the tokenizer used by the scorers
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words
+     */
+    ScorerPool(final TokenizerMode tokenizerMode, final boolean matchMultiWordLexicon) {
+        this(tokenizerMode, matchMultiWordLexicon,
+            IDLE_SCORERS_PER_PROCESSOR * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an empty pool of scorers, which keeps up to the given number of idle scorers.
+     *
+     * @param tokenizerMode         the tokenizer used by the scorers
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words
+     * @param maxIdleScorers        maximum number of scorers kept once they are given back
+     */
+    ScorerPool(final TokenizerMode tokenizerMode, final boolean matchMultiWordLexicon, final int maxIdleScorers) {
+        Preconditions.checkArgument(maxIdleScorers >= 0, "Maximum number of idle scorers should not be negative.");
+        this.tokenizerMode = tokenizerMode;
+        this.matchMultiWordLexicon = matchMultiWordLexicon;
+        this.maxIdleScorers = maxIdleScorers;
+    }
+
+    /**
+     * Borrow a scorer, which is used by the current task only until it is given back.
+     *
+     * @return an idle scorer, or a new one if there is none
+     */
+    SentimentScorer acquire() {
+        final SentimentScorer scorer = idleScorers.poll();
+        if (scorer == null) {
+            return new SentimentScorer(tokenizerMode, matchMultiWordLexicon);
+        }
+        idleCount.decrementAndGet();
+        return scorer;
+    }
+
+    /**
+     * Score a string with a scorer borrowed from the pool and the current lexicon.
+     *
+     * @param inputString the string to be analyzed
+     * @return the score of the string
+     */
+    SentimentPolarities score(final String inputString) {
+        return score(inputString, LexiconRegistry.current());
+    }
+
+    /**
+     * Score a string with a scorer borrowed from the pool.
+     *
+     * @param inputString the string to be analyzed
+     * @param vocabulary  the vocabulary with which the string is scored
+     * @return the score of the string
+     */
+    SentimentPolarities score(final String inputString, final Vocabulary vocabulary) {
+        final SentimentScorer scorer = acquire();
+        try {
+            final float[] result = scorer.score(inputString, vocabulary);
+            return new SentimentPolarities(result[SentimentScorer.POSITIVE], result[SentimentScorer.NEGATIVE],
+                result[SentimentScorer.NEUTRAL], result[SentimentScorer.COMPOUND]);
+        } finally {
+            release(scorer);
+        }
+    }
+
+    /**
+     * Give back a scorer borrowed through {@link ScorerPool#acquire()}. The scorer is dropped if the pool already
+     * holds {@link ScorerPool#getMaxIdleScorers()} idle scorers.
+     *
+     * @param scorer the scorer, which is not used by the current task anymore
+     */
+    void release(final SentimentScorer scorer) {
+        if (idleCount.incrementAndGet() > maxIdleScorers) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        idleScorers.offer(scorer);
+    }
+
+    /**
+     * Get the maximum number of scorers kept once they are given back.
+     *
+     * @return the maximum number of idle scorers
+     */
+    int getMaxIdleScorers() {
+        return maxIdleScorers;
+    }
+
+    /**
+     * Get the number of scorers which are not lent.
+     *
+     * @return the number of idle scorers
+     */
+    int getIdleCount() {
+        return idleCount.get();
+    }
+}
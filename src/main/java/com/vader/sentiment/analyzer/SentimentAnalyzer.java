@@ -24,19 +24,20 @@
 
 package com.vader.sentiment.analyzer;
 
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.google.common.base.Preconditions;
 import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenSequence;
+import com.vader.sentiment.processor.TokenizerMode;
 import com.vader.sentiment.util.Constants;
+import com.vader.sentiment.util.PhraseTrie;
 import com.vader.sentiment.util.SentimentModifyingTokens;
 import com.vader.sentiment.util.Utils;
 import com.vader.sentiment.util.Valence;
+import com.vader.sentiment.util.Vocabulary;
 
 /**
  * The SentimentAnalyzer class is the main class for VADER Sentiment analysis.
@@ -55,6 +56,29 @@ public final class SentimentAnalyzer {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(SentimentAnalyzer.class);
 
+    /**
+     * Name of the system property that enables the lexicon entries of several words, like "fed up" or
+     * "can't stand". They are not matched by default, as the original VADER looks up single tokens only.
+     */
+    public static final String MULTI_WORD_LEXICON_PROPERTY = "vader.lexicon.phrases";
+
+    /**
+     * Flag that specifies if the lexicon entries of several words are matched, see
+     * {@link SentimentAnalyzer#MULTI_WORD_LEXICON_PROPERTY}.
+     */
+    static final boolean MATCH_MULTI_WORD_LEXICON = Boolean.getBoolean(MULTI_WORD_LEXICON_PROPERTY);
+
+    /**
+     * The conjunction "but" in upper case, which is looked for when the input string has no "but" in lower case.
+     */
+    static final String UPPER_CASE_BUT = SentimentModifyingTokens.BUT.getValue().toUpperCase();
+
+    /**
+     * Scorers owned by each thread, which hold the memory reused by all the strings analyzed by the thread.
+     */
+    private static final ThreadLocal<SentimentScorer> THREAD_LOCAL_SCORER =
+        ThreadLocal.withInitial(SentimentScorer::new);
+
     /**
      * All functions is this class are static. So, this class should have a private constructor.
      */
@@ -68,27 +92,89 @@ public final class SentimentAnalyzer {
      * @return an object of {@link SentimentPolarities} which will hold all the sentiment scores.
      */
     public static SentimentPolarities getScoresFor(String inputString) {
-        return computeSentimentPolaritiesFor(inputString);
+        return computeSentimentPolaritiesFor(inputString, TokenizerMode.getDefault(), MATCH_MULTI_WORD_LEXICON);
+    }
+
+    /**
+     * This method returns the polarity scores for a given input string, tokenized by the given tokenizer.
+     *
+     * @param inputString   the string to be analyzed.
+     * @param tokenizerMode the tokenizer used to split up the string.
+     * @return an object of {@link SentimentPolarities} which will hold all the sentiment scores.
+     */
+    public static SentimentPolarities getScoresFor(String inputString, TokenizerMode tokenizerMode) {
+        return computeSentimentPolaritiesFor(inputString, tokenizerMode, MATCH_MULTI_WORD_LEXICON);
+    }
+
+    /**
+     * This method returns the polarity scores for a batch of input strings. The tokenizers, the lexicon and the
+     * memory used for scoring are set up once for the whole batch, see {@link SentimentScorer}.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return the scores of the strings, in the same order as the strings.
+     */
+    public static List<SentimentPolarities> getScoresForAll(Iterable<String> inputStrings) {
+        return THREAD_LOCAL_SCORER.get().scoreAll(inputStrings);
+    }
+
+    /**
+     * This method returns the polarity scores for a batch of input strings.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return the scores of the strings, in the same order as the strings.
+     * @see SentimentAnalyzer#getScoresForAll(Iterable)
+     */
+    public static List<SentimentPolarities> getScoresForAll(String... inputStrings) {
+        return getScoresForAll(Arrays.asList(inputStrings));
+    }
+
+    /**
+     * This method returns the polarity scores for a batch of input strings as columns, one float array per type
+     * of score.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return the scores of the strings, in the same order as the strings.
+     * @see SentimentAnalyzer#getScoresForAll(Iterable)
+     */
+    public static SentimentColumns getColumnarScoresFor(Iterable<String> inputStrings) {
+        final SentimentColumns columns = inputStrings instanceof Collection
+            ? new SentimentColumns(((Collection<String>) inputStrings).size()) : new SentimentColumns();
+        THREAD_LOCAL_SCORER.get().scoreAll(inputStrings, columns);
+        return columns;
+    }
+
+    /**
+     * This method splits a document into sentences and returns the polarity scores of each sentence, scored on
+     * its own, along with the scores of the whole document. Large documents can be scored in parallel with
+     * {@link ParallelSentimentScorer#scoreDocument(String)}.
+     *
+     * @param document the document to be analyzed.
+     * @return the scores of the sentences and of the whole document.
+     * @see DocumentSentiment
+     */
+    public static DocumentSentiment getDocumentScoresFor(String document) {
+        return THREAD_LOCAL_SCORER.get().scoreDocument(document);
     }
 
     /**
      * Adjust valence if a token is in {@link Utils#BOOSTER_DICTIONARY} or is a yelling word (all caps).
      *
-     * @param precedingToken  token
-     * @param currentValence  valence to be adjusted
-     * @param inputHasYelling true if the input string has any yelling words.
+     * @param wordsAndEmoticons       tokenized version of the input text
+     * @param precedingTokenPosition position of the token
+     * @param currentValence         valence to be adjusted
+     * @param inputHasYelling        true if the input string has any yelling words.
      * @return adjusted valence
      */
-    private static float adjustValenceIfCapital(final String precedingToken, final float currentValence,
+    private static float adjustValenceIfCapital(final TokenSequence wordsAndEmoticons,
+                                                final int precedingTokenPosition, final float currentValence,
                                                 final boolean inputHasYelling) {
         float scalar = 0.0F;
-        final String precedingTokenLower = precedingToken.toLowerCase();
-        if (Utils.BOOSTER_DICTIONARY.containsKey(precedingTokenLower)) {
-            scalar = Utils.BOOSTER_DICTIONARY.get(precedingTokenLower);
+        if (wordsAndEmoticons.hasFlag(precedingTokenPosition, TokenSequence.BOOSTER)) {
+            scalar = wordsAndEmoticons.getEntry(precedingTokenPosition).getBoosterScalar();
             if (currentValence < 0.0F) {
                 scalar = -scalar;
             }
-            if (Utils.isUpper(precedingToken) && inputHasYelling) {
+            if (wordsAndEmoticons.hasFlag(precedingTokenPosition, TokenSequence.ALL_CAPS) && inputHasYelling) {
                 if (currentValence > 0.0F) {
                     scalar += Valence.ALL_CAPS_FACTOR.getValue();
                 } else {
@@ -111,27 +197,22 @@ public final class SentimentAnalyzer {
      * @return true if any of the above phrases are found.
      */
     private static boolean areNeverPhrasesPresent(final int distance, final int currentItemPosition,
-                                                  final List<String> wordsAndEmoticons) {
+                                                  final TokenSequence wordsAndEmoticons) {
         if (distance == 1) {
-            final String wordAtDistanceTwoLeft =
-                wordsAndEmoticons.get(currentItemPosition - Constants.PRECEDING_BIGRAM_WINDOW);
-            final String wordAtDistanceOneLeft =
-                wordsAndEmoticons.get(currentItemPosition - Constants.PRECEDING_UNIGRAM_WINDOW);
-            return (wordAtDistanceTwoLeft.equals(SentimentModifyingTokens.NEVER.getValue()))
-                && (wordAtDistanceOneLeft.equals(SentimentModifyingTokens.SO.getValue())
-                || (wordAtDistanceOneLeft.equals(SentimentModifyingTokens.NEVER.getValue())));
+            final int wordAtDistanceTwoLeft = currentItemPosition - Constants.PRECEDING_BIGRAM_WINDOW;
+            final int wordAtDistanceOneLeft = currentItemPosition - Constants.PRECEDING_UNIGRAM_WINDOW;
+            return (wordsAndEmoticons.contentEquals(wordAtDistanceTwoLeft, SentimentModifyingTokens.NEVER.getValue()))
+                && (wordsAndEmoticons.contentEquals(wordAtDistanceOneLeft, SentimentModifyingTokens.SO.getValue())
+                || (wordsAndEmoticons.contentEquals(wordAtDistanceOneLeft, SentimentModifyingTokens.NEVER.getValue())));
         } else if (distance == 2) {
-            final String wordAtDistanceThreeLeft = wordsAndEmoticons.get(currentItemPosition
-                - Constants.PRECEDING_TRIGRAM_WINDOW);
-            final String wordAtDistanceTwoLeft =
-                wordsAndEmoticons.get(currentItemPosition - Constants.PRECEDING_BIGRAM_WINDOW);
-            final String wordAtDistanceOneLeft =
-                wordsAndEmoticons.get(currentItemPosition - Constants.PRECEDING_UNIGRAM_WINDOW);
-            return (wordAtDistanceThreeLeft.equals(SentimentModifyingTokens.NEVER.getValue()))
-                && (wordAtDistanceTwoLeft.equals(SentimentModifyingTokens.SO.getValue())
-                || wordAtDistanceTwoLeft.equals(SentimentModifyingTokens.THIS.getValue()))
-                || (wordAtDistanceOneLeft.equals(SentimentModifyingTokens.SO.getValue())
-                || wordAtDistanceOneLeft.equals(SentimentModifyingTokens.THIS.getValue()));
+            final int wordAtDistanceThreeLeft = currentItemPosition - Constants.PRECEDING_TRIGRAM_WINDOW;
+            final int wordAtDistanceTwoLeft = currentItemPosition - Constants.PRECEDING_BIGRAM_WINDOW;
+            final int wordAtDistanceOneLeft = currentItemPosition - Constants.PRECEDING_UNIGRAM_WINDOW;
+            return (wordsAndEmoticons.contentEquals(wordAtDistanceThreeLeft, SentimentModifyingTokens.NEVER.getValue()))
+                && (wordsAndEmoticons.contentEquals(wordAtDistanceTwoLeft, SentimentModifyingTokens.SO.getValue())
+                || wordsAndEmoticons.contentEquals(wordAtDistanceTwoLeft, SentimentModifyingTokens.THIS.getValue()))
+                || (wordsAndEmoticons.contentEquals(wordAtDistanceOneLeft, SentimentModifyingTokens.SO.getValue())
+                || wordsAndEmoticons.contentEquals(wordAtDistanceOneLeft, SentimentModifyingTokens.THIS.getValue()));
         }
         return false;
     }
@@ -149,12 +230,12 @@ public final class SentimentAnalyzer {
      */
     private static float dampValenceIfNegativeTokensFound(final float currentValence, final int distance,
                                                           final int currentItemPosition, final int closeTokenIndex,
-                                                          final List<String> wordsAndEmoticons) {
+                                                          final TokenSequence wordsAndEmoticons) {
         float newValence = currentValence;
         final boolean anyNeverPhrase = areNeverPhrasesPresent(distance, currentItemPosition, wordsAndEmoticons);
 
         if (!anyNeverPhrase) {
-            if (isNegative(wordsAndEmoticons.get(closeTokenIndex))) {
+            if (isNegative(wordsAndEmoticons, closeTokenIndex)) {
                 newValence *= Valence.NEGATIVE_WORD_DAMPING_FACTOR.getValue();
             }
         } else {
@@ -168,118 +249,60 @@ public final class SentimentAnalyzer {
     }
 
     /**
-     * This method builds the possible to n-grams starting from last token in the token list.
-     * VADER uses bi-grams and tri-grams only, so here minGramLength will be 2 and maxGramLength
-     * will be 3.
+     * Find the idiom of {@link Utils#SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY} made of the tokens in a range.
+     * As the idioms are matched in the same case, all the tokens must be in lower case.
      *
-     * @param tokenList                    The list of tokens for which we want to compute the n-grams.
-     * @param minGramLength                The minimum size of the possible n-grams.
-     * @param maxGramLength                The maximum size of the possible n-grams.
-     * @param startPosition                The position of the token from which we'll extract the tokens.
-     * @param maxDistanceFromStartPosition The max distance from the end of the current gram and the startPosition.
-     * @return list of all possible to minGramLength-grams and maxGramLength-grams starting from startPosition.
-     */
-    private static List<String> getLeftGrams(final List<String> tokenList, final int minGramLength,
-                                             final int maxGramLength, final int startPosition,
-                                             final int maxDistanceFromStartPosition) {
-        Preconditions.checkArgument(minGramLength > 0 && maxGramLength > 0,
-            "Left Gram lengths should not be negative or zero.");
-        Preconditions.checkArgument(maxGramLength >= minGramLength,
-            "Maximum left gram length should be at least equal to the minimum value.");
-        Preconditions.checkArgument(tokenList != null);
-
-        final int noOfTokens = tokenList.size();
-        if (noOfTokens < minGramLength) {
-            return Collections.emptyList();
-        }
-
-        final List<String> result = new ArrayList<>();
-        for (int end = startPosition; end > 0; end--) {
-            final int windowStart = end - minGramLength + 1;
-            final int windowEnd = end - maxGramLength;
-            String currentSuffix = tokenList.get(end);
-            for (int start = windowStart; start >= ((windowEnd < 0) ? 0 : Math.max(0, windowEnd) + 1); start--) {
-                currentSuffix = tokenList.get(start) + Constants.SPACE_SEPARATOR + currentSuffix;
-                result.add(currentSuffix);
-                if ((startPosition - end) == maxDistanceFromStartPosition) {
-                    return result;
-                }
-            }
-        }
-        return result;
-    }
-
-    /**
-     * This method builds the first possible n-grams starting from startPosition in the token list.
-     * VADER uses bi-grams and tri-grams only, so here minGramLength will be 2 and maxGramLength
-     * will be 3.
-     *
-     * @param tokenList     The list of tokens for which we want to compute the n-grams.
-     * @param minGramLength The minimum size of the possible n-grams.
-     * @param maxGramLength The maximum size of the possible n-grams.
-     * @param startPosition The position of the token from which we'll extract the tokens.
-     * @return list of the first to minGramLength-grams and maxGramLength-grams starting from
-     */
-    private static List<String> getFirstRightGrams(final List<String> tokenList, final int minGramLength,
-                                                   final int maxGramLength, final int startPosition) {
-        Preconditions.checkArgument(minGramLength > 0 && maxGramLength > 0,
-            "Right Gram lengths should not be negative or zero.");
-        Preconditions.checkArgument(maxGramLength >= minGramLength,
-            "Maximum right gram length should be at least equal to the minimum value.");
-        Preconditions.checkArgument(tokenList != null);
-
-        final int noOfTokens = tokenList.size();
-        if (noOfTokens < minGramLength) {
-            return Collections.emptyList();
+     * @param wordsAndEmoticons tokenized version of the input text
+     * @param start             position of the first token
+     * @param end               position of the last token
+     * @return the entry of the idiom, or {@link Vocabulary#UNKNOWN} if the tokens are not an idiom
+     */
+    private static Vocabulary.Entry findIdiom(final TokenSequence wordsAndEmoticons, final int start,
+                                              final int end) {
+        final Vocabulary.Entry phrase = wordsAndEmoticons.findPhrase(start, end);
+        if (!phrase.isIdiom()) {
+            return Vocabulary.UNKNOWN;
         }
-
-        final List<String> result = new ArrayList<>();
-        final StringBuilder currentGram = new StringBuilder(tokenList.get(startPosition));
-        for (int i = minGramLength; i <= maxGramLength; i++) {
-            final int endPosition = startPosition + i - 1;
-            if (endPosition > tokenList.size() - 1) {
-                break;
+        for (int position = start; position <= end; position++) {
+            if (!wordsAndEmoticons.hasFlag(position, TokenSequence.LOWER_CASE)) {
+                return Vocabulary.UNKNOWN;
             }
-            currentGram.append(Constants.SPACE_SEPARATOR).append(tokenList.get(endPosition));
-            result.add(currentGram.toString());
         }
-        return result;
+        return phrase;
     }
 
     /**
-     * We check if the idioms present in {@link Utils#SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY} are present in
-     * left bi/tri-grams sequences.
+     * Find the first idiom among the bi-grams and tri-grams ending at currentItemPosition, then at the tokens before
+     * it, up to the first gram ending at distance from it.
      *
-     * @param currentValence    current valence before checking for idioms.
-     * @param leftGramSequences list of all the left bi/tri-grams.
-     * @return adjusted valence.
+     * @param wordsAndEmoticons   tokenized version of the input text
+     * @param currentItemPosition current tokens position
+     * @param distance            max distance from the end of the current gram and the currentItemPosition.
+     * @return the entry of the idiom, or {@link Vocabulary#UNKNOWN} if there is none
      */
-    private static float adjustValenceIfLeftGramsHaveIdioms(final float currentValence,
-                                                            final List<String> leftGramSequences) {
-        float newValence = currentValence;
-        for (String leftGramSequence : leftGramSequences) {
-            if (Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY.containsKey(leftGramSequence)) {
-                newValence = Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY.get(leftGramSequence);
-                break;
-            }
-        }
-
-        // Based on how getLeftGrams calculates grams, the bi-grams are at the all the even indices.
-        // VADER only deals with the 2 left most bi-grams in leftGramSequences.
-        for (int i = leftGramSequences.size() - 1; i <= 2; i--) {
-            if (Utils.BOOSTER_DICTIONARY.containsKey(leftGramSequences.get(i))) {
-                newValence += Valence.DEFAULT_DAMPING.getValue();
-                break;
+    private static Vocabulary.Entry findLeftIdiom(final TokenSequence wordsAndEmoticons,
+                                                  final int currentItemPosition, final int distance) {
+        for (int end = currentItemPosition; end > 0 && end >= currentItemPosition - distance; end--) {
+            final int minStart = Math.max(0, end - Constants.MAX_GRAM_WINDOW_SIZE + 1);
+            for (int start = end - 1; start >= minStart; start--) {
+                final Vocabulary.Entry idiom = findIdiom(wordsAndEmoticons, start, end);
+                if (idiom.isIdiom() || currentItemPosition - end == distance) {
+                    return idiom;
+                }
             }
         }
-
-        return newValence;
+        return Vocabulary.UNKNOWN;
     }
 
     /**
      * Search if the any bi-gram/tri-grams around the currentItemPosition contains any idioms defined
      * in {@link Utils#SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY} Adjust the current valence if there are
      * any idioms found.
+     * The grams are matched token by token with the {@link PhraseTrie} of the vocabulary, without building them as
+     * strings, and the bi-gram and the tri-gram starting at currentItemPosition are matched in one walk of the trie.
+     * The idiom on the left of currentItemPosition, see
+     * {@link SentimentAnalyzer#findLeftIdiom(TokenSequence, int, int)}, is overridden by the last idiom among the
+     * bi-gram and the tri-gram starting at currentItemPosition.
      *
      * @param currentValence      valence to be adjusted
      * @param currentItemPosition current tokens position
@@ -288,18 +311,24 @@ public final class SentimentAnalyzer {
      * @return adjusted valence
      */
     private static float adjustValenceIfIdiomsFound(final float currentValence, final int currentItemPosition,
-                                                    final List<String> wordsAndEmoticons, final int distance) {
-        float newValence;
-
-        final List<String> leftGramSequences = getLeftGrams(wordsAndEmoticons, 2,
-            Constants.MAX_GRAM_WINDOW_SIZE, currentItemPosition, distance);
-        newValence = adjustValenceIfLeftGramsHaveIdioms(currentValence, leftGramSequences);
-
-        final List<String> rightGramSequences = getFirstRightGrams(wordsAndEmoticons, 2,
-            Constants.MAX_GRAM_WINDOW_SIZE, currentItemPosition);
-        for (String rightGramSequence : rightGramSequences) {
-            if (Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY.containsKey(rightGramSequence)) {
-                newValence = Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY.get(rightGramSequence);
+                                                    final TokenSequence wordsAndEmoticons, final int distance) {
+        float newValence = currentValence;
+
+        final Vocabulary.Entry leftIdiom = findLeftIdiom(wordsAndEmoticons, currentItemPosition, distance);
+        if (leftIdiom.isIdiom()) {
+            newValence = leftIdiom.getIdiomValence();
+        }
+
+        // the grams starting at currentItemPosition are prefixes of each other, so the trie is walked once for all
+        final PhraseTrie phrases = wordsAndEmoticons.getVocabulary().getPhrases();
+        int state = PhraseTrie.ROOT;
+        for (int end = currentItemPosition; end < currentItemPosition + Constants.MAX_GRAM_WINDOW_SIZE
+            && end < wordsAndEmoticons.size() && wordsAndEmoticons.hasFlag(end, TokenSequence.LOWER_CASE)
+            && state != PhraseTrie.NO_STATE; end++) {
+            state = phrases.next(state, wordsAndEmoticons.getEntry(end));
+            final Vocabulary.Entry idiom = phrases.getPhrase(state);
+            if (end > currentItemPosition && idiom.isIdiom()) {
+                newValence = idiom.getIdiomValence();
             }
         }
 
@@ -309,57 +338,118 @@ public final class SentimentAnalyzer {
     /**
      * Analyze each token/emoticon in the input string and calculate its valence.
      *
-     * @param textProperties This objects holds the tokenized version of a string.
-     * @return the valence of each token as a list
+     * @param textProperties        This objects holds the tokenized version of a string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words
+     * @param sentiments            array in which the valence of each token is stored, which has at least as many
+     *                              elements as there are tokens
      */
-    private static List<Float> getTokenWiseSentiment(final TextProperties textProperties) {
-        List<Float> sentiments = new ArrayList<>();
-        final List<String> wordsAndEmoticons = textProperties.getWordsAndEmoticons();
+    static void getTokenWiseSentiment(final TextProperties textProperties, final boolean matchMultiWordLexicon,
+                                      final float[] sentiments) {
+        final TokenSequence wordsAndEmoticons = textProperties.getTokens();
+        getTokenWiseSentiment(wordsAndEmoticons, textProperties.isYelling(), matchMultiWordLexicon, 0,
+            wordsAndEmoticons.size(), -1, sentiments);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Sentiment state after first pass through tokens: {}",
+                Arrays.toString(Arrays.copyOf(sentiments, wordsAndEmoticons.size())));
+        }
 
-        for (int currentItemPosition = 0; currentItemPosition < wordsAndEmoticons.size(); currentItemPosition++) {
-            final String currentItem = wordsAndEmoticons.get(currentItemPosition);
-            final String currentItemLower = currentItem.toLowerCase();
+        adjustValenceIfHasConjunction(wordsAndEmoticons, sentiments);
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Sentiment state after checking conjunctions: {}",
+                Arrays.toString(Arrays.copyOf(sentiments, wordsAndEmoticons.size())));
+        }
+    }
+
+    /**
+     * Calculate the valence of the tokens in a range, without the adjustment for the conjunction "but" which
+     * depends on all the tokens of the string. The rules look at most {@link Constants#MAX_GRAM_WINDOW_SIZE} + 1
+     * tokens before a token and {@link Constants#MAX_GRAM_WINDOW_SIZE} - 1 tokens after it, or up to the end of a
+     * lexicon entry of several words, so a range gets the same valences as in the whole string as long as the
+     * sequence has these tokens around it.
+     *
+     * @param wordsAndEmoticons     tokenized version of the input text
+     * @param inputHasYelling       true if the input string has any yelling words
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words
+     * @param from                  position of the first token of the range
+     * @param to                    position after the last token of the range
+     * @param previousPhraseEnd     position of the last token of a lexicon entry of several words which starts
+     *                              before the range, whose tokens are neutral, or -1 if there is none
+     * @param sentiments            array in which the valence of each token is stored, at its position
+     * @return position of the last token of the last lexicon entry of several words, or previousPhraseEnd
+     */
+    static int getTokenWiseSentiment(final TokenSequence wordsAndEmoticons, final boolean inputHasYelling,
+                                     final boolean matchMultiWordLexicon, final int from, final int to,
+                                     final int previousPhraseEnd, final float[] sentiments) {
+        int lexiconPhraseEnd = previousPhraseEnd;
+
+        for (int currentItemPosition = from; currentItemPosition < to; currentItemPosition++) {
             float currentValence = 0.0F;
 
-            LOGGER.debug("Current token, \"{}\" with index, i = {}", currentItem, currentItemPosition);
-            LOGGER.debug("Sentiment State before \"kind of\" processing: {}", sentiments);
+            /*
+             * The valence of a lexicon entry of several words is given to its first word, so the other words
+             * are neutral.
+             */
+            if (currentItemPosition <= lexiconPhraseEnd) {
+                sentiments[currentItemPosition] = currentValence;
+                continue;
+            }
+
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Current token, \"{}\" with index, i = {}", wordsAndEmoticons.get(currentItemPosition),
+                    currentItemPosition);
+            }
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Sentiment State before \"kind of\" processing: {}",
+                    Arrays.toString(Arrays.copyOf(sentiments, currentItemPosition)));
+            }
 
             /*
              * This section performs the following evaluation:
-             * If the term at currentItemPosition is followed by "kind of" or the it is present in
+             * If the term at currentItemPosition starts a booster phrase like "kind of" or the it is present in
              * {@link Utils#BoosterDictionary}, add the currentValence to sentiment array and break
-             * to the next loop.
+             * to the next loop. The booster phrases are matched with the {@link PhraseTrie} of the vocabulary.
              *
              * If currentValence was 0.0, then current word's valence will also be 0.0.
              */
-            if ((currentItemPosition < wordsAndEmoticons.size() - 1
-                && currentItemLower.equals(SentimentModifyingTokens.KIND.getValue())
-                && wordsAndEmoticons.get(currentItemPosition + 1).toLowerCase()
-                                    .equals(SentimentModifyingTokens.OF.getValue()))
-                || Utils.BOOSTER_DICTIONARY.containsKey(currentItemLower)) {
-                sentiments.add(currentValence);
+            if (wordsAndEmoticons.hasFlag(currentItemPosition, TokenSequence.BOOSTER)
+                || wordsAndEmoticons.startsBoosterPhrase(currentItemPosition)) {
+                sentiments[currentItemPosition] = currentValence;
                 continue;
             }
 
-            LOGGER.debug("Sentiment State after \"kind of\" processing: {}", sentiments);
-            LOGGER.debug("Current Valence is {} for \"{}\"", currentValence, currentItem);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Sentiment State after \"kind of\" processing: {}",
+                    Arrays.toString(Arrays.copyOf(sentiments, currentItemPosition)));
+                LOGGER.debug("Current Valence is {} for \"{}\"", currentValence,
+                    wordsAndEmoticons.get(currentItemPosition));
+            }
 
             /*
              * If current item in lowercase is in {@link Utils#WordValenceDictionary}...
              */
-            if (Utils.WORD_VALENCE_DICTIONARY.containsKey(currentItemLower)) {
-                currentValence = Utils.WORD_VALENCE_DICTIONARY.get(currentItemLower);
+            Vocabulary.Entry entry = wordsAndEmoticons.getEntry(currentItemPosition);
+            if (matchMultiWordLexicon) {
+                final int phraseEnd = wordsAndEmoticons.findLexiconPhraseEnd(currentItemPosition);
+                if (phraseEnd > currentItemPosition) {
+                    entry = wordsAndEmoticons.findPhrase(currentItemPosition, phraseEnd);
+                    lexiconPhraseEnd = phraseEnd;
+                }
+            }
+            if (entry.hasValence()) {
+                currentValence = entry.getValence();
 
                 if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Current currentItem isUpper(): {}", Utils.isUpper(currentItem));
-                    LOGGER.debug("Current currentItem isYelling(): {}", textProperties.isYelling());
+                    LOGGER.debug("Current currentItem isUpper(): {}",
+                        wordsAndEmoticons.hasFlag(currentItemPosition, TokenSequence.ALL_CAPS));
+                    LOGGER.debug("Current currentItem isYelling(): {}", inputHasYelling);
                 }
 
                 /*
                  * If current item is all in uppercase and the input string has yelling words,
                  * accordingly adjust currentValence.
                  */
-                if (Utils.isUpper(currentItem) && textProperties.isYelling()) {
+                if (wordsAndEmoticons.hasFlag(currentItemPosition, TokenSequence.ALL_CAPS)
+                    && inputHasYelling) {
                     if (currentValence > 0.0) {
                         currentValence += Valence.ALL_CAPS_FACTOR.getValue();
                     } else {
@@ -367,7 +457,9 @@ public final class SentimentAnalyzer {
                     }
                 }
 
-                LOGGER.debug("Current Valence post all CAPS checks: {}", currentValence);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Current Valence post all CAPS checks: {}", currentValence);
+                }
 
                 /*
                  * "distance" is the window size.
@@ -385,12 +477,15 @@ public final class SentimentAnalyzer {
                     }
 
                     if ((currentItemPosition > distance)
-                        && !Utils.WORD_VALENCE_DICTIONARY.containsKey(wordsAndEmoticons.get(closeTokenIndex)
-                                                                                       .toLowerCase())) {
-                        LOGGER.debug("Current Valence pre gramBasedValence: {}", currentValence);
-                        float gramBasedValence = adjustValenceIfCapital(wordsAndEmoticons.get(closeTokenIndex),
-                            currentValence, textProperties.isYelling());
-                        LOGGER.debug("Current Valence post gramBasedValence: {}", currentValence);
+                        && !isInLexicon(wordsAndEmoticons, closeTokenIndex)) {
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Current Valence pre gramBasedValence: {}", currentValence);
+                        }
+                        float gramBasedValence = adjustValenceIfCapital(wordsAndEmoticons, closeTokenIndex,
+                            currentValence, inputHasYelling);
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Current Valence post gramBasedValence: {}", currentValence);
+                        }
                         /*
                          * At distance of 1, reduce current gram's valence by 5%.
                          * At distance of 2, reduce current gram's valence by 10%.
@@ -404,13 +499,17 @@ public final class SentimentAnalyzer {
                         }
                         currentValence += gramBasedValence;
 
-                        LOGGER.debug("Current Valence post gramBasedValence and distance "
-                            + "based damping: {}", currentValence);
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Current Valence post gramBasedValence and distance "
+                                + "based damping: {}", currentValence);
+                        }
 
                         currentValence = dampValenceIfNegativeTokensFound(currentValence, distance,
                             currentItemPosition, closeTokenIndex, wordsAndEmoticons);
 
-                        LOGGER.debug("Current Valence post \"never\" check: {}", currentValence);
+                        if (LOGGER.isDebugEnabled()) {
+                            LOGGER.debug("Current Valence post \"never\" check: {}", currentValence);
+                        }
 
                         /*
                          * At a distance of 2, we check for idioms in bi-grams and tri-grams around currentItemPosition.
@@ -418,7 +517,9 @@ public final class SentimentAnalyzer {
                         if (distance == 2) {
                             currentValence = adjustValenceIfIdiomsFound(currentValence, currentItemPosition,
                                 wordsAndEmoticons, distance);
-                            LOGGER.debug("Current Valence post Idiom check: {}", currentValence);
+                            if (LOGGER.isDebugEnabled()) {
+                                LOGGER.debug("Current Valence post Idiom check: {}", currentValence);
+                            }
                         }
                     }
 
@@ -427,30 +528,81 @@ public final class SentimentAnalyzer {
                 currentValence = adjustValenceIfHasAtLeast(currentItemPosition, wordsAndEmoticons, currentValence);
             }
 
-            sentiments.add(currentValence);
+            sentiments[currentItemPosition] = currentValence;
+        }
+        return lexiconPhraseEnd;
+    }
+
+    /**
+     * Normalize the compound score and the other three raw sentiment scores.
+     *
+     * @param positiveSentimentScore raw positive sentiment score.
+     * @param negativeSentimentScore raw negative sentiment score.
+     * @param neutralSentimentCount  number of neutral tokens, as a float like in the normalization factor.
+     * @param compoundPolarityScore  uni-dimensional sentiment score.
+     * @param polarities             array in which the normalized positive, negative, neutral and compound scores
+     *                               are stored, at the indexes defined by {@link SentimentScorer}.
+     */
+    private static void normalizeAllScores(final float positiveSentimentScore, final float negativeSentimentScore,
+                                           final float neutralSentimentCount, final float compoundPolarityScore,
+                                           final float[] polarities) {
+        final float normalizationFactor = positiveSentimentScore + Math.abs(negativeSentimentScore)
+            + neutralSentimentCount;
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Normalization Factor: {}", normalizationFactor);
+            LOGGER.debug("Pre-Normalized Scores: {} {} {} {}}",
+                Math.abs(positiveSentimentScore),
+                Math.abs(negativeSentimentScore),
+                Math.abs(neutralSentimentCount),
+                compoundPolarityScore
+            );
+        }
+
+        final float absolutePositivePolarity = Math.abs(positiveSentimentScore / normalizationFactor);
+        final float absoluteNegativePolarity = Math.abs(negativeSentimentScore / normalizationFactor);
+        final float absoluteNeutralPolarity = Math.abs(neutralSentimentCount / normalizationFactor);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Pre-Round Scores: {} {} {} {}}",
+                absolutePositivePolarity,
+                absoluteNegativePolarity,
+                absoluteNeutralPolarity,
+                compoundPolarityScore
+            );
         }
-        LOGGER.debug("Sentiment state after first pass through tokens: {}", sentiments);
 
-        sentiments = adjustValenceIfHasConjunction(wordsAndEmoticons, sentiments);
-        LOGGER.debug("Sentiment state after checking conjunctions: {}", sentiments);
+        polarities[SentimentScorer.POSITIVE] = roundDecimal(absolutePositivePolarity, 3);
+        polarities[SentimentScorer.NEGATIVE] = roundDecimal(absoluteNegativePolarity, 3);
+        polarities[SentimentScorer.NEUTRAL] = roundDecimal(absoluteNeutralPolarity, 3);
 
-        return sentiments;
+        // Normalizing the compound score.
+        polarities[SentimentScorer.COMPOUND] = roundDecimal(normalizeCompoundScore(compoundPolarityScore), 4);
     }
 
     /**
-     * This methods calculates the positive, negative and neutral sentiment from the sentiment values of the input
-     * string.
+     * Convert the lower level token wise valence to a higher level polarity scores.
+     * The compound score is computed by summing the valence scores of each word in the lexicon, adjusted
+     * according to the rules, and then normalized to be between -1 (most extreme negative) and +1
+     * (most extreme positive). This is the most useful metric if you want a single uni-dimensional measure
+     * of sentiment for a given sentence. Calling it a 'normalized, weighted composite score' is accurate.
+     * The positive, negative and neutral sentiment are computed in the same pass over the valencies.
      *
-     * @param tokenWiseSentimentState valence of the each token in input string
+     * @param tokenWiseSentimentState the token wise scores of the input string
+     * @param noOfTokens              number of tokens, whose scores are at the start of tokenWiseSentimentState
      * @param punctuationAmplifier    valence adjustment factor for punctuations
-     * @return an object of the non-normalized scores as {@link RawSentimentScores}.
+     * @param polarities              array in which the positive, negative, neutral and compound polarity scores
+     *                                are stored, at the indexes defined by {@link SentimentScorer}
      */
-    private static RawSentimentScores computeRawSentimentScores(final List<Float> tokenWiseSentimentState,
-                                                                final float punctuationAmplifier) {
+    static void getPolarityScores(final float[] tokenWiseSentimentState, final int noOfTokens,
+                                  final float punctuationAmplifier, final float[] polarities) {
+        float totalValence = 0.0F;
         float positiveSentimentScore = 0.0F;
         float negativeSentimentScore = 0.0F;
         int neutralSentimentCount = 0;
-        for (Float valence : tokenWiseSentimentState) {
+        for (int index = 0; index < noOfTokens; index++) {
+            final float valence = tokenWiseSentimentState[index];
+            totalValence += valence;
             if (valence > 0.0F) {
                 positiveSentimentScore += valence + 1.0F;
             } else if (valence < 0.0F) {
@@ -459,131 +611,78 @@ public final class SentimentAnalyzer {
                 neutralSentimentCount += 1;
             }
         }
-
-        if (positiveSentimentScore > Math.abs(negativeSentimentScore)) {
-            positiveSentimentScore += punctuationAmplifier;
-        } else if (positiveSentimentScore < Math.abs(negativeSentimentScore)) {
-            negativeSentimentScore -= punctuationAmplifier;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Total valence: {}", totalValence);
         }
 
-        return new RawSentimentScores(positiveSentimentScore, negativeSentimentScore, (float) neutralSentimentCount);
+        getPolarityScores(totalValence, positiveSentimentScore, negativeSentimentScore, neutralSentimentCount,
+            punctuationAmplifier, polarities);
     }
 
     /**
-     * The compound score is computed by summing the valence scores of each word in the lexicon, adjusted
-     * according to the rules, and then normalized to be between -1 (most extreme negative) and +1
-     * (most extreme positive). This is the most useful metric if you want a single uni-dimensional measure
-     * of sentiment for a given sentence. Calling it a 'normalized, weighted composite score' is accurate.
+     * Convert the sums of the token wise valences to higher level polarity scores, see
+     * {@link SentimentAnalyzer#getPolarityScores(float[], int, float, float[])}.
      *
-     * @param tokenWiseSentimentState valence for each token
-     * @param punctuationAmplifier    valence adjustment factor for punctuations
-     * @return raw compound polarity
+     * @param sumOfValences          sum of the valences of all the tokens
+     * @param positiveSentimentScore sum of the positive valences, each plus one
+     * @param negativeSentimentScore sum of the negative valences, each minus one
+     * @param neutralSentimentCount  number of tokens whose valence is zero
+     * @param punctuationAmplifier   valence adjustment factor for punctuations
+     * @param polarities             array in which the positive, negative, neutral and compound polarity scores
+     *                               are stored, at the indexes defined by {@link SentimentScorer}
      */
-    private static float computeCompoundPolarityScore(final List<Float> tokenWiseSentimentState,
-                                                      final float punctuationAmplifier) {
-        /*
-         * Compute the total valence.
-         */
-        float totalValence = tokenWiseSentimentState.stream().reduce(0.0F, Float::sum);
-        LOGGER.debug("Total valence: {}", totalValence);
-
+    static void getPolarityScores(final float sumOfValences, final float positiveSentimentScore,
+                                  final float negativeSentimentScore, final float neutralSentimentCount,
+                                  final float punctuationAmplifier, final float[] polarities) {
+        float totalValence = sumOfValences;
+        float positiveScore = positiveSentimentScore;
+        float negativeScore = negativeSentimentScore;
         if (totalValence > 0.0F) {
             totalValence += punctuationAmplifier;
         } else if (totalValence < 0.0F) {
             totalValence -= punctuationAmplifier;
         }
 
-        return totalValence;
-    }
-
-    /**
-     * Normalize the compound score and the other three raw sentiment scores.
-     *
-     * @param rawSentimentScores    multi-dimensional sentiment scores.
-     * @param compoundPolarityScore uni-dimensional sentiment score.
-     * @return normalized values of all the type of the sentiment scores in a object of {@link SentimentPolarities}.
-     */
-    private static SentimentPolarities normalizeAllScores(final RawSentimentScores rawSentimentScores,
-                                                          final float compoundPolarityScore) {
-        final float positiveSentimentScore = rawSentimentScores.getPositiveScore();
-        final float negativeSentimentScore = rawSentimentScores.getNegativeScore();
-        final int neutralSentimentCount = Math.round(rawSentimentScores.getNeutralScore());
-
-        final float normalizationFactor = positiveSentimentScore + Math.abs(negativeSentimentScore)
-            + neutralSentimentCount;
-
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Normalization Factor: {}", normalizationFactor);
-            LOGGER.debug("Pre-Normalized Scores: {} {} {} {}}",
-                Math.abs(positiveSentimentScore),
-                Math.abs(negativeSentimentScore),
-                Math.abs(neutralSentimentCount),
-                compoundPolarityScore
-            );
+        if (positiveScore > Math.abs(negativeScore)) {
+            positiveScore += punctuationAmplifier;
+        } else if (positiveScore < Math.abs(negativeScore)) {
+            negativeScore -= punctuationAmplifier;
         }
 
-        final float absolutePositivePolarity = Math.abs(positiveSentimentScore / normalizationFactor);
-        final float absoluteNegativePolarity = Math.abs(negativeSentimentScore / normalizationFactor);
-        final float absoluteNeutralPolarity = Math.abs(neutralSentimentCount / normalizationFactor);
-
-        LOGGER.debug("Pre-Round Scores: {} {} {} {}}",
-            absolutePositivePolarity,
-            absoluteNegativePolarity,
-            absoluteNeutralPolarity,
-            compoundPolarityScore
-        );
-
-        final float normalizedPositivePolarity = roundDecimal(absolutePositivePolarity, 3);
-        final float normalizedNegativePolarity = roundDecimal(absoluteNegativePolarity, 3);
-        final float normalizedNeutralPolarity = roundDecimal(absoluteNeutralPolarity, 3);
-
-        // Normalizing the compound score.
-        final float normalizedCompoundPolarity = roundDecimal(normalizeCompoundScore(compoundPolarityScore), 4);
-
-        return new SentimentPolarities(normalizedPositivePolarity, normalizedNegativePolarity,
-            normalizedNeutralPolarity, normalizedCompoundPolarity);
+        normalizeAllScores(positiveScore, negativeScore, neutralSentimentCount, totalValence, polarities);
     }
 
     /**
-     * Convert the lower level token wise valence to a higher level polarity scores.
+     * This function jointly performs the boosting if input string contains
+     * '!'s and/or '?'s and then returns the sum of the boosted scores from
+     * {@link SentimentAnalyzer#boostByExclamation(int)} and {@link SentimentAnalyzer#boostByQuestionMark(int)}.
      *
-     * @param tokenWiseSentimentStateParam the token wise scores of the input string
-     * @param punctuationAmplifier         valence adjustment factor for punctuations
-     * @return the positive, negative, neutral and compound polarity scores as a map
+     * @param textProperties the properties of the input string that needs to be processed.
+     * @return joint boosted score
      */
-    private static SentimentPolarities getPolarityScores(final List<Float> tokenWiseSentimentStateParam,
-                                                         final float punctuationAmplifier) {
-        final List<Float> tokenWiseSentimentState = Collections.unmodifiableList(tokenWiseSentimentStateParam);
-        LOGGER.debug("Final token-wise sentiment state: {}", tokenWiseSentimentState);
-
-        final float compoundPolarity = computeCompoundPolarityScore(tokenWiseSentimentState, punctuationAmplifier);
-        final RawSentimentScores rawSentimentScores = computeRawSentimentScores(tokenWiseSentimentState,
-            punctuationAmplifier);
-
-        return normalizeAllScores(rawSentimentScores, compoundPolarity);
+    static float boostByPunctuation(TextProperties textProperties) {
+        return boostByPunctuation(textProperties.getExclamationCount(), textProperties.getQuestionMarkCount());
     }
 
     /**
-     * This function jointly performs the boosting if input string contains
-     * '!'s and/or '?'s and then returns the sum of the boosted scores from
-     * {@link SentimentAnalyzer#boostByExclamation(String)} and {@link SentimentAnalyzer#boostByQuestionMark(String)}.
+     * This function returns the sum of the boosted scores of the given numbers of '!'s and '?'s, see
+     * {@link SentimentAnalyzer#boostByPunctuation(TextProperties)}.
      *
-     * @param input the input string that needs to be processed.
+     * @param exclamationCount  number of '!'s in the input string.
+     * @param questionMarkCount number of '?'s in the input string.
      * @return joint boosted score
      */
-    private static float boostByPunctuation(String input) {
-        return boostByExclamation(input) + boostByQuestionMark(input);
+    static float boostByPunctuation(int exclamationCount, int questionMarkCount) {
+        return boostByExclamation(exclamationCount) + boostByQuestionMark(questionMarkCount);
     }
 
     /**
      * Valence boosting when '!' is found in the input string.
      *
-     * @param input the input string that needs to be processed.
+     * @param exclamationCount number of '!'s in the input string.
      * @return boosting score
      */
-    private static float boostByExclamation(String input) {
-        final int exclamationCount =
-            StringUtils.countMatches(input, SentimentModifyingTokens.EXCLAMATION_MARK.getValue());
+    private static float boostByExclamation(int exclamationCount) {
         return Math.min(exclamationCount, Constants.MAX_EXCLAMATION_MARKS)
             * Valence.EXCLAMATION_BOOSTING.getValue();
     }
@@ -591,12 +690,10 @@ public final class SentimentAnalyzer {
     /**
      * Valence boosting when '?' is found in the input string.
      *
-     * @param input the input string that needs to be processed.
+     * @param questionMarkCount number of '?'s in the input string.
      * @return boosting score
      */
-    private static float boostByQuestionMark(String input) {
-        final int questionMarkCount =
-            StringUtils.countMatches(input, SentimentModifyingTokens.QUESTION_MARK.getValue());
+    private static float boostByQuestionMark(int questionMarkCount) {
         float questionMarkAmplifier = 0.0F;
         if (questionMarkCount > 1) {
             if (questionMarkCount <= Constants.MAX_QUESTION_MARKS) {
@@ -612,31 +709,26 @@ public final class SentimentAnalyzer {
      * This methods manages the effect of contrastive conjunctions like "but" on the valence of a token.
      * "VADER" only support "but/BUT" as a conjunction that modifies the valence.
      *
-     * @param inputTokensParam             list of token and/or emoticons in the input string
-     * @param tokenWiseSentimentStateParam current token wise sentiment scores
-     * @return adjusted token wise sentiment scores
+     * @param inputTokens             token and/or emoticons in the input string
+     * @param tokenWiseSentimentState current token wise sentiment scores, which are adjusted in place
      */
-    private static List<Float> adjustValenceIfHasConjunction(final List<String> inputTokensParam,
-                                                             final List<Float> tokenWiseSentimentStateParam) {
-        final List<String> inputTokens = Collections.unmodifiableList(inputTokensParam);
-        final List<Float> tokenWiseSentimentState = new ArrayList<>(tokenWiseSentimentStateParam);
-
+    static void adjustValenceIfHasConjunction(final TokenSequence inputTokens,
+                                              final float[] tokenWiseSentimentState) {
         int indexOfConjunction = inputTokens.indexOf(SentimentModifyingTokens.BUT.getValue());
         if (indexOfConjunction < 0) {
-            indexOfConjunction = inputTokens.indexOf(SentimentModifyingTokens.BUT.getValue().toUpperCase());
+            indexOfConjunction = inputTokens.indexOf(UPPER_CASE_BUT);
         }
         if (indexOfConjunction >= 0) {
-            for (int valenceIndex = 0; valenceIndex < tokenWiseSentimentState.size(); valenceIndex++) {
-                float currentValence = tokenWiseSentimentState.get(valenceIndex);
+            for (int valenceIndex = 0; valenceIndex < inputTokens.size(); valenceIndex++) {
+                float currentValence = tokenWiseSentimentState[valenceIndex];
                 if (valenceIndex < indexOfConjunction) {
                     currentValence *= Valence.PRE_CONJUNCTION_ADJUSTMENT_FACTOR.getValue();
                 } else if (valenceIndex > indexOfConjunction) {
                     currentValence *= Valence.POST_CONJUNCTION_ADJUSTMENT_FACTOR.getValue();
                 }
-                tokenWiseSentimentState.set(valenceIndex, currentValence);
+                tokenWiseSentimentState[valenceIndex] = currentValence;
             }
         }
-        return tokenWiseSentimentState;
     }
 
     /**
@@ -645,68 +737,79 @@ public final class SentimentAnalyzer {
      *
      * @param currentItemPosition    position of the token in wordsAndEmoticons around which we will search for "least"
      *                               type phrases
-     * @param wordsAndEmoticonsParam list of token and/or emoticons in the input string
+     * @param wordsAndEmoticons      token and/or emoticons in the input string
      * @param currentValence         valence of the token at currentItemPosition
      * @return adjusted currentValence
      */
     private static float adjustValenceIfHasAtLeast(final int currentItemPosition,
-                                                   final List<String> wordsAndEmoticonsParam,
+                                                   final TokenSequence wordsAndEmoticons,
                                                    final float currentValence) {
-        final List<String> wordsAndEmoticons = Collections.unmodifiableList(wordsAndEmoticonsParam);
         float valence = currentValence;
         if (currentItemPosition > 1
-            && !Utils.WORD_VALENCE_DICTIONARY.containsKey(wordsAndEmoticons.get(currentItemPosition - 1)
-                                                                           .toLowerCase())
-            && wordsAndEmoticons.get(currentItemPosition - 1)
-                                .toLowerCase().equals(SentimentModifyingTokens.LEAST.getValue())) {
-            if (!(wordsAndEmoticons.get(currentItemPosition - 2).toLowerCase()
-                                   .equals(SentimentModifyingTokens.AT.getValue())
-                || wordsAndEmoticons.get(currentItemPosition - 2).toLowerCase()
-                                    .equals(SentimentModifyingTokens.VERY.getValue()))) {
+            && !isInLexicon(wordsAndEmoticons, currentItemPosition - 1)
+            && wordsAndEmoticons.lowerCaseEquals(currentItemPosition - 1, SentimentModifyingTokens.LEAST.getValue())) {
+            if (!(wordsAndEmoticons.lowerCaseEquals(currentItemPosition - 2, SentimentModifyingTokens.AT.getValue())
+                || wordsAndEmoticons.lowerCaseEquals(currentItemPosition - 2,
+                SentimentModifyingTokens.VERY.getValue()))) {
                 valence *= Valence.NEGATIVE_WORD_DAMPING_FACTOR.getValue();
             }
         } else if (currentItemPosition > 0
-            && !Utils.WORD_VALENCE_DICTIONARY.containsKey(wordsAndEmoticons.get(currentItemPosition - 1).toLowerCase())
-            && wordsAndEmoticons.get(currentItemPosition - 1).equals(SentimentModifyingTokens.LEAST.getValue())) {
+            && !isInLexicon(wordsAndEmoticons, currentItemPosition - 1)
+            && wordsAndEmoticons.contentEquals(currentItemPosition - 1, SentimentModifyingTokens.LEAST.getValue())) {
             valence *= Valence.NEGATIVE_WORD_DAMPING_FACTOR.getValue();
         }
         return valence;
     }
 
+    /**
+     * Check if the lower case form of a token has a valence in the vocabulary.
+     *
+     * @param tokens        tokenized version of the input text
+     * @param tokenPosition position of the token
+     * @return true iff the token has a valence
+     */
+    private static boolean isInLexicon(final TokenSequence tokens, final int tokenPosition) {
+        return tokens.getEntry(tokenPosition).hasValence();
+    }
+
     /**
      * Check if token has "n't" in the end.
      *
-     * @param token current token
+     * @param tokens        tokenized version of the input text
+     * @param tokenPosition position of the current token
      * @return true iff token has "n't" in the end
      */
-    private static boolean hasContraction(final String token) {
-        return token.endsWith(SentimentModifyingTokens.CONTRACTION.getValue());
+    private static boolean hasContraction(final TokenSequence tokens, final int tokenPosition) {
+        return tokens.hasFlag(tokenPosition, TokenSequence.CONTRACTION);
     }
 
     /**
      * Check if token belongs to a pre-defined list of negative words. e.g. {@link Utils#NEGATIVE_WORDS}
      * and also checks if the token has "n't" in the end.
      *
-     * @param token             current token
+     * @param tokens            tokenized version of the input text
+     * @param tokenPosition     position of the current token
      * @param checkContractions flag to check "n't" in end of token
      * @return true iff token is in newNegWords or if checkContractions is true, token should have "n't" in its end
      */
-    private static boolean isNegative(final String token, final boolean checkContractions) {
-        final boolean result = Utils.NEGATIVE_WORDS.contains(token);
+    private static boolean isNegative(final TokenSequence tokens, final int tokenPosition,
+                                      final boolean checkContractions) {
+        final boolean result = tokens.hasFlag(tokenPosition, TokenSequence.NEGATION);
         if (!checkContractions) {
             return result;
         }
-        return result || hasContraction(token);
+        return result || hasContraction(tokens, tokenPosition);
     }
 
     /**
-     * This is the default version of {@link SentimentAnalyzer#isNegative(String, boolean)}.
+     * This is the default version of {@link SentimentAnalyzer#isNegative(TokenSequence, int, boolean)}.
      *
-     * @param token current token
+     * @param tokens        tokenized version of the input text
+     * @param tokenPosition position of the current token
      * @return true iff token is in {@link Utils#NEGATIVE_WORDS} or token has "n't" in its end
      */
-    private static boolean isNegative(final String token) {
-        return isNegative(token, true);
+    private static boolean isNegative(final TokenSequence tokens, final int tokenPosition) {
+        return isNegative(tokens, tokenPosition, true);
     }
 
     /**
@@ -738,7 +841,7 @@ public final class SentimentAnalyzer {
      * @param noOfPlaces   no. of decimal places
      * @return rounded float value
      */
-    private static float roundDecimal(final float currentValue, final int noOfPlaces) {
+    static float roundDecimal(final float currentValue, final int noOfPlaces) {
         final float factor = (float) Math.pow(10.0, (double) noOfPlaces);
         final float number = Math.round(currentValue * factor);
         return number / factor;
@@ -746,29 +849,17 @@ public final class SentimentAnalyzer {
 
     /**
      * This is a composite function that computes token-wise sentiment scores and then converts that to
-     * higher level scores.
+     * higher level scores. The string is scored by the {@link SentimentScorer} owned by the current thread.
      *
-     * @param inputString string that is to be processed.
+     * @param inputString           string that is to be processed.
+     * @param tokenizerMode         tokenizer used to split up the string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words, see
+     *                              {@link SentimentAnalyzer#MULTI_WORD_LEXICON_PROPERTY}.
      * @return the positive, negative, neutral and compound polarity scores as {@link SentimentPolarities}
      */
-    private static SentimentPolarities computeSentimentPolaritiesFor(String inputString) {
-        // Parse the string using Lucene and get the text tokens.
-        final TextProperties inputStringProperties;
-        try {
-            inputStringProperties = new TextProperties(inputString);
-        } catch (IOException excp) {
-            LOGGER.error("There was an issue while pre-processing the inputString.", excp);
-            return SentimentPolarities.emptySentimentState();
-        }
-
-        // Calculate the per-token valence.
-        final List<Float> tokenWiseSentiments = getTokenWiseSentiment(inputStringProperties);
-        if (tokenWiseSentiments.isEmpty()) {
-            return SentimentPolarities.emptySentimentState();
-        }
-        // Adjust the total valence score on the basis of the punctuations in the input string.
-        final float punctuationAmplifier = boostByPunctuation(inputString);
-        return getPolarityScores(tokenWiseSentiments, punctuationAmplifier);
+    static SentimentPolarities computeSentimentPolaritiesFor(String inputString, TokenizerMode tokenizerMode,
+                                                             boolean matchMultiWordLexicon) {
+        return THREAD_LOCAL_SCORER.get().getScoresFor(inputString, tokenizerMode, matchMultiWordLexicon);
     }
 }
 //CHECKSTYLE.ON: ExecutableStatementCount
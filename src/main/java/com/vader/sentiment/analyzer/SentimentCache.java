@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.vader.sentiment.metrics.SentimentMetrics;
+import com.vader.sentiment.metrics.SentimentMetricsRegistry;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The SentimentCache class keeps the scores of the strings analyzed recently, so that a stream with many copies
+ * of the same strings, like retweets, scores each of them once. The scores are kept by string and by version of
+ * the lexicon, so a string is scored again once the lexicon is reloaded, and the scores of the previous lexicon
+ * are evicted as they go unused. Every cache has its own tokenizer.
+ * A string is kept as its 128-bit murmur3 hash, like in {@link PersistentSentimentCache}, instead of the string
+ * itself, so that the cache takes about 150 bytes per string however long the strings are, and its memory is
+ * bounded by its maximum size. Two strings with the same hash would share their scores, which is unlikely enough
+ * to be ignored.
+ * The cache holds at most a given number of strings and is a striped LRU: it is split into one segment per
+ * processor, with a lock each, so that threads using different segments do not wait for each other, and each
+ * segment evicts its least recently used strings first. Every new string is admitted, so a burst of strings seen
+ * only once evicts the frequent ones, and the hit rate is lower under such bursts than with a frequency-based
+ * admission policy like TinyLFU.
+ * The hits, misses and evictions are counted in {@link SentimentCache#stats()}, and the hits and misses are also
+ * reported to the installed {@link SentimentMetrics}. An instance is thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentCache {
+    /**
+     * Name of this kind of cache in the {@link SentimentMetrics}.
+     */
+    static final String CACHE_NAME = "SentimentCache";
+
+    /**
+     * The scores by string and version of the lexicon.
+     */
+    private final Cache<Key, SentimentPolarities> cache;
+
+    /**
+     * Scorers of the strings which are not in the cache.
+     */
+    private final ScorerPool scorers;
+
+    /**
+     * Creates a cache with the default tokenizer.
+     *
+     * @param maximumSize the largest number of strings kept.
+     */
+    public SentimentCache(final long maximumSize) {
+        this(maximumSize, TokenizerMode.getDefault());
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize   the largest number of strings kept.
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     */
+    public SentimentCache(final long maximumSize, final TokenizerMode tokenizerMode) {
+        Preconditions.checkArgument(maximumSize > 0, "Maximum size should be positive: %s", maximumSize);
+        Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .recordStats()
+            .build();
+        this.scorers = new ScorerPool(tokenizerMode, SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON);
+    }
+
+    /**
+     * Get the scores of a string from the cache, or score it and keep its scores if it is not there.
+     *
+     * @param inputString the string to be analyzed.
+     * @return an object of {@link SentimentPolarities} which will hold all the sentiment scores.
+     */
+    public SentimentPolarities getScoresFor(final String inputString) {
+        Preconditions.checkNotNull(inputString, "Input string should not be null.");
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        final Key key = Key.of(inputString, vocabulary.getVersion());
+        final SentimentMetrics metrics = SentimentMetricsRegistry.current();
+        if (!metrics.isEnabled()) {
+            return get(key, () -> scorers.score(inputString, vocabulary));
+        }
+        final boolean[] scored = new boolean[1];
+        final SentimentPolarities result = get(key, () -> {
+            scored[0] = true;
+            return scorers.score(inputString, vocabulary);
+        });
+        metrics.recordCacheLookup(CACHE_NAME, !scored[0]);
+        return result;
+    }
+
+    /**
+     * Get the scores of a key from the cache, or compute and keep them if they are not there.
+     *
+     * @param key    the hash of the string and the version of the lexicon.
+     * @param scorer computes the scores of the string.
+     * @return the scores.
+     */
+    private SentimentPolarities get(final Key key, final Callable<SentimentPolarities> scorer) {
+        try {
+            return cache.get(key, scorer);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            Throwables.throwIfUnchecked(ex.getCause());
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Get the statistics of the cache: number of hits, misses and evictions since it was created.
+     *
+     * @return the statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get the number of strings in the cache.
+     *
+     * @return the approximate number of strings
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all the strings from the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Key of the cache, which is the hash of a string and the version of the lexicon it was scored with.
+     */
+    private static final class Key {
+        /**
+         * The high half of the hash of the string.
+         */
+        private final long hashHigh;
+
+        /**
+         * The low half of the hash of the string.
+         */
+        private final long hashLow;
+
+        /**
+         * The version of the lexicon, from {@link Vocabulary#getVersion()}.
+         */
+        private final long version;
+
+        /**
+         * Creates a key.
+         *
+         * @param hashHigh the high half of the hash of the string
+         * @param hashLow  the low half of the hash of the string
+         * @param version  the version of the lexicon
+         */
+        private Key(final long hashHigh, final long hashLow, final long version) {
+            this.hashHigh = hashHigh;
+            this.hashLow = hashLow;
+            this.version = version;
+        }
+
+        /**
+         * Creates the key of a string.
+         *
+         * @param text    the string
+         * @param version the version of the lexicon
+         * @return the key, which does not keep the string
+         */
+        private static Key of(final String text, final long version) {
+            final long[] hash = new long[2];
+            PersistentSentimentCache.hash128(text, hash);
+            return new Key(hash[0], hash[1], version);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) other;
+            return hashLow == key.hashLow && hashHigh == key.hashHigh && version == key.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hashLow) * 31 + Long.hashCode(version);
+        }
+    }
+}
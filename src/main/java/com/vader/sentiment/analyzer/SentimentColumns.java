@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.Arrays;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class holds the scores of a batch of strings in columns, i.e. one float array per type of score, in the
+ * same order as the strings of the batch. This avoids creating a {@link SentimentPolarities} per string, and
+ * lets the scores of a batch be aggregated or copied with tight loops over primitive arrays.
+ * An object can be filled again with the scores of another batch, see
+ * {@link SentimentScorer#scoreAll(Iterable, SentimentColumns)}, in which case its arrays are reused and are grown
+ * only if the batch is larger than the previous ones. The arrays returned by the getters may be longer than
+ * {@link SentimentColumns#size()}, and only their first {@link SentimentColumns#size()} elements are scores.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentColumns {
+    /**
+     * Number of strings for which space is allocated by default.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Proportion of text that is positive, for each string.
+     */
+    private float[] positivePolarities;
+
+    /**
+     * Proportion of text that is negative, for each string.
+     */
+    private float[] negativePolarities;
+
+    /**
+     * Proportion of text that is neutral, for each string.
+     */
+    private float[] neutralPolarities;
+
+    /**
+     * Compound score, for each string.
+     */
+    private float[] compoundPolarities;
+
+    /**
+     * Number of strings whose scores are held.
+     */
+    private int size;
+
+    /**
+     * Creates empty columns with space for a default number of strings.
+     */
+    public SentimentColumns() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates empty columns with space for the given number of strings.
+     *
+     * @param capacity number of strings whose scores can be held before the arrays are grown.
+     */
+    public SentimentColumns(final int capacity) {
+        Preconditions.checkArgument(capacity >= 0, "Capacity should not be negative: %s", capacity);
+        this.positivePolarities = new float[capacity];
+        this.negativePolarities = new float[capacity];
+        this.neutralPolarities = new float[capacity];
+        this.compoundPolarities = new float[capacity];
+    }
+
+    /**
+     * Remove the scores of all the strings, keeping the arrays for the next batch.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Set the number of strings whose scores are held, growing the arrays if needed, so that the scores of the
+     * strings can be set in any order, see {@link SentimentColumns#set(int, float[])}.
+     *
+     * @param newSize number of strings in the batch
+     */
+    void resize(final int newSize) {
+        if (newSize > positivePolarities.length) {
+            positivePolarities = Arrays.copyOf(positivePolarities, newSize);
+            negativePolarities = Arrays.copyOf(negativePolarities, newSize);
+            neutralPolarities = Arrays.copyOf(neutralPolarities, newSize);
+            compoundPolarities = Arrays.copyOf(compoundPolarities, newSize);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Set the scores of a string. Different threads may set the scores of different strings at the same time.
+     *
+     * @param index      index of the string in the batch
+     * @param polarities the scores, at the indexes defined by {@link SentimentScorer}.
+     */
+    void set(final int index, final float[] polarities) {
+        positivePolarities[index] = polarities[SentimentScorer.POSITIVE];
+        negativePolarities[index] = polarities[SentimentScorer.NEGATIVE];
+        neutralPolarities[index] = polarities[SentimentScorer.NEUTRAL];
+        compoundPolarities[index] = polarities[SentimentScorer.COMPOUND];
+    }
+
+    /**
+     * Append the scores of a string.
+     *
+     * @param polarities the scores, at the indexes defined by {@link SentimentScorer}.
+     */
+    void add(final float[] polarities) {
+        if (size == positivePolarities.length) {
+            final int capacity = Math.max(DEFAULT_CAPACITY, size * 2);
+            positivePolarities = Arrays.copyOf(positivePolarities, capacity);
+            negativePolarities = Arrays.copyOf(negativePolarities, capacity);
+            neutralPolarities = Arrays.copyOf(neutralPolarities, capacity);
+            compoundPolarities = Arrays.copyOf(compoundPolarities, capacity);
+        }
+        positivePolarities[size] = polarities[SentimentScorer.POSITIVE];
+        negativePolarities[size] = polarities[SentimentScorer.NEGATIVE];
+        neutralPolarities[size] = polarities[SentimentScorer.NEUTRAL];
+        compoundPolarities[size] = polarities[SentimentScorer.COMPOUND];
+        size++;
+    }
+
+    /**
+     * Get the number of strings whose scores are held.
+     *
+     * @return number of strings in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the scores of a string as an object.
+     *
+     * @param index index of the string in the batch
+     * @return an object of {@link SentimentPolarities} which holds the scores of the string.
+     */
+    public SentimentPolarities get(final int index) {
+        Preconditions.checkElementIndex(index, size);
+        return new SentimentPolarities(positivePolarities[index], negativePolarities[index],
+            neutralPolarities[index], compoundPolarities[index]);
+    }
+
+    public float[] getPositivePolarities() {
+        return positivePolarities;
+    }
+
+    public float[] getNegativePolarities() {
+        return negativePolarities;
+    }
+
+    public float[] getNeutralPolarities() {
+        return neutralPolarities;
+    }
+
+    public float[] getCompoundPolarities() {
+        return compoundPolarities;
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TokenizerMode;
+
+/**
+ * The SentimentProcessor class is a {@link Flow.Processor} which scores the strings of a stream, for a single
+ * subscriber, and follows the Reactive Streams rules. The scores are published in the same order as the strings.
+ * At most {@code bufferSize} strings are requested from upstream beyond the scores already published, so a slow
+ * subscriber stops the strings from being requested instead of making the processor buffer them. Up to
+ * {@code concurrency} strings are scored at the same time on the executor, each with a scorer borrowed from a pool.
+ * An error of the upstream publisher or of the scoring is passed on to the subscriber without waiting for the
+ * scores not published yet.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentProcessor implements Flow.Processor<String, SentimentPolarities> {
+    /**
+     * Subscription given to the subscribers which are rejected.
+     */
+    private static final Flow.Subscription EMPTY_SUBSCRIPTION = new Flow.Subscription() {
+        @Override
+        public void request(final long count) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    /**
+     * Executor on which the strings are scored.
+     */
+    private final Executor executor;
+
+    /**
+     * Largest number of strings scored at the same time.
+     */
+    private final int concurrency;
+
+    /**
+     * Largest number of strings requested from upstream and not published yet.
+     */
+    private final int bufferSize;
+
+    /**
+     * Smallest number of free slots which are requested from upstream at once.
+     */
+    private final int replenishLimit;
+
+    /**
+     * Scorers lent to the tasks scoring the strings.
+     */
+    private final ScorerPool scorers;
+
+    /**
+     * Strings received and not scored yet, at their sequence number modulo {@link SentimentProcessor#bufferSize}.
+     */
+    private final AtomicReferenceArray<String> inputs;
+
+    /**
+     * Scores not published yet, at the sequence number of their string modulo
+     * {@link SentimentProcessor#bufferSize}.
+     */
+    private final AtomicReferenceArray<SentimentPolarities> results;
+
+    /**
+     * Subscription to the upstream publisher.
+     */
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+
+    /**
+     * Flag that is set when a subscriber has subscribed.
+     */
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Number of scores requested by the subscriber and not published yet.
+     */
+    private final AtomicLong demand = new AtomicLong();
+
+    /**
+     * Number of strings being scored.
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * Number of times {@link SentimentProcessor#drain()} was called and not handled yet, so that a single thread
+     * at a time publishes the scores.
+     */
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    /**
+     * The subscriber, which is set once it has received its subscription.
+     */
+    private volatile Flow.Subscriber<? super SentimentPolarities> subscriber;
+
+    /**
+     * Number of strings received from upstream, which is only written by the upstream publisher.
+     */
+    private volatile long received;
+
+    /**
+     * Number of strings requested from upstream, which is only written while draining.
+     */
+    private volatile long requested;
+
+    /**
+     * Flag that is set when the upstream publisher has completed.
+     */
+    private volatile boolean done;
+
+    /**
+     * Error to be passed on to the subscriber.
+     */
+    private volatile Throwable error;
+
+    /**
+     * Flag that is set when the subscriber has cancelled its subscription.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Number of strings given to the executor, which is only used while draining.
+     */
+    private long dispatched;
+
+    /**
+     * Number of scores published, which is only used while draining.
+     */
+    private long emitted;
+
+    /**
+     * Flag that is set when the subscription has ended, which is only used while draining.
+     */
+    private boolean terminated;
+
+    /**
+     * Creates a processor that scores the strings on the {@link ForkJoinPool#commonPool()}, with as many strings
+     * at a time as the pool has threads and with the default buffer size of {@link Flow#defaultBufferSize()}.
+     */
+    public SentimentProcessor() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * Creates a processor that scores the strings on the given executor with the default tokenizer.
+     *
+     * @param executor    the executor on which the strings are scored.
+     * @param concurrency the largest number of strings scored at the same time.
+     * @param bufferSize  the largest number of strings requested from upstream and not published yet.
+     */
+    public SentimentProcessor(final Executor executor, final int concurrency, final int bufferSize) {
+        this(executor, concurrency, bufferSize, TokenizerMode.getDefault());
+    }
+
+    /**
+     * Creates a processor that scores the strings on the given executor.
+     *
+     * @param executor      the executor on which the strings are scored.
+     * @param concurrency   the largest number of strings scored at the same time.
+     * @param bufferSize    the largest number of strings requested from upstream and not published yet.
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     */
+    public SentimentProcessor(final Executor executor, final int concurrency, final int bufferSize,
+                              final TokenizerMode tokenizerMode) {
+        Preconditions.checkArgument(concurrency > 0, "Concurrency should be positive: %s", concurrency);
+        Preconditions.checkArgument(bufferSize > 0, "Buffer size should be positive: %s", bufferSize);
+        Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.executor = Preconditions.checkNotNull(executor, "Executor should not be null.");
+        this.concurrency = concurrency;
+        this.bufferSize = bufferSize;
+        this.replenishLimit = Math.max(1, bufferSize / 2);
+        this.scorers = new ScorerPool(tokenizerMode, SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON);
+        this.inputs = new AtomicReferenceArray<>(bufferSize);
+        this.results = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super SentimentPolarities> newSubscriber) {
+        Preconditions.checkNotNull(newSubscriber, "Subscriber should not be null.");
+        if (!subscribed.compareAndSet(false, true)) {
+            newSubscriber.onSubscribe(EMPTY_SUBSCRIPTION);
+            newSubscriber.onError(new IllegalStateException("SentimentProcessor allows a single subscriber."));
+            return;
+        }
+        newSubscriber.onSubscribe(new Subscription());
+        subscriber = newSubscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        Preconditions.checkNotNull(subscription, "Subscription should not be null.");
+        if (!upstream.compareAndSet(null, subscription) || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(final String item) {
+        Preconditions.checkNotNull(item, "Item should not be null.");
+        if (done || cancelled || error != null) {
+            return;
+        }
+        final long sequence = received;
+        if (sequence >= requested) {
+            fail(new IllegalStateException("More strings were received than requested."));
+            return;
+        }
+        inputs.set(slot(sequence), item);
+        received = sequence + 1;
+        drain();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        Preconditions.checkNotNull(throwable, "Throwable should not be null.");
+        if (error == null) {
+            error = throwable;
+        }
+        done = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        drain();
+    }
+
+    /**
+     * Get the slot of the buffers holding a string and its score.
+     *
+     * @param sequence the sequence number of the string
+     * @return the slot
+     */
+    private int slot(final long sequence) {
+        return (int) (sequence % bufferSize);
+    }
+
+    /**
+     * Record an error to be passed on to the subscriber.
+     *
+     * @param throwable the error
+     */
+    private void fail(final Throwable throwable) {
+        if (error == null) {
+            error = throwable;
+        }
+        drain();
+    }
+
+    /**
+     * Cancel the subscription to the upstream publisher, if there is one.
+     */
+    private void cancelUpstream() {
+        final Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Score a string, and publish the scores which are ready.
+     *
+     * @param slot        the slot of the string
+     * @param inputString the string to be analyzed
+     */
+    private void score(final int slot, final String inputString) {
+        try {
+            results.set(slot, scorers.score(inputString));
+        } catch (RuntimeException ex) {
+            if (error == null) {
+                error = ex;
+            }
+        }
+        running.decrementAndGet();
+        drain();
+    }
+
+    /**
+     * Score the strings received, publish the scores requested by the subscriber, request strings from upstream
+     * and signal the end of the stream. This runs on a single thread at a time: a thread calling it while another
+     * one is draining only makes that one loop once more.
+     */
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            final Flow.Subscriber<? super SentimentPolarities> currentSubscriber = subscriber;
+            if (currentSubscriber != null && !terminated) {
+                drainOnce(currentSubscriber);
+            }
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Handle the current state once, for {@link SentimentProcessor#drain()}.
+     *
+     * @param currentSubscriber the subscriber
+     */
+    private void drainOnce(final Flow.Subscriber<? super SentimentPolarities> currentSubscriber) {
+        if (cancelled) {
+            terminate();
+            return;
+        }
+        final Throwable currentError = error;
+        if (currentError != null) {
+            terminate();
+            cancelUpstream();
+            currentSubscriber.onError(currentError);
+            return;
+        }
+        dispatch();
+        emit(currentSubscriber);
+        if (cancelled || error != null) {
+            return;
+        }
+        if (done && emitted == received) {
+            terminate();
+            currentSubscriber.onComplete();
+        } else {
+            requestUpstream();
+        }
+    }
+
+    /**
+     * Give the strings received to the executor, as long as fewer than {@link SentimentProcessor#concurrency}
+     * strings are being scored.
+     */
+    private void dispatch() {
+        final long receivedCount = received;
+        while (dispatched < receivedCount && running.get() < concurrency) {
+            final int slot = slot(dispatched);
+            final String inputString = inputs.getAndSet(slot, null);
+            dispatched++;
+            running.incrementAndGet();
+            try {
+                executor.execute(() -> score(slot, inputString));
+            } catch (RejectedExecutionException ex) {
+                running.decrementAndGet();
+                if (error == null) {
+                    error = ex;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publish the scores which are ready, in the order of the strings, as long as the subscriber requests them.
+     *
+     * @param currentSubscriber the subscriber
+     */
+    private void emit(final Flow.Subscriber<? super SentimentPolarities> currentSubscriber) {
+        final long requestedScores = demand.get();
+        long published = 0;
+        while (published != requestedScores && emitted < dispatched && !cancelled && error == null) {
+            final int slot = slot(emitted);
+            final SentimentPolarities result = results.getAndSet(slot, null);
+            if (result == null) {
+                break;
+            }
+            emitted++;
+            published++;
+            currentSubscriber.onNext(result);
+        }
+        if (published != 0 && requestedScores != Long.MAX_VALUE) {
+            demand.addAndGet(-published);
+        }
+    }
+
+    /**
+     * Request as many strings from upstream as there are free slots, once there are enough of them.
+     */
+    private void requestUpstream() {
+        final Flow.Subscription subscription = upstream.get();
+        final long free = bufferSize - (requested - emitted);
+        if (subscription != null && !done && free >= replenishLimit) {
+            requested += free;
+            subscription.request(free);
+        }
+    }
+
+    /**
+     * End the subscription and release the strings and scores not published.
+     */
+    private void terminate() {
+        terminated = true;
+        for (int slot = 0; slot < bufferSize; slot++) {
+            inputs.set(slot, null);
+            results.set(slot, null);
+        }
+    }
+
+    /**
+     * The subscription of the subscriber.
+     */
+    private final class Subscription implements Flow.Subscription {
+        @Override
+        public void request(final long count) {
+            if (count <= 0) {
+                fail(new IllegalArgumentException("Non-positive number of scores requested: " + count));
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = demand.get();
+                next = current + count < 0 ? Long.MAX_VALUE : current + count;
+            } while (!demand.compareAndSet(current, next));
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelUpstream();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.metrics.PipelineStage;
+import com.vader.sentiment.metrics.SentimentMetrics;
+import com.vader.sentiment.metrics.SentimentMetricsRegistry;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenSequence;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The SentimentScorer class scores strings like {@link SentimentAnalyzer}, but holds all the memory needed for
+ * scoring a string and reuses it for the next one: the tokens, their flags and vocabulary entries, the set of
+ * words without punctuations and the valence of each token. The scores are written into a
+ * {@link MutableSentimentPolarities} or a float array supplied by the caller, so that once the arrays have grown
+ * large enough for the strings being scored, scoring a string does not allocate memory, except for tokens with
+ * non-ASCII characters that change in lower case, which are converted with the rules of {@link java.util.Locale#ROOT}
+ * whatever the default locale. The scorer does not keep the last string once it has been scored, and the arrays
+ * grown for a string of more than a few thousand tokens are dropped back to their initial size, so that an idle
+ * scorer owned by a pooled thread stays small.
+ * An instance is not thread-safe and should be owned by a single thread, e.g. one instance per worker thread.
+ * A batch of strings can be scored at once, with the same snapshot of the lexicon for all of them, into a list
+ * or into {@link SentimentColumns}.
+ * {@link SentimentAnalyzer#getScoresFor(String)} uses one instance per thread.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentScorer {
+    /**
+     * Index of the proportion of text that is positive, in the array of scores.
+     */
+    public static final int POSITIVE = 0;
+
+    /**
+     * Index of the proportion of text that is negative, in the array of scores.
+     */
+    public static final int NEGATIVE = 1;
+
+    /**
+     * Index of the proportion of text that is neutral, in the array of scores.
+     */
+    public static final int NEUTRAL = 2;
+
+    /**
+     * Index of the compound score, in the array of scores.
+     */
+    public static final int COMPOUND = 3;
+
+    /**
+     * Number of scores in the array of scores.
+     */
+    public static final int POLARITY_COUNT = 4;
+
+    /**
+     * Logger for current class.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SentimentScorer.class);
+
+    /**
+     * Number of tokens for which space is allocated at first in {@link SentimentScorer#valences}.
+     */
+    private static final int INITIAL_VALENCE_CAPACITY = 64;
+
+    /**
+     * Number of tokens above which {@link SentimentScorer#valences} is shrunk back to
+     * {@link SentimentScorer#INITIAL_VALENCE_CAPACITY} once a string has been scored.
+     */
+    static final int MAX_RETAINED_VALENCE_CAPACITY = 4096;
+
+    /**
+     * Tokenizer used for the strings scored by this object.
+     */
+    private final TokenizerMode tokenizerMode;
+
+    /**
+     * Flag that specifies if the lexicon entries of several words are matched, see
+     * {@link SentimentAnalyzer#MULTI_WORD_LEXICON_PROPERTY}.
+     */
+    private final boolean matchMultiWordLexicon;
+
+    /**
+     * Properties of the string being scored, which are reset for every string.
+     */
+    private final TextProperties textProperties = new TextProperties();
+
+    /**
+     * Scores of the string being scored, used when the caller does not supply an array for them.
+     */
+    private final float[] polarities = new float[POLARITY_COUNT];
+
+    /**
+     * Valence of each token of the string being scored, which is grown when a string has more tokens.
+     */
+    private float[] valences = new float[INITIAL_VALENCE_CAPACITY];
+
+    /**
+     * Number of strings scored since the stages of a string were last timed, when metrics are recorded.
+     */
+    private int stringsSinceSample;
+
+    /**
+     * Creates a scorer that uses the default tokenizer, see {@link TokenizerMode#getDefault()}.
+     */
+    public SentimentScorer() {
+        this(TokenizerMode.getDefault());
+    }
+
+    /**
+     * Creates a scorer that uses the given tokenizer.
+     *
+     * @param tokenizerMode the tokenizer used to split up the strings.
+     */
+    public SentimentScorer(final TokenizerMode tokenizerMode) {
+        this(tokenizerMode, SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON);
+    }
+
+    /**
+     * Creates a scorer that uses the given tokenizer and optionally matches the lexicon entries of several words.
+     *
+     * @param tokenizerMode         the tokenizer used to split up the strings.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words, see
+     *                              {@link SentimentAnalyzer#MULTI_WORD_LEXICON_PROPERTY}.
+     */
+    SentimentScorer(final TokenizerMode tokenizerMode, final boolean matchMultiWordLexicon) {
+        this.tokenizerMode = Preconditions.checkNotNull(tokenizerMode, "Tokenizer mode should not be null.");
+        this.matchMultiWordLexicon = matchMultiWordLexicon;
+    }
+
+    /**
+     * Score a string and write the scores into the given object.
+     *
+     * @param inputString the string to be analyzed.
+     * @param result      the object whose scores are overwritten with the scores of the string.
+     */
+    public void score(final String inputString, final MutableSentimentPolarities result) {
+        scoreInto(inputString, tokenizerMode, matchMultiWordLexicon, LexiconRegistry.current(), polarities);
+        result.set(polarities[POSITIVE], polarities[NEGATIVE], polarities[NEUTRAL], polarities[COMPOUND]);
+    }
+
+    /**
+     * Score a string and write the scores into the given array, at the indexes {@link SentimentScorer#POSITIVE},
+     * {@link SentimentScorer#NEGATIVE}, {@link SentimentScorer#NEUTRAL} and {@link SentimentScorer#COMPOUND}.
+     *
+     * @param inputString the string to be analyzed.
+     * @param result      array of at least {@link SentimentScorer#POLARITY_COUNT} elements.
+     */
+    public void score(final String inputString, final float[] result) {
+        Preconditions.checkArgument(result.length >= POLARITY_COUNT,
+            "Array of scores should have at least %s elements.", POLARITY_COUNT);
+        scoreInto(inputString, tokenizerMode, matchMultiWordLexicon, LexiconRegistry.current(), result);
+    }
+
+    /**
+     * Score a string with the given snapshot of the lexicon, into the array of scores of this object.
+     *
+     * @param inputString the string to be analyzed.
+     * @param vocabulary  the vocabulary, a snapshot of {@link LexiconRegistry#current()}.
+     * @return the array of scores, which is overwritten by the next call.
+     */
+    float[] score(final String inputString, final Vocabulary vocabulary) {
+        scoreInto(inputString, tokenizerMode, matchMultiWordLexicon, vocabulary, polarities);
+        return polarities;
+    }
+
+    /**
+     * Score a batch of strings. All the strings are scored with the lexicon that is current when this is called,
+     * even if it is reloaded meanwhile.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @return the scores of the strings, in the same order as the strings.
+     */
+    public List<SentimentPolarities> scoreAll(final Iterable<String> inputStrings) {
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        final List<SentimentPolarities> results = inputStrings instanceof Collection
+            ? new ArrayList<>(((Collection<String>) inputStrings).size()) : new ArrayList<>();
+        for (final String inputString : inputStrings) {
+            scoreInto(inputString, tokenizerMode, matchMultiWordLexicon, vocabulary, polarities);
+            results.add(new SentimentPolarities(polarities[POSITIVE], polarities[NEGATIVE], polarities[NEUTRAL],
+                polarities[COMPOUND]));
+        }
+        return results;
+    }
+
+    /**
+     * Score a batch of strings into columns, which are cleared first. All the strings are scored with the lexicon
+     * that is current when this is called, even if it is reloaded meanwhile.
+     *
+     * @param inputStrings the strings to be analyzed.
+     * @param columns      the columns that are filled with the scores of the strings, in the same order as the
+     *                     strings.
+     */
+    public void scoreAll(final Iterable<String> inputStrings, final SentimentColumns columns) {
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        columns.clear();
+        for (final String inputString : inputStrings) {
+            scoreInto(inputString, tokenizerMode, matchMultiWordLexicon, vocabulary, polarities);
+            columns.add(polarities);
+        }
+    }
+
+    /**
+     * Split a document into sentences and score each of them on its own, see {@link DocumentSentiment}. All the
+     * sentences are scored with the lexicon that is current when this is called.
+     *
+     * @param document the document to be analyzed.
+     * @return the scores of the sentences and of the whole document.
+     */
+    public DocumentSentiment scoreDocument(final String document) {
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        final DocumentSentiment result = new DocumentSentiment(document);
+        final SentimentColumns columns = result.getSentenceColumns();
+        for (int index = 0; index < result.size(); index++) {
+            scoreInto(result.getSentence(index), tokenizerMode, matchMultiWordLexicon, vocabulary, polarities);
+            columns.set(index, polarities);
+        }
+        result.aggregate();
+        return result;
+    }
+
+    /**
+     * Score a string with the given tokenizer and return its scores as a new object.
+     *
+     * @param inputString           the string to be analyzed.
+     * @param mode                  the tokenizer used to split up the string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words.
+     * @return an object of {@link SentimentPolarities} which will hold all the sentiment scores.
+     */
+    SentimentPolarities getScoresFor(final String inputString, final TokenizerMode mode,
+                                     final boolean matchMultiWordLexicon) {
+        scoreInto(inputString, mode, matchMultiWordLexicon, LexiconRegistry.current(), polarities);
+        return new SentimentPolarities(polarities[POSITIVE], polarities[NEGATIVE], polarities[NEUTRAL],
+            polarities[COMPOUND]);
+    }
+
+    /**
+     * Compute the token-wise sentiment scores of a string and then convert them to higher level scores.
+     * All the scores are zero if the string has no tokens. The string is reported to the installed
+     * {@link SentimentMetrics}, if any, and the stages of one string out of its sampling interval are timed.
+     *
+     * @param inputString           the string to be analyzed.
+     * @param mode                  the tokenizer used to split up the string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words.
+     * @param vocabulary            the vocabulary, a snapshot of {@link LexiconRegistry#current()} which is read
+     *                              once, so that the whole string is scored with the same lexicon even if it is
+     *                              reloaded meanwhile.
+     * @param result                array in which the scores are stored.
+     */
+    private void scoreInto(final String inputString, final TokenizerMode mode, final boolean matchMultiWordLexicon,
+                           final Vocabulary vocabulary, final float[] result) {
+        final SentimentMetrics metrics = SentimentMetricsRegistry.current();
+        try {
+            if (!metrics.isEnabled()) {
+                computeScores(inputString, mode, matchMultiWordLexicon, vocabulary, result);
+                return;
+            }
+
+            final int noOfTokens;
+            if (++stringsSinceSample >= metrics.getStageSamplingInterval()) {
+                stringsSinceSample = 0;
+                noOfTokens = computeTimedScores(inputString, mode, matchMultiWordLexicon, vocabulary, result,
+                    metrics);
+            } else {
+                noOfTokens = computeScores(inputString, mode, matchMultiWordLexicon, vocabulary, result);
+            }
+            if (noOfTokens >= 0) {
+                metrics.recordDocument(noOfTokens, textProperties.getTokens().getLexiconHitCount());
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Release the memory held for the string that was scored last: the string and its tokens, and the arrays that
+     * were grown for a string of more than {@link SentimentScorer#MAX_RETAINED_VALENCE_CAPACITY} tokens.
+     */
+    private void release() {
+        textProperties.release();
+        if (valences.length > MAX_RETAINED_VALENCE_CAPACITY) {
+            valences = new float[INITIAL_VALENCE_CAPACITY];
+        }
+    }
+
+    /**
+     * Compute the scores of a string, see {@link SentimentScorer#scoreInto}.
+     *
+     * @param inputString           the string to be analyzed.
+     * @param mode                  the tokenizer used to split up the string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words.
+     * @param vocabulary            the vocabulary.
+     * @param result                array in which the scores are stored.
+     * @return the number of tokens of the string, or -1 if it could not be tokenized.
+     */
+    private int computeScores(final String inputString, final TokenizerMode mode,
+                              final boolean matchMultiWordLexicon, final Vocabulary vocabulary,
+                              final float[] result) {
+        // Parse the string and get the text tokens.
+        if (!tokenize(inputString, mode, vocabulary, result)) {
+            return -1;
+        }
+
+        // Calculate the per-token valence.
+        final int noOfTokens = textProperties.getTokens().size();
+        if (noOfTokens == 0) {
+            clear(result);
+            return 0;
+        }
+        ensureValenceCapacity(noOfTokens);
+        SentimentAnalyzer.getTokenWiseSentiment(textProperties, matchMultiWordLexicon, valences);
+        // Adjust the total valence score on the basis of the punctuations in the input string.
+        final float punctuationAmplifier = SentimentAnalyzer.boostByPunctuation(textProperties);
+        SentimentAnalyzer.getPolarityScores(valences, noOfTokens, punctuationAmplifier, result);
+        return noOfTokens;
+    }
+
+    /**
+     * Compute the scores of a string like {@link SentimentScorer#computeScores}, and record the time taken by
+     * each {@link PipelineStage}.
+     *
+     * @param inputString           the string to be analyzed.
+     * @param mode                  the tokenizer used to split up the string.
+     * @param matchMultiWordLexicon true to match the lexicon entries of several words.
+     * @param vocabulary            the vocabulary.
+     * @param result                array in which the scores are stored.
+     * @param metrics               the metrics the latencies are recorded to.
+     * @return the number of tokens of the string, or -1 if it could not be tokenized.
+     */
+    private int computeTimedScores(final String inputString, final TokenizerMode mode,
+                                   final boolean matchMultiWordLexicon, final Vocabulary vocabulary,
+                                   final float[] result, final SentimentMetrics metrics) {
+        final long start = System.nanoTime();
+        if (!tokenize(inputString, mode, vocabulary, result)) {
+            return -1;
+        }
+        final long tokenized = System.nanoTime();
+        metrics.recordStageLatency(PipelineStage.TOKENIZATION, tokenized - start);
+
+        final TokenSequence tokens = textProperties.getTokens();
+        final int noOfTokens = tokens.size();
+        if (noOfTokens == 0) {
+            clear(result);
+            return 0;
+        }
+        ensureValenceCapacity(noOfTokens);
+        SentimentAnalyzer.getTokenWiseSentiment(tokens, textProperties.isYelling(), matchMultiWordLexicon, 0,
+            noOfTokens, -1, valences);
+        final long valenced = System.nanoTime();
+        SentimentAnalyzer.adjustValenceIfHasConjunction(tokens, valences);
+        final long adjusted = System.nanoTime();
+        final float punctuationAmplifier = SentimentAnalyzer.boostByPunctuation(textProperties);
+        SentimentAnalyzer.getPolarityScores(valences, noOfTokens, punctuationAmplifier, result);
+        final long normalized = System.nanoTime();
+
+        metrics.recordStageLatency(PipelineStage.TOKEN_VALENCE, valenced - tokenized);
+        metrics.recordStageLatency(PipelineStage.CONJUNCTION, adjusted - valenced);
+        metrics.recordStageLatency(PipelineStage.NORMALIZATION, normalized - adjusted);
+        return noOfTokens;
+    }
+
+    /**
+     * Parse a string into {@link SentimentScorer#textProperties}.
+     *
+     * @param inputString the string to be analyzed.
+     * @param mode        the tokenizer used to split up the string.
+     * @param vocabulary  the vocabulary.
+     * @param result      array in which the scores are stored, which are cleared if the string cannot be parsed.
+     * @return true if the string was parsed.
+     */
+    private boolean tokenize(final String inputString, final TokenizerMode mode, final Vocabulary vocabulary,
+                             final float[] result) {
+        try {
+            textProperties.reset(inputString, mode, vocabulary);
+            return true;
+        } catch (IOException excp) {
+            LOGGER.error("There was an issue while pre-processing the inputString.", excp);
+            clear(result);
+            return false;
+        }
+    }
+
+    /**
+     * Grow {@link SentimentScorer#valences} if it is too small for the tokens of a string.
+     *
+     * @param noOfTokens the number of tokens of the string.
+     */
+    private void ensureValenceCapacity(final int noOfTokens) {
+        if (valences.length < noOfTokens) {
+            valences = new float[Math.max(noOfTokens, valences.length * 2)];
+        }
+    }
+
+    /**
+     * Get the properties of the string being scored, which are those of an empty string between two calls.
+     *
+     * @return the properties reused for every string
+     */
+    TextProperties getTextProperties() {
+        return textProperties;
+    }
+
+    /**
+     * Get the number of tokens whose valences can be held without growing {@link SentimentScorer#valences}.
+     *
+     * @return the capacity in tokens
+     */
+    int getValenceCapacity() {
+        return valences.length;
+    }
+
+    /**
+     * Set all the scores to zero, as done by {@link SentimentPolarities#emptySentimentState()}.
+     *
+     * @param result array in which the scores are stored.
+     */
+    private static void clear(final float[] result) {
+        for (int index = 0; index < POLARITY_COUNT; index++) {
+            result[index] = 0.0F;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+import com.google.common.base.Preconditions;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.Constants;
+
+/**
+ * The StreamingSentimentScorer class scores a text read from a {@link Reader}, an {@link InputStream} or a
+ * {@link ReadableByteChannel} as a whole, like {@link SentimentAnalyzer#getScoresFor(String)}, without holding
+ * the whole text in memory. The text is read in windows of {@code windowSize} characters, which are appended to
+ * an {@link IncrementalSentimentScorer} and scored up to their last white space:
+ * - every window starts with the last {@link Constants#MAX_GRAM_WINDOW_SIZE} + 1 tokens of the previous one, which
+ * are only read by the n-gram, negation and idiom rules of the tokens after them,
+ * - the last tokens of a window are only scored in the next one, once the tokens after them are known, unless
+ * the window ends the text,
+ * - the rules that depend on the whole text, i.e. the conjunction "but", the yelling words and the punctuations,
+ * are applied to sums of valences, see {@link ValenceTally}.
+ * The memory used is therefore the same whatever the size of the text, and the scores are those of the whole
+ * text. The only difference is for runs of more than {@link IncrementalSentimentScorer#MAX_UNBROKEN_LENGTH}
+ * characters without white spaces, which are not words but are cut into windows.
+ * Running scores can be received after every window, for the text read so far.
+ * An instance reuses its memory from one text to the next and is not thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+public final class StreamingSentimentScorer {
+    /**
+     * Default number of characters read for every window.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 65536;
+
+    /**
+     * Number of characters read for every window.
+     */
+    private final int windowSize;
+
+    /**
+     * Characters read from the text.
+     */
+    private final char[] readBuffer;
+
+    /**
+     * Scorer of the text read so far.
+     */
+    private final IncrementalSentimentScorer scorer;
+
+    /**
+     * Creates a scorer that uses the default tokenizer and window size.
+     */
+    public StreamingSentimentScorer() {
+        this(TokenizerMode.getDefault(), DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a scorer that uses the given tokenizer and window size.
+     *
+     * @param tokenizerMode the tokenizer used to split up the texts.
+     * @param windowSize    number of characters read for every window, which bounds the memory used.
+     */
+    public StreamingSentimentScorer(final TokenizerMode tokenizerMode, final int windowSize) {
+        Preconditions.checkArgument(windowSize > 0, "Window size should be positive.");
+        this.windowSize = windowSize;
+        this.readBuffer = new char[windowSize];
+        this.scorer = new IncrementalSentimentScorer(tokenizerMode);
+    }
+
+    /**
+     * Score the text read from a reader, up to its end. The reader is not closed.
+     *
+     * @param reader the text to be analyzed.
+     * @return the scores of the whole text.
+     * @throws IOException if the text cannot be read or tokenized
+     */
+    public SentimentPolarities score(final Reader reader) throws IOException {
+        return score(reader, null);
+    }
+
+    /**
+     * Score the text read from a reader, up to its end, and pass the running scores to a consumer after every
+     * window. The reader is not closed.
+     *
+     * @param reader            the text to be analyzed.
+     * @param runningPolarities the consumer of the running scores, or null.
+     * @return the scores of the whole text.
+     * @throws IOException if the text cannot be read or tokenized
+     */
+    public SentimentPolarities score(final Reader reader, final Consumer<SentimentPolarities> runningPolarities)
+            throws IOException {
+        Preconditions.checkNotNull(reader, "Reader should not be null.");
+        scorer.clear();
+        try {
+            int count = reader.read(readBuffer, 0, readBuffer.length);
+            while (count >= 0) {
+                scorer.add(readBuffer, 0, count);
+                if (scorer.getAppendedLength() >= windowSize && scorer.scoreWindow()
+                    && runningPolarities != null) {
+                    runningPolarities.accept(scorer.computePolarities());
+                }
+                count = reader.read(readBuffer, 0, readBuffer.length);
+            }
+            return scorer.computePolarities();
+        } finally {
+            scorer.clear();
+        }
+    }
+
+    /**
+     * Score the text read from an input stream, up to its end, with the given character encoding. The stream is
+     * not closed.
+     *
+     * @param inputStream the text to be analyzed.
+     * @param charset     the character encoding of the text.
+     * @return the scores of the whole text.
+     * @throws IOException if the text cannot be read or tokenized
+     */
+    public SentimentPolarities score(final InputStream inputStream, final Charset charset) throws IOException {
+        return score(new InputStreamReader(inputStream, charset), null);
+    }
+
+    /**
+     * Score the text read from a channel, up to its end, with the given character encoding. The channel is not
+     * closed.
+     *
+     * @param channel the text to be analyzed.
+     * @param charset the character encoding of the text.
+     * @return the scores of the whole text.
+     * @throws IOException if the text cannot be read or tokenized
+     */
+    public SentimentPolarities score(final ReadableByteChannel channel, final Charset charset) throws IOException {
+        return score(Channels.newReader(channel, charset.newDecoder(), -1), null);
+    }
+}
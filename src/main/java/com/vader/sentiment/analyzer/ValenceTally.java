@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import com.vader.sentiment.processor.TokenSequence;
+import com.vader.sentiment.util.SentimentModifyingTokens;
+import com.vader.sentiment.util.Valence;
+
+/**
+ * The ValenceTally class sums up the valences of the tokens of a text which is scored piece by piece, so that the
+ * polarity scores of the whole text can be computed without keeping the valence of each token.
+ * The conjunction rule of {@link SentimentAnalyzer} scales the valences before and after the first "but", or
+ * the first "BUT" if the text has no "but", which is only known at the end of the text. The sums are therefore
+ * kept for each of the three outcomes of the rule: the text has no conjunction, its conjunction is the first
+ * "BUT" or its conjunction is the first "but". Each of them is summed with the same float operations, in the
+ * same order, as {@link SentimentAnalyzer#getPolarityScores(float[], int, float, float[])}, so that the scores
+ * are exactly those of the whole text.
+ *
+ * @author Animesh Pandey
+ */
+final class ValenceTally {
+    /**
+     * Index of the sums for a text without conjunction.
+     */
+    private static final int NO_CONJUNCTION = 0;
+
+    /**
+     * Index of the sums for a text whose conjunction is the first "BUT".
+     */
+    private static final int UPPER_CASE_CONJUNCTION = 1;
+
+    /**
+     * Index of the sums for a text whose conjunction is the first "but".
+     */
+    private static final int LOWER_CASE_CONJUNCTION = 2;
+
+    /**
+     * Number of outcomes of the conjunction rule.
+     */
+    private static final int OUTCOME_COUNT = 3;
+
+    /**
+     * Number of bytes written by {@link ValenceTally#writeTo(ByteBuffer)}.
+     */
+    static final int SERIALIZED_SIZE = OUTCOME_COUNT * 3 * Float.BYTES + 2 * Long.BYTES + 2;
+
+    /**
+     * Sum of the valences, for each outcome of the conjunction rule.
+     */
+    private final float[] totalValences = new float[OUTCOME_COUNT];
+
+    /**
+     * Sum of the positive valences, each plus one, for each outcome of the conjunction rule.
+     */
+    private final float[] positiveScores = new float[OUTCOME_COUNT];
+
+    /**
+     * Sum of the negative valences, each minus one, for each outcome of the conjunction rule.
+     */
+    private final float[] negativeScores = new float[OUTCOME_COUNT];
+
+    /**
+     * Number of tokens whose valence is zero, which does not depend on the conjunction rule.
+     */
+    private long neutralCount;
+
+    /**
+     * Number of tokens added.
+     */
+    private long tokenCount;
+
+    /**
+     * Flag that specifies if a "BUT" has been added.
+     */
+    private boolean hasUpperCaseConjunction;
+
+    /**
+     * Flag that specifies if a "but" has been added.
+     */
+    private boolean hasLowerCaseConjunction;
+
+    /**
+     * Add the valence of the next token of the text.
+     *
+     * @param tokens  the tokens of the piece of text being scored
+     * @param index   index of the token in the tokens
+     * @param valence valence of the token, before the adjustment for conjunctions
+     */
+    void add(final TokenSequence tokens, final int index, final float valence) {
+        final boolean isUpperCaseConjunction = !hasUpperCaseConjunction
+            && tokens.contentEquals(index, SentimentAnalyzer.UPPER_CASE_BUT);
+        final boolean isLowerCaseConjunction = !hasLowerCaseConjunction
+            && tokens.contentEquals(index, SentimentModifyingTokens.BUT.getValue());
+        add(NO_CONJUNCTION, valence);
+        add(UPPER_CASE_CONJUNCTION, adjust(valence, isUpperCaseConjunction, hasUpperCaseConjunction));
+        add(LOWER_CASE_CONJUNCTION, adjust(valence, isLowerCaseConjunction, hasLowerCaseConjunction));
+        hasUpperCaseConjunction |= isUpperCaseConjunction;
+        hasLowerCaseConjunction |= isLowerCaseConjunction;
+        if (valence == 0.0F) {
+            neutralCount++;
+        }
+        tokenCount++;
+    }
+
+    /**
+     * Add a valence adjusted for conjunctions to the sums of an outcome of the conjunction rule.
+     *
+     * @param outcome index of the outcome
+     * @param valence valence of the token
+     */
+    private void add(final int outcome, final float valence) {
+        totalValences[outcome] += valence;
+        if (valence > 0.0F) {
+            positiveScores[outcome] += valence + 1.0F;
+        } else if (valence < 0.0F) {
+            negativeScores[outcome] += valence - 1.0F;
+        }
+    }
+
+    /**
+     * Adjust the valence of a token for a conjunction, as done by the conjunction rule.
+     *
+     * @param valence          valence of the token
+     * @param isConjunction    true if the token is the conjunction
+     * @param afterConjunction true if the token comes after the conjunction
+     * @return the adjusted valence
+     */
+    private static float adjust(final float valence, final boolean isConjunction, final boolean afterConjunction) {
+        if (isConjunction) {
+            return valence;
+        }
+        return valence * (afterConjunction ? Valence.POST_CONJUNCTION_ADJUSTMENT_FACTOR.getValue()
+            : Valence.PRE_CONJUNCTION_ADJUSTMENT_FACTOR.getValue());
+    }
+
+    /**
+     * Get the number of tokens added.
+     *
+     * @return number of tokens
+     */
+    long getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Compute the polarity scores of the tokens added, as {@link SentimentAnalyzer#getPolarityScores(float[], int,
+     * float, float[])} does for the valences of all the tokens. All the scores are zero if no token was added.
+     *
+     * @param punctuationAmplifier valence adjustment factor for the punctuations of the whole text
+     * @param polarities           array in which the scores are stored, at the indexes defined by
+     *                             {@link SentimentScorer}
+     */
+    void getPolarityScores(final float punctuationAmplifier, final float[] polarities) {
+        if (tokenCount == 0L) {
+            Arrays.fill(polarities, 0, SentimentScorer.POLARITY_COUNT, 0.0F);
+            return;
+        }
+        final int outcome;
+        if (hasLowerCaseConjunction) {
+            outcome = LOWER_CASE_CONJUNCTION;
+        } else if (hasUpperCaseConjunction) {
+            outcome = UPPER_CASE_CONJUNCTION;
+        } else {
+            outcome = NO_CONJUNCTION;
+        }
+        SentimentAnalyzer.getPolarityScores(totalValences[outcome], positiveScores[outcome],
+            negativeScores[outcome], neutralCount, punctuationAmplifier, polarities);
+    }
+
+    /**
+     * Replace the sums of this tally with those of another one.
+     *
+     * @param other the tally to copy
+     */
+    void set(final ValenceTally other) {
+        System.arraycopy(other.totalValences, 0, totalValences, 0, OUTCOME_COUNT);
+        System.arraycopy(other.positiveScores, 0, positiveScores, 0, OUTCOME_COUNT);
+        System.arraycopy(other.negativeScores, 0, negativeScores, 0, OUTCOME_COUNT);
+        neutralCount = other.neutralCount;
+        tokenCount = other.tokenCount;
+        hasUpperCaseConjunction = other.hasUpperCaseConjunction;
+        hasLowerCaseConjunction = other.hasLowerCaseConjunction;
+    }
+
+    /**
+     * Write the sums of this tally, in {@link ValenceTally#SERIALIZED_SIZE} bytes.
+     *
+     * @param buffer the buffer into which the sums are written
+     */
+    void writeTo(final ByteBuffer buffer) {
+        for (int outcome = 0; outcome < OUTCOME_COUNT; outcome++) {
+            buffer.putFloat(totalValences[outcome]);
+            buffer.putFloat(positiveScores[outcome]);
+            buffer.putFloat(negativeScores[outcome]);
+        }
+        buffer.putLong(neutralCount);
+        buffer.putLong(tokenCount);
+        buffer.put((byte) (hasUpperCaseConjunction ? 1 : 0));
+        buffer.put((byte) (hasLowerCaseConjunction ? 1 : 0));
+    }
+
+    /**
+     * Replace the sums of this tally with those written by {@link ValenceTally#writeTo(ByteBuffer)}.
+     *
+     * @param buffer the buffer from which the sums are read
+     */
+    void readFrom(final ByteBuffer buffer) {
+        for (int outcome = 0; outcome < OUTCOME_COUNT; outcome++) {
+            totalValences[outcome] = buffer.getFloat();
+            positiveScores[outcome] = buffer.getFloat();
+            negativeScores[outcome] = buffer.getFloat();
+        }
+        neutralCount = buffer.getLong();
+        tokenCount = buffer.getLong();
+        hasUpperCaseConjunction = buffer.get() != 0;
+        hasLowerCaseConjunction = buffer.get() != 0;
+    }
+
+    /**
+     * Remove all the tokens added.
+     */
+    void clear() {
+        Arrays.fill(totalValences, 0.0F);
+        Arrays.fill(positiveScores, 0.0F);
+        Arrays.fill(negativeScores, 0.0F);
+        neutralCount = 0L;
+        tokenCount = 0L;
+        hasUpperCaseConjunction = false;
+        hasLowerCaseConjunction = false;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds which many threads record into without locks. The values are counted in
+ * {@link LatencyBuckets}, as in a {@link LatencyHistogram} but with one exact bit less, so that any percentile is
+ * known with a relative error below 2%. Latencies above a minute are counted as a minute.
+ *
+ * @author Animesh Pandey
+ */
+final class ConcurrentLatencyHistogram {
+    /**
+     * Layout of the buckets: values up to a minute, of which 7 bits are kept exactly.
+     */
+    private static final LatencyBuckets BUCKETS = new LatencyBuckets(7, 60_000_000_000L);
+
+    /**
+     * Number of times each range of values was recorded.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS.getCountsLength());
+
+    /**
+     * Number of recorded values.
+     */
+    private final LongAdder totalCount = new LongAdder();
+
+    /**
+     * Sum of the recorded values, for the mean.
+     */
+    private final LongAdder totalValue = new LongAdder();
+
+    /**
+     * Largest recorded value, which is kept exactly.
+     */
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Record a latency.
+     *
+     * @param value latency in nanoseconds, negative values are counted as zero
+     */
+    void recordValue(final long value) {
+        final long trackedValue = BUCKETS.trackedValue(value);
+        counts.incrementAndGet(BUCKETS.countsIndex(trackedValue));
+        totalCount.increment();
+        totalValue.add(trackedValue);
+        long max = maxValue.get();
+        while (trackedValue > max && !maxValue.compareAndSet(max, trackedValue)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Take a snapshot of the recorded values. The values recorded while the snapshot is taken may be missing from
+     * some of its statistics.
+     *
+     * @return the snapshot
+     */
+    LatencySnapshot snapshot() {
+        final long[] countsCopy = new long[counts.length()];
+        long count = 0L;
+        for (int index = 0; index < countsCopy.length; index++) {
+            countsCopy[index] = counts.get(index);
+            count += countsCopy[index];
+        }
+        final long max = maxValue.get();
+        final double mean = count == 0L ? 0.0 : (double) totalValue.sum() / totalCount.sum();
+        return new LatencySnapshot(count, mean, BUCKETS.valueAtPercentile(countsCopy, count, max, 50.0),
+            BUCKETS.valueAtPercentile(countsCopy, count, max, 90.0),
+            BUCKETS.valueAtPercentile(countsCopy, count, max, 99.0),
+            BUCKETS.valueAtPercentile(countsCopy, count, max, 99.9), max);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import com.google.common.base.Preconditions;
+
+/**
+ * Exposes {@link RecordingSentimentMetrics} as an MXBean, so that they can be read by the JMX tools and by the
+ * monitoring agents which collect JMX attributes. Every attribute is read from a new snapshot.
+ *
+ * @author Animesh Pandey
+ */
+public final class JmxSentimentMetrics implements SentimentMetricsMxBean {
+    /**
+     * Name under which the metrics are registered by {@link JmxSentimentMetrics#register()}.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "com.vader.sentiment:type=SentimentMetrics";
+
+    /**
+     * The metrics which are exposed.
+     */
+    private final RecordingSentimentMetrics metrics;
+
+    /**
+     * Creates an MXBean for the given metrics.
+     *
+     * @param metrics the metrics which are exposed
+     */
+    public JmxSentimentMetrics(final RecordingSentimentMetrics metrics) {
+        this.metrics = Preconditions.checkNotNull(metrics, "Metrics should not be null.");
+    }
+
+    /**
+     * Register this MXBean with the platform MBean server under {@link JmxSentimentMetrics#DEFAULT_OBJECT_NAME}.
+     *
+     * @return the name it was registered under
+     * @throws JMException if it cannot be registered, e.g. because the name is already taken
+     */
+    public ObjectName register() throws JMException {
+        return register(ManagementFactory.getPlatformMBeanServer(), new ObjectName(DEFAULT_OBJECT_NAME));
+    }
+
+    /**
+     * Register this MXBean.
+     *
+     * @param server the MBean server
+     * @param name   the name it is registered under
+     * @return the name it was registered under
+     * @throws JMException if it cannot be registered, e.g. because the name is already taken
+     */
+    public ObjectName register(final MBeanServer server, final ObjectName name) throws JMException {
+        return server.registerMBean(this, name).getObjectName();
+    }
+
+    @Override
+    public long getDocumentCount() {
+        return metrics.snapshot().getDocumentCount();
+    }
+
+    @Override
+    public long getTokenCount() {
+        return metrics.snapshot().getTokenCount();
+    }
+
+    @Override
+    public double getDocumentsPerSecond() {
+        return metrics.snapshot().getDocumentsPerSecond();
+    }
+
+    @Override
+    public double getTokensPerSecond() {
+        return metrics.snapshot().getTokensPerSecond();
+    }
+
+    @Override
+    public double getLexiconHitRatio() {
+        return metrics.snapshot().getLexiconHitRatio();
+    }
+
+    @Override
+    public Map<String, Double> getMetrics() {
+        final Map<String, Double> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Number> entry : metrics.snapshot().toMap().entrySet()) {
+            values.put(entry.getKey(), entry.getValue().doubleValue());
+        }
+        return values;
+    }
+}
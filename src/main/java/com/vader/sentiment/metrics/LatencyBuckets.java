@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.metrics;
+
+/**
+ * Layout of the buckets of a latency histogram, as in HdrHistogram: the values are counted in buckets whose width
+ * is proportional to the value, so that any percentile is known with a relative error below
+ * {@code 2 ^ (1 - subBucketBits)} with a fixed number of counters. This is the bucket math shared by
+ * {@link LatencyHistogram} and {@link ConcurrentLatencyHistogram}, which only differ in how they hold the counts.
+ *
+ * @author Animesh Pandey
+ */
+final class LatencyBuckets {
+    /**
+     * Number of bits of a value which are kept exactly; the lower bits of larger values are rounded off.
+     */
+    private final int subBucketBits;
+
+    /**
+     * Number of counts of every bucket after the first one, whose lower half overlaps the previous bucket.
+     */
+    private final int subBucketHalfCount;
+
+    /**
+     * Largest value which is counted as it is; larger values are counted as this one.
+     */
+    private final long highestTrackableValue;
+
+    /**
+     * Number of counts needed for all the values up to {@link LatencyBuckets#highestTrackableValue}.
+     */
+    private final int countsLength;
+
+    /**
+     * Create the layout of a histogram.
+     *
+     * @param subBucketBits         number of bits of a value which are kept exactly
+     * @param highestTrackableValue largest value which is counted as it is
+     */
+    LatencyBuckets(final int subBucketBits, final long highestTrackableValue) {
+        this.subBucketBits = subBucketBits;
+        this.subBucketHalfCount = 1 << (subBucketBits - 1);
+        this.highestTrackableValue = highestTrackableValue;
+        this.countsLength = countsIndex(highestTrackableValue) + 1;
+    }
+
+    /**
+     * Get the number of counts of a histogram with this layout.
+     *
+     * @return the number of counts
+     */
+    int getCountsLength() {
+        return countsLength;
+    }
+
+    /**
+     * Get the value which is recorded for a value, as values outside the tracked range are counted at its ends.
+     *
+     * @param value a latency in nanoseconds
+     * @return the value clamped between 0 and {@link LatencyBuckets#highestTrackableValue}
+     */
+    long trackedValue(final long value) {
+        return Math.min(Math.max(value, 0L), highestTrackableValue);
+    }
+
+    /**
+     * Get the position of the count of the bucket of a value. Each bucket after the first one covers twice the
+     * range of the previous one with half as many counts, as the lower half of its range is in the previous
+     * buckets.
+     *
+     * @param value a value between 0 and {@link LatencyBuckets#highestTrackableValue}
+     * @return the position of its count
+     */
+    int countsIndex(final long value) {
+        final int bucketIndex = Long.SIZE - Long.numberOfLeadingZeros(value | ((1L << subBucketBits) - 1))
+            - subBucketBits;
+        final int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << (subBucketBits - 1)) + subBucketIndex - subBucketHalfCount;
+    }
+
+    /**
+     * Get the largest value which is counted at a position.
+     *
+     * @param index position of a count
+     * @return the largest value of its range
+     */
+    long highestEquivalentValue(final int index) {
+        int bucketIndex = (index >> (subBucketBits - 1)) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex << bucketIndex) + (1L << bucketIndex) - 1L;
+    }
+
+    /**
+     * Get the value below which a percentage of the values fall. As in HdrHistogram, this is the largest value
+     * which is counted in the same bucket as the value at that rank.
+     *
+     * @param counts     the counts of the buckets
+     * @param count      the sum of the counts
+     * @param max        the largest value
+     * @param percentile percentage of the values, between 0 and 100
+     * @return the value at the percentile, or 0 if there are no values
+     */
+    long valueAtPercentile(final long[] counts, final long count, final long max, final double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+        final double clampedPercentile = Math.min(Math.max(percentile, 0.0), 100.0);
+        final long rank = Math.max(1L, (long) Math.ceil(clampedPercentile / 100.0 * count));
+        long countToIndex = 0L;
+        for (int index = 0; index < counts.length; index++) {
+            countToIndex += counts[index];
+            if (countToIndex >= rank) {
+                return Math.min(highestEquivalentValue(index), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of latencies in nanoseconds, with the same layout as a HdrHistogram of two significant digits: the
+ * values are counted in buckets whose width is proportional to the value, so that any percentile is known with a
+ * relative error below 1% while the histogram has a fixed size. Latencies above an hour are counted as an hour.
+ * A histogram is not thread-safe: each thread records into its own histogram, as the threads of the load generator
+ * of the benchmarks do, and the histograms are added up at the end.
+ *
+ * @author Animesh Pandey
+ */
+public final class LatencyHistogram {
+    /**
+     * Layout of the buckets: values up to an hour, of which 8 bits are kept exactly.
+     */
+    private static final LatencyBuckets BUCKETS = new LatencyBuckets(8, 3_600_000_000_000L);
+
+    /**
+     * Number of times each range of values was recorded.
+     */
+    private final long[] counts = new long[BUCKETS.getCountsLength()];
+
+    /**
+     * Number of recorded values.
+     */
+    private long totalCount;
+
+    /**
+     * Sum of the recorded values, for the mean.
+     */
+    private long totalValue;
+
+    /**
+     * Largest recorded value, which is kept exactly.
+     */
+    private long maxValue;
+
+    /**
+     * Record a latency.
+     *
+     * @param value latency in nanoseconds, negative values are counted as zero
+     */
+    public void recordValue(final long value) {
+        final long trackedValue = BUCKETS.trackedValue(value);
+        counts[BUCKETS.countsIndex(trackedValue)]++;
+        totalCount++;
+        totalValue += trackedValue;
+        maxValue = Math.max(maxValue, trackedValue);
+    }
+
+    /**
+     * Record a latency of a caller which issues a call every expectedInterval nanoseconds and waits for each
+     * call to return. A latency longer than the interval delayed the calls which were due meanwhile, which would
+     * have waited for the slow call had they been issued in time, so they are recorded too, with the latency
+     * they would have seen. This corrects for the coordinated omission of a closed-model load test, as
+     * {@code recordValueWithExpectedInterval} of HdrHistogram does.
+     *
+     * @param value            latency in nanoseconds
+     * @param expectedInterval time between two calls when they are not delayed, or 0 to record only the value
+     */
+    public void recordValueWithExpectedInterval(final long value, final long expectedInterval) {
+        recordValue(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missingValue = value - expectedInterval; missingValue >= expectedInterval;
+             missingValue -= expectedInterval) {
+            recordValue(missingValue);
+        }
+    }
+
+    /**
+     * Add the values recorded by another histogram to this one.
+     *
+     * @param other the histogram to add
+     */
+    public void add(final LatencyHistogram other) {
+        for (int index = 0; index < counts.length; index++) {
+            counts[index] += other.counts[index];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Forget all the recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0L;
+        totalValue = 0L;
+        maxValue = 0L;
+    }
+
+    /**
+     * Get the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Get the largest recorded value, which is kept exactly.
+     *
+     * @return the largest recorded value
+     */
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Get the mean of the recorded values.
+     *
+     * @return the mean of the recorded values, or 0 if there are none
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalValue / totalCount;
+    }
+
+    /**
+     * Get the value below which a percentage of the recorded values fall. As in HdrHistogram, this is the
+     * largest value which is counted in the same bucket as the value at that rank.
+     *
+     * @param percentile percentage of the values, between 0 and 100
+     * @return the value at the percentile, or 0 if no values were recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        return BUCKETS.valueAtPercentile(counts, totalCount, maxValue, percentile);
+    }
+}
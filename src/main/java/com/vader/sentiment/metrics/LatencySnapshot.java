@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+/**
+ * Statistics of the latencies of a {@link PipelineStage} at some point in time, in nanoseconds. The percentiles
+ * have a relative error below 2%.
+ *
+ * @author Animesh Pandey
+ */
+public final class LatencySnapshot {
+    /**
+     * Number of recorded latencies.
+     */
+    private final long count;
+
+    /**
+     * Mean of the latencies.
+     */
+    private final double mean;
+
+    /**
+     * Median of the latencies.
+     */
+    private final long p50;
+
+    /**
+     * 90th percentile of the latencies.
+     */
+    private final long p90;
+
+    /**
+     * 99th percentile of the latencies.
+     */
+    private final long p99;
+
+    /**
+     * 99.9th percentile of the latencies.
+     */
+    private final long p999;
+
+    /**
+     * Largest latency.
+     */
+    private final long max;
+
+    /**
+     * Create a snapshot.
+     *
+     * @param count number of recorded latencies
+     * @param mean  mean of the latencies
+     * @param p50   median of the latencies
+     * @param p90   90th percentile of the latencies
+     * @param p99   99th percentile of the latencies
+     * @param p999  99.9th percentile of the latencies
+     * @param max   largest latency
+     */
+    LatencySnapshot(final long count, final double mean, final long p50, final long p90, final long p99,
+                    final long p999, final long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{"
+            + "count=" + count
+            + ", mean=" + mean
+            + ", p50=" + p50
+            + ", p90=" + p90
+            + ", p99=" + p99
+            + ", p999=" + p999
+            + ", max=" + max
+            + '}';
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+/**
+ * The metrics used by default, which records nothing. As {@link NoOpSentimentMetrics#isEnabled()} is false, the
+ * analyzer does not measure anything either.
+ *
+ * @author Animesh Pandey
+ */
+public final class NoOpSentimentMetrics implements SentimentMetrics {
+    /**
+     * The only instance.
+     */
+    public static final NoOpSentimentMetrics INSTANCE = new NoOpSentimentMetrics();
+
+    /**
+     * Private constructor for the singleton.
+     */
+    private NoOpSentimentMetrics() {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public int getStageSamplingInterval() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void recordDocument(final int tokenCount, final int lexiconHitCount) {
+    }
+
+    @Override
+    public void recordStageLatency(final PipelineStage stage, final long elapsedNanos) {
+    }
+
+    @Override
+    public void recordCacheLookup(final String cacheName, final boolean hit) {
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+/**
+ * The stages of the scoring of a string, whose latencies are reported with
+ * {@link SentimentMetrics#recordStageLatency(PipelineStage, long)}.
+ *
+ * @author Animesh Pandey
+ */
+public enum PipelineStage {
+    /**
+     * Splitting the string into tokens and looking them up in the lexicon.
+     */
+    TOKENIZATION,
+
+    /**
+     * Computing the valence of each token with the rules of VADER.
+     */
+    TOKEN_VALENCE,
+
+    /**
+     * Adjusting the valences around the conjunction "but".
+     */
+    CONJUNCTION,
+
+    /**
+     * Adding up the valences and the punctuation emphasis into the normalized polarity scores.
+     */
+    NORMALIZATION
+}
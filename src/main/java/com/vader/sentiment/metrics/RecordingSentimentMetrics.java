@@ -0,0 +1,180 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import com.google.common.base.Preconditions;
+
+/**
+ * Metrics which are kept in memory, in striped {@link LongAdder} counters and lock-free histograms, so that the
+ * scoring threads do not wait for each other to record them. The metrics are read with
+ * {@link RecordingSentimentMetrics#snapshot()}, whose values can be exported to a monitoring system with
+ * {@link SentimentMetricsSnapshot#toMap()} or through JMX with {@link JmxSentimentMetrics}.
+ * Once installed with {@link SentimentMetricsRegistry#install(SentimentMetrics)}, the metrics cost a few
+ * additions per string, and the latencies of the stages are measured for one string out of
+ * {@link RecordingSentimentMetrics#DEFAULT_STAGE_SAMPLING_INTERVAL} by default.
+ *
+ * @author Animesh Pandey
+ */
+public final class RecordingSentimentMetrics implements SentimentMetrics {
+    /**
+     * Number of strings out of which one has the latency of its stages measured, by default.
+     */
+    public static final int DEFAULT_STAGE_SAMPLING_INTERVAL = 32;
+
+    /**
+     * Number of strings out of which one has the latency of its stages measured.
+     */
+    private final int stageSamplingInterval;
+
+    /**
+     * Time when the metrics were created, as given by {@link System#nanoTime()}.
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Number of scored strings.
+     */
+    private final LongAdder documentCount = new LongAdder();
+
+    /**
+     * Number of tokens of the scored strings.
+     */
+    private final LongAdder tokenCount = new LongAdder();
+
+    /**
+     * Number of tokens of the scored strings which have a valence in the lexicon.
+     */
+    private final LongAdder lexiconHitCount = new LongAdder();
+
+    /**
+     * Latencies of each stage.
+     */
+    private final Map<PipelineStage, ConcurrentLatencyHistogram> stageLatencies = new EnumMap<>(PipelineStage.class);
+
+    /**
+     * Hits and misses of each kind of cache, by name.
+     */
+    private final ConcurrentMap<String, CacheCounters> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Creates metrics which measure the latency of the stages of one string out of
+     * {@link RecordingSentimentMetrics#DEFAULT_STAGE_SAMPLING_INTERVAL}.
+     */
+    public RecordingSentimentMetrics() {
+        this(DEFAULT_STAGE_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * Creates metrics.
+     *
+     * @param stageSamplingInterval number of strings out of which one has the latency of its stages measured, 1 to
+     *                              measure every string
+     */
+    public RecordingSentimentMetrics(final int stageSamplingInterval) {
+        Preconditions.checkArgument(stageSamplingInterval > 0, "Sampling interval should be positive: %s",
+            stageSamplingInterval);
+        this.stageSamplingInterval = stageSamplingInterval;
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageLatencies.put(stage, new ConcurrentLatencyHistogram());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public int getStageSamplingInterval() {
+        return stageSamplingInterval;
+    }
+
+    @Override
+    public void recordDocument(final int tokens, final int lexiconHits) {
+        documentCount.increment();
+        tokenCount.add(tokens);
+        lexiconHitCount.add(lexiconHits);
+    }
+
+    @Override
+    public void recordStageLatency(final PipelineStage stage, final long elapsedNanos) {
+        stageLatencies.get(stage).recordValue(elapsedNanos);
+    }
+
+    @Override
+    public void recordCacheLookup(final String cacheName, final boolean hit) {
+        CacheCounters counters = caches.get(cacheName);
+        if (counters == null) {
+            counters = caches.computeIfAbsent(cacheName, name -> new CacheCounters());
+        }
+        if (hit) {
+            counters.hitCount.increment();
+        } else {
+            counters.missCount.increment();
+        }
+    }
+
+    /**
+     * Take a snapshot of the metrics recorded since these metrics were created. The metrics recorded while the
+     * snapshot is taken may be missing from some of its values.
+     *
+     * @return the snapshot
+     */
+    public SentimentMetricsSnapshot snapshot() {
+        final Map<PipelineStage, LatencySnapshot> latencies = new EnumMap<>(PipelineStage.class);
+        for (Map.Entry<PipelineStage, ConcurrentLatencyHistogram> entry : stageLatencies.entrySet()) {
+            latencies.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        final Map<String, long[]> cacheLookups = new TreeMap<>();
+        for (Map.Entry<String, CacheCounters> entry : caches.entrySet()) {
+            cacheLookups.put(entry.getKey(),
+                new long[]{entry.getValue().hitCount.sum(), entry.getValue().missCount.sum()});
+        }
+        return new SentimentMetricsSnapshot(System.nanoTime() - startNanos, documentCount.sum(), tokenCount.sum(),
+            lexiconHitCount.sum(), latencies, cacheLookups);
+    }
+
+    /**
+     * Hits and misses of a kind of cache.
+     */
+    private static final class CacheCounters {
+        /**
+         * Number of lookups which found the scores in the cache.
+         */
+        private final LongAdder hitCount = new LongAdder();
+
+        /**
+         * Number of lookups which had to score the string.
+         */
+        private final LongAdder missCount = new LongAdder();
+    }
+}
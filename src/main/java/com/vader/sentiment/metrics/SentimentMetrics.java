@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+/**
+ * The interface the sentiment analyzer reports its metrics to, which can be implemented to bridge the metrics to
+ * a monitoring system. The implementation in use is the one installed in {@link SentimentMetricsRegistry}, which
+ * is {@link NoOpSentimentMetrics} unless another one is installed, or {@link RecordingSentimentMetrics} which
+ * keeps the metrics in memory.
+ * The methods are called by the threads which score the strings, in the middle of the scoring, so they should be
+ * thread-safe and return quickly, e.g. by adding to striped counters. Measuring the latency of every stage of
+ * every string would take a noticeable part of the time of scoring short strings, so the stages are only timed
+ * for one string out of {@link SentimentMetrics#getStageSamplingInterval()} per scoring thread. The other metrics
+ * are reported for every string.
+ *
+ * @author Animesh Pandey
+ */
+public interface SentimentMetrics {
+    /**
+     * Check if the metrics are recorded. When they are not, the analyzer does not call the other methods, and
+     * does not measure anything.
+     *
+     * @return true if the metrics are recorded
+     */
+    boolean isEnabled();
+
+    /**
+     * Get the number of strings out of which one has the latency of its stages measured, on each scoring thread.
+     *
+     * @return the sampling interval, 1 to measure every string
+     */
+    int getStageSamplingInterval();
+
+    /**
+     * Record that a string was scored. A string which is scored as a sentence of a document counts as one.
+     *
+     * @param tokenCount      number of tokens of the string
+     * @param lexiconHitCount number of these tokens which have a valence in the lexicon
+     */
+    void recordDocument(int tokenCount, int lexiconHitCount);
+
+    /**
+     * Record the time taken by a stage of the scoring of a string.
+     *
+     * @param stage        the stage
+     * @param elapsedNanos time taken, in nanoseconds
+     */
+    void recordStageLatency(PipelineStage stage, long elapsedNanos);
+
+    /**
+     * Record a lookup in a cache of scores.
+     *
+     * @param cacheName name of the kind of cache, e.g. the simple name of its class
+     * @param hit       true if the scores were in the cache, false if the string had to be scored
+     */
+    void recordCacheLookup(String cacheName, boolean hit);
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+/**
+ * The metrics of the sentiment analyzer as seen through JMX, see {@link JmxSentimentMetrics}.
+ *
+ * @author Animesh Pandey
+ */
+@MXBean
+public interface SentimentMetricsMxBean {
+    /**
+     * Get the number of scored strings.
+     *
+     * @return the number of strings
+     */
+    long getDocumentCount();
+
+    /**
+     * Get the number of tokens of the scored strings.
+     *
+     * @return the number of tokens
+     */
+    long getTokenCount();
+
+    /**
+     * Get the number of strings scored per second since the metrics were created.
+     *
+     * @return the rate
+     */
+    double getDocumentsPerSecond();
+
+    /**
+     * Get the number of tokens scored per second since the metrics were created.
+     *
+     * @return the rate
+     */
+    double getTokensPerSecond();
+
+    /**
+     * Get the proportion of the tokens which have a valence in the lexicon.
+     *
+     * @return the hit ratio
+     */
+    double getLexiconHitRatio();
+
+    /**
+     * Get all the metrics by name, see {@link SentimentMetricsSnapshot#toMap()}.
+     *
+     * @return the metrics
+     */
+    Map<String, Double> getMetrics();
+}
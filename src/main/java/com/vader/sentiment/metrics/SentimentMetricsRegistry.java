@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.concurrent.atomic.AtomicReference;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class holds the {@link SentimentMetrics} the analyzer reports to, which can be replaced while the
+ * application is running. The analyzer reads it once per string it scores, without any lock.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentMetricsRegistry {
+    /**
+     * The metrics currently in use.
+     */
+    private static final AtomicReference<SentimentMetrics> CURRENT =
+        new AtomicReference<>(NoOpSentimentMetrics.INSTANCE);
+
+    /**
+     * Private constructor for utility class.
+     */
+    private SentimentMetricsRegistry() {
+    }
+
+    /**
+     * Get the metrics currently in use.
+     *
+     * @return the current metrics
+     */
+    public static SentimentMetrics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Install metrics, which receive the metrics of the strings scored from now on.
+     *
+     * @param metrics the metrics
+     * @return the metrics that were replaced
+     */
+    public static SentimentMetrics install(final SentimentMetrics metrics) {
+        Preconditions.checkNotNull(metrics, "Metrics should not be null.");
+        return CURRENT.getAndSet(metrics);
+    }
+
+    /**
+     * Stop recording metrics, by installing {@link NoOpSentimentMetrics}.
+     *
+     * @return the metrics that were replaced
+     */
+    public static SentimentMetrics uninstall() {
+        return install(NoOpSentimentMetrics.INSTANCE);
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics recorded by {@link RecordingSentimentMetrics} up to some point in time. The counters only grow, so
+ * that the rates over an interval can be computed from two snapshots, see
+ * {@link SentimentMetricsSnapshot#getDocumentsPerSecond(SentimentMetricsSnapshot)}.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentimentMetricsSnapshot {
+    /**
+     * Prefix of the names of the metrics in {@link SentimentMetricsSnapshot#toMap()}.
+     */
+    public static final String METRIC_PREFIX = "vader.";
+
+    /**
+     * Time from the creation of the metrics to this snapshot, in nanoseconds.
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Number of scored strings.
+     */
+    private final long documentCount;
+
+    /**
+     * Number of tokens of the scored strings.
+     */
+    private final long tokenCount;
+
+    /**
+     * Number of tokens of the scored strings which have a valence in the lexicon.
+     */
+    private final long lexiconHitCount;
+
+    /**
+     * Latencies of each stage.
+     */
+    private final Map<PipelineStage, LatencySnapshot> stageLatencies;
+
+    /**
+     * Hits and misses of each kind of cache, by name.
+     */
+    private final Map<String, long[]> cacheLookups;
+
+    /**
+     * Create a snapshot.
+     *
+     * @param elapsedNanos    time from the creation of the metrics to this snapshot, in nanoseconds
+     * @param documentCount   number of scored strings
+     * @param tokenCount      number of tokens of the scored strings
+     * @param lexiconHitCount number of tokens of the scored strings which have a valence in the lexicon
+     * @param stageLatencies  latencies of each stage
+     * @param cacheLookups    hits and misses of each kind of cache, by name
+     */
+    SentimentMetricsSnapshot(final long elapsedNanos, final long documentCount, final long tokenCount,
+                             final long lexiconHitCount, final Map<PipelineStage, LatencySnapshot> stageLatencies,
+                             final Map<String, long[]> cacheLookups) {
+        this.elapsedNanos = elapsedNanos;
+        this.documentCount = documentCount;
+        this.tokenCount = tokenCount;
+        this.lexiconHitCount = lexiconHitCount;
+        this.stageLatencies = Collections.unmodifiableMap(stageLatencies);
+        this.cacheLookups = Collections.unmodifiableMap(cacheLookups);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    public long getTokenCount() {
+        return tokenCount;
+    }
+
+    public long getLexiconHitCount() {
+        return lexiconHitCount;
+    }
+
+    /**
+     * Get the proportion of the tokens which have a valence in the lexicon.
+     *
+     * @return the hit ratio, or 0 if there are no tokens
+     */
+    public double getLexiconHitRatio() {
+        return tokenCount == 0L ? 0.0 : (double) lexiconHitCount / tokenCount;
+    }
+
+    /**
+     * Get the number of strings scored per second since the metrics were created.
+     *
+     * @return the rate
+     */
+    public double getDocumentsPerSecond() {
+        return perSecond(documentCount, elapsedNanos);
+    }
+
+    /**
+     * Get the number of strings scored per second between an earlier snapshot of the same metrics and this one.
+     *
+     * @param earlier the earlier snapshot
+     * @return the rate over the interval
+     */
+    public double getDocumentsPerSecond(final SentimentMetricsSnapshot earlier) {
+        return perSecond(documentCount - earlier.documentCount, elapsedNanos - earlier.elapsedNanos);
+    }
+
+    /**
+     * Get the number of tokens scored per second since the metrics were created.
+     *
+     * @return the rate
+     */
+    public double getTokensPerSecond() {
+        return perSecond(tokenCount, elapsedNanos);
+    }
+
+    /**
+     * Get the number of tokens scored per second between an earlier snapshot of the same metrics and this one.
+     *
+     * @param earlier the earlier snapshot
+     * @return the rate over the interval
+     */
+    public double getTokensPerSecond(final SentimentMetricsSnapshot earlier) {
+        return perSecond(tokenCount - earlier.tokenCount, elapsedNanos - earlier.elapsedNanos);
+    }
+
+    /**
+     * Get the latencies of a stage, measured on a sample of the strings.
+     *
+     * @param stage the stage
+     * @return the latencies in nanoseconds
+     */
+    public LatencySnapshot getStageLatency(final PipelineStage stage) {
+        return stageLatencies.get(stage);
+    }
+
+    /**
+     * Get the names of the kinds of caches which were looked up.
+     *
+     * @return the names, in alphabetical order
+     */
+    public Iterable<String> getCacheNames() {
+        return cacheLookups.keySet();
+    }
+
+    /**
+     * Get the number of lookups which found the scores in a kind of cache.
+     *
+     * @param cacheName name of the kind of cache
+     * @return the number of hits, 0 if the cache was never looked up
+     */
+    public long getCacheHitCount(final String cacheName) {
+        final long[] lookups = cacheLookups.get(cacheName);
+        return lookups == null ? 0L : lookups[0];
+    }
+
+    /**
+     * Get the number of lookups which had to score the string for a kind of cache.
+     *
+     * @param cacheName name of the kind of cache
+     * @return the number of misses, 0 if the cache was never looked up
+     */
+    public long getCacheMissCount(final String cacheName) {
+        final long[] lookups = cacheLookups.get(cacheName);
+        return lookups == null ? 0L : lookups[1];
+    }
+
+    /**
+     * Get the proportion of the lookups of a kind of cache which found the scores in the cache.
+     *
+     * @param cacheName name of the kind of cache
+     * @return the hit ratio, 0 if the cache was never looked up
+     */
+    public double getCacheHitRatio(final String cacheName) {
+        final long hits = getCacheHitCount(cacheName);
+        final long lookups = hits + getCacheMissCount(cacheName);
+        return lookups == 0L ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Get all the metrics as a flat map from dotted names to numbers, e.g. {@code vader.documents.count} or
+     * {@code vader.stage.tokenization.p99.nanos}, which can be copied to the gauges of a monitoring system.
+     *
+     * @return the metrics by name, in a stable order
+     */
+    public Map<String, Number> toMap() {
+        final Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put(METRIC_PREFIX + "documents.count", documentCount);
+        metrics.put(METRIC_PREFIX + "documents.perSecond", getDocumentsPerSecond());
+        metrics.put(METRIC_PREFIX + "tokens.count", tokenCount);
+        metrics.put(METRIC_PREFIX + "tokens.perSecond", getTokensPerSecond());
+        metrics.put(METRIC_PREFIX + "lexicon.hits.count", lexiconHitCount);
+        metrics.put(METRIC_PREFIX + "lexicon.hitRatio", getLexiconHitRatio());
+        for (Map.Entry<PipelineStage, LatencySnapshot> entry : stageLatencies.entrySet()) {
+            final String prefix = METRIC_PREFIX + "stage." + entry.getKey().name().toLowerCase(Locale.ROOT) + '.';
+            final LatencySnapshot latency = entry.getValue();
+            metrics.put(prefix + "count", latency.getCount());
+            metrics.put(prefix + "mean.nanos", latency.getMean());
+            metrics.put(prefix + "p50.nanos", latency.getP50());
+            metrics.put(prefix + "p90.nanos", latency.getP90());
+            metrics.put(prefix + "p99.nanos", latency.getP99());
+            metrics.put(prefix + "p999.nanos", latency.getP999());
+            metrics.put(prefix + "max.nanos", latency.getMax());
+        }
+        for (String cacheName : cacheLookups.keySet()) {
+            final String prefix = METRIC_PREFIX + "cache." + cacheName + '.';
+            metrics.put(prefix + "hits.count", getCacheHitCount(cacheName));
+            metrics.put(prefix + "misses.count", getCacheMissCount(cacheName));
+            metrics.put(prefix + "hitRatio", getCacheHitRatio(cacheName));
+        }
+        return metrics;
+    }
+
+    /**
+     * Divide a count by a time.
+     *
+     * @param count        the count
+     * @param elapsedNanos the time, in nanoseconds
+     * @return the count per second, or 0 if no time elapsed
+     */
+    private static double perSecond(final long count, final long elapsedNanos) {
+        return elapsedNanos <= 0L ? 0.0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SentimentMetricsSnapshot" + toMap();
+    }
+}
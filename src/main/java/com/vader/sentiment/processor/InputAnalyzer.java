@@ -25,7 +25,6 @@
 package com.vader.sentiment.processor;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.function.Consumer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.Tokenizer;
@@ -33,32 +32,98 @@ import org.apache.lucene.analysis.core.WhitespaceTokenizer;
 import org.apache.lucene.analysis.miscellaneous.LengthFilter;
 import org.apache.lucene.analysis.standard.StandardTokenizer;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 
 /**
  * This class defines a Lucene analyzer that is applied on the input string in
  * {@link com.vader.sentiment.analyzer.SentimentAnalyzer}.
+ * The Lucene tokenizers, filters and the reader feeding them are created once per instance and re-used for
+ * every input string by resetting them through {@link Tokenizer#setReader(java.io.Reader)}. An instance is
+ * therefore not thread-safe; use {@link InputAnalyzer#getThreadLocalInstance()} to get the one owned by the
+ * current thread.
  *
  * @author Animesh Pandey
  */
 class InputAnalyzer implements InputAnalyzerInterface {
+    /**
+     * Analyzer instances owned by each thread.
+     */
+    private static final ThreadLocal<InputAnalyzer> THREAD_LOCAL_ANALYZER =
+        ThreadLocal.withInitial(InputAnalyzer::new);
+
+    /**
+     * Lucene tokens smaller than this length are removed.
+     */
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * Reader that is shared by both the tokenizers, pointed to the current input string.
+     */
+    private final ReusableStringReader reader = new ReusableStringReader();
+
+    /**
+     * Pipeline which tokenizes on white spaces and hence keeps the punctuations.
+     */
+    private final TokenizerPipeline whitespacePipeline = new TokenizerPipeline(new WhitespaceTokenizer());
+
+    /**
+     * Pipeline which tokenizes using the Unicode word break rules and hence removes the punctuations.
+     */
+    private final TokenizerPipeline standardPipeline = new TokenizerPipeline(new StandardTokenizer());
+
+    /**
+     * Get the analyzer owned by the current thread.
+     *
+     * @return analyzer that can be used from the current thread only
+     */
+    static InputAnalyzer getThreadLocalInstance() {
+        return THREAD_LOCAL_ANALYZER.get();
+    }
+
     /**
      * This function applies a Lucene tokenizer that splits a string into a tokens.
      *
      * @param inputString   The input string to be pre-processed with Lucene tokenizer
-     * @param tokenizer     The tokenizer to use for processing the input string
+     * @param pipeline      The tokenizer pipeline to use for processing the input string
      * @param tokenConsumer The consumer of the tokens
      * @throws IOException if Lucene's tokenizer encounters any error
      */
-    protected void tokenize(final String inputString, final Tokenizer tokenizer,
+    protected void tokenize(final String inputString, final TokenizerPipeline pipeline,
                             final Consumer<String> tokenConsumer) throws IOException {
-        tokenizer.setReader(new StringReader(inputString));
+        reader.setValue(inputString);
+        pipeline.tokenizer.setReader(reader);
+
+        // Closing the stream releases the reader, after which the tokenizer accepts the next one.
+        try (TokenStream tokenStream = pipeline.tokenStream) {
+            tokenStream.reset();
+
+            while (tokenStream.incrementToken()) {
+                tokenConsumer.accept(pipeline.charTermAttribute.toString());
+            }
 
-        try (TokenStream tokenStream = new LengthFilter(tokenizer, 2, Integer.MAX_VALUE)) {
-            final CharTermAttribute charTermAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.end();
+        }
+    }
+
+    /**
+     * This function applies a Lucene tokenizer that splits a string into a tokens, and passes the offsets of each
+     * token instead of its term. The term of the tokenizers used here is the text between its offsets.
+     *
+     * @param inputString   The input string to be pre-processed with Lucene tokenizer
+     * @param pipeline      The tokenizer pipeline to use for processing the input string
+     * @param rangeConsumer The consumer of the positions of the tokens
+     * @throws IOException if Lucene's tokenizer encounters any error
+     */
+    protected void tokenize(final String inputString, final TokenizerPipeline pipeline,
+                            final TokenRangeConsumer rangeConsumer) throws IOException {
+        reader.setValue(inputString);
+        pipeline.tokenizer.setReader(reader);
+
+        try (TokenStream tokenStream = pipeline.tokenStream) {
             tokenStream.reset();
 
             while (tokenStream.incrementToken()) {
-                tokenConsumer.accept(charTermAttribute.toString());
+                rangeConsumer.accept(pipeline.offsetAttribute.startOffset(), pipeline.offsetAttribute.endOffset());
             }
 
             tokenStream.end();
@@ -71,7 +136,7 @@ class InputAnalyzer implements InputAnalyzerInterface {
      */
     @Override
     public void keepPunctuation(final String inputString, final Consumer<String> tokenConsumer) throws IOException {
-        tokenize(inputString, new WhitespaceTokenizer(), tokenConsumer);
+        tokenize(inputString, whitespacePipeline, tokenConsumer);
     }
 
     /**
@@ -81,6 +146,53 @@ class InputAnalyzer implements InputAnalyzerInterface {
      */
     @Override
     public void removePunctuation(final String inputString, final Consumer<String> tokenConsumer) throws IOException {
-        tokenize(inputString, new StandardTokenizer(), tokenConsumer);
+        tokenize(inputString, standardPipeline, tokenConsumer);
+    }
+
+    /**
+     * Finds the tokens using Lucene's {@link StandardTokenizer}, like
+     * {@link InputAnalyzer#removePunctuation(String, Consumer)}.
+     * {@inheritDoc}
+     */
+    @Override
+    public void findWords(final String inputString, final TokenRangeConsumer rangeConsumer) throws IOException {
+        tokenize(inputString, standardPipeline, rangeConsumer);
+    }
+
+    /**
+     * A Lucene tokenizer chained with a {@link LengthFilter}, along with the term attribute of the chain.
+     */
+    private static final class TokenizerPipeline {
+        /**
+         * Tokenizer at the start of the chain.
+         */
+        private final Tokenizer tokenizer;
+
+        /**
+         * Tokenizer along with the filters applied on it.
+         */
+        private final TokenStream tokenStream;
+
+        /**
+         * Attribute holding the current token of {@link TokenizerPipeline#tokenStream}.
+         */
+        private final CharTermAttribute charTermAttribute;
+
+        /**
+         * Attribute holding the position of the current token of {@link TokenizerPipeline#tokenStream}.
+         */
+        private final OffsetAttribute offsetAttribute;
+
+        /**
+         * Creates the filter chain on top of the tokenizer.
+         *
+         * @param tokenizer the tokenizer to use
+         */
+        private TokenizerPipeline(final Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            this.tokenStream = new LengthFilter(tokenizer, MIN_TOKEN_LENGTH, Integer.MAX_VALUE);
+            this.charTermAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+            this.offsetAttribute = tokenStream.addAttribute(OffsetAttribute.class);
+        }
     }
 }
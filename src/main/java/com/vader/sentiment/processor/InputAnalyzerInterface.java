@@ -50,4 +50,29 @@ interface InputAnalyzerInterface {
      * @throws IOException if Lucene's analyzer encounters any error
      */
     void removePunctuation(String inputString, Consumer<String> tokenConsumer) throws IOException;
+
+    /**
+     * This method performs tokenization with punctuation removal, like
+     * {@link InputAnalyzerInterface#removePunctuation(String, Consumer)}, but passes the position of each token in
+     * the input string instead of creating a string for it.
+     *
+     * @param inputString   The input string to be pre-processed
+     * @param rangeConsumer The consumer of the positions of the tokens
+     * @throws IOException if Lucene's analyzer encounters any error
+     */
+    void findWords(String inputString, TokenRangeConsumer rangeConsumer) throws IOException;
+
+    /**
+     * Consumer of the position of a token in the input string.
+     */
+    @FunctionalInterface
+    interface TokenRangeConsumer {
+        /**
+         * Accept the token between the given positions of the input string.
+         *
+         * @param start index of the first character of the token
+         * @param end   index after the last character of the token
+         */
+        void accept(int start, int end);
+    }
 }
@@ -0,0 +1,605 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.util.function.Consumer;
+
+/**
+ * This class defines a hand-written, Lucene free analyzer that is applied on the input string in
+ * {@link com.vader.sentiment.analyzer.SentimentAnalyzer}.
+ * It reproduces the behaviour of {@link InputAnalyzer}, i.e. Lucene's
+ * {@link org.apache.lucene.analysis.core.WhitespaceTokenizer} or
+ * {@link org.apache.lucene.analysis.standard.StandardTokenizer} followed by a
+ * {@link org.apache.lucene.analysis.miscellaneous.LengthFilter} which removes tokens smaller than 2 characters.
+ * The word boundaries used while removing punctuations follow the rules of
+ * <a href="http://unicode.org/reports/tr29/#Word_Boundaries">UAX#29</a> implemented by the
+ * {@link org.apache.lucene.analysis.standard.StandardTokenizer}, with the word break property of a character
+ * derived from its Unicode general category and script. As these come from the JDK, characters that were added
+ * to Unicode after version 6.3, which is the version supported by Lucene 6.6, may be split up differently.
+ * This class holds no state and is thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+final class NativeInputAnalyzer implements InputAnalyzerInterface {
+    /**
+     * The only instance of this class.
+     */
+    static final NativeInputAnalyzer INSTANCE = new NativeInputAnalyzer();
+
+    /**
+     * Tokens longer than this are split, as done by the Lucene tokenizers.
+     */
+    private static final int MAX_TOKEN_LENGTH = 255;
+
+    /**
+     * Tokens smaller than this length are removed.
+     */
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * Private constructor for the singleton.
+     */
+    private NativeInputAnalyzer() {
+    }
+
+    /**
+     * Performs tokenization from the white spaces.
+     * {@inheritDoc}
+     */
+    @Override
+    public void keepPunctuation(final String inputString, final Consumer<String> tokenConsumer) {
+        int tokenStart = -1;
+        int index = 0;
+        while (index < inputString.length()) {
+            final int codePoint = inputString.codePointAt(index);
+            final int charCount = Character.charCount(codePoint);
+            if (Character.isWhitespace(codePoint)) {
+                if (tokenStart >= 0) {
+                    emitToken(inputString, tokenStart, index, tokenConsumer);
+                    tokenStart = -1;
+                }
+            } else {
+                if (tokenStart < 0) {
+                    tokenStart = index;
+                }
+                if (index + charCount - tokenStart >= MAX_TOKEN_LENGTH) {
+                    emitToken(inputString, tokenStart, index + charCount, tokenConsumer);
+                    tokenStart = -1;
+                }
+            }
+            index += charCount;
+        }
+        if (tokenStart >= 0) {
+            emitToken(inputString, tokenStart, inputString.length(), tokenConsumer);
+        }
+    }
+
+    /**
+     * Performs tokenization on the UAX#29 word boundaries, which removes any punctuations.
+     * {@inheritDoc}
+     */
+    @Override
+    public void removePunctuation(final String inputString, final Consumer<String> tokenConsumer) {
+        findWords(inputString, (start, end) -> tokenConsumer.accept(inputString.substring(start, end)));
+    }
+
+    /**
+     * Finds the tokens on the UAX#29 word boundaries, which removes any punctuations.
+     * {@inheritDoc}
+     */
+    @Override
+    public void findWords(final String inputString, final TokenRangeConsumer rangeConsumer) {
+        int index = 0;
+        while (index < inputString.length()) {
+            final int codePoint = inputString.codePointAt(index);
+            final WordBreak wordBreak = WordBreak.of(codePoint);
+            final int tokenEnd;
+            if (wordBreak.canStartWord()) {
+                tokenEnd = matchWord(inputString, index);
+            } else if (wordBreak == WordBreak.IDEOGRAPHIC || wordBreak == WordBreak.HIRAGANA) {
+                tokenEnd = nextCharacter(inputString, index);
+            } else if (wordBreak == WordBreak.COMPLEX_CONTEXT
+                || wordBreak == WordBreak.EXTEND && WordBreak.isComplexContext(codePoint)) {
+                tokenEnd = matchRun(inputString, index, WordBreak.COMPLEX_CONTEXT);
+            } else {
+                tokenEnd = -1;
+            }
+
+            if (tokenEnd > index) {
+                if (tokenEnd - index >= MIN_TOKEN_LENGTH) {
+                    rangeConsumer.accept(index, tokenEnd);
+                }
+                index = tokenEnd;
+            } else {
+                index += Character.charCount(codePoint);
+            }
+        }
+    }
+
+    /**
+     * Pass the token between the given positions to the consumer, unless it is smaller than
+     * {@link NativeInputAnalyzer#MIN_TOKEN_LENGTH}.
+     *
+     * @param inputString   the input string
+     * @param tokenStart    index of the first character of the token
+     * @param tokenEnd      index after the last character of the token
+     * @param tokenConsumer the consumer of the tokens
+     */
+    private static void emitToken(final String inputString, final int tokenStart, final int tokenEnd,
+                                  final Consumer<String> tokenConsumer) {
+        if (tokenEnd - tokenStart >= MIN_TOKEN_LENGTH) {
+            tokenConsumer.accept(inputString.substring(tokenStart, tokenEnd));
+        }
+    }
+
+    /**
+     * Get the index of the character after the one at the given index, skipping any {@link WordBreak#EXTEND}
+     * characters that follow it, since they do not break words (rule WB4).
+     *
+     * @param inputString the input string
+     * @param index       index of the current character
+     * @return index of the next character that is not an extending character
+     */
+    private static int nextCharacter(final String inputString, final int index) {
+        int next = index + Character.charCount(inputString.codePointAt(index));
+        while (next < inputString.length()) {
+            final int codePoint = inputString.codePointAt(next);
+            if (WordBreak.of(codePoint) != WordBreak.EXTEND) {
+                break;
+            }
+            next += Character.charCount(codePoint);
+        }
+        return next;
+    }
+
+    /**
+     * Get the word break property of the character at the given index.
+     *
+     * @param inputString the input string
+     * @param index       index of the character
+     * @return the word break property, {@link WordBreak#OTHER} at the end of the input string
+     */
+    private static WordBreak wordBreakAt(final String inputString, final int index) {
+        if (index >= inputString.length()) {
+            return WordBreak.OTHER;
+        }
+        return WordBreak.of(inputString.codePointAt(index));
+    }
+
+    /**
+     * Match the longest run of characters having the given word break property.
+     *
+     * @param inputString the input string
+     * @param start       index of the first character of the run
+     * @param wordBreak   the word break property
+     * @return index after the end of the run
+     */
+    private static int matchRun(final String inputString, final int start, final WordBreak wordBreak) {
+        int index = start;
+        do {
+            final int next = nextCharacter(inputString, index);
+            if (next - start > MAX_TOKEN_LENGTH) {
+                break;
+            }
+            index = next;
+        } while (wordBreakAt(inputString, index) == wordBreak);
+        return index;
+    }
+
+    /**
+     * Match the longest word starting at the given index. A word is made of letters, numbers and Katakana,
+     * which are joined by the rules WB5 to WB13b of UAX#29:
+     * - letters and numbers which are next to each other are joined (WB5, WB8, WB9, WB10),
+     * - a single {@link WordBreak#MID_LETTER} character joins letters (WB6, WB7), a single
+     * {@link WordBreak#MID_NUM} character joins numbers (WB11, WB12) and {@link WordBreak#MID_NUM_LET} or
+     * {@link WordBreak#SINGLE_QUOTE} join both of them,
+     * - Hebrew letters are joined by double quotes and can be followed by a single quote (WB7a, WB7b, WB7c),
+     * - Katakana characters are joined with each other (WB13) and
+     * - any of the above are joined by {@link WordBreak#EXTEND_NUM_LET} characters, which can also be at the
+     * start or at the end of a word (WB13a, WB13b).
+     * Like the Lucene tokenizers, the word is cut at {@link NativeInputAnalyzer#MAX_TOKEN_LENGTH} characters.
+     *
+     * @param inputString the input string
+     * @param start       index of the first character of the word
+     * @return index after the end of the word, or -1 if there is no word at the given index
+     */
+    private static int matchWord(final String inputString, final int start) {
+        WordBreak lastUnit = null;
+        boolean afterExtendNumLet = false;
+        int wordEnd = -1;
+        int index = start;
+        while (index < inputString.length()) {
+            final WordBreak wordBreak = wordBreakAt(inputString, index);
+            final int next = nextCharacter(inputString, index);
+            if (next - start > MAX_TOKEN_LENGTH) {
+                break;
+            }
+
+            if (wordBreak == WordBreak.EXTEND_NUM_LET) {
+                afterExtendNumLet = true;
+                if (lastUnit != null) {
+                    wordEnd = next;
+                }
+            } else if (wordBreak.isUnit()) {
+                if (lastUnit != null && !afterExtendNumLet
+                    && (lastUnit == WordBreak.KATAKANA) != (wordBreak == WordBreak.KATAKANA)) {
+                    break;
+                }
+                lastUnit = wordBreak;
+                afterExtendNumLet = false;
+                wordEnd = next;
+            } else if (lastUnit != null && !afterExtendNumLet && wordBreak.isMidWord()) {
+                final WordBreak following = wordBreakAt(inputString, next);
+                if (lastUnit == WordBreak.HEBREW_LETTER && wordBreak == WordBreak.SINGLE_QUOTE
+                    && !following.isLetter()) {
+                    // The Hebrew letter and the quote end this part of the word, which can only be continued
+                    // by another letter, number or an extending number-letter.
+                    lastUnit = WordBreak.SINGLE_QUOTE;
+                    wordEnd = next;
+                } else if (!joins(lastUnit, wordBreak, following)) {
+                    break;
+                }
+            } else {
+                break;
+            }
+            index = next;
+        }
+        return wordEnd;
+    }
+
+    /**
+     * Check if a character in the middle of a word joins the characters on both its sides.
+     *
+     * @param previous  word break property of the character before
+     * @param middle    word break property of the character in the middle
+     * @param following word break property of the character after
+     * @return true if the characters are joined
+     */
+    private static boolean joins(final WordBreak previous, final WordBreak middle, final WordBreak following) {
+        if (previous.isLetter() && following.isLetter()) {
+            if (middle == WordBreak.DOUBLE_QUOTE) {
+                return previous == WordBreak.HEBREW_LETTER && following == WordBreak.HEBREW_LETTER;
+            }
+            return middle == WordBreak.MID_LETTER || middle == WordBreak.MID_NUM_LET
+                || middle == WordBreak.SINGLE_QUOTE;
+        }
+        if (previous == WordBreak.NUMERIC && following == WordBreak.NUMERIC) {
+            return middle == WordBreak.MID_NUM || middle == WordBreak.MID_NUM_LET
+                || middle == WordBreak.SINGLE_QUOTE;
+        }
+        return false;
+    }
+
+    /**
+     * The word break properties of UAX#29 which are relevant for the Lucene StandardTokenizer.
+     */
+    enum WordBreak {
+        /**
+         * Letters of alphabetic scripts.
+         */
+        A_LETTER,
+
+        /**
+         * Letters of the Hebrew script.
+         */
+        HEBREW_LETTER,
+
+        /**
+         * Digits.
+         */
+        NUMERIC,
+
+        /**
+         * Katakana characters.
+         */
+        KATAKANA,
+
+        /**
+         * Hiragana characters, each of which is a token.
+         */
+        HIRAGANA,
+
+        /**
+         * Ideographs, each of which is a token.
+         */
+        IDEOGRAPHIC,
+
+        /**
+         * Characters of South East Asian scripts like Thai, Lao, Myanmar or Khmer, runs of which are tokens.
+         */
+        COMPLEX_CONTEXT,
+
+        /**
+         * Combining marks and format characters, which are part of the character before them.
+         */
+        EXTEND,
+
+        /**
+         * Connector punctuations like '_'.
+         */
+        EXTEND_NUM_LET,
+
+        /**
+         * Punctuations like ':' that join letters.
+         */
+        MID_LETTER,
+
+        /**
+         * Punctuations like ',' that join numbers.
+         */
+        MID_NUM,
+
+        /**
+         * Punctuations like '.' that join letters as well as numbers.
+         */
+        MID_NUM_LET,
+
+        /**
+         * The apostrophe.
+         */
+        SINGLE_QUOTE,
+
+        /**
+         * The quotation mark.
+         */
+        DOUBLE_QUOTE,
+
+        /**
+         * Any other character, which is not part of any token.
+         */
+        OTHER;
+
+        /**
+         * All the word break properties, indexed by their ordinal.
+         */
+        private static final WordBreak[] VALUES = values();
+
+        /**
+         * Ordinals of the word break properties of the characters in the Basic Multilingual Plane, so that
+         * the general category and script of these characters are not looked up for every character.
+         */
+        private static final byte[] BASIC_PLANE = new byte[Character.MAX_VALUE + 1];
+
+        static {
+            for (int codePoint = 0; codePoint <= Character.MAX_VALUE; codePoint++) {
+                BASIC_PLANE[codePoint] = (byte) compute(codePoint).ordinal();
+            }
+        }
+
+        /**
+         * Find the word break property of a character.
+         *
+         * @param codePoint the character
+         * @return its word break property
+         */
+        static WordBreak of(final int codePoint) {
+            if (codePoint <= Character.MAX_VALUE) {
+                return VALUES[BASIC_PLANE[codePoint]];
+            }
+            return compute(codePoint);
+        }
+
+        /**
+         * Compute the word break property of a character.
+         *
+         * @param codePoint the character
+         * @return its word break property
+         */
+        private static WordBreak compute(final int codePoint) {
+            switch (codePoint) {
+                case '\'':
+                    return SINGLE_QUOTE;
+                case '"':
+                    return DOUBLE_QUOTE;
+                case '.':
+                case '\u2018': // left single quotation mark
+                case '\u2019': // right single quotation mark
+                case '\u2024': // one dot leader
+                case '\uFE52': // small full stop
+                case '\uFF07': // fullwidth apostrophe
+                case '\uFF0E': // fullwidth full stop
+                    return MID_NUM_LET;
+                case ':':
+                case '\u00B7': // middle dot
+                case '\u0387': // greek ano teleia
+                case '\u05F4': // hebrew punctuation gershayim
+                case '\u02D7': // modifier letter minus sign
+                case '\u2027': // hyphenation point
+                case '\uFE13': // presentation form for vertical colon
+                case '\uFE55': // small colon
+                case '\uFF1A': // fullwidth colon
+                    return MID_LETTER;
+                case ',':
+                case ';':
+                case '\u037E': // greek question mark
+                case '\u0589': // armenian full stop
+                case '\u060C': // arabic comma
+                case '\u060D': // arabic date separator
+                case '\u066C': // arabic thousands separator
+                case '\u07F8': // nko comma
+                case '\u2044': // fraction slash
+                case '\uFE10': // presentation form for vertical comma
+                case '\uFE14': // presentation form for vertical semicolon
+                case '\uFE50': // small comma
+                case '\uFE54': // small semicolon
+                case '\uFF0C': // fullwidth comma
+                case '\uFF1B': // fullwidth semicolon
+                    return MID_NUM;
+                case '\u066B': // arabic decimal separator
+                    return NUMERIC;
+                case '\u05F3': // hebrew punctuation geresh
+                case '\u1885': // mongolian letter ali gali baluda
+                case '\u1886': // mongolian letter ali gali three baluda
+                    return A_LETTER;
+                case '\u3031': // vertical kana repeat mark
+                case '\u3032': // vertical kana repeat with voiced sound mark
+                case '\u3033': // vertical kana repeat mark upper half
+                case '\u3034': // vertical kana repeat with voiced sound mark upper half
+                case '\u3035': // vertical kana repeat mark lower half
+                case '\u309B': // katakana-hiragana voiced sound mark
+                case '\u309C': // katakana-hiragana semi-voiced sound mark
+                case '\u30A0': // katakana-hiragana double hyphen
+                case '\u30FC': // katakana-hiragana prolonged sound mark
+                case '\uFF70': // halfwidth katakana-hiragana prolonged sound mark
+                    return KATAKANA;
+                case '\u3006': // ideographic closing mark
+                    return OTHER;
+                case '\u200C': // zero width non-joiner
+                case '\u200D': // zero width joiner
+                case '\uFF9E': // halfwidth katakana voiced sound mark
+                case '\uFF9F': // halfwidth katakana semi-voiced sound mark
+                    return EXTEND;
+                default:
+                    return ofCategory(codePoint);
+            }
+        }
+
+        /**
+         * Find the word break property of a character, which is not a punctuation with a special meaning,
+         * from its general category and script.
+         *
+         * @param codePoint the character
+         * @return its word break property
+         */
+        private static WordBreak ofCategory(final int codePoint) {
+            final int type = Character.getType(codePoint);
+            if (type == Character.DECIMAL_DIGIT_NUMBER) {
+                return NUMERIC;
+            }
+            switch (Character.UnicodeScript.of(codePoint)) {
+                case HAN:
+                    if (type != Character.MODIFIER_LETTER) {
+                        return IDEOGRAPHIC;
+                    }
+                    break;
+                case HIRAGANA:
+                    return HIRAGANA;
+                case KATAKANA:
+                    return KATAKANA;
+                default:
+                    break;
+            }
+            if (isComplexContext(codePoint) && !isMark(type)) {
+                return COMPLEX_CONTEXT;
+            }
+            if (isMark(type)) {
+                return EXTEND;
+            }
+            switch (type) {
+                case Character.FORMAT:
+                    return codePoint == '\u200B' ? OTHER : EXTEND; // zero width space
+                case Character.CONNECTOR_PUNCTUATION:
+                    return EXTEND_NUM_LET;
+                default:
+                    break;
+            }
+            if (!Character.isAlphabetic(codePoint)) {
+                return OTHER;
+            }
+            if (Character.isIdeographic(codePoint)) {
+                return IDEOGRAPHIC;
+            }
+            return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HEBREW ? HEBREW_LETTER : A_LETTER;
+        }
+
+        /**
+         * Check if a character is a letter, number or sign of the South East Asian scripts, which are written
+         * without spaces between the words. Their word boundaries are not defined by UAX#29 and whole runs of
+         * them are tokens.
+         *
+         * @param codePoint the character
+         * @return true if the character belongs to a South East Asian script and is not a punctuation
+         */
+        static boolean isComplexContext(final int codePoint) {
+            final int type = Character.getType(codePoint);
+            switch (Character.UnicodeScript.of(codePoint)) {
+                case THAI:
+                case LAO:
+                case KHMER:
+                case TAI_LE:
+                    return Character.isLetter(codePoint) || isMark(type);
+                case NEW_TAI_LUE:
+                    return Character.isLetter(codePoint) || isMark(type) || type == Character.OTHER_NUMBER
+                        || type == Character.OTHER_SYMBOL;
+                case MYANMAR:
+                    return Character.isLetter(codePoint) || isMark(type) || type == Character.OTHER_SYMBOL;
+                case TAI_THAM:
+                case TAI_VIET:
+                    return Character.isLetter(codePoint) || isMark(type) || type == Character.OTHER_PUNCTUATION;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Check if a general category is one of the combining marks.
+         *
+         * @param type the general category of a character
+         * @return true for non-spacing, enclosing and spacing combining marks
+         */
+        private static boolean isMark(final int type) {
+            return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+        }
+
+        /**
+         * Check if a word can start with a character having this property.
+         *
+         * @return true for letters, numbers, Katakana and extending number-letters
+         */
+        boolean canStartWord() {
+            return isUnit() || this == EXTEND_NUM_LET;
+        }
+
+        /**
+         * Check if this property is of a character which is a part of a word on its own.
+         *
+         * @return true for letters, numbers and Katakana
+         */
+        boolean isUnit() {
+            return isLetter() || this == NUMERIC || this == KATAKANA;
+        }
+
+        /**
+         * Check if this property is of a letter.
+         *
+         * @return true for letters, including Hebrew letters
+         */
+        boolean isLetter() {
+            return this == A_LETTER || this == HEBREW_LETTER;
+        }
+
+        /**
+         * Check if this property is of a punctuation that can join the parts of a word.
+         *
+         * @return true for punctuations like '.', ',', ':' and quotes
+         */
+        boolean isMidWord() {
+            return this == MID_LETTER || this == MID_NUM || this == MID_NUM_LET || this == SINGLE_QUOTE
+                || this == DOUBLE_QUOTE;
+        }
+    }
+}
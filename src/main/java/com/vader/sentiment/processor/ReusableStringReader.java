@@ -0,0 +1,84 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.io.Reader;
+
+/**
+ * A {@link Reader} over a {@link String} which can be pointed at a new string without being re-allocated.
+ * This lets {@link InputAnalyzer} hand the same reader to its Lucene tokenizers for every input string.
+ *
+ * @author Animesh Pandey
+ */
+final class ReusableStringReader extends Reader {
+    /**
+     * The string currently being read.
+     */
+    private String text = "";
+
+    /**
+     * Position of the next character to be read from {@link ReusableStringReader#text}.
+     */
+    private int position;
+
+    /**
+     * Point this reader to the start of a new string.
+     *
+     * @param inputText the string to read from
+     */
+    void setValue(final String inputText) {
+        this.text = inputText;
+        this.position = 0;
+    }
+
+    @Override
+    public int read() {
+        if (position < text.length()) {
+            return text.charAt(position++);
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(final char[] buffer, final int offset, final int length) {
+        if (position >= text.length()) {
+            return -1;
+        }
+        final int charsToRead = Math.min(length, text.length() - position);
+        text.getChars(position, position + charsToRead, buffer, offset);
+        position += charsToRead;
+        return charsToRead;
+    }
+
+    /**
+     * Releases the reference to the string so that it can be garbage collected.
+     */
+    @Override
+    public void close() {
+        text = "";
+        position = 0;
+    }
+}
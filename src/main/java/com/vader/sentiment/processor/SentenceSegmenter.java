@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.processor;
+
+import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
+import java.util.Locale;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class splits a document into paragraphs and sentences, so that the sentences can be scored one by one.
+ * Paragraphs are separated by blank lines, i.e. by two line breaks with only whitespace between them. Each
+ * paragraph is split into sentences by the sentence {@link BreakIterator} of the English locale, which keeps a
+ * single line break inside a sentence. The sentences are passed on as positions in the document, without the
+ * whitespace around them, so that the document is not copied.
+ *
+ * @author Animesh Pandey
+ */
+public final class SentenceSegmenter {
+    /**
+     * Private constructor for utility class.
+     */
+    private SentenceSegmenter() {
+    }
+
+    /**
+     * Split a document into sentences, in the order of the document. Sentences made only of whitespace are
+     * skipped.
+     *
+     * @param document         the document
+     * @param sentenceConsumer the consumer of the positions of the sentences
+     */
+    public static void segment(final String document, final SentenceConsumer sentenceConsumer) {
+        Preconditions.checkNotNull(document, "Document should not be null.");
+        final BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+        int paragraph = 0;
+        int paragraphStart = 0;
+        while (paragraphStart < document.length()) {
+            final int paragraphEnd = findParagraphEnd(document, paragraphStart);
+            sentences.setText(new StringCharacterIterator(document, paragraphStart, paragraphEnd, paragraphStart));
+            boolean hasSentence = false;
+            int start = sentences.first();
+            for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+                final int trimmedStart = skipWhitespace(document, start, end);
+                final int trimmedEnd = skipTrailingWhitespace(document, trimmedStart, end);
+                if (trimmedStart < trimmedEnd) {
+                    sentenceConsumer.accept(trimmedStart, trimmedEnd, paragraph);
+                    hasSentence = true;
+                }
+            }
+            if (hasSentence) {
+                paragraph++;
+            }
+            paragraphStart = paragraphEnd;
+        }
+    }
+
+    /**
+     * Find the end of the paragraph which starts at the given position, which is after the blank line that ends
+     * it, or the end of the document.
+     *
+     * @param document the document
+     * @param start    the start of the paragraph
+     * @return the end of the paragraph
+     */
+    private static int findParagraphEnd(final String document, final int start) {
+        int lineBreak = document.indexOf('\n', start);
+        while (lineBreak >= 0) {
+            int next = lineBreak + 1;
+            while (next < document.length() && document.charAt(next) != '\n'
+                && Character.isWhitespace(document.charAt(next))) {
+                next++;
+            }
+            if (next < document.length() && document.charAt(next) == '\n') {
+                return next + 1;
+            }
+            lineBreak = document.indexOf('\n', next);
+        }
+        return document.length();
+    }
+
+    /**
+     * Skip the whitespace at the start of a range.
+     *
+     * @param document the document
+     * @param start    the start of the range
+     * @param end      the end of the range
+     * @return the position of the first character which is not whitespace, or the end
+     */
+    private static int skipWhitespace(final String document, final int start, final int end) {
+        int position = start;
+        while (position < end && Character.isWhitespace(document.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Skip the whitespace at the end of a range.
+     *
+     * @param document the document
+     * @param start    the start of the range
+     * @param end      the end of the range
+     * @return the position after the last character which is not whitespace, or the start
+     */
+    private static int skipTrailingWhitespace(final String document, final int start, final int end) {
+        int position = end;
+        while (position > start && Character.isWhitespace(document.charAt(position - 1))) {
+            position--;
+        }
+        return position;
+    }
+
+    /**
+     * Consumer of the position of a sentence in the document.
+     */
+    @FunctionalInterface
+    public interface SentenceConsumer {
+        /**
+         * Accept the sentence between the given positions of the document.
+         *
+         * @param start     index of the first character of the sentence
+         * @param end       index after the last character of the sentence
+         * @param paragraph index of the paragraph of the sentence, counting only the paragraphs which have a
+         *                  sentence
+         */
+        void accept(int start, int end, int paragraph);
+    }
+}
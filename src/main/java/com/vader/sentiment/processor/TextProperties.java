@@ -25,32 +25,85 @@
 package com.vader.sentiment.processor;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.SentimentModifyingTokens;
 import com.vader.sentiment.util.Utils;
+import com.vader.sentiment.util.Vocabulary;
 
 /**
  * The TextProperties class implements the pre-processing steps of the input string for sentiment analysis.
- * It utilizes the Lucene analyzer to perform processing on the input string.
+ * The input string is scanned once to split it into tokens and emoticons, to strip punctuations from them,
+ * to find yelling words and to count the punctuations that amplify the sentiment. The analyzer selected by
+ * {@link TokenizerMode} is used only for the set of words without punctuations, and only when a token has to be
+ * stripped of punctuations.
+ * The properties can be reset to those of another string through
+ * {@link TextProperties#reset(String, TokenizerMode, Vocabulary)}, which reuses the memory held for the previous
+ * string, and released through {@link TextProperties#release()}. An instance is therefore not thread-safe.
  *
  * @author Animesh Pandey
  */
 public final class TextProperties {
+    /**
+     * Tokens longer than this are split, as done by Lucene's
+     * {@link org.apache.lucene.analysis.core.WhitespaceTokenizer}.
+     */
+    private static final int MAX_TOKEN_LENGTH = 255;
+
+    /**
+     * Tokens smaller than this length are removed.
+     */
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    /**
+     * The {@link Utils#PUNCTUATIONS} in the same order, as an array that can be iterated without allocating an
+     * {@link java.util.Iterator}.
+     */
+    private static final String[] PUNCTUATIONS = Utils.PUNCTUATIONS.toArray(new String[0]);
+
     /**
      * String whose properties will be extracted.
      */
-    private final String inputText;
+    private String inputText;
+
+    /**
+     * Tokenizer that removes punctuations from the {@link TextProperties#inputText}.
+     */
+    private TokenizerMode tokenizerMode;
+
+    /**
+     * Analyzer used for tokenizing the {@link TextProperties#inputText}, which is set when it is first needed.
+     */
+    private InputAnalyzerInterface inputAnalyzer;
+
+    /**
+     * Flag that specifies if the analyzer is owned by this object, instead of by the current thread. Objects which
+     * are reset for other strings own their analyzer, so that they can be reused on any thread.
+     */
+    private final boolean ownsInputAnalyzer;
+
+    /**
+     * Tokens and emoticons extracted from the {@link TextProperties#inputText}.
+     */
+    private final TokenSequence wordsAndEmoticons;
+
+    /**
+     * Set of tokens extracted from the {@link TextProperties#inputText}, as offsets into it.
+     * Emoticons are removed here. This is computed when it is first needed.
+     */
+    private final TextRangeSet wordsOnlyRanges = new TextRangeSet();
 
     /**
-     * List of tokens and emoticons extracted from the {@link TextProperties#inputText}.
+     * Flag that specifies if {@link TextProperties#wordsOnlyRanges} has been computed for the current string.
      */
-    private List<String> wordsAndEmoticons;
+    private boolean hasWordsOnlyRanges;
 
     /**
-     * Set of tokens extracted from the {@link TextProperties#inputText}.
-     * Emoticons are removed here.
+     * Set of tokens extracted from the {@link TextProperties#inputText}, as strings.
+     * Emoticons are removed here. This is computed when it is first asked for.
      */
     private Set<String> wordsOnly;
 
@@ -59,6 +112,30 @@ public final class TextProperties {
      */
     private boolean hasYellWords;
 
+    /**
+     * Number of '!'s in the {@link TextProperties#inputText}.
+     */
+    private int exclamationCount;
+
+    /**
+     * Number of '?'s in the {@link TextProperties#inputText}.
+     */
+    private int questionMarkCount;
+
+    /**
+     * Creates the properties of an empty string, which are meant to be reset to the properties of the strings
+     * that will be processed, see {@link TextProperties#reset(String, TokenizerMode, Vocabulary)}.
+     * The Lucene analyzer is created for this object when it is first needed, instead of being shared with the
+     * other objects used by the same thread, so that this object can be used by different threads one after the
+     * other.
+     */
+    public TextProperties() {
+        this.inputText = "";
+        this.tokenizerMode = TokenizerMode.getDefault();
+        this.ownsInputAnalyzer = true;
+        this.wordsAndEmoticons = new TokenSequence(inputText, LexiconRegistry.current());
+    }
+
     /**
      * Parameterized constructor accepting the input string that will be processed.
      *
@@ -66,84 +143,241 @@ public final class TextProperties {
      * @throws IOException if there is an issue with the lucene analyzers
      */
     public TextProperties(final String inputText) throws IOException {
-        this.inputText = inputText;
-        setWordsAndEmoticons();
-        setHasYellWords(hasCapDifferential(getWordsAndEmoticons()));
+        this(inputText, TokenizerMode.getDefault());
+    }
+
+    /**
+     * Parameterized constructor accepting the input string that will be processed and the tokenizer used for it.
+     *
+     * @param inputText     the input string
+     * @param tokenizerMode the tokenizer that removes punctuations from the input string
+     * @throws IOException if there is an issue with the lucene analyzers
+     */
+    public TextProperties(final String inputText, final TokenizerMode tokenizerMode) throws IOException {
+        this(inputText, tokenizerMode, LexiconRegistry.current());
+    }
+
+    /**
+     * Parameterized constructor accepting the input string that will be processed, the tokenizer used for it and
+     * the vocabulary in which its tokens are looked up.
+     *
+     * @param inputText     the input string
+     * @param tokenizerMode the tokenizer that removes punctuations from the input string
+     * @param vocabulary    the vocabulary, usually a snapshot of {@link LexiconRegistry#current()}
+     * @throws IOException if there is an issue with the lucene analyzers
+     */
+    public TextProperties(final String inputText, final TokenizerMode tokenizerMode, final Vocabulary vocabulary)
+            throws IOException {
+        this.ownsInputAnalyzer = false;
+        this.wordsAndEmoticons = new TokenSequence(inputText, vocabulary);
+        reset(inputText, tokenizerMode, vocabulary);
+    }
+
+    /**
+     * Replace the properties of the current string with the properties of another string, which is processed with
+     * the given tokenizer and vocabulary. The {@link TokenSequence} returned by {@link TextProperties#getTokens()}
+     * is reused, so the tokens of the current string cannot be read anymore.
+     *
+     * @param newInputText  the input string
+     * @param tokenizerMode the tokenizer that removes punctuations from the input string
+     * @param vocabulary    the vocabulary, usually a snapshot of {@link LexiconRegistry#current()}
+     * @throws IOException if there is an issue with the lucene analyzers
+     */
+    public void reset(final String newInputText, final TokenizerMode tokenizerMode, final Vocabulary vocabulary)
+            throws IOException {
+        this.inputText = newInputText;
+        if (tokenizerMode != this.tokenizerMode || !ownsInputAnalyzer) {
+            this.tokenizerMode = tokenizerMode;
+            this.inputAnalyzer = null;
+        }
+        this.wordsOnlyRanges.clear(newInputText);
+        this.hasWordsOnlyRanges = false;
+        this.wordsOnly = null;
+        this.hasYellWords = false;
+        this.exclamationCount = 0;
+        this.questionMarkCount = 0;
+        wordsAndEmoticons.reset(newInputText, vocabulary);
+        scanInputText();
     }
 
     /**
-     * Tokenize the input text in two steps:
-     * 1. Use Lucene analyzer to tokenize while preserving the punctuations, so that the emoticons are preserved.
+     * Replace the properties of the current string with those of an empty string, and release the memory held for
+     * the current string: the string itself, the strings created for its tokens, and the arrays that have grown
+     * much larger than usual for a very long string. This is called once a string has been scored by an object that
+     * is kept between strings, so that it does not keep the last string alive.
+     */
+    public void release() {
+        this.inputText = "";
+        this.wordsOnlyRanges.release();
+        this.hasWordsOnlyRanges = false;
+        this.wordsOnly = null;
+        this.hasYellWords = false;
+        this.exclamationCount = 0;
+        this.questionMarkCount = 0;
+        wordsAndEmoticons.release();
+    }
+
+    /**
+     * Tokenize the input text in a single pass over its characters:
+     * 1. Split the text on white spaces, so that the emoticons are preserved. As done by Lucene's
+     * {@link org.apache.lucene.analysis.core.WhitespaceTokenizer} and
+     * {@link org.apache.lucene.analysis.miscellaneous.LengthFilter}, tokens longer than
+     * {@link TextProperties#MAX_TOKEN_LENGTH} are split and tokens smaller than
+     * {@link TextProperties#MIN_TOKEN_LENGTH} are removed.
      * 2. Remove punctuations from a token, if adjacent to it without a space and replace it with the original token.
      * e.g. going!!!! -> going OR !?!?there -> there
+     * 3. Count the '!' and '?' marks.
      *
-     * @param unTokenizedText           original text to be analyzed.
-     * @param tokensWithoutPunctuations tokenized version of the input which has no punctuations.
-     * @return tokenized version which preserves all the punctuations so that emoticons are preserved.
-     * @throws IOException if there was an issue while Lucene was processing unTokenizedText
+     * @throws IOException if there was an issue while Lucene was processing the input text
      */
-    private List<String> tokensAftersKeepingEmoticons(final String unTokenizedText,
-                                                      final Set<String> tokensWithoutPunctuations) throws IOException {
-        final List<String> wordsAndEmoticonsList = new ArrayList<>();
-        new InputAnalyzer().keepPunctuation(unTokenizedText, wordsAndEmoticonsList::add);
-        wordsAndEmoticonsList.replaceAll(t -> stripPunctuations(t, tokensWithoutPunctuations));
-        return wordsAndEmoticonsList;
+    private void scanInputText() throws IOException {
+        final TokenSequence tokens = wordsAndEmoticons;
+        final char exclamationMark = SentimentModifyingTokens.EXCLAMATION_MARK.getValue().charAt(0);
+        final char questionMark = SentimentModifyingTokens.QUESTION_MARK.getValue().charAt(0);
+        int tokenStart = -1;
+        int index = 0;
+        while (index < inputText.length()) {
+            final int codePoint = inputText.codePointAt(index);
+            final int charCount = Character.charCount(codePoint);
+            if (codePoint == exclamationMark) {
+                exclamationCount++;
+            } else if (codePoint == questionMark) {
+                questionMarkCount++;
+            }
+
+            if (Character.isWhitespace(codePoint)) {
+                if (tokenStart >= 0) {
+                    addToken(tokens, tokenStart, index);
+                    tokenStart = -1;
+                }
+            } else {
+                if (tokenStart < 0) {
+                    tokenStart = index;
+                }
+                if (index + charCount - tokenStart >= MAX_TOKEN_LENGTH) {
+                    addToken(tokens, tokenStart, index + charCount);
+                    tokenStart = -1;
+                }
+            }
+            index += charCount;
+        }
+        if (tokenStart >= 0) {
+            addToken(tokens, tokenStart, inputText.length());
+        }
+        setHasYellWords(hasCapDifferential(tokens));
     }
 
     /**
+     * Add the token between the given positions of the input text to the token sequence, after stripping
+     * punctuations from it. The token is ignored if it is smaller than {@link TextProperties#MIN_TOKEN_LENGTH}.
      * Remove punctuations from a token, if adjacent to it without a space and replace it with the original token.
      * e.g. going!!!! -> going OR !?!?there -> there
      *
-     * @param token                     token that potentially includes punctuations.
-     * @param tokensWithoutPunctuations tokenized version of the input which has no punctuations.
-     * @return the token with any such punctuation removed from it, or the original token otherwise
-     */
-    private String stripPunctuations(String token, Set<String> tokensWithoutPunctuations) {
-        for (final String punct : Utils.PUNCTUATIONS) {
-            if (token.startsWith(punct)) {
-                final String strippedToken = token.substring(punct.length());
-                if (tokensWithoutPunctuations.contains(strippedToken)) {
-                    return strippedToken;
+     * @param tokens     sequence of tokens and emoticons
+     * @param tokenStart index of the first character of the token
+     * @param tokenEnd   index after the last character of the token
+     * @throws IOException if there was an issue while Lucene was processing the input text
+     */
+    private void addToken(final TokenSequence tokens, final int tokenStart, final int tokenEnd) throws IOException {
+        if (tokenEnd - tokenStart < MIN_TOKEN_LENGTH) {
+            return;
+        }
+        final int tokenLength = tokenEnd - tokenStart;
+        for (final String punct : PUNCTUATIONS) {
+            if (inputText.startsWith(punct, tokenStart) && punct.length() <= tokenLength) {
+                if (isWordOnly(tokenStart + punct.length(), tokenEnd)) {
+                    tokens.add(tokenStart + punct.length(), tokenEnd);
+                    return;
                 }
-            } else if (token.endsWith(punct)) {
-                final String strippedToken = token.substring(0, token.length() - punct.length());
-                if (tokensWithoutPunctuations.contains(strippedToken)) {
-                    return strippedToken;
+            } else if (inputText.startsWith(punct, tokenEnd - punct.length()) && punct.length() <= tokenLength) {
+                if (isWordOnly(tokenStart, tokenEnd - punct.length())) {
+                    tokens.add(tokenStart, tokenEnd - punct.length());
+                    return;
                 }
             }
         }
-        return token;
+        tokens.add(tokenStart, tokenEnd);
     }
 
     /**
-     * This method tokenizes the input string, preserving the punctuation marks using a custom Lucene analyzer.
+     * Check if the text between the given positions of the input string is one of the tokens without punctuations,
+     * without creating a string for it. The tokens without punctuations are found when this is first called.
      *
-     * @throws IOException if something goes wrong in the Lucene analyzer.
-     * @see InputAnalyzer#tokenize(String, org.apache.lucene.analysis.Tokenizer, java.util.function.Consumer)
+     * @param start index of the first character of the text
+     * @param end   index after the last character of the text
+     * @return true iff the text is one of the tokens which have no punctuations
+     * @throws IOException iff there is an error which using Lucene analyzers.
+     * @see InputAnalyzerInterface#findWords(String, InputAnalyzerInterface.TokenRangeConsumer)
      */
-    private void setWordsAndEmoticons() throws IOException {
-        setWordsOnly();
-        this.wordsAndEmoticons = tokensAftersKeepingEmoticons(inputText, wordsOnly);
+    private boolean isWordOnly(final int start, final int end) throws IOException {
+        if (!hasWordsOnlyRanges) {
+            inputAnalyzer().findWords(inputText, wordsOnlyRanges);
+            hasWordsOnlyRanges = true;
+        }
+        return wordsOnlyRanges.contains(start, end);
+    }
+
+    /**
+     * Get the analyzer of the {@link TextProperties#tokenizerMode}, creating it or getting the one of the current
+     * thread when it is first needed.
+     *
+     * @return the analyzer
+     */
+    private InputAnalyzerInterface inputAnalyzer() {
+        if (inputAnalyzer == null) {
+            inputAnalyzer = ownsInputAnalyzer ? tokenizerMode.newInputAnalyzer() : tokenizerMode.getInputAnalyzer();
+        }
+        return inputAnalyzer;
     }
 
     /**
      * This method tokenizes the input string, removing the special characters as well.
      *
+     * @return tokenized version of the input which has no punctuations.
      * @throws IOException iff there is an error which using Lucene analyzers.
      * @see InputAnalyzer#removePunctuation(String, java.util.function.Consumer)
      */
-    private void setWordsOnly() throws IOException {
-        this.wordsOnly = new HashSet<>();
-        new InputAnalyzer().removePunctuation(inputText, wordsOnly::add);
+    private Set<String> wordsOnly() throws IOException {
+        if (wordsOnly == null) {
+            final Set<String> tokensWithoutPunctuations = new HashSet<>();
+            inputAnalyzer().removePunctuation(inputText, tokensWithoutPunctuations::add);
+            this.wordsOnly = tokensWithoutPunctuations;
+        }
+        return wordsOnly;
     }
 
+    /**
+     * Get the tokens and emoticons of the input string as strings.
+     *
+     * @return read-only list of tokens and emoticons
+     * @see TextProperties#getTokens()
+     */
     public List<String> getWordsAndEmoticons() {
+        return wordsAndEmoticons.asList();
+    }
+
+    /**
+     * Get the tokens and emoticons of the input string, as offsets into it.
+     *
+     * @return sequence of tokens and emoticons
+     */
+    public TokenSequence getTokens() {
         return wordsAndEmoticons;
     }
 
+    /**
+     * Get the set of tokens in the input string without the emoticons and punctuations.
+     *
+     * @return set of tokens
+     * @throws UncheckedIOException if there is an issue with the lucene analyzers
+     */
     @SuppressWarnings("unused")
     public Set<String> getWordsOnly() {
-        return wordsOnly;
+        try {
+            return wordsOnly();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
     }
 
     public boolean isYelling() {
@@ -154,6 +388,14 @@ public final class TextProperties {
         this.hasYellWords = hasYellWords;
     }
 
+    public int getExclamationCount() {
+        return exclamationCount;
+    }
+
+    public int getQuestionMarkCount() {
+        return questionMarkCount;
+    }
+
     /**
      * Return true iff the input has yelling words i.e. all caps in the tokens,
      * but all the token should not be in upper case.
@@ -161,13 +403,13 @@ public final class TextProperties {
      * [GET, the, HELL, OUT] returns true
      * [get, the, hell, out] returns false
      *
-     * @param tokenList a list of strings
+     * @param tokenList a sequence of tokens
      * @return boolean value
      */
-    private boolean hasCapDifferential(List<String> tokenList) {
+    private boolean hasCapDifferential(TokenSequence tokenList) {
         int countAllCaps = 0;
-        for (String token : tokenList) {
-            if (Utils.isUpper(token)) {
+        for (int index = 0; index < tokenList.size(); index++) {
+            if (tokenList.hasFlag(index, TokenSequence.ALL_CAPS)) {
                 countAllCaps++;
             }
         }
@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.processor;
+
+import java.util.Arrays;
+import com.vader.sentiment.util.Lexicon;
+
+/**
+ * The TextRangeSet class holds a set of words of a string as offsets into it, and tells if the text between two
+ * positions of the string is one of these words without creating a {@link String} for it. The words are hashed
+ * like {@link String#hashCode()} into an open addressing table.
+ * The set is meant to be cleared and reused for another string, so that it does not allocate memory once its
+ * arrays have grown large enough. It is not thread-safe.
+ *
+ * @author Animesh Pandey
+ */
+final class TextRangeSet implements InputAnalyzerInterface.TokenRangeConsumer {
+    /**
+     * Number of words for which space is allocated at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Number of words above which the arrays are shrunk back to {@link TextRangeSet#INITIAL_CAPACITY} when the set
+     * is released.
+     */
+    private static final int MAX_RETAINED_CAPACITY = TokenSequence.MAX_RETAINED_CAPACITY;
+
+    /**
+     * Marker of an empty slot in {@link TextRangeSet#table}.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * The string whose words are held.
+     */
+    private String text = "";
+
+    /**
+     * Number of words.
+     */
+    private int size;
+
+    /**
+     * Index of the first character of each word in the {@link TextRangeSet#text}.
+     */
+    private int[] starts = new int[INITIAL_CAPACITY];
+
+    /**
+     * Index after the last character of each word in the {@link TextRangeSet#text}.
+     */
+    private int[] ends = new int[INITIAL_CAPACITY];
+
+    /**
+     * Hash of each word, see {@link String#hashCode()}.
+     */
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Index of a word for each slot of the hash table, or {@link TextRangeSet#EMPTY}. The number of slots is a
+     * power of two that is at least twice the number of words.
+     */
+    private int[] table = newTable(INITIAL_CAPACITY * 2);
+
+    /**
+     * Remove all the words and start holding the words of another string.
+     *
+     * @param newText the string whose words will be added
+     */
+    void clear(final String newText) {
+        this.text = newText;
+        if (size > 0) {
+            Arrays.fill(table, EMPTY);
+            size = 0;
+        }
+    }
+
+    /**
+     * Remove all the words and drop the reference to the string. The arrays are allocated again with their
+     * initial size if they have grown larger than {@link TextRangeSet#MAX_RETAINED_CAPACITY} words.
+     */
+    void release() {
+        if (starts.length > MAX_RETAINED_CAPACITY) {
+            starts = new int[INITIAL_CAPACITY];
+            ends = new int[INITIAL_CAPACITY];
+            hashes = new int[INITIAL_CAPACITY];
+            table = newTable(INITIAL_CAPACITY * 2);
+            size = 0;
+        }
+        clear("");
+    }
+
+    /**
+     * Add the word between the given positions of the string, unless the set already has the same word.
+     * {@inheritDoc}
+     */
+    @Override
+    public void accept(final int start, final int end) {
+        final int hash = hash(start, end);
+        int slot = hash & (table.length - 1);
+        while (table[slot] != EMPTY) {
+            if (matches(table[slot], hash, start, end)) {
+                return;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        if (size == starts.length) {
+            grow();
+            slot = hash & (table.length - 1);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+        }
+        starts[size] = start;
+        ends[size] = end;
+        hashes[size] = hash;
+        table[slot] = size;
+        size++;
+    }
+
+    /**
+     * Check if the text between the given positions of the string is one of the words of this set.
+     *
+     * @param start index of the first character of the text
+     * @param end   index after the last character of the text
+     * @return true iff the set has a word with the same characters
+     */
+    boolean contains(final int start, final int end) {
+        if (size == 0) {
+            return false;
+        }
+        final int hash = hash(start, end);
+        int slot = hash & (table.length - 1);
+        while (table[slot] != EMPTY) {
+            if (matches(table[slot], hash, start, end)) {
+                return true;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Get the number of words.
+     *
+     * @return number of distinct words in this set
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Check if a word of this set has the same characters as the text between the given positions.
+     *
+     * @param word  index of the word
+     * @param hash  hash of the text
+     * @param start index of the first character of the text
+     * @param end   index after the last character of the text
+     * @return true iff the word is equal to the text
+     */
+    private boolean matches(final int word, final int hash, final int start, final int end) {
+        final int length = end - start;
+        return hashes[word] == hash && ends[word] - starts[word] == length
+            && text.regionMatches(starts[word], text, start, length);
+    }
+
+    /**
+     * Compute the hash of the text between the given positions of the string, in the same way as
+     * {@link String#hashCode()}.
+     *
+     * @param start index of the first character of the text
+     * @param end   index after the last character of the text
+     * @return the hash
+     */
+    private int hash(final int start, final int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = Lexicon.HASH_MULTIPLIER * hash + text.charAt(index);
+        }
+        return hash;
+    }
+
+    /**
+     * Double the number of words this set can hold, and re-insert the words in a larger table.
+     */
+    private void grow() {
+        final int capacity = starts.length * 2;
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        table = newTable(capacity * 2);
+        for (int word = 0; word < size; word++) {
+            int slot = hashes[word] & (table.length - 1);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = word;
+        }
+    }
+
+    /**
+     * Create a hash table without any words.
+     *
+     * @param length number of slots
+     * @return table whose slots are all {@link TextRangeSet#EMPTY}
+     */
+    private static int[] newTable(final int length) {
+        final int[] newTable = new int[length];
+        Arrays.fill(newTable, EMPTY);
+        return newTable;
+    }
+}
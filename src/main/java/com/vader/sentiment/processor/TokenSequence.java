@@ -0,0 +1,771 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import com.vader.sentiment.util.Constants;
+import com.vader.sentiment.util.Lexicon;
+import com.vader.sentiment.util.PhraseTrie;
+import com.vader.sentiment.util.SentimentModifyingTokens;
+import com.vader.sentiment.util.Utils;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * The TokenSequence class holds the tokens and emoticons of an input string as offsets into it, instead of as a
+ * string per token. Along with the offsets, it keeps the lower case form of every token in a single character
+ * buffer and a set of flags per token, which are computed once when the token is added. The lower case forms are
+ * those of {@link Locale#ROOT}, as the lexicon is in English, so that the scores do not depend on the default
+ * locale, e.g. "I" is "i" under a Turkish locale too.
+ * The {@link String}s of a token and of its lower case form are created only when they are asked for, and are
+ * then kept for the later calls.
+ * A sequence can be reset to hold the tokens of another string, reusing its arrays, so that a thread which scores
+ * many strings does not allocate memory for their tokens once the arrays have grown large enough. Once a string has
+ * been scored, the sequence is released, see {@link TokenSequence#release()}, so that it does not keep the string
+ * nor the arrays grown for a very long string.
+ *
+ * @author Animesh Pandey
+ */
+public final class TokenSequence {
+    /**
+     * Flag of a token that is in upper case, see {@link Utils#isUpper(CharSequence)}.
+     */
+    public static final int ALL_CAPS = 1;
+
+    /**
+     * Flag of a token that has at least one letter from 'a' to 'z' or from 'A' to 'Z'.
+     */
+    public static final int HAS_LETTER = 1 << 1;
+
+    /**
+     * Flag of a token that starts with "http://" or "https://", in any case.
+     */
+    public static final int URL = 1 << 2;
+
+    /**
+     * Flag of a token that is one of the {@link Utils#NEGATIVE_WORDS}, in the same case.
+     */
+    public static final int NEGATION = 1 << 3;
+
+    /**
+     * Flag of a token that ends with "n't".
+     */
+    public static final int CONTRACTION = 1 << 4;
+
+    /**
+     * Flag of a token whose lower case form is in the {@link Utils#BOOSTER_DICTIONARY}.
+     */
+    public static final int BOOSTER = 1 << 5;
+
+    /**
+     * Flag of a token that is the first word of one of the idioms, of the booster phrases or of the lexicon entries
+     * of several words, in the same case.
+     */
+    public static final int PHRASE_START = 1 << 6;
+
+    /**
+     * Flag of a token in ASCII without any upper case letter, which is equal to its lower case form.
+     */
+    public static final int LOWER_CASE = 1 << 7;
+
+    /**
+     * The suffix of the tokens that are contractions with "not".
+     */
+    private static final String CONTRACTION_SUFFIX = SentimentModifyingTokens.CONTRACTION.getValue();
+
+    /**
+     * Number of tokens for which space is allocated at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Number of tokens above which the arrays are shrunk back to {@link TokenSequence#INITIAL_CAPACITY} when the
+     * sequence is released.
+     */
+    static final int MAX_RETAINED_CAPACITY = 4096;
+
+    /**
+     * Number of characters above which {@link TokenSequence#lowerCaseChars} is shrunk back when the sequence is
+     * released.
+     */
+    static final int MAX_RETAINED_CHARACTERS = 4 * MAX_RETAINED_CAPACITY;
+
+    /**
+     * The string whose tokens are held.
+     */
+    private String text;
+
+    /**
+     * The vocabulary in which the tokens are looked up.
+     */
+    private Vocabulary vocabulary;
+
+    /**
+     * Number of tokens.
+     */
+    private int size;
+
+    /**
+     * Number of tokens whose lower case form has a valence in the vocabulary.
+     */
+    private int lexiconHitCount;
+
+    /**
+     * Index of the first character of each token in the {@link TokenSequence#text}.
+     */
+    private int[] starts;
+
+    /**
+     * Index after the last character of each token in the {@link TokenSequence#text}.
+     */
+    private int[] ends;
+
+    /**
+     * Flags of each token.
+     */
+    private int[] flags;
+
+    /**
+     * Characters of the lower case forms of all the tokens, one after the other.
+     */
+    private char[] lowerCaseChars;
+
+    /**
+     * Number of characters used in {@link TokenSequence#lowerCaseChars}.
+     */
+    private int lowerCaseLength;
+
+    /**
+     * Hash of the lower case form of each token, see {@link String#hashCode()}.
+     */
+    private int[] lowerCaseHashes;
+
+    /**
+     * Index of the lower case form of each token in {@link TokenSequence#lowerCaseChars}. The lower case form of
+     * the token at index i ends where the one of the token at index i + 1 starts.
+     */
+    private int[] lowerCaseStarts;
+
+    /**
+     * Entry of the lower case form of each token in the {@link TokenSequence#vocabulary}.
+     */
+    private Vocabulary.Entry[] entries;
+
+    /**
+     * The tokens as strings, which are created when they are first asked for.
+     */
+    private String[] tokens;
+
+    /**
+     * The lower case forms of the tokens as strings, which are created when they are first asked for.
+     */
+    private String[] lowerCaseTokens;
+
+    /**
+     * Creates an empty sequence of the tokens of the given string.
+     *
+     * @param text       the string whose tokens will be added
+     * @param vocabulary the vocabulary in which the tokens are looked up
+     */
+    TokenSequence(final String text, final Vocabulary vocabulary) {
+        this.text = text;
+        this.vocabulary = vocabulary;
+        this.starts = new int[INITIAL_CAPACITY];
+        this.ends = new int[INITIAL_CAPACITY];
+        this.flags = new int[INITIAL_CAPACITY];
+        this.lowerCaseHashes = new int[INITIAL_CAPACITY];
+        this.lowerCaseStarts = new int[INITIAL_CAPACITY + 1];
+        this.entries = new Vocabulary.Entry[INITIAL_CAPACITY];
+        this.lowerCaseChars = new char[Math.max(INITIAL_CAPACITY, text.length())];
+        this.tokens = new String[INITIAL_CAPACITY];
+        this.lowerCaseTokens = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Remove all the tokens and start holding the tokens of another string. The strings created for the removed
+     * tokens are released, while the arrays are kept for the new tokens.
+     *
+     * @param newText       the string whose tokens will be added
+     * @param newVocabulary the vocabulary in which the tokens are looked up
+     */
+    void reset(final String newText, final Vocabulary newVocabulary) {
+        Arrays.fill(entries, 0, size, null);
+        Arrays.fill(tokens, 0, size, null);
+        Arrays.fill(lowerCaseTokens, 0, size, null);
+        this.text = newText;
+        this.vocabulary = newVocabulary;
+        this.size = 0;
+        this.lexiconHitCount = 0;
+        this.lowerCaseLength = 0;
+    }
+
+    /**
+     * Remove all the tokens and drop the reference to the string, so that neither is kept alive by a sequence that
+     * is owned by a thread between two strings. The arrays are kept for the next string, unless they have grown
+     * larger than {@link TokenSequence#MAX_RETAINED_CAPACITY} tokens or
+     * {@link TokenSequence#MAX_RETAINED_CHARACTERS} characters, in which case they are allocated again with their
+     * initial size.
+     */
+    void release() {
+        reset("", vocabulary);
+        if (starts.length > MAX_RETAINED_CAPACITY) {
+            starts = new int[INITIAL_CAPACITY];
+            ends = new int[INITIAL_CAPACITY];
+            flags = new int[INITIAL_CAPACITY];
+            lowerCaseHashes = new int[INITIAL_CAPACITY];
+            lowerCaseStarts = new int[INITIAL_CAPACITY + 1];
+            entries = new Vocabulary.Entry[INITIAL_CAPACITY];
+            tokens = new String[INITIAL_CAPACITY];
+            lowerCaseTokens = new String[INITIAL_CAPACITY];
+        }
+        if (lowerCaseChars.length > MAX_RETAINED_CHARACTERS) {
+            lowerCaseChars = new char[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * Get the number of tokens this sequence can hold without growing its arrays.
+     *
+     * @return the capacity in tokens
+     */
+    int capacity() {
+        return starts.length;
+    }
+
+    /**
+     * Get the number of characters of lower case forms this sequence can hold without growing its buffer.
+     *
+     * @return the capacity in characters
+     */
+    int characterCapacity() {
+        return lowerCaseChars.length;
+    }
+
+    /**
+     * Add the token between the given positions of the string to the end of this sequence.
+     *
+     * @param start index of the first character of the token
+     * @param end   index after the last character of the token
+     */
+    void add(final int start, final int end) {
+        if (size == starts.length) {
+            grow();
+        }
+        starts[size] = start;
+        ends[size] = end;
+        ensureLowerCaseCapacity(end - start);
+
+        final int lowerCaseStart = lowerCaseLength;
+        int lowerCaseHash = 0;
+        boolean isAscii = true;
+        boolean hasLetter = false;
+        boolean hasUpperCase = false;
+        boolean hasLowerCase = false;
+        boolean hasLineTerminator = false;
+        boolean isLowerCaseInvariant = true;
+        for (int index = start; index < end; index++) {
+            final char character = text.charAt(index);
+            char lowerCaseCharacter = character;
+            if (character >= 'A' && character <= 'Z') {
+                hasLetter = true;
+                hasUpperCase = true;
+                lowerCaseCharacter = (char) (character + ('a' - 'A'));
+            } else if (character >= 'a' && character <= 'z') {
+                hasLetter = true;
+                hasLowerCase = true;
+            } else if (character >= '\u0080') {
+                isAscii = false;
+                hasLowerCase |= Character.isLowerCase(character);
+                isLowerCaseInvariant &= isLowerCaseInvariant(index);
+                hasLineTerminator |= isLineTerminator(character);
+            } else {
+                hasLineTerminator |= isLineTerminator(character);
+            }
+            lowerCaseHash = Lexicon.HASH_MULTIPLIER * lowerCaseHash + lowerCaseCharacter;
+            lowerCaseChars[lowerCaseLength++] = lowerCaseCharacter;
+        }
+        if (!isAscii && (hasUpperCase || !isLowerCaseInvariant)) {
+            lowerCaseLength = lowerCaseStart;
+            lowerCaseHash = addLowerCase(start, end);
+        }
+        lowerCaseStarts[size + 1] = lowerCaseLength;
+        lowerCaseHashes[size] = lowerCaseHash;
+        final Vocabulary.Entry entry = vocabulary.find(lowerCaseHash, lowerCaseChars, lowerCaseStart,
+            lowerCaseLength);
+        entries[size] = entry;
+        if (entry.hasValence()) {
+            lexiconHitCount++;
+        }
+
+        int tokenFlags = 0;
+        if (hasLetter) {
+            tokenFlags |= HAS_LETTER;
+        }
+        if (startsWithIgnoreCase(start, end, Constants.HTTP_URL_PREFIX)
+            || startsWithIgnoreCase(start, end, Constants.HTTPS_URL_PREFIX)) {
+            tokenFlags |= URL;
+        } else if (hasLetter && !hasLowerCase && !hasLineTerminator) {
+            tokenFlags |= ALL_CAPS;
+        }
+        // the negative words and the idioms are matched in the original case, and all of them are in lower case
+        if (isAscii && !hasUpperCase) {
+            tokenFlags |= LOWER_CASE;
+            if (entry.isNegation()) {
+                tokenFlags |= NEGATION;
+            }
+            if (entry.startsPhrase()) {
+                tokenFlags |= PHRASE_START;
+            }
+        }
+        if (end - start >= CONTRACTION_SUFFIX.length()
+            && text.startsWith(CONTRACTION_SUFFIX, end - CONTRACTION_SUFFIX.length())) {
+            tokenFlags |= CONTRACTION;
+        }
+        if (entry.isBooster()) {
+            tokenFlags |= BOOSTER;
+        }
+        flags[size] = tokenFlags;
+        size++;
+    }
+
+    /**
+     * Check if a character is one of the line terminators, which are not matched by '.' in a
+     * {@link java.util.regex.Pattern}.
+     *
+     * @param character the character
+     * @return true for '\n', '\r', next line, line separator and paragraph separator
+     */
+    private static boolean isLineTerminator(final char character) {
+        return character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028'
+            || character == '\u2029';
+    }
+
+    /**
+     * Check if the character at the given position is not changed by {@link String#toLowerCase(Locale)}.
+     * A surrogate pair is checked as a whole at its high surrogate. {@link String#toLowerCase(Locale)} returns the same
+     * string when none of its code points is changed by {@link Character#toLowerCase(int)}, so that a token made
+     * of such characters, like an emoji, can be copied as it is.
+     *
+     * @param index index of the character in the string
+     * @return true iff the character is not changed by converting it to lower case
+     */
+    private boolean isLowerCaseInvariant(final int index) {
+        final char character = text.charAt(index);
+        if (Character.isLowSurrogate(character)) {
+            return true;
+        }
+        final int codePoint = Character.isHighSurrogate(character) ? text.codePointAt(index) : character;
+        return Character.toLowerCase(codePoint) == codePoint;
+    }
+
+    /**
+     * Check if the token between the given positions starts with a prefix, ignoring the case.
+     *
+     * @param start  index of the first character of the token
+     * @param end    index after the last character of the token
+     * @param prefix the prefix
+     * @return true iff the token starts with the prefix
+     */
+    private boolean startsWithIgnoreCase(final int start, final int end, final String prefix) {
+        return end - start >= prefix.length() && text.regionMatches(true, start, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Append the lower case form of the token between the given positions to
+     * {@link TokenSequence#lowerCaseChars}, using {@link String#toLowerCase(Locale)} with {@link Locale#ROOT}.
+     * This takes care of the characters whose lower case form depends on the context or is longer, for the tokens
+     * which are not in ASCII.
+     *
+     * @param start index of the first character of the token
+     * @param end   index after the last character of the token
+     * @return the hash of the lower case form, see {@link String#hashCode()}
+     */
+    private int addLowerCase(final int start, final int end) {
+        final String lowerCaseToken = text.substring(start, end).toLowerCase(Locale.ROOT);
+        lowerCaseTokens[size] = lowerCaseToken;
+        ensureLowerCaseCapacity(lowerCaseToken.length());
+        lowerCaseToken.getChars(0, lowerCaseToken.length(), lowerCaseChars, lowerCaseLength);
+        lowerCaseLength += lowerCaseToken.length();
+        return lowerCaseToken.hashCode();
+    }
+
+    /**
+     * Make sure that {@link TokenSequence#lowerCaseChars} has space for the given number of characters more.
+     *
+     * @param length number of characters that will be appended
+     */
+    private void ensureLowerCaseCapacity(final int length) {
+        if (lowerCaseLength + length > lowerCaseChars.length) {
+            lowerCaseChars = Arrays.copyOf(lowerCaseChars, Math.max(lowerCaseChars.length * 2,
+                lowerCaseLength + length));
+        }
+    }
+
+    /**
+     * Double the number of tokens this sequence can hold.
+     */
+    private void grow() {
+        final int capacity = starts.length * 2;
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        lowerCaseHashes = Arrays.copyOf(lowerCaseHashes, capacity);
+        lowerCaseStarts = Arrays.copyOf(lowerCaseStarts, capacity + 1);
+        entries = Arrays.copyOf(entries, capacity);
+        tokens = Arrays.copyOf(tokens, capacity);
+        lowerCaseTokens = Arrays.copyOf(lowerCaseTokens, capacity);
+    }
+
+    /**
+     * Get the number of tokens.
+     *
+     * @return number of tokens in this sequence
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of tokens whose lower case form has a valence in the vocabulary, which were looked up when
+     * the tokens were added.
+     *
+     * @return number of lexicon hits in this sequence
+     */
+    public int getLexiconHitCount() {
+        return lexiconHitCount;
+    }
+
+    /**
+     * Get the string whose tokens are held by this sequence.
+     *
+     * @return the input string
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Get the position of a token in the input string.
+     *
+     * @param index index of the token
+     * @return index of the first character of the token in the input string
+     */
+    public int getStart(final int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * Get the end position of a token in the input string.
+     *
+     * @param index index of the token
+     * @return index after the last character of the token in the input string
+     */
+    public int getEnd(final int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Get the flags of a token.
+     *
+     * @param index index of the token
+     * @return bits like {@link TokenSequence#ALL_CAPS} that are set for the token
+     */
+    public int getFlags(final int index) {
+        checkIndex(index);
+        return flags[index];
+    }
+
+    /**
+     * Check if a flag is set for a token.
+     *
+     * @param index index of the token
+     * @param flag  the flag, like {@link TokenSequence#ALL_CAPS}
+     * @return true iff the flag is set for the token
+     */
+    public boolean hasFlag(final int index, final int flag) {
+        return (getFlags(index) & flag) != 0;
+    }
+
+    /**
+     * Get a token as a string.
+     *
+     * @param index index of the token
+     * @return the token
+     */
+    public String get(final int index) {
+        checkIndex(index);
+        String token = tokens[index];
+        if (token == null) {
+            token = text.substring(starts[index], ends[index]);
+            tokens[index] = token;
+        }
+        return token;
+    }
+
+    /**
+     * Get the lower case form of a token as a string.
+     *
+     * @param index index of the token
+     * @return the token in lower case
+     */
+    public String getLowerCase(final int index) {
+        checkIndex(index);
+        String lowerCaseToken = lowerCaseTokens[index];
+        if (lowerCaseToken == null) {
+            if (isLowerCase(index)) {
+                lowerCaseToken = get(index);
+            } else {
+                lowerCaseToken = new String(lowerCaseChars, lowerCaseStarts[index],
+                    lowerCaseStarts[index + 1] - lowerCaseStarts[index]);
+            }
+            lowerCaseTokens[index] = lowerCaseToken;
+        }
+        return lowerCaseToken;
+    }
+
+    /**
+     * Check if a token is the same as its lower case form, so that the token itself can be used as its lower
+     * case form.
+     *
+     * @param index index of the token
+     * @return true iff the token has no characters that are changed by converting it to lower case
+     */
+    private boolean isLowerCase(final int index) {
+        final int start = starts[index];
+        final int lowerCaseStart = lowerCaseStarts[index];
+        final int length = ends[index] - start;
+        if (lowerCaseStarts[index + 1] - lowerCaseStart != length) {
+            return false;
+        }
+        for (int offset = 0; offset < length; offset++) {
+            if (text.charAt(start + offset) != lowerCaseChars[lowerCaseStart + offset]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a token is equal to the given string, without creating a string for the token.
+     *
+     * @param index index of the token
+     * @param value the string to compare with
+     * @return true iff the token has the same characters as the value
+     */
+    public boolean contentEquals(final int index, final String value) {
+        checkIndex(index);
+        final int length = ends[index] - starts[index];
+        return length == value.length() && text.regionMatches(starts[index], value, 0, length);
+    }
+
+    /**
+     * Check if the lower case form of a token is equal to the given string, without creating a string for it.
+     *
+     * @param index index of the token
+     * @param value the string to compare with, which should be in lower case
+     * @return true iff the lower case form of the token has the same characters as the value
+     */
+    public boolean lowerCaseEquals(final int index, final String value) {
+        checkIndex(index);
+        final int lowerCaseStart = lowerCaseStarts[index];
+        final int length = lowerCaseStarts[index + 1] - lowerCaseStart;
+        if (length != value.length()) {
+            return false;
+        }
+        for (int offset = 0; offset < length; offset++) {
+            if (lowerCaseChars[lowerCaseStart + offset] != value.charAt(offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Look up the lower case form of a token in a lexicon, without creating a string for it.
+     *
+     * @param index   index of the token
+     * @param lexicon the lexicon
+     * @return the slot of the lower case form in the lexicon, or {@link Lexicon#NOT_FOUND}
+     */
+    public int findLowerCase(final int index, final Lexicon lexicon) {
+        checkIndex(index);
+        return lexicon.find(lowerCaseHashes[index], lowerCaseChars, lowerCaseStarts[index], lowerCaseStarts[index + 1]);
+    }
+
+    /**
+     * Get the entry of the lower case form of a token in the vocabulary of this sequence, which was looked up when
+     * the token was added.
+     *
+     * @param index index of the token
+     * @return the entry, or {@link Vocabulary#UNKNOWN} if the token is not in the vocabulary
+     */
+    public Vocabulary.Entry getEntry(final int index) {
+        checkIndex(index);
+        return entries[index];
+    }
+
+    /**
+     * Find the phrase of the vocabulary of this sequence that is made of the lower case forms of the tokens in a
+     * range, by walking its {@link PhraseTrie} with their entries.
+     *
+     * @param start index of the first token
+     * @param end   index of the last token
+     * @return the entry of the phrase, or {@link Vocabulary#UNKNOWN} if the tokens are not a phrase
+     */
+    public Vocabulary.Entry findPhrase(final int start, final int end) {
+        checkIndex(start);
+        checkIndex(end);
+        final PhraseTrie phrases = vocabulary.getPhrases();
+        int state = PhraseTrie.ROOT;
+        for (int index = start; index <= end && state != PhraseTrie.NO_STATE; index++) {
+            state = phrases.next(state, entries[index]);
+        }
+        return phrases.getPhrase(state);
+    }
+
+    /**
+     * Find the longest phrase of the vocabulary of this sequence which starts at a token and has a valence in the
+     * lexicon, like "can't stand".
+     *
+     * @param start index of the first token
+     * @return index of the last token of the phrase, or start if no such phrase starts there
+     */
+    public int findLexiconPhraseEnd(final int start) {
+        checkIndex(start);
+        final PhraseTrie phrases = vocabulary.getPhrases();
+        int end = start;
+        int state = phrases.next(PhraseTrie.ROOT, entries[start]);
+        for (int index = start + 1; index < size && state != PhraseTrie.NO_STATE; index++) {
+            state = phrases.next(state, entries[index]);
+            if (phrases.getPhrase(state).hasValence()) {
+                end = index;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Check if a booster of several words of the vocabulary of this sequence, like "kind of", starts at a token.
+     *
+     * @param start index of the first token
+     * @return true iff the lower case forms of the tokens from start on are a booster phrase
+     */
+    public boolean startsBoosterPhrase(final int start) {
+        checkIndex(start);
+        // the boosters are matched in any case, unlike the phrases flagged with PHRASE_START
+        if (!entries[start].startsPhrase()) {
+            return false;
+        }
+        final PhraseTrie phrases = vocabulary.getPhrases();
+        int state = phrases.next(PhraseTrie.ROOT, entries[start]);
+        for (int index = start + 1; index < size && state != PhraseTrie.NO_STATE; index++) {
+            state = phrases.next(state, entries[index]);
+            if (phrases.getPhrase(state).isBooster()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the vocabulary in which the tokens were looked up.
+     *
+     * @return the vocabulary
+     */
+    public Vocabulary getVocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Check if a token ends with the given string, without creating a string for the token.
+     *
+     * @param index  index of the token
+     * @param suffix the string to look for
+     * @return true iff the token ends with the suffix
+     */
+    public boolean endsWith(final int index, final String suffix) {
+        checkIndex(index);
+        final int suffixStart = ends[index] - suffix.length();
+        return suffixStart >= starts[index] && text.regionMatches(suffixStart, suffix, 0, suffix.length());
+    }
+
+    /**
+     * Find the first token that is equal to the given string.
+     *
+     * @param value the string to look for
+     * @return index of the first token equal to the value, or -1 if there is no such token
+     */
+    public int indexOf(final String value) {
+        for (int index = 0; index < size; index++) {
+            if (contentEquals(index, value)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the tokens as a list of strings. The list is a read-only view of this sequence, whose strings are
+     * created when they are first read.
+     *
+     * @return list of tokens
+     */
+    public List<String> asList() {
+        return new TokenList();
+    }
+
+    /**
+     * Check that there is a token at the given index.
+     *
+     * @param index index of the token
+     * @throws IndexOutOfBoundsException if the index is not less than the number of tokens
+     */
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Read-only {@link List} view of the tokens of a {@link TokenSequence}.
+     */
+    private final class TokenList extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(final int index) {
+            return TokenSequence.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
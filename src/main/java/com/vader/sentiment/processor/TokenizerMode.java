@@ -0,0 +1,125 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This enum lists the tokenizers that can be used by {@link TextProperties} to split up the input string.
+ * The default tokenizer is read from the system property {@value TokenizerMode#SYSTEM_PROPERTY}, e.g.
+ * {@code -Dvader.tokenizer=native}, and is {@link TokenizerMode#LUCENE} if the property is not set, or if it is not
+ * the name of a tokenizer, in which case a warning is logged.
+ *
+ * @author Animesh Pandey
+ */
+public enum TokenizerMode {
+    /**
+     * Tokenize using the Lucene tokenizers, see {@link InputAnalyzer}.
+     */
+    LUCENE {
+        @Override
+        InputAnalyzerInterface getInputAnalyzer() {
+            return InputAnalyzer.getThreadLocalInstance();
+        }
+
+        @Override
+        InputAnalyzerInterface newInputAnalyzer() {
+            return new InputAnalyzer();
+        }
+    },
+
+    /**
+     * Tokenize using the hand-written tokenizer that does not depend on Lucene, see {@link NativeInputAnalyzer}.
+     */
+    NATIVE {
+        @Override
+        InputAnalyzerInterface getInputAnalyzer() {
+            return NativeInputAnalyzer.INSTANCE;
+        }
+
+        @Override
+        InputAnalyzerInterface newInputAnalyzer() {
+            return NativeInputAnalyzer.INSTANCE;
+        }
+    };
+
+    /**
+     * Name of the system property that selects the default tokenizer.
+     */
+    public static final String SYSTEM_PROPERTY = "vader.tokenizer";
+
+    /**
+     * The tokenizer used when none is given.
+     */
+    private static final TokenizerMode DEFAULT_MODE = parse(System.getProperty(SYSTEM_PROPERTY));
+
+    /**
+     * Get the tokenizer used when none is given.
+     *
+     * @return the tokenizer selected by the system property {@value TokenizerMode#SYSTEM_PROPERTY}
+     */
+    public static TokenizerMode getDefault() {
+        return DEFAULT_MODE;
+    }
+
+    /**
+     * Get the tokenizer named by the value of the system property {@value TokenizerMode#SYSTEM_PROPERTY}, in any
+     * case.
+     *
+     * @param name the name of the tokenizer, or null
+     * @return the tokenizer, or {@link TokenizerMode#LUCENE} if the name is null or is not the name of a tokenizer
+     */
+    static TokenizerMode parse(final String name) {
+        if (name == null) {
+            return LUCENE;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            LoggerFactory.getLogger(TokenizerMode.class).warn("Unknown tokenizer {}={}, using {} instead; the valid "
+                + "values are {}", SYSTEM_PROPERTY, name, LUCENE, Arrays.toString(values()).toLowerCase(Locale.ROOT));
+            return LUCENE;
+        }
+    }
+
+    /**
+     * Get the analyzer implementing this tokenizer, which can be used by the current thread.
+     *
+     * @return the analyzer
+     */
+    abstract InputAnalyzerInterface getInputAnalyzer();
+
+    /**
+     * Create an analyzer implementing this tokenizer, which is owned by the caller instead of by the current
+     * thread. This is meant for objects that are reused on many threads, e.g. on virtual threads, which would each
+     * create an analyzer of their own through {@link TokenizerMode#getInputAnalyzer()}.
+     *
+     * @return the analyzer, which can be used by one thread at a time
+     */
+    abstract InputAnalyzerInterface newInputAnalyzer();
+}
@@ -74,6 +74,7 @@ public final class Constants {
 
     /**
      * This regex checks if a string has only alphabets and no special characters or numbers.
+     * {@link Utils#isUpper(CharSequence)} implements the same check without the regex.
      */
     public static final Pattern NON_NUMERIC_STRING_REGEX = Pattern.compile(".*[a-zA-Z]+.*");
 
@@ -0,0 +1,359 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class is an immutable map from words to their valence, made for the lookups done for every token of the
+ * input string. The words are kept in an open-addressing hash table, with the characters of all the words in a
+ * single character array and the valencies in a float array, so that neither the words nor the valencies are
+ * objects. A word can be looked up by a {@link CharSequence} or by a range of characters without creating a
+ * string for it, and the lookup returns the slot of the word, whose valence is then read without unboxing.
+ * The hash of a word is the same as {@link String#hashCode()}, so callers that scan the characters of a token
+ * anyway can compute it on the way.
+ *
+ * @author Animesh Pandey
+ */
+public final class Lexicon {
+    /**
+     * Slot returned by the lookups when the word is not in the lexicon.
+     */
+    public static final int NOT_FOUND = -1;
+
+    /**
+     * Multiplier of the polynomial hash of {@link String#hashCode()}.
+     */
+    public static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Size of the header of an array object, used for {@link Lexicon#memoryFootprint()}.
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    /**
+     * Size of the object header of this class and its fields, used for {@link Lexicon#memoryFootprint()}.
+     */
+    private static final int OBJECT_BYTES = 40;
+
+    /**
+     * Number of words.
+     */
+    private final int size;
+
+    /**
+     * Mask for the slot of a hash, as the number of slots is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * Hash of the word in each slot.
+     */
+    private final int[] hashes;
+
+    /**
+     * Index of the first character of the word of each slot in {@link Lexicon#chars}, or -1 for empty slots.
+     */
+    private final int[] starts;
+
+    /**
+     * Length of the word of each slot.
+     */
+    private final int[] lengths;
+
+    /**
+     * Valence of the word in each slot.
+     */
+    private final float[] values;
+
+    /**
+     * Characters of all the words, one after the other.
+     */
+    private final char[] chars;
+
+    /**
+     * Creates a lexicon of the given words and valencies.
+     *
+     * @param entries map of words to their valence
+     */
+    private Lexicon(final Map<String, Float> entries) {
+        this.size = entries.size();
+        // At most half of the slots are used, which keeps the probe sequences short.
+        final int capacity = Integer.highestOneBit(Math.max(size, 1)) * 4;
+        this.mask = capacity - 1;
+        this.hashes = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.values = new float[capacity];
+        Arrays.fill(starts, -1);
+
+        int charCount = 0;
+        for (String word : entries.keySet()) {
+            charCount += word.length();
+        }
+        this.chars = new char[charCount];
+
+        int nextChar = 0;
+        for (Map.Entry<String, Float> entry : entries.entrySet()) {
+            final String word = entry.getKey();
+            final int hash = word.hashCode();
+            int slot = hash & mask;
+            while (starts[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            starts[slot] = nextChar;
+            lengths[slot] = word.length();
+            values[slot] = entry.getValue();
+            word.getChars(0, word.length(), chars, nextChar);
+            nextChar += word.length();
+        }
+    }
+
+    /**
+     * Creates a lexicon of the given words and valencies.
+     *
+     * @param entries map of words to their valence
+     * @return the lexicon
+     */
+    public static Lexicon of(final Map<String, Float> entries) {
+        Preconditions.checkNotNull(entries, "Lexicon entries should not be null.");
+        return new Lexicon(entries);
+    }
+
+    /**
+     * Compute the hash of a range of characters, which is the same as {@link String#hashCode()} of a string with
+     * the same characters.
+     *
+     * @param text  the characters
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return the hash
+     */
+    public static int hash(final CharSequence text, final int start, final int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = HASH_MULTIPLIER * hash + text.charAt(index);
+        }
+        return hash;
+    }
+
+    /**
+     * Compute the hash of a range of characters, which is the same as {@link String#hashCode()} of a string with
+     * the same characters.
+     *
+     * @param text  the characters
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return the hash
+     */
+    public static int hash(final char[] text, final int start, final int end) {
+        int hash = 0;
+        for (int index = start; index < end; index++) {
+            hash = HASH_MULTIPLIER * hash + text[index];
+        }
+        return hash;
+    }
+
+    /**
+     * Find the slot of a word.
+     *
+     * @param word the word
+     * @return the slot of the word, or {@link Lexicon#NOT_FOUND} if it is not in the lexicon
+     */
+    public int find(final CharSequence word) {
+        return find(word, 0, word.length());
+    }
+
+    /**
+     * Find the slot of the word made of a range of characters.
+     *
+     * @param text  the characters
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return the slot of the word, or {@link Lexicon#NOT_FOUND} if it is not in the lexicon
+     */
+    public int find(final CharSequence text, final int start, final int end) {
+        final int hash = hash(text, start, end);
+        final int length = end - start;
+        for (int slot = hash & mask; starts[slot] >= 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && lengths[slot] == length && regionMatches(slot, text, start)) {
+                return slot;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Find the slot of the word made of a range of characters.
+     *
+     * @param text  the characters
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return the slot of the word, or {@link Lexicon#NOT_FOUND} if it is not in the lexicon
+     */
+    public int find(final char[] text, final int start, final int end) {
+        return find(hash(text, start, end), text, start, end);
+    }
+
+    /**
+     * Find the slot of the word made of a range of characters, whose hash is already known.
+     *
+     * @param hash  the hash of the characters, see {@link Lexicon#hash(char[], int, int)}
+     * @param text  the characters
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return the slot of the word, or {@link Lexicon#NOT_FOUND} if it is not in the lexicon
+     */
+    public int find(final int hash, final char[] text, final int start, final int end) {
+        final int length = end - start;
+        for (int slot = hash & mask; starts[slot] >= 0; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && lengths[slot] == length && regionMatches(slot, text, start)) {
+                return slot;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Check if the word of a slot has the characters of a {@link CharSequence} from the given position.
+     *
+     * @param slot  the slot
+     * @param text  the characters
+     * @param start index of the first character to compare
+     * @return true iff the characters are equal
+     */
+    private boolean regionMatches(final int slot, final CharSequence text, final int start) {
+        final int wordStart = starts[slot];
+        for (int offset = 0; offset < lengths[slot]; offset++) {
+            if (chars[wordStart + offset] != text.charAt(start + offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the word of a slot has the characters of an array from the given position.
+     *
+     * @param slot  the slot
+     * @param text  the characters
+     * @param start index of the first character to compare
+     * @return true iff the characters are equal
+     */
+    private boolean regionMatches(final int slot, final char[] text, final int start) {
+        final int wordStart = starts[slot];
+        for (int offset = 0; offset < lengths[slot]; offset++) {
+            if (chars[wordStart + offset] != text[start + offset]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if a word is in the lexicon.
+     *
+     * @param word the word
+     * @return true iff the word is in the lexicon
+     */
+    public boolean contains(final CharSequence word) {
+        return find(word) != NOT_FOUND;
+    }
+
+    /**
+     * Get the valence of a word.
+     *
+     * @param word         the word
+     * @param missingValue value returned if the word is not in the lexicon
+     * @return the valence of the word, or missingValue if it is not in the lexicon
+     */
+    public float getValence(final CharSequence word, final float missingValue) {
+        final int slot = find(word);
+        return slot == NOT_FOUND ? missingValue : values[slot];
+    }
+
+    /**
+     * Get the valence of the word in a slot.
+     *
+     * @param slot the slot returned by one of the lookups
+     * @return the valence
+     * @throws IllegalArgumentException if there is no word in the slot
+     */
+    public float getValenceAt(final int slot) {
+        Preconditions.checkArgument(slot >= 0 && slot < starts.length && starts[slot] >= 0,
+            "There is no word in slot %s.", slot);
+        return values[slot];
+    }
+
+    /**
+     * Get the word in a slot. This creates a new string, and is not meant for the lookups.
+     *
+     * @param slot the slot returned by one of the lookups
+     * @return the word
+     * @throws IllegalArgumentException if there is no word in the slot
+     */
+    public String getWordAt(final int slot) {
+        Preconditions.checkArgument(slot >= 0 && slot < starts.length && starts[slot] >= 0,
+            "There is no word in slot %s.", slot);
+        return new String(chars, starts[slot], lengths[slot]);
+    }
+
+    /**
+     * Get the number of slots of the hash table, which is more than the highest slot returned by the lookups.
+     *
+     * @return number of slots
+     */
+    int capacity() {
+        return starts.length;
+    }
+
+    /**
+     * Get the number of words in the lexicon.
+     *
+     * @return number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Estimate the number of bytes of heap used by this lexicon, including its arrays, for a JVM with compressed
+     * object pointers.
+     *
+     * @return the estimated size in bytes
+     */
+    public long memoryFootprint() {
+        final long slots = starts.length;
+        final long intArrayBytes = ARRAY_HEADER_BYTES + slots * Integer.BYTES;
+        return OBJECT_BYTES
+            + intArrayBytes * 3
+            + (ARRAY_HEADER_BYTES + slots * Float.BYTES)
+            + (ARRAY_HEADER_BYTES + (long) chars.length * Character.BYTES);
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import org.slf4j.LoggerFactory;
+import com.google.common.io.ByteStreams;
+
+/**
+ * This class writes and reads the binary image of a {@link Vocabulary}, so that the lexicon does not have to be
+ * parsed from vader_sentiment_lexicon.txt every time the JVM starts. The image is compiled by {@link #main} in the
+ * process-classes phase of the build and is packed in the jar as {@value LexiconImage#RESOURCE}.
+ * The image is not used if the system property {@value LexiconImage#SYSTEM_PROPERTY} is
+ * {@value LexiconImage#DISABLED}.
+ * The image is decoded into a {@link Vocabulary} on the heap of every JVM that loads it, which saves parsing the
+ * text but not the memory of the vocabulary, so JVMs on the same host do not share the lexicon.
+ * The image records the size and the hash of the text lexicon and the hash of the word lists it was compiled from.
+ * The hash of the text lexicon is checked against the one on the class path by the tests of the build, while the
+ * loader only compares the size of the text lexicon and the hash of the word lists, so that the text lexicon is not
+ * read when the JVM starts. An image is not used if it is stale, e.g. if the text or the word lists were edited
+ * without compiling the image again, or if another vader_sentiment_lexicon.txt comes first on the class path.
+ * If no image can be used, {@link Utils} falls back to parsing the text lexicon.
+ * The image is a sequence of big-endian values: the magic number, the format version, the size and the hash of the
+ * text lexicon, the hash of the word lists, the number of entries and then, for each entry of the vocabulary, its
+ * flags as a byte, its valence, booster scalar and idiom valence as floats, the number of characters of its word as
+ * a short and the characters of the word.
+ *
+ * @author Animesh Pandey
+ */
+public final class LexiconImage {
+    /**
+     * Name of the system property that disables the image.
+     */
+    public static final String SYSTEM_PROPERTY = "vader.lexicon.image";
+
+    /**
+     * Value of the system property {@value LexiconImage#SYSTEM_PROPERTY} to parse the text lexicon instead.
+     */
+    public static final String DISABLED = "none";
+
+    /**
+     * Name of the image on the class path.
+     */
+    public static final String RESOURCE = "vader_sentiment_lexicon.bin";
+
+    /**
+     * Name of the text lexicon on the class path, from which the image is compiled.
+     */
+    public static final String SOURCE_RESOURCE = "vader_sentiment_lexicon.txt";
+
+    /**
+     * The first four bytes of an image, "VADR".
+     */
+    private static final int MAGIC = 0x56414452;
+
+    /**
+     * Version of the format of the image.
+     */
+    private static final int VERSION = 6;
+
+    /**
+     * Offset of the size of the text lexicon in an image.
+     */
+    private static final int LEXICON_SIZE_OFFSET = 8;
+
+    /**
+     * Offset of the hash of the text lexicon in an image.
+     */
+    private static final int LEXICON_HASH_OFFSET = 16;
+
+    /**
+     * Offset of the hash of the word lists in an image.
+     */
+    private static final int WORD_LISTS_HASH_OFFSET = 24;
+
+    /**
+     * Offset of the number of entries in an image, after which the entries follow.
+     */
+    private static final int ENTRIES_OFFSET = 32;
+
+    /**
+     * Private constructor for utility class.
+     */
+    private LexiconImage() {
+    }
+
+    /**
+     * Compile the text lexicon and the word lists of {@link Utils} into an image.
+     *
+     * @param args path of the image to write
+     * @throws IOException if the image could not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: LexiconImage <path of the image>");
+        }
+        final byte[] source = readSource();
+        if (source == null) {
+            throw new IOException(SOURCE_RESOURCE + " is not on the class path.");
+        }
+        final Map<String, Float> lexicon;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(source),
+            StandardCharsets.UTF_8))) {
+            lexicon = Utils.readLexicon(reader);
+        }
+        final Vocabulary vocabulary = Vocabulary.of(lexicon, Utils.BOOSTER_DICTIONARY, Utils.NEGATIVE_WORDS,
+            Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY);
+        final Path image = Paths.get(args[0]);
+        if (image.getParent() != null) {
+            Files.createDirectories(image.getParent());
+        }
+        try (OutputStream output = Files.newOutputStream(image)) {
+            write(vocabulary, source.length, hashLexicon(source), output);
+        }
+    }
+
+    /**
+     * Compute the hash of the text lexicon.
+     *
+     * @param lexicon the bytes of the text lexicon
+     * @return the CRC-32 of the text lexicon
+     */
+    public static long hashLexicon(final byte[] lexicon) {
+        final CRC32 hash = new CRC32();
+        hash.update(lexicon);
+        return hash.getValue();
+    }
+
+    /**
+     * Compute the hash of the word lists of {@link Utils}, which are compiled into the vocabulary along with the
+     * text lexicon. The lists are small enough for the hash to be computed every time the JVM starts.
+     *
+     * @return the CRC-32 of the word lists
+     */
+    static long hashWordLists() {
+        final CRC32 hash = new CRC32();
+        putWords(hash, Utils.BOOSTER_DICTIONARY);
+        for (String word : Utils.NEGATIVE_WORDS) {
+            putWord(hash, word);
+        }
+        putWords(hash, Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY);
+        return hash.getValue();
+    }
+
+    /**
+     * Add the words of a word list and their values to a hash.
+     *
+     * @param hash  the hash
+     * @param words the word list
+     */
+    private static void putWords(final CRC32 hash, final Map<String, Float> words) {
+        for (Map.Entry<String, Float> word : words.entrySet()) {
+            putWord(hash, word.getKey());
+            putWord(hash, word.getValue().toString());
+        }
+    }
+
+    /**
+     * Add a word to a hash, followed by a zero so that the hash tells where it ends.
+     *
+     * @param hash the hash
+     * @param word the word
+     */
+    private static void putWord(final CRC32 hash, final String word) {
+        hash.update(word.getBytes(StandardCharsets.UTF_8));
+        hash.update(0);
+    }
+
+    /**
+     * Read the bytes of the text lexicon from the class path.
+     *
+     * @return the bytes of {@value LexiconImage#SOURCE_RESOURCE}, or null if it is not on the class path
+     * @throws IOException if the text lexicon could not be read
+     */
+    static byte[] readSource() throws IOException {
+        try (InputStream source = LexiconImage.class.getClassLoader().getResourceAsStream(SOURCE_RESOURCE)) {
+            return source == null ? null : ByteStreams.toByteArray(source);
+        }
+    }
+
+    /**
+     * Write the image of a vocabulary.
+     *
+     * @param vocabulary  the vocabulary
+     * @param lexiconSize the size in bytes of the text lexicon from which the vocabulary was compiled
+     * @param lexiconHash the hash of the text lexicon, see {@link LexiconImage#hashLexicon(byte[])}
+     * @param output      stream to which the image is written, which is not closed
+     * @throws IOException if the image could not be written
+     */
+    public static void write(final Vocabulary vocabulary, final long lexiconSize, final long lexiconHash,
+            final OutputStream output) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+        final List<Vocabulary.Entry> entries = vocabulary.getEntries();
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(lexiconSize);
+        data.writeLong(lexiconHash);
+        data.writeLong(hashWordLists());
+        data.writeInt(entries.size());
+        for (Vocabulary.Entry entry : entries) {
+            data.writeByte(entry.getFlags());
+            data.writeFloat(entry.getValence());
+            data.writeFloat(entry.getBoosterScalar());
+            data.writeFloat(entry.getIdiomValence());
+            data.writeShort(entry.getWord().length());
+            data.writeChars(entry.getWord());
+        }
+        data.flush();
+    }
+
+    /**
+     * Read a vocabulary from its image.
+     *
+     * @param image the image, from its current position
+     * @return the vocabulary
+     * @throws IOException if the buffer does not hold an image of this version
+     */
+    public static Vocabulary read(final ByteBuffer image) throws IOException {
+        try {
+            checkHeader(image, image.position());
+            // skip the magic number, the version and the stamp of the source, which is checked by the loader
+            image.position(image.position() + ENTRIES_OFFSET);
+            final int size = image.getInt();
+            final List<Vocabulary.Entry> entries = new ArrayList<>(size);
+            char[] word = new char[0];
+            for (int index = 0; index < size; index++) {
+                final int flags = image.get();
+                final float valence = image.getFloat();
+                final float boosterScalar = image.getFloat();
+                final float idiomValence = image.getFloat();
+                final int length = image.getShort();
+                if (word.length < length) {
+                    word = new char[length];
+                }
+                for (int offset = 0; offset < length; offset++) {
+                    word[offset] = image.getChar();
+                }
+                entries.add(new Vocabulary.Entry(new String(word, 0, length), flags, valence, boosterScalar,
+                    idiomValence));
+            }
+            return Vocabulary.of(entries);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Truncated lexicon image.", ex);
+        }
+    }
+
+    /**
+     * Get the size of the text lexicon from which an image was compiled.
+     *
+     * @param image the image, from its current position, which is not moved
+     * @return the size in bytes of the text lexicon
+     * @throws IOException if the buffer does not hold an image of this version
+     */
+    static long getLexiconSize(final ByteBuffer image) throws IOException {
+        checkHeader(image, image.position());
+        return image.getLong(image.position() + LEXICON_SIZE_OFFSET);
+    }
+
+    /**
+     * Get the hash of the text lexicon from which an image was compiled, see
+     * {@link LexiconImage#hashLexicon(byte[])}.
+     *
+     * @param image the image, from its current position, which is not moved
+     * @return the hash of the text lexicon
+     * @throws IOException if the buffer does not hold an image of this version
+     */
+    static long getLexiconHash(final ByteBuffer image) throws IOException {
+        checkHeader(image, image.position());
+        return image.getLong(image.position() + LEXICON_HASH_OFFSET);
+    }
+
+    /**
+     * Get the hash of the word lists from which an image was compiled, see {@link LexiconImage#hashWordLists()}.
+     *
+     * @param image the image, from its current position, which is not moved
+     * @return the hash of the word lists
+     * @throws IOException if the buffer does not hold an image of this version
+     */
+    static long getWordListsHash(final ByteBuffer image) throws IOException {
+        checkHeader(image, image.position());
+        return image.getLong(image.position() + WORD_LISTS_HASH_OFFSET);
+    }
+
+    /**
+     * Check the magic number and the format version of an image.
+     *
+     * @param image the image
+     * @param start index of the image in the buffer
+     * @throws IOException if the buffer does not hold an image of this version
+     */
+    private static void checkHeader(final ByteBuffer image, final int start) throws IOException {
+        if (image.limit() - start < ENTRIES_OFFSET + Integer.BYTES || image.getInt(start) != MAGIC) {
+            throw new IOException("Not a lexicon image.");
+        }
+        final int version = image.getInt(start + Integer.BYTES);
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of the lexicon image: " + version);
+        }
+    }
+
+    /**
+     * Get the size of a resource without reading it.
+     *
+     * @param resource the resource
+     * @return the size in bytes of the resource, or -1 if it is not known
+     * @throws IOException if the resource could not be opened
+     */
+    private static long getSize(final URL resource) throws IOException {
+        final URLConnection connection = resource.openConnection();
+        final long size = connection.getContentLengthLong();
+        // a connection to a file opens it to find its size
+        connection.getInputStream().close();
+        return size;
+    }
+
+    /**
+     * Get the location of the directory or jar that holds a resource at the root of the class path.
+     *
+     * @param resource the resource
+     * @param name     the name of the resource
+     * @return the URL of the resource without its name
+     */
+    private static String getClassPathEntry(final URL resource, final String name) {
+        final String url = resource.toString();
+        return url.endsWith(name) ? url.substring(0, url.length() - name.length()) : url;
+    }
+
+    /**
+     * Load the vocabulary from the image on the class path, unless the system property
+     * {@value LexiconImage#SYSTEM_PROPERTY} is {@value LexiconImage#DISABLED}.
+     *
+     * @return the vocabulary, or null if no image can be used
+     */
+    static Vocabulary load() {
+        if (DISABLED.equals(System.getProperty(SYSTEM_PROPERTY))) {
+            return null;
+        }
+        final ClassLoader classLoader = LexiconImage.class.getClassLoader();
+        final URL image = classLoader.getResource(RESOURCE);
+        return image == null ? null : load(image, classLoader.getResource(SOURCE_RESOURCE));
+    }
+
+    /**
+     * Load the vocabulary from an image, if it was compiled from the text lexicon and the word lists in use.
+     *
+     * @param image   the image
+     * @param lexicon the text lexicon in use, or null if there is none
+     * @return the vocabulary, or null if the image cannot be used
+     */
+    static Vocabulary load(final URL image, final URL lexicon) {
+        try {
+            final ByteBuffer buffer;
+            try (InputStream input = image.openStream()) {
+                buffer = ByteBuffer.wrap(ByteStreams.toByteArray(input));
+            }
+            if (lexicon == null
+                || !getClassPathEntry(image, RESOURCE).equals(getClassPathEntry(lexicon, SOURCE_RESOURCE))
+                || getLexiconSize(buffer) != getSize(lexicon) || getWordListsHash(buffer) != hashWordLists()) {
+                LoggerFactory.getLogger(LexiconImage.class).info("Lexicon image was not compiled from "
+                    + SOURCE_RESOURCE + " on the class path, parsing the text lexicon instead");
+                return null;
+            }
+            return read(buffer);
+        } catch (IOException ex) {
+            LoggerFactory.getLogger(LexiconImage.class).warn("Lexicon image could not be read, "
+                + "parsing the text lexicon instead", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.base.Preconditions;
+
+/**
+ * This class holds the {@link Vocabulary} used by the sentiment analyzer, which can be replaced while the
+ * application is running, e.g. after the lexicon was tuned. A new lexicon file is read and validated without
+ * affecting the analyzer, and is then published with a single swap of an {@link AtomicReference}.
+ * Readers take a snapshot with {@link LexiconRegistry#current()}, without any lock, and keep using it for the
+ * whole text they analyze, so that the texts being analyzed during a swap are scored with the old vocabulary.
+ * Only the word valencies are reloaded; the boosters, the negative words and the idioms are those of {@link Utils}.
+ *
+ * @author Animesh Pandey
+ */
+public final class LexiconRegistry {
+    /**
+     * Highest absolute valence of a word, as rated for the lexicon.
+     */
+    private static final float MAX_ABSOLUTE_VALENCE = 4.0F;
+
+    /**
+     * Logger for the reloads.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LexiconRegistry.class);
+
+    /**
+     * The vocabulary currently in use.
+     */
+    private static final AtomicReference<Vocabulary> CURRENT = new AtomicReference<>(Utils.VOCABULARY);
+
+    /**
+     * Number of times a vocabulary was published.
+     */
+    private static final AtomicLong SWAP_COUNT = new AtomicLong();
+
+    /**
+     * Number of reloads that failed to read or validate the lexicon.
+     */
+    private static final AtomicLong FAILED_RELOAD_COUNT = new AtomicLong();
+
+    /**
+     * Time taken by the last successful reload, in nanoseconds.
+     */
+    private static final AtomicLong LAST_RELOAD_NANOS = new AtomicLong();
+
+    /**
+     * Time taken by all the successful reloads, in nanoseconds.
+     */
+    private static final AtomicLong TOTAL_RELOAD_NANOS = new AtomicLong();
+
+    /**
+     * Private constructor for utility class.
+     */
+    private LexiconRegistry() {
+    }
+
+    /**
+     * Get the vocabulary currently in use. Callers should keep the returned snapshot for as long as they need a
+     * consistent view of the lexicon.
+     *
+     * @return the current vocabulary
+     */
+    public static Vocabulary current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Publish a vocabulary, which is used by the texts analyzed from now on.
+     *
+     * @param vocabulary the vocabulary
+     * @return the vocabulary that was replaced
+     */
+    public static Vocabulary publish(final Vocabulary vocabulary) {
+        Preconditions.checkNotNull(vocabulary, "Vocabulary should not be null.");
+        final Vocabulary previous = CURRENT.getAndSet(vocabulary);
+        SWAP_COUNT.incrementAndGet();
+        return previous;
+    }
+
+    /**
+     * Read a lexicon file in the format of vader_sentiment_lexicon.txt, validate it and publish it. The current
+     * vocabulary is kept if the file cannot be read or is not valid.
+     *
+     * @param lexiconFile path of the lexicon file
+     * @return the vocabulary that was published
+     * @throws IOException if the file could not be read or is not a valid lexicon
+     */
+    public static Vocabulary reload(final Path lexiconFile) throws IOException {
+        Preconditions.checkNotNull(lexiconFile, "Lexicon file should not be null.");
+        final long start = System.nanoTime();
+        final Vocabulary vocabulary;
+        try (BufferedReader reader = Files.newBufferedReader(lexiconFile, StandardCharsets.UTF_8)) {
+            final Map<String, Float> valencies = Utils.readLexicon(reader);
+            validate(valencies);
+            vocabulary = Vocabulary.of(valencies, Utils.BOOSTER_DICTIONARY, Utils.NEGATIVE_WORDS,
+                Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY);
+        } catch (IOException ex) {
+            FAILED_RELOAD_COUNT.incrementAndGet();
+            throw ex;
+        }
+        publish(vocabulary);
+        final long elapsed = System.nanoTime() - start;
+        LAST_RELOAD_NANOS.set(elapsed);
+        TOTAL_RELOAD_NANOS.addAndGet(elapsed);
+        LOGGER.info("Reloaded {} words from {} in {} ms", vocabulary.size(), lexiconFile, elapsed / 1_000_000L);
+        return vocabulary;
+    }
+
+    /**
+     * Reload a lexicon file in the background, see {@link LexiconRegistry#reload(Path)}.
+     *
+     * @param lexiconFile path of the lexicon file
+     * @param executor    executor on which the file is read
+     * @return future of the vocabulary that was published, which completes exceptionally if it was not
+     */
+    public static CompletableFuture<Vocabulary> reloadAsync(final Path lexiconFile, final Executor executor) {
+        Preconditions.checkNotNull(executor, "Executor should not be null.");
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return reload(lexiconFile);
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * Check that a lexicon can replace the current one.
+     *
+     * @param valencies words of the lexicon with their valence
+     * @throws IOException if the lexicon is empty or has a word without a valid valence
+     */
+    private static void validate(final Map<String, Float> valencies) throws IOException {
+        if (valencies.isEmpty()) {
+            throw new IOException("The lexicon has no words.");
+        }
+        for (Map.Entry<String, Float> entry : valencies.entrySet()) {
+            if (entry.getKey().isEmpty()) {
+                throw new IOException("The lexicon has an empty word.");
+            }
+            final float valence = entry.getValue();
+            if (Float.isNaN(valence) || Math.abs(valence) > MAX_ABSOLUTE_VALENCE) {
+                throw new IOException("The valence of \"" + entry.getKey() + "\" is out of range: " + valence);
+            }
+        }
+    }
+
+    /**
+     * Get the number of times a vocabulary was published.
+     *
+     * @return number of swaps
+     */
+    public static long getSwapCount() {
+        return SWAP_COUNT.get();
+    }
+
+    /**
+     * Get the number of reloads that failed to read or validate the lexicon.
+     *
+     * @return number of failed reloads
+     */
+    public static long getFailedReloadCount() {
+        return FAILED_RELOAD_COUNT.get();
+    }
+
+    /**
+     * Get the time taken by the last successful reload, from reading the file to publishing the vocabulary.
+     *
+     * @return reload latency in nanoseconds, or 0 if there was no reload
+     */
+    public static long getLastReloadNanos() {
+        return LAST_RELOAD_NANOS.get();
+    }
+
+    /**
+     * Get the time taken by all the successful reloads.
+     *
+     * @return total reload latency in nanoseconds
+     */
+    public static long getTotalReloadNanos() {
+        return TOTAL_RELOAD_NANOS.get();
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This class is a trie of the phrases of a {@link Vocabulary}, i.e. of its entries that have more than one word,
+ * like the idioms, the boosters "kind of" and "sort of" and the lexicon entries like "can't stand".
+ * The edges of the trie are labelled with the entries of the words of the phrases, so that a sequence of tokens
+ * whose entries are already known is matched one token at a time, by identity, without building any string.
+ * The states of the trie are numbered and {@link PhraseTrie#ROOT} is the state before the first word:
+ * <pre>
+ *     int state = trie.next(PhraseTrie.ROOT, firstWordEntry);
+ *     state = trie.next(state, secondWordEntry);
+ *     Vocabulary.Entry phrase = trie.getPhrase(state);
+ * </pre>
+ *
+ * @author Animesh Pandey
+ */
+public final class PhraseTrie {
+    /**
+     * The state before the first word of a phrase.
+     */
+    public static final int ROOT = 0;
+
+    /**
+     * The state after a word that does not continue any phrase.
+     */
+    public static final int NO_STATE = -1;
+
+    /**
+     * Number of states for which space is allocated at first.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Entries of the words that label the edges out of each state.
+     */
+    private Vocabulary.Entry[][] labels;
+
+    /**
+     * Target states of the edges out of each state, in the same order as {@link PhraseTrie#labels}.
+     */
+    private int[][] targets;
+
+    /**
+     * Entry of the phrase that ends at each state, or {@link Vocabulary#UNKNOWN}.
+     */
+    private Vocabulary.Entry[] phrases;
+
+    /**
+     * Number of states.
+     */
+    private int size;
+
+    /**
+     * Number of words of the longest phrase.
+     */
+    private int maxLength;
+
+    /**
+     * Creates a trie with only the {@link PhraseTrie#ROOT}.
+     */
+    private PhraseTrie() {
+        this.labels = new Vocabulary.Entry[INITIAL_CAPACITY][];
+        this.targets = new int[INITIAL_CAPACITY][];
+        this.phrases = new Vocabulary.Entry[INITIAL_CAPACITY];
+        addState();
+    }
+
+    /**
+     * Creates the trie of the entries of a vocabulary that have more than one word.
+     *
+     * @param vocabulary the vocabulary, which must already hold each word of the phrases
+     * @param entries    the entries of the vocabulary
+     * @return the trie
+     */
+    static PhraseTrie of(final Vocabulary vocabulary, final Collection<Vocabulary.Entry> entries) {
+        final PhraseTrie trie = new PhraseTrie();
+        for (Vocabulary.Entry entry : entries) {
+            final String[] words = split(entry.getWord());
+            if (words.length > 1) {
+                trie.add(vocabulary, words, entry);
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * Split a phrase into its words.
+     *
+     * @param phrase the phrase
+     * @return the words of the phrase, separated by {@link Constants#SPACE_SEPARATOR}
+     */
+    static String[] split(final String phrase) {
+        if (!phrase.contains(Constants.SPACE_SEPARATOR)) {
+            return new String[]{phrase};
+        }
+        final List<String> words = new ArrayList<>();
+        for (String word : phrase.split(Constants.SPACE_SEPARATOR)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Add a phrase to the trie.
+     *
+     * @param vocabulary the vocabulary that holds the words of the phrase
+     * @param words      the words of the phrase
+     * @param phrase     the entry of the phrase
+     */
+    private void add(final Vocabulary vocabulary, final String[] words, final Vocabulary.Entry phrase) {
+        int state = ROOT;
+        for (String word : words) {
+            final Vocabulary.Entry label = vocabulary.find(word);
+            int target = next(state, label);
+            if (target == NO_STATE) {
+                target = addState();
+                final int edges = labels[state].length;
+                labels[state] = Arrays.copyOf(labels[state], edges + 1);
+                targets[state] = Arrays.copyOf(targets[state], edges + 1);
+                labels[state][edges] = label;
+                targets[state][edges] = target;
+            }
+            state = target;
+        }
+        phrases[state] = phrase;
+        maxLength = Math.max(maxLength, words.length);
+    }
+
+    /**
+     * Add a state without edges.
+     *
+     * @return the new state
+     */
+    private int addState() {
+        if (size == phrases.length) {
+            labels = Arrays.copyOf(labels, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+            phrases = Arrays.copyOf(phrases, size * 2);
+        }
+        labels[size] = new Vocabulary.Entry[0];
+        targets[size] = new int[0];
+        phrases[size] = Vocabulary.UNKNOWN;
+        return size++;
+    }
+
+    /**
+     * Follow the edge out of a state which is labelled with the entry of a word.
+     *
+     * @param state the state, or {@link PhraseTrie#NO_STATE}
+     * @param word  the entry of the word
+     * @return the next state, or {@link PhraseTrie#NO_STATE} if no phrase continues with the word
+     */
+    public int next(final int state, final Vocabulary.Entry word) {
+        if (state == NO_STATE || word == Vocabulary.UNKNOWN) {
+            return NO_STATE;
+        }
+        final Vocabulary.Entry[] stateLabels = labels[state];
+        for (int edge = 0; edge < stateLabels.length; edge++) {
+            if (stateLabels[edge] == word) {
+                return targets[state][edge];
+            }
+        }
+        return NO_STATE;
+    }
+
+    /**
+     * Get the phrase whose last word leads to a state.
+     *
+     * @param state the state, or {@link PhraseTrie#NO_STATE}
+     * @return the entry of the phrase, or {@link Vocabulary#UNKNOWN} if no phrase ends at the state
+     */
+    public Vocabulary.Entry getPhrase(final int state) {
+        return state == NO_STATE ? Vocabulary.UNKNOWN : phrases[state];
+    }
+
+    /**
+     * Get the number of words of the longest phrase.
+     *
+     * @return maximum number of words of a phrase
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Get the number of states of the trie.
+     *
+     * @return number of states
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -156,9 +156,20 @@ public final class Utils {
     //CHECKSTYLE.ON: MagicNumber
 
     /**
-     * Tokens with their respective valencies.
+     * The lexicon and all of the above word lists combined, so that a token is looked up once.
+     * It is read from the {@link LexiconImage} if there is one. This is the vocabulary the analyzer starts with;
+     * the one it uses is {@link LexiconRegistry#current()}, which differs from it after a reload.
      */
-    public static final Map<String, Float> WORD_VALENCE_DICTIONARY = readLexiconFile();
+    public static final Vocabulary VOCABULARY = loadVocabulary();
+
+    /**
+     * Tokens with their respective valencies, as in the lexicon bundled with the library.
+     *
+     * @deprecated this only reflects the lexicon read at startup and disagrees with the analyzer after
+     *     {@link LexiconRegistry#reload(java.nio.file.Path)}; use {@code LexiconRegistry.current().getValencies()}.
+     */
+    @Deprecated
+    public static final Map<String, Float> WORD_VALENCE_DICTIONARY = VOCABULARY.getValencies();
 
     /**
      * Private constructor for utility class.
@@ -176,47 +187,102 @@ public final class Utils {
      * @param token input token
      * @return true iff none of the above conditions occur
      */
-    public static boolean isUpper(String token) {
+    public static boolean isUpper(CharSequence token) {
         if (StringUtils.startsWithIgnoreCase(token, Constants.HTTP_URL_PREFIX)) {
             return false;
         }
         if (StringUtils.startsWithIgnoreCase(token, Constants.HTTPS_URL_PREFIX)) {
             return false;
         }
-        if (!Constants.NON_NUMERIC_STRING_REGEX.matcher(token).matches()) {
-            return false;
-        }
+        boolean hasLetter = false;
         for (int i = 0; i < token.length(); i++) {
-            if (Character.isLowerCase(token.charAt(i))) {
+            final char character = token.charAt(i);
+            if (Character.isLowerCase(character)) {
+                return false;
+            }
+            // A line terminator fails Constants.NON_NUMERIC_STRING_REGEX, as it is not matched by '.'.
+            if (character == '\n' || character == '\r' || character == '\u0085' || character == '\u2028'
+                || character == '\u2029') {
                 return false;
             }
+            if (character >= 'A' && character <= 'Z') {
+                hasLetter = true;
+            }
+        }
+        return hasLetter;
+    }
+
+    /**
+     * This function loads the vocabulary from the {@link LexiconImage}, or builds it from the text lexicon and the
+     * word lists if there is no image.
+     *
+     * @return the vocabulary
+     */
+    private static Vocabulary loadVocabulary() {
+        final Vocabulary vocabulary = LexiconImage.load();
+        if (vocabulary != null) {
+            return vocabulary;
         }
-        return true;
+        return Vocabulary.of(readLexiconFile(), BOOSTER_DICTIONARY, NEGATIVE_WORDS,
+            SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY);
     }
 
     /**
      * This function reads in a file that stores lexicon and their corresponding valence intensity.
      * Each pair of lexicon and its valence is then stored as key-value pairs in a HashMap.
+     * Only the first two columns of each line are read, the standard deviation and the raw ratings are skipped.
      *
      * @return map of lexicons with their corresponding valence
      */
-    private static Map<String, Float> readLexiconFile() {
+    static Map<String, Float> readLexiconFile() {
         final InputStream lexFile = Utils.class.getClassLoader()
                                                .getResourceAsStream("vader_sentiment_lexicon.txt");
-        final Map<String, Float> lexDictionary = new HashMap<>();
+        Map<String, Float> lexDictionary = Collections.emptyMap();
         if (lexFile != null) {
             try (BufferedReader br = new BufferedReader(new InputStreamReader(lexFile, StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    final String[] lexFileData = line.split("\\t");
-                    final String currentText = lexFileData[0];
-                    final Float currentTextValence = Float.parseFloat(lexFileData[1]);
-                    lexDictionary.put(currentText, currentTextValence);
-                }
+                lexDictionary = readLexicon(br);
             } catch (IOException ex) {
                 LoggerFactory.getLogger(Utils.class).error("vader_sentiment_lexicon.txt file not found", ex);
             }
         }
+        return lexDictionary;
+    }
+
+    /**
+     * This function reads lexicon and their corresponding valence intensity, in the format of
+     * vader_sentiment_lexicon.txt: one word per line, followed by a tab and its valence. The other columns are
+     * skipped, and so are the empty lines.
+     *
+     * @param reader reader of the lexicon, which is not closed
+     * @return map of lexicons with their corresponding valence
+     * @throws IOException if the lexicon could not be read or a line has no valid valence
+     */
+    static Map<String, Float> readLexicon(final BufferedReader reader) throws IOException {
+        final Map<String, Float> lexDictionary = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            final int textEnd = line.indexOf('\t');
+            if (textEnd < 0) {
+                throw new IOException("Line " + lineNumber + " of the lexicon has no valence.");
+            }
+            int valenceEnd = line.indexOf('\t', textEnd + 1);
+            if (valenceEnd < 0) {
+                valenceEnd = line.length();
+            }
+            final String currentText = line.substring(0, textEnd);
+            final Float currentTextValence;
+            try {
+                currentTextValence = Float.parseFloat(line.substring(textEnd + 1, valenceEnd));
+            } catch (NumberFormatException ex) {
+                throw new IOException("Line " + lineNumber + " of the lexicon has an invalid valence.", ex);
+            }
+            lexDictionary.put(currentText, currentTextValence);
+        }
         return Collections.unmodifiableMap(lexDictionary);
     }
 }
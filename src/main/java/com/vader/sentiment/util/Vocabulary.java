@@ -0,0 +1,441 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * This class combines the word lists used by the sentiment analyzer into a single table, so that everything
+ * known about a token is found with one lookup. A lookup returns a preallocated {@link Entry} which has:
+ * - the valence of the word, from the lexicon,
+ * - the scalar of the word if it is a booster, from {@link Utils#BOOSTER_DICTIONARY},
+ * - whether the word is one of the {@link Utils#NEGATIVE_WORDS},
+ * - the valence of the word if it is one of the idioms of {@link Utils#SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY}
+ * and
+ * - whether the word is the first word of a phrase, i.e. of an idiom, a booster like "kind of" or a lexicon entry
+ * like "fed up".
+ * Words that are in none of these lists are mapped to {@link Vocabulary#UNKNOWN}. The phrases are also held in a
+ * {@link PhraseTrie}, whose words are all in the vocabulary.
+ *
+ * @author Animesh Pandey
+ */
+public final class Vocabulary {
+    /**
+     * The entry returned for words that are not in the vocabulary.
+     */
+    public static final Entry UNKNOWN = new Entry("", 0, 0.0F, 0.0F, 0.0F);
+
+    /**
+     * Number of vocabularies created, from which the version of each vocabulary is taken.
+     */
+    private static final AtomicLong VERSION_COUNT = new AtomicLong();
+
+    /**
+     * Index of the words, whose slots are the indices of {@link Vocabulary#entries}.
+     */
+    private final Lexicon index;
+
+    /**
+     * Entry of each slot of the {@link Vocabulary#index}.
+     */
+    private final Entry[] entries;
+
+    /**
+     * The words of the vocabulary that have more than one word.
+     */
+    private final PhraseTrie phrases;
+
+    /**
+     * Number which identifies this vocabulary among all the vocabularies created by this JVM.
+     */
+    private final long version = VERSION_COUNT.incrementAndGet();
+
+    /**
+     * Hash of the entries, which is computed on first use, or 0 before.
+     */
+    private volatile long fingerprint;
+
+    /**
+     * Creates a vocabulary of the given entries.
+     *
+     * @param words the entries, one per word
+     */
+    private Vocabulary(final Collection<Entry> words) {
+        final Map<String, Float> valencies = new HashMap<>();
+        for (Entry entry : words) {
+            valencies.put(entry.getWord(), entry.getValence());
+        }
+        this.index = Lexicon.of(valencies);
+        this.entries = new Entry[index.capacity()];
+        for (Entry entry : words) {
+            entries[index.find(entry.getWord())] = entry;
+        }
+        this.phrases = PhraseTrie.of(this, words);
+    }
+
+    /**
+     * Add the words of a phrase to the given sets, if it has more than one word.
+     *
+     * @param phrase       the phrase
+     * @param phraseStarts the set of first words of phrases
+     * @param phraseWords  the set of all words of phrases
+     */
+    private static void addPhraseWords(final String phrase, final Set<String> phraseStarts,
+                                       final Set<String> phraseWords) {
+        final String[] words = PhraseTrie.split(phrase);
+        if (words.length > 1) {
+            phraseStarts.add(words[0]);
+            Collections.addAll(phraseWords, words);
+        }
+    }
+
+    /**
+     * Creates a vocabulary of the given words.
+     *
+     * @param valencies     words and phrases with their valence
+     * @param boosters      booster words and phrases with their scalar
+     * @param negativeWords negative words
+     * @param idioms        idioms with their valence
+     * @return the vocabulary
+     */
+    public static Vocabulary of(final Map<String, Float> valencies, final Map<String, Float> boosters,
+                                final Set<String> negativeWords, final Map<String, Float> idioms) {
+        Preconditions.checkNotNull(valencies, "Valencies should not be null.");
+        Preconditions.checkNotNull(boosters, "Boosters should not be null.");
+        Preconditions.checkNotNull(negativeWords, "Negative words should not be null.");
+        Preconditions.checkNotNull(idioms, "Idioms should not be null.");
+
+        final Set<String> phraseStarts = new LinkedHashSet<>();
+        final Set<String> phraseWords = new LinkedHashSet<>();
+        for (String phrase : idioms.keySet()) {
+            addPhraseWords(phrase, phraseStarts, phraseWords);
+        }
+        for (String phrase : boosters.keySet()) {
+            addPhraseWords(phrase, phraseStarts, phraseWords);
+        }
+        for (String phrase : valencies.keySet()) {
+            addPhraseWords(phrase, phraseStarts, phraseWords);
+        }
+
+        final Set<String> words = new LinkedHashSet<>(valencies.keySet());
+        words.addAll(boosters.keySet());
+        words.addAll(negativeWords);
+        words.addAll(idioms.keySet());
+        words.addAll(phraseWords);
+
+        final List<Entry> entries = new ArrayList<>(words.size());
+        for (String word : words) {
+            final Float valence = valencies.get(word);
+            final Float boosterScalar = boosters.get(word);
+            final Float idiomValence = idioms.get(word);
+            int flags = 0;
+            if (valence != null) {
+                flags |= Entry.HAS_VALENCE;
+            }
+            if (boosterScalar != null) {
+                flags |= Entry.IS_BOOSTER;
+            }
+            if (negativeWords.contains(word)) {
+                flags |= Entry.IS_NEGATION;
+            }
+            if (idiomValence != null) {
+                flags |= Entry.IS_IDIOM;
+            }
+            if (phraseStarts.contains(word)) {
+                flags |= Entry.STARTS_PHRASE;
+            }
+            entries.add(new Entry(word, flags, valence != null ? valence : 0.0F,
+                boosterScalar != null ? boosterScalar : 0.0F, idiomValence != null ? idiomValence : 0.0F));
+        }
+        return new Vocabulary(entries);
+    }
+
+    /**
+     * Creates a vocabulary of entries that were already made, like the ones read from a {@link LexiconImage}.
+     *
+     * @param entries the entries, one per word
+     * @return the vocabulary
+     */
+    static Vocabulary of(final Collection<Entry> entries) {
+        Preconditions.checkNotNull(entries, "Entries should not be null.");
+        return new Vocabulary(entries);
+    }
+
+    /**
+     * Find the entry of a word.
+     *
+     * @param word the word
+     * @return the entry of the word, or {@link Vocabulary#UNKNOWN} if it is not in the vocabulary
+     */
+    public Entry find(final CharSequence word) {
+        return entryAt(index.find(word));
+    }
+
+    /**
+     * Find the entry of the word made of a range of characters, whose hash is already known.
+     *
+     * @param hash  the hash of the characters, see {@link Lexicon#hash(char[], int, int)}
+     * @param text  the characters
+     * @param start index of the first character of the word
+     * @param end   index after the last character of the word
+     * @return the entry of the word, or {@link Vocabulary#UNKNOWN} if it is not in the vocabulary
+     */
+    public Entry find(final int hash, final char[] text, final int start, final int end) {
+        return entryAt(index.find(hash, text, start, end));
+    }
+
+    /**
+     * Get the entry of a slot of the {@link Vocabulary#index}.
+     *
+     * @param slot the slot, or {@link Lexicon#NOT_FOUND}
+     * @return the entry, or {@link Vocabulary#UNKNOWN} if the word was not found
+     */
+    private Entry entryAt(final int slot) {
+        return slot == Lexicon.NOT_FOUND ? UNKNOWN : entries[slot];
+    }
+
+    /**
+     * Get the phrases of the vocabulary, which are matched word by word with the entries of the vocabulary.
+     *
+     * @return the trie of the phrases
+     */
+    public PhraseTrie getPhrases() {
+        return phrases;
+    }
+
+    /**
+     * Get the words which have a valence, with their valence.
+     *
+     * @return an unmodifiable map of the words to their valence
+     */
+    public Map<String, Float> getValencies() {
+        final Map<String, Float> valencies = new HashMap<>();
+        for (Entry entry : entries) {
+            if (entry != null && entry.hasValence()) {
+                valencies.put(entry.getWord(), entry.getValence());
+            }
+        }
+        return Collections.unmodifiableMap(valencies);
+    }
+
+    /**
+     * Get all the entries of the vocabulary, in no particular order.
+     *
+     * @return list of the entries
+     */
+    List<Entry> getEntries() {
+        final List<Entry> result = new ArrayList<>(size());
+        for (Entry entry : entries) {
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the version of the vocabulary, which is different for every vocabulary created, so that results computed
+     * with a vocabulary can be told apart from the results of a reloaded lexicon.
+     *
+     * @return the version of the vocabulary
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the fingerprint of the vocabulary, which is a hash of its entries, so that it is the same for the same
+     * lexicon in every JVM, unlike {@link Vocabulary#getVersion()}. It is computed on first use.
+     *
+     * @return the fingerprint of the vocabulary, which is never 0
+     */
+    public long getFingerprint() {
+        long result = fingerprint;
+        if (result == 0L) {
+            final List<Entry> sortedEntries = getEntries();
+            sortedEntries.sort(Comparator.comparing(Entry::getWord));
+            final Hasher hasher = Hashing.murmur3_128().newHasher();
+            for (Entry entry : sortedEntries) {
+                hasher.putUnencodedChars(entry.getWord())
+                      .putInt(entry.getFlags())
+                      .putFloat(entry.getValence())
+                      .putFloat(entry.getBoosterScalar())
+                      .putFloat(entry.getIdiomValence());
+            }
+            result = hasher.hash().asLong();
+            result = result == 0L ? 1L : result;
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of words in the vocabulary.
+     *
+     * @return number of words
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Everything that is known about a word of the {@link Vocabulary}. Entries are created with the vocabulary
+     * and are immutable.
+     */
+    public static final class Entry {
+        /**
+         * Flag of a word that has a valence.
+         */
+        static final int HAS_VALENCE = 1;
+
+        /**
+         * Flag of a word that is a booster.
+         */
+        static final int IS_BOOSTER = 1 << 1;
+
+        /**
+         * Flag of a word that is a negative word.
+         */
+        static final int IS_NEGATION = 1 << 2;
+
+        /**
+         * Flag of a word that is the first word of a phrase.
+         */
+        static final int STARTS_PHRASE = 1 << 3;
+
+        /**
+         * Flag of a phrase that is an idiom.
+         */
+        static final int IS_IDIOM = 1 << 4;
+
+        /**
+         * The word.
+         */
+        private final String word;
+
+        /**
+         * Flags of the word.
+         */
+        private final int flags;
+
+        /**
+         * Valence of the word.
+         */
+        private final float valence;
+
+        /**
+         * Scalar by which the word boosts or dampens the valence of the words after it.
+         */
+        private final float boosterScalar;
+
+        /**
+         * Valence of the word as an idiom.
+         */
+        private final float idiomValence;
+
+        /**
+         * Creates an entry of the {@link Vocabulary}.
+         *
+         * @param word          the word
+         * @param flags         flags of the word
+         * @param valence       valence of the word
+         * @param boosterScalar scalar of the booster
+         * @param idiomValence  valence of the idiom
+         */
+        Entry(final String word, final int flags, final float valence, final float boosterScalar,
+              final float idiomValence) {
+            this.word = word;
+            this.flags = flags;
+            this.valence = valence;
+            this.boosterScalar = boosterScalar;
+            this.idiomValence = idiomValence;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        int getFlags() {
+            return flags;
+        }
+
+        public boolean hasValence() {
+            return (flags & HAS_VALENCE) != 0;
+        }
+
+        public float getValence() {
+            return valence;
+        }
+
+        public boolean isBooster() {
+            return (flags & IS_BOOSTER) != 0;
+        }
+
+        public float getBoosterScalar() {
+            return boosterScalar;
+        }
+
+        public boolean isNegation() {
+            return (flags & IS_NEGATION) != 0;
+        }
+
+        public boolean isIdiom() {
+            return (flags & IS_IDIOM) != 0;
+        }
+
+        public float getIdiomValence() {
+            return idiomValence;
+        }
+
+        public boolean startsPhrase() {
+            return (flags & STARTS_PHRASE) != 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{"
+                + "word=" + word
+                + ", valence=" + (hasValence() ? valence : "none")
+                + ", boosterScalar=" + (isBooster() ? boosterScalar : "none")
+                + ", isNegation=" + isNegation()
+                + ", idiomValence=" + (isIdiom() ? idiomValence : "none")
+                + ", startsPhrase=" + startsPhrase()
+                + '}';
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This tests confirms that scoring a string does not allocate more memory than it used to. The bytes allocated
+ * by the current thread are read from {@link com.sun.management.ThreadMXBean} around each call, for every text
+ * of the ground truth files, and the average per text is compared to a budget, both for
+ * {@link SentimentAnalyzer#getScoresFor(String)} as a whole and for each of its stages: the tokenization, the
+ * evaluation of the rules on the tokens and the construction of the result.
+ * <p>
+ * The budgets are in bytes per text and can be changed with system properties, e.g.
+ * {@code mvn test -Dtest=AllocationBudgetTest -Dvader.allocation.budget.endToEnd=2048}. The texts are scored a
+ * few times before they are measured, so that the measured code is compiled as it is in a long running process.
+ * The tests are skipped on a JVM which cannot count the bytes allocated by a thread.
+ *
+ * @author Animesh Pandey
+ */
+public class AllocationBudgetTest {
+    private static Logger logger = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+    private static final String BUDGET_PROPERTY_PREFIX = "vader.allocation.budget.";
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    /**
+     * Sink for the results, so that the JIT compiler cannot leave out their allocation.
+     */
+    private SentimentPolarities lastResult;
+
+    @BeforeClass
+    public static void setUpThreadMXBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (threadMXBean.isThreadAllocatedMemorySupported()) {
+                threadMXBean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                threadMXBean = null;
+            }
+        }
+    }
+
+    @Test
+    public void getScoresForStaysWithinBudget() {
+        Assume.assumeNotNull(threadMXBean);
+        final long budget = budget(Stage.END_TO_END);
+        for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+            final String fileName = corpus.getFileName();
+            final List<String> texts = corpus.readTexts();
+            for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+                for (String text : texts) {
+                    lastResult = SentimentAnalyzer.getScoresFor(text);
+                }
+            }
+
+            final long overhead = measurementOverhead();
+            final Allocation allocation = new Allocation();
+            for (String text : texts) {
+                final long start = allocatedBytes();
+                lastResult = SentimentAnalyzer.getScoresFor(text);
+                allocation.add(text, allocatedBytes() - start - overhead);
+            }
+            logger.info("{} bytes per call of getScoresFor for {}", allocation, fileName);
+            assertWithinBudget(fileName, Stage.END_TO_END, allocation, budget);
+        }
+    }
+
+    @Test
+    public void stagesStayWithinBudget() throws IOException {
+        Assume.assumeNotNull(threadMXBean);
+        final TokenizerMode tokenizerMode = TokenizerMode.getDefault();
+        final Vocabulary vocabulary = LexiconRegistry.current();
+        final TextProperties textProperties = new TextProperties();
+        final float[] polarities = new float[SentimentScorer.POLARITY_COUNT];
+        float[] valences = new float[0];
+        for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+            final String fileName = corpus.getFileName();
+            final List<String> texts = corpus.readTexts();
+            final Allocation[] allocations = new Allocation[Stage.values().length];
+            for (int index = 0; index < allocations.length; index++) {
+                allocations[index] = new Allocation();
+            }
+
+            for (int round = 0; round <= WARM_UP_ROUNDS; round++) {
+                final boolean measured = round == WARM_UP_ROUNDS;
+                final long overhead = measurementOverhead();
+                for (String text : texts) {
+                    // The same steps as SentimentScorer, with the bytes allocated by each of them.
+                    final long start = allocatedBytes();
+                    textProperties.reset(text, tokenizerMode, vocabulary);
+                    final long tokenized = allocatedBytes();
+
+                    final int noOfTokens = textProperties.getTokens().size();
+                    if (valences.length < noOfTokens) {
+                        valences = new float[noOfTokens];
+                    }
+                    SentimentAnalyzer.getTokenWiseSentiment(textProperties,
+                        SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON, valences);
+                    SentimentAnalyzer.getPolarityScores(valences, noOfTokens,
+                        SentimentAnalyzer.boostByPunctuation(textProperties), polarities);
+                    final long evaluated = allocatedBytes();
+
+                    lastResult = new SentimentPolarities(polarities[SentimentScorer.POSITIVE],
+                        polarities[SentimentScorer.NEGATIVE], polarities[SentimentScorer.NEUTRAL],
+                        polarities[SentimentScorer.COMPOUND]);
+                    final long end = allocatedBytes();
+
+                    if (measured) {
+                        allocations[Stage.TOKENIZATION.ordinal()].add(text, tokenized - start - overhead);
+                        allocations[Stage.RULES.ordinal()].add(text, evaluated - tokenized - overhead);
+                        allocations[Stage.RESULT.ordinal()].add(text, end - evaluated - overhead);
+                    }
+                }
+            }
+
+            for (Stage stage : Stage.values()) {
+                if (stage != Stage.END_TO_END) {
+                    logger.info("{} bytes per text for the {} of {}", allocations[stage.ordinal()], stage, fileName);
+                }
+            }
+            for (Stage stage : Stage.values()) {
+                if (stage != Stage.END_TO_END) {
+                    assertWithinBudget(fileName, stage, allocations[stage.ordinal()], budget(stage));
+                }
+            }
+        }
+    }
+
+    private static void assertWithinBudget(String fileName, Stage stage, Allocation allocation, long budget) {
+        Assert.assertTrue(String.format("%s of %s allocated %s bytes per text, over the budget of %d bytes (%s%s)",
+                stage, fileName, allocation, budget, BUDGET_PROPERTY_PREFIX, stage.getPropertyName()),
+            allocation.getAverage() <= budget);
+    }
+
+    private static long budget(Stage stage) {
+        return Long.getLong(BUDGET_PROPERTY_PREFIX + stage.getPropertyName(), stage.getDefaultBudget());
+    }
+
+    private static long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Bytes counted by reading the allocated bytes twice, which are subtracted from every measurement.
+     */
+    private static long measurementOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int index = 0; index < 100; index++) {
+            final long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        return overhead;
+    }
+
+    /**
+     * Parts of the scoring of a string which have their own budget.
+     */
+    private enum Stage {
+        END_TO_END("endToEnd", 64),
+        TOKENIZATION("tokenization", 32),
+        RULES("rules", 32),
+        RESULT("result", 32);
+
+        private final String propertyName;
+        private final long defaultBudget;
+
+        Stage(String propertyName, long defaultBudget) {
+            this.propertyName = propertyName;
+            this.defaultBudget = defaultBudget;
+        }
+
+        String getPropertyName() {
+            return propertyName;
+        }
+
+        long getDefaultBudget() {
+            return defaultBudget;
+        }
+
+        @Override
+        public String toString() {
+            return propertyName;
+        }
+    }
+
+    /**
+     * Bytes allocated for the texts of a file.
+     */
+    private static final class Allocation {
+        private long totalBytes;
+        private int texts;
+        private long maxBytes;
+        private String maxText;
+
+        void add(String text, long bytes) {
+            totalBytes += bytes;
+            texts++;
+            if (bytes > maxBytes) {
+                maxBytes = bytes;
+                maxText = text;
+            }
+        }
+
+        long getAverage() {
+            return texts == 0 ? 0 : totalBytes / texts;
+        }
+
+        @Override
+        public String toString() {
+            if (maxText == null) {
+                return String.format("%d on average", getAverage());
+            }
+            return String.format("%d on average, at most %d for \"%s\"", getAverage(), maxBytes, maxText);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link AsyncSentimentAnalyzer} completes its futures with the same scores as
+ * {@link SentimentAnalyzer}, on the default executor and on a pool of platform threads.
+ *
+ * @author Animesh Pandey
+ */
+public class AsyncSentimentAnalyzerTest {
+    private static List<String> texts;
+
+    @BeforeClass
+    public static void setUpTexts() {
+        texts = GroundTruthCorpus.TWEETS.readTexts();
+    }
+
+    @Test
+    public void matchesSentimentAnalyzerOnDefaultExecutor() {
+        assertMatchesSentimentAnalyzer(new AsyncSentimentAnalyzer());
+    }
+
+    @Test
+    public void matchesSentimentAnalyzerOnExecutor() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertMatchesSentimentAnalyzer(new AsyncSentimentAnalyzer(executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void detectsVirtualThreads() {
+        final boolean supported = AsyncSentimentAnalyzer.isVirtualThreadSupported();
+        Assert.assertEquals(supported, AsyncSentimentAnalyzer.newVirtualThreadPerTaskExecutor().isPresent());
+        if (supported) {
+            final ExecutorService executor = AsyncSentimentAnalyzer.newVirtualThreadPerTaskExecutor().get();
+            try {
+                assertMatchesSentimentAnalyzer(new AsyncSentimentAnalyzer(executor));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void ignoresPreviewVirtualThreads() {
+        Assert.assertNull(AsyncSentimentAnalyzer.findVirtualThreadExecutorFactory(
+            AsyncSentimentAnalyzer.VIRTUAL_THREAD_FEATURE_VERSION - 1));
+        Assert.assertNull(AsyncSentimentAnalyzer.findVirtualThreadExecutorFactory(19));
+    }
+
+    @Test
+    public void fallsBackToCommonPool() throws NoSuchMethodException {
+        Assert.assertSame(ForkJoinPool.commonPool(), AsyncSentimentAnalyzer.newDefaultExecutor(null));
+        final Executor executor = AsyncSentimentAnalyzer.newDefaultExecutor(
+            AsyncSentimentAnalyzerTest.class.getMethod("newPreviewExecutor"));
+        Assert.assertSame(ForkJoinPool.commonPool(), executor);
+        assertMatchesSentimentAnalyzer(new AsyncSentimentAnalyzer(executor));
+    }
+
+    /**
+     * Fails like {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 19 and 20 without the preview features.
+     *
+     * @return never returns
+     */
+    public static ExecutorService newPreviewExecutor() {
+        throw new UnsupportedOperationException("Preview Features not enabled");
+    }
+
+    private static void assertMatchesSentimentAnalyzer(AsyncSentimentAnalyzer analyzer) {
+        final List<CompletableFuture<SentimentPolarities>> futures = new ArrayList<>();
+        for (String text : texts) {
+            futures.add(analyzer.getScoresFor(text));
+        }
+        final List<SentimentPolarities> batchResults = analyzer.getScoresForAll(texts).join();
+        Assert.assertEquals(texts.size(), batchResults.size());
+        for (int i = 0; i < texts.size(); i++) {
+            final String expected = SentimentAnalyzer.getScoresFor(texts.get(i)).toString();
+            Assert.assertEquals(texts.get(i), expected, futures.get(i).join().toString());
+            Assert.assertEquals(texts.get(i), expected, batchResults.get(i).toString());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.concurrent.ForkJoinPool;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link DocumentSentiment} scores every sentence of a document on its own, in the same
+ * way sequentially and in parallel, and aggregates the scores of the sentences.
+ *
+ * @author Animesh Pandey
+ */
+public class DocumentSentimentTest {
+    private static String editorials;
+
+    @BeforeClass
+    public static void setUpDocument() {
+        final StringBuilder document = new StringBuilder();
+        int count = 0;
+        for (String text : GroundTruthCorpus.NYT_EDITORIALS.readTexts()) {
+            document.append(text).append(++count % 5 == 0 ? "\n\n" : " ");
+        }
+        editorials = document.toString();
+    }
+
+    @Test
+    public void scoresSentencesOnTheirOwn() {
+        final DocumentSentiment document = SentimentAnalyzer.getDocumentScoresFor(
+            "The food was great. But the service was slow and rude.");
+        Assert.assertEquals(2, document.size());
+        Assert.assertEquals("The food was great.", document.getSentence(0));
+        Assert.assertEquals(SentimentAnalyzer.getScoresFor("The food was great.").toString(),
+            document.getPolarities(0).toString());
+        Assert.assertEquals(SentimentAnalyzer.getScoresFor("But the service was slow and rude.").toString(),
+            document.getPolarities(1).toString());
+        Assert.assertTrue(document.getPolarities(0).getCompoundPolarity() > 0.0F);
+    }
+
+    @Test
+    public void aggregatesSentences() {
+        final DocumentSentiment document = SentimentAnalyzer.getDocumentScoresFor("I love it.\n\nI hate it.");
+        final SentimentPolarities love = document.getPolarities(0);
+        final SentimentPolarities hate = document.getPolarities(1);
+        Assert.assertEquals(1, document.getParagraph(1));
+        final SentimentPolarities aggregate = document.getDocumentPolarities();
+        Assert.assertEquals((love.getCompoundPolarity() + hate.getCompoundPolarity()) / 2,
+            aggregate.getCompoundPolarity(), 1.0e-4F);
+        Assert.assertEquals((love.getPositivePolarity() * 10 + hate.getPositivePolarity() * 10) / 20,
+            aggregate.getPositivePolarity(), 1.0e-3F);
+        Assert.assertEquals(SentimentPolarities.emptySentimentState().toString(),
+            SentimentAnalyzer.getDocumentScoresFor(" \n ").getDocumentPolarities().toString());
+    }
+
+    @Test
+    public void scoresSameInParallel() {
+        final DocumentSentiment sequential = SentimentAnalyzer.getDocumentScoresFor(editorials);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final DocumentSentiment parallel = new ParallelSentimentScorer(pool).scoreDocument(editorials);
+            Assert.assertTrue(sequential.size() > 1000);
+            Assert.assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                Assert.assertEquals(sequential.getSentence(i), sequential.getPolarities(i).toString(),
+                    parallel.getPolarities(i).toString());
+            }
+            Assert.assertEquals(sequential.getDocumentPolarities().toString(),
+                parallel.getDocumentPolarities().toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.util.Arrays;
+import java.util.List;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link IncrementalSentimentScorer} always gives the scores of the whole text appended so
+ * far, and that its state can be saved and restored.
+ *
+ * @author Animesh Pandey
+ */
+public class IncrementalSentimentScorerTest {
+    private static List<String> tweets;
+
+    @BeforeClass
+    public static void setUpTweets() {
+        tweets = GroundTruthCorpus.TWEETS.readTexts();
+    }
+
+    @Test
+    public void scoresWholeConversation() {
+        final IncrementalSentimentScorer scorer = new IncrementalSentimentScorer();
+        final StringBuilder conversation = new StringBuilder();
+        for (String tweet : tweets.subList(0, 300)) {
+            scorer.append(tweet);
+            scorer.append("\n");
+            conversation.append(tweet).append('\n');
+            Assert.assertEquals(tweet, SentimentAnalyzer.getScoresFor(conversation.toString()).toString(),
+                scorer.getPolarities().toString());
+        }
+    }
+
+    @Test
+    public void scoresTextAppendedCharacterByCharacter() {
+        final String[] texts = {
+            "THE FOOD IS GREAT BUT the service is kind of bad, but the drinks are the bomb!!",
+            "It was never so good, and then it was the shit?? I could not stand it :(",
+        };
+        final IncrementalSentimentScorer scorer = new IncrementalSentimentScorer();
+        for (String text : texts) {
+            scorer.clear();
+            Assert.assertEquals(SentimentPolarities.emptySentimentState().toString(),
+                scorer.getPolarities().toString());
+            for (int end = 1; end <= text.length(); end++) {
+                scorer.append(text.substring(end - 1, end));
+                Assert.assertEquals(text.substring(0, end),
+                    SentimentAnalyzer.getScoresFor(text.substring(0, end)).toString(),
+                    scorer.getPolarities().toString());
+            }
+        }
+    }
+
+    @Test
+    public void appendsTokens() {
+        final IncrementalSentimentScorer scorer = new IncrementalSentimentScorer();
+        scorer.appendTokens(Arrays.asList("The", "food", "was", "not"));
+        scorer.appendTokens(Arrays.asList("very", "good", ":("));
+        Assert.assertEquals(SentimentAnalyzer.getScoresFor("The food was not very good :(").toString(),
+            scorer.getPolarities().toString());
+    }
+
+    @Test
+    public void restoresSnapshot() {
+        final IncrementalSentimentScorer scorer = new IncrementalSentimentScorer();
+        final StringBuilder conversation = new StringBuilder();
+        for (String tweet : tweets.subList(0, 100)) {
+            final IncrementalSentimentScorer restored = new IncrementalSentimentScorer();
+            restored.restore(scorer.snapshot());
+            restored.append(tweet + "\n");
+            scorer.append(tweet + "\n");
+            conversation.append(tweet).append('\n');
+            Assert.assertEquals(SentimentAnalyzer.getScoresFor(conversation.toString()).toString(),
+                restored.getPolarities().toString());
+            Assert.assertArrayEquals(scorer.snapshot(), restored.snapshot());
+        }
+        Assert.assertTrue(scorer.snapshot().length < 1024);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsOtherSnapshots() {
+        new IncrementalSentimentScorer().restore(new byte[256]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSnapshotOfOtherTokenizer() {
+        final TokenizerMode other = TokenizerMode.getDefault() == TokenizerMode.LUCENE
+            ? TokenizerMode.NATIVE : TokenizerMode.LUCENE;
+        new IncrementalSentimentScorer(other).restore(new IncrementalSentimentScorer().snapshot());
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link ParallelSentimentScorer} gives the same scores as {@link SentimentAnalyzer},
+ * in the same order as the input strings, on a batch that mixes short and long strings.
+ *
+ * @author Animesh Pandey
+ */
+public class ParallelSentimentScorerTest {
+    private static List<String> texts = new ArrayList<>();
+
+    @BeforeClass
+    public static void setUpTexts() {
+        texts.addAll(GroundTruthCorpus.TWEETS.readTexts());
+        texts.addAll(GroundTruthCorpus.NYT_EDITORIALS.readTexts());
+        // a few editorials of several pages among the short texts
+        final String longText = String.join(" ", texts.subList(texts.size() - 200, texts.size()));
+        for (int i = 0; i < 5; i++) {
+            texts.add(i * 1000, longText);
+        }
+        texts.add("");
+    }
+
+    @Test
+    public void matchesSentimentAnalyzerOnForkJoinPool() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertMatchesSentimentAnalyzer(new ParallelSentimentScorer(pool));
+            assertMatchesSentimentAnalyzer(new ParallelSentimentScorer(pool, 4, TokenizerMode.getDefault(), 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void matchesSentimentAnalyzerOnExecutor() {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertMatchesSentimentAnalyzer(new ParallelSentimentScorer(executor, 3, TokenizerMode.getDefault(),
+                4096));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void scoresEmptyBatch() {
+        final SentimentColumns columns = new SentimentColumns();
+        new ParallelSentimentScorer().scoreAll(Collections.emptyList(), columns);
+        Assert.assertEquals(0, columns.size());
+        Assert.assertTrue(new ParallelSentimentScorer().scoreAll(Collections.emptyList()).isEmpty());
+    }
+
+    private static void assertMatchesSentimentAnalyzer(ParallelSentimentScorer scorer) {
+        final List<SentimentPolarities> results = scorer.scoreAll(texts);
+        Assert.assertEquals(texts.size(), results.size());
+        for (int i = 0; i < texts.size(); i++) {
+            Assert.assertEquals(texts.get(i), SentimentAnalyzer.getScoresFor(texts.get(i)).toString(),
+                results.get(i).toString());
+        }
+    }
+}
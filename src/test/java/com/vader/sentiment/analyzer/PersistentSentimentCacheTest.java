@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link PersistentSentimentCache} gives the same scores as {@link SentimentAnalyzer},
+ * keeps them across reopening, grows and compacts its table into a new file instead of replacing the mapped one,
+ * and ignores a slot that was half written.
+ *
+ * @author Animesh Pandey
+ */
+public class PersistentSentimentCacheTest {
+    private static final String[] INPUTS = {"VADER is smart, handsome, and funny.", "The book was kind of good.",
+        "At least it isn't a horrible book.", ""};
+
+    private Path file;
+
+    @Before
+    public void createDirectory() throws IOException {
+        file = Files.createTempDirectory("sentiment_cache").resolve("scores.bin");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        for (Path path : listDirectory()) {
+            Files.delete(path);
+        }
+        Files.deleteIfExists(file.getParent());
+    }
+
+    @Test
+    public void keepsScoresAcrossReopening() throws IOException {
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            assertMatchesSentimentAnalyzer(cache);
+            Assert.assertEquals(INPUTS.length, cache.getMissCount());
+            Assert.assertEquals(0, cache.getHitCount());
+        }
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            Assert.assertEquals(INPUTS.length, cache.size());
+            assertMatchesSentimentAnalyzer(cache);
+            Assert.assertEquals(0, cache.getMissCount());
+            Assert.assertEquals(INPUTS.length, cache.getHitCount());
+        }
+    }
+
+    @Test
+    public void growsWhenFull() throws IOException {
+        final Path tablePath;
+        try (PersistentSentimentCache cache = new PersistentSentimentCache(file, TokenizerMode.getDefault(), 4)) {
+            final Path firstTablePath = cache.getTablePath();
+            for (int i = 0; i < 100; i++) {
+                cache.getScoresFor("good " + i);
+            }
+            Assert.assertEquals(100, cache.size());
+            Assert.assertTrue(cache.capacity() >= 128);
+            for (int i = 0; i < 100; i++) {
+                cache.getScoresFor("good " + i);
+            }
+            Assert.assertEquals(100, cache.getHitCount());
+            tablePath = cache.getTablePath();
+            Assert.assertNotEquals(firstTablePath, tablePath);
+        }
+        Assert.assertEquals(Arrays.asList(file, tablePath), listDirectory());
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            Assert.assertEquals(tablePath, cache.getTablePath());
+            Assert.assertEquals(100, cache.size());
+        }
+    }
+
+    @Test
+    public void deletesStaleTablesOnOpen() throws IOException {
+        final Path tablePath;
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            assertMatchesSentimentAnalyzer(cache);
+            tablePath = cache.getTablePath();
+        }
+        // a table left behind by a crash during a growth, or which could not be deleted while it was mapped
+        final Path staleTablePath = file.resolveSibling(file.getFileName() + ".7");
+        Files.write(staleTablePath, new byte[64]);
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            Assert.assertEquals(INPUTS.length, cache.size());
+        }
+        Assert.assertEquals(Arrays.asList(file, tablePath), listDirectory());
+    }
+
+    @Test
+    public void ignoresHalfWrittenSlot() throws IOException {
+        final Path tablePath;
+        try (PersistentSentimentCache cache = new PersistentSentimentCache(file, TokenizerMode.getDefault(), 4)) {
+            cache.getScoresFor(INPUTS[0]);
+            tablePath = cache.getTablePath();
+        }
+        // overwrite the scores of the only slot in use, as if the process had crashed while writing it
+        try (RandomAccessFile raf = new RandomAccessFile(tablePath.toFile(), "rw")) {
+            for (int slot = 0; slot < 4; slot++) {
+                final long offset = 16 + slot * 48;
+                raf.seek(offset + 40);
+                if (raf.readLong() != 0L) {
+                    raf.seek(offset + 24);
+                    raf.writeFloat(0.5F);
+                }
+            }
+        }
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            Assert.assertEquals(0, cache.size());
+            assertMatchesSentimentAnalyzer(cache);
+            Assert.assertEquals(INPUTS.length, cache.getMissCount());
+        }
+    }
+
+    @Test
+    public void compactsScoresOfOtherLexicons() throws IOException {
+        final Vocabulary original = LexiconRegistry.current();
+        try (PersistentSentimentCache cache = PersistentSentimentCache.open(file)) {
+            assertMatchesSentimentAnalyzer(cache);
+            try {
+                LexiconRegistry.publish(Vocabulary.of(ImmutableMap.of("good", -1.9F), Collections.emptyMap(),
+                    Collections.emptySet(), Collections.emptyMap()));
+                Assert.assertTrue(cache.getScoresFor("good").getCompoundPolarity() < 0.0F);
+                Assert.assertEquals(INPUTS.length + 1, cache.size());
+            } finally {
+                LexiconRegistry.publish(original);
+            }
+            cache.compact();
+            Assert.assertEquals(INPUTS.length, cache.size());
+            assertMatchesSentimentAnalyzer(cache);
+            Assert.assertEquals(INPUTS.length, cache.getHitCount());
+        }
+    }
+
+    @Test
+    public void hashesLikeGuava() {
+        final long[] hash = new long[2];
+        for (String input : new String[]{"", "a", "good", "kind of", "The book was kind of good.",
+            "Today SUX!\uD83D\uDE00 0123456789abcdef"}) {
+            PersistentSentimentCache.hash128(input, hash);
+            final ByteBuffer expected = ByteBuffer.wrap(Hashing.murmur3_128().hashUnencodedChars(input).asBytes())
+                                                  .order(ByteOrder.LITTLE_ENDIAN);
+            Assert.assertEquals(input, expected.getLong(0), hash[0]);
+            Assert.assertEquals(input, expected.getLong(8), hash[1]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFile() throws IOException {
+        Files.write(file, new byte[64]);
+        PersistentSentimentCache.open(file);
+    }
+
+    private List<Path> listDirectory() throws IOException {
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(file.getParent())) {
+            for (Path path : files) {
+                paths.add(path);
+            }
+        }
+        Collections.sort(paths);
+        return paths;
+    }
+
+    private static void assertMatchesSentimentAnalyzer(PersistentSentimentCache cache) {
+        for (String input : INPUTS) {
+            Assert.assertEquals(input, SentimentAnalyzer.getScoresFor(input).toString(),
+                cache.getScoresFor(input).toString());
+        }
+    }
+}
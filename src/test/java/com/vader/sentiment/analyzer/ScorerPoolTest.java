@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import com.vader.sentiment.processor.TokenizerMode;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that a {@link ScorerPool} reuses the scorers given back to it, and keeps no more than its
+ * maximum number of idle scorers after a burst of concurrent tasks.
+ *
+ * @author Animesh Pandey
+ */
+public class ScorerPoolTest {
+    @Test
+    public void dropsScorersAboveMaxIdle() {
+        final ScorerPool pool = new ScorerPool(TokenizerMode.getDefault(), false, 4);
+        final List<SentimentScorer> lent = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lent.add(pool.acquire());
+        }
+        Assert.assertEquals(0, pool.getIdleCount());
+        for (SentimentScorer scorer : lent) {
+            pool.release(scorer);
+        }
+        Assert.assertEquals(4, pool.getIdleCount());
+
+        final Set<SentimentScorer> kept = new HashSet<>(lent.subList(0, 4));
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(kept.contains(pool.acquire()));
+        }
+        Assert.assertEquals(0, pool.getIdleCount());
+        Assert.assertFalse(lent.contains(pool.acquire()));
+    }
+
+    @Test
+    public void boundsIdleScorersAfterConcurrentBurst() throws Exception {
+        final ScorerPool pool = new ScorerPool(TokenizerMode.getDefault(), false);
+        final int tasks = 64;
+        final CountDownLatch allLent = new CountDownLatch(tasks);
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks);
+        try {
+            final List<Future<SentimentPolarities>> results = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                results.add(executor.submit(() -> {
+                    final SentimentScorer scorer = pool.acquire();
+                    try {
+                        allLent.countDown();
+                        allLent.await();
+                        return scorer.getScoresFor("VADER is VERY SMART!", TokenizerMode.getDefault(), false);
+                    } finally {
+                        pool.release(scorer);
+                    }
+                }));
+            }
+            for (Future<SentimentPolarities> result : results) {
+                Assert.assertEquals(SentimentAnalyzer.getScoresFor("VADER is VERY SMART!").getCompoundPolarity(),
+                    result.get().getCompoundPolarity(), 0.0F);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(Math.min(tasks, pool.getMaxIdleScorers()), pool.getIdleCount());
+    }
+}
@@ -24,19 +24,14 @@
 
 package com.vader.sentiment.analyzer;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
 
 import org.junit.Assert;
-import org.junit.BeforeClass;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,60 +51,42 @@ import org.slf4j.LoggerFactory;
  * </a>
  */
 public class SentimentAnalyzerTest {
-    private static final ClassLoader loader = SentimentAnalyzerTest.class.getClassLoader();
-    private static List<String> testFiles = new ArrayList<>();
     private static Logger logger = LoggerFactory.getLogger(SentimentAnalyzerTest.class);
 
-    @BeforeClass
-    public static void setUpTestFiles() {
-        testFiles.add("amazonReviewSnippets_GroundTruth_vader.tsv");
-        testFiles.add("movieReviewSnippets_GroundTruth_vader.tsv");
-        testFiles.add("nytEditorialSnippets_GroundTruth_vader.tsv");
-        testFiles.add("tweets_GroundTruth_vader.tsv");
-    }
-
     @Test
     public void readGroundTruth() {
-        for (String fileName : testFiles) {
-            InputStream inputStream = loader.getResourceAsStream(fileName);
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] gtFileData = line.split("\\t");
+        for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+            for (String[] gtFileData : corpus.readRows()) {
+                float expectedNegativeScore = Float.parseFloat(gtFileData[1]);
+                float expectedNeutralScore = Float.parseFloat(gtFileData[2]);
+                float expectedPositiveScore = Float.parseFloat(gtFileData[3]);
+                float expectedCompoundScore = Float.parseFloat(gtFileData[4]);
+                String inputString = gtFileData[5];
 
-                    float expectedNegativeScore = Float.parseFloat(gtFileData[1]);
-                    float expectedNeutralScore = Float.parseFloat(gtFileData[2]);
-                    float expectedPositiveScore = Float.parseFloat(gtFileData[3]);
-                    float expectedCompoundScore = Float.parseFloat(gtFileData[4]);
-                    String inputString = gtFileData[5];
+                SentimentPolarities inputStringPolarity = SentimentAnalyzer.getScoresFor(inputString);
+                float actualNegativeScore = inputStringPolarity.getNegativePolarity();
+                float actualPositiveScore = inputStringPolarity.getPositivePolarity();
+                float actualNeutralScore = inputStringPolarity.getNeutralPolarity();
+                float actualCompoundScore = inputStringPolarity.getCompoundPolarity();
 
-                    SentimentPolarities inputStringPolarity = SentimentAnalyzer.getScoresFor(inputString);
-                    float actualNegativeScore = inputStringPolarity.getNegativePolarity();
-                    float actualPositiveScore = inputStringPolarity.getPositivePolarity();
-                    float actualNeutralScore = inputStringPolarity.getNeutralPolarity();
-                    float actualCompoundScore = inputStringPolarity.getCompoundPolarity();
-
-                    Assert.assertFalse(
-                        getErrorMessage(inputString, actualNegativeScore, expectedNegativeScore, "Negative Score"),
-                        error(actualNegativeScore, expectedNegativeScore)
-                    );
-                    Assert.assertFalse(
-                        getErrorMessage(inputString, actualPositiveScore, expectedPositiveScore, "Positive Score"),
-                        error(actualPositiveScore, expectedPositiveScore)
-                    );
-                    Assert.assertFalse(
-                        getErrorMessage(inputString, actualNeutralScore, expectedNeutralScore, "Neutral Score"),
-                        error(actualNeutralScore, expectedNeutralScore)
-                    );
-                    Assert.assertFalse(
-                        getErrorMessage(inputString, actualCompoundScore, expectedCompoundScore, "Compound Score"),
-                        error(actualCompoundScore, expectedCompoundScore)
-                    );
-                }
-            } catch (IOException e) {
-                e.printStackTrace();
+                Assert.assertFalse(
+                    getErrorMessage(inputString, actualNegativeScore, expectedNegativeScore, "Negative Score"),
+                    error(actualNegativeScore, expectedNegativeScore)
+                );
+                Assert.assertFalse(
+                    getErrorMessage(inputString, actualPositiveScore, expectedPositiveScore, "Positive Score"),
+                    error(actualPositiveScore, expectedPositiveScore)
+                );
+                Assert.assertFalse(
+                    getErrorMessage(inputString, actualNeutralScore, expectedNeutralScore, "Neutral Score"),
+                    error(actualNeutralScore, expectedNeutralScore)
+                );
+                Assert.assertFalse(
+                    getErrorMessage(inputString, actualCompoundScore, expectedCompoundScore, "Compound Score"),
+                    error(actualCompoundScore, expectedCompoundScore)
+                );
             }
-            logger.info("Test passed for {}", fileName);
+            logger.info("Test passed for {}", corpus.getFileName());
         }
     }
 
@@ -159,6 +136,26 @@ public class SentimentAnalyzerTest {
             SentimentPolarities sp = SentimentAnalyzer.getScoresFor(text);
             long endTime = System.nanoTime();
             System.out.printf("%s (%,d ms)%n", sp, TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+            startTime = System.nanoTime();
+            DocumentSentiment document = new ParallelSentimentScorer().scoreDocument(text);
+            endTime = System.nanoTime();
+            System.out.printf("%,d sentences: %s (%,d ms)%n", document.size(), document.getDocumentPolarities(),
+                TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+        }
+    }
+
+    @Test
+    public void matchesMultiWordLexiconEntriesWhenEnabled() {
+        for (String text : new String[]{"I am fed up", "I can't stand it"}) {
+            Assert.assertEquals(text, 0.0F, SentimentAnalyzer.computeSentimentPolaritiesFor(text,
+                TokenizerMode.LUCENE, false).getCompoundPolarity(), 0.0F);
+            Assert.assertTrue(text, SentimentAnalyzer.computeSentimentPolaritiesFor(text,
+                TokenizerMode.LUCENE, true).getCompoundPolarity() < 0.0F);
         }
+        final float screwed = SentimentAnalyzer.computeSentimentPolaritiesFor("it is screwed up",
+            TokenizerMode.LUCENE, false).getCompoundPolarity();
+        final float screwedUp = SentimentAnalyzer.computeSentimentPolaritiesFor("it is screwed up",
+            TokenizerMode.LUCENE, true).getCompoundPolarity();
+        Assert.assertTrue(screwed < screwedUp && screwedUp < 0.0F);
     }
 }
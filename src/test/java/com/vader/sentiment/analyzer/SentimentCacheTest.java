@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import com.vader.sentiment.util.LexiconRegistry;
+import com.vader.sentiment.util.Vocabulary;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link SentimentCache} gives the same scores as {@link SentimentAnalyzer}, scores a
+ * string once per lexicon, and holds at most the given number of strings, without keeping the strings themselves.
+ *
+ * @author Animesh Pandey
+ */
+public class SentimentCacheTest {
+    @Test
+    public void scoresDuplicatesOnce() {
+        final SentimentCache cache = new SentimentCache(16);
+        final String[] inputs = {"VADER is smart, handsome, and funny.", "The book was kind of good.", ""};
+        for (int i = 0; i < 3; i++) {
+            for (String input : inputs) {
+                Assert.assertEquals(SentimentAnalyzer.getScoresFor(input).toString(),
+                    cache.getScoresFor(input).toString());
+            }
+        }
+        final CacheStats stats = cache.stats();
+        Assert.assertEquals(3, stats.missCount());
+        Assert.assertEquals(6, stats.hitCount());
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void evictsBeyondMaximumSize() {
+        final SentimentCache cache = new SentimentCache(8);
+        for (int i = 0; i < 100; i++) {
+            cache.getScoresFor("good " + i);
+        }
+        Assert.assertTrue(cache.size() <= 8);
+        Assert.assertTrue(cache.stats().evictionCount() >= 92);
+    }
+
+    @Test
+    public void doesNotKeepStrings() throws InterruptedException {
+        final SentimentCache cache = new SentimentCache(16);
+        // "Aa" and "BB" have the same String.hashCode().
+        Assert.assertTrue(cache.getScoresFor("Aa good").getCompoundPolarity() > 0.0F);
+        Assert.assertTrue(cache.getScoresFor("BB bad").getCompoundPolarity() < 0.0F);
+        Assert.assertEquals(2, cache.stats().missCount());
+
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            longText.append("The food was GREAT but the service was NOT good!!! ");
+        }
+        String text = longText.toString();
+        cache.getScoresFor(text);
+        final WeakReference<String> reference = new WeakReference<>(text);
+        text = null;
+        for (int i = 0; i < 10 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void scoresAgainWithReloadedLexicon() {
+        final SentimentCache cache = new SentimentCache(16);
+        final Vocabulary original = LexiconRegistry.current();
+        Assert.assertTrue(cache.getScoresFor("good").getCompoundPolarity() > 0.0F);
+        try {
+            LexiconRegistry.publish(Vocabulary.of(ImmutableMap.of("good", -1.9F), Collections.emptyMap(),
+                Collections.emptySet(), Collections.emptyMap()));
+            Assert.assertTrue(cache.getScoresFor("good").getCompoundPolarity() < 0.0F);
+        } finally {
+            LexiconRegistry.publish(original);
+        }
+        Assert.assertTrue(cache.getScoresFor("good").getCompoundPolarity() > 0.0F);
+        Assert.assertEquals(1, cache.stats().hitCount());
+    }
+}
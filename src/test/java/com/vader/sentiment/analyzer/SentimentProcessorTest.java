@@ -0,0 +1,327 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link SentimentProcessor} publishes the same scores as {@link SentimentAnalyzer}, in
+ * the order of the strings, and follows the Reactive Streams rules on demand, cancellation and errors. The
+ * publisher and subscriber of this test check the rules the processor should follow towards them.
+ *
+ * @author Animesh Pandey
+ */
+public class SentimentProcessorTest {
+    private static final Executor DIRECT = Runnable::run;
+    private static List<String> texts;
+
+    @BeforeClass
+    public static void setUpTexts() {
+        texts = GroundTruthCorpus.TWEETS.readTexts();
+    }
+
+    @Test
+    public void matchesSentimentAnalyzerInOrder() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final SentimentProcessor processor = new SentimentProcessor(executor, 4, 16);
+            final TestPublisher publisher = new TestPublisher(texts, null);
+            final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            subscriber.await();
+            assertMatchesSentimentAnalyzer(texts, subscriber);
+            Assert.assertTrue(subscriber.completed);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void scoresItemsOfSubmissionPublisher() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            final SentimentProcessor processor = new SentimentProcessor(executor, 2, 8);
+            final TestSubscriber subscriber = new TestSubscriber(7);
+            subscriber.requestOnNext = true;
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            texts.forEach(publisher::submit);
+            publisher.close();
+            subscriber.await();
+            assertMatchesSentimentAnalyzer(texts, subscriber);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void honorsDemandOfSlowSubscriber() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 2, 8);
+        final TestPublisher publisher = new TestPublisher(texts, null);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        Assert.assertEquals(0, subscriber.items.size());
+        Assert.assertEquals(8, publisher.requested.get());
+
+        subscriber.subscription.request(3);
+        Assert.assertEquals(3, subscriber.items.size());
+        Assert.assertTrue(publisher.requested.get() <= 8 + 3);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertMatchesSentimentAnalyzer(texts, subscriber);
+        Assert.assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void cancelStopsUpstream() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 1, 4);
+        final TestPublisher publisher = new TestPublisher(texts, null);
+        final TestSubscriber subscriber = new TestSubscriber(5);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+        Assert.assertTrue(publisher.cancelled.get());
+        Assert.assertEquals(5, subscriber.items.size());
+        Assert.assertFalse(subscriber.completed);
+        Assert.assertNull(subscriber.error);
+    }
+
+    @Test
+    public void rejectsNonPositiveRequest() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 1, 4);
+        final TestPublisher publisher = new TestPublisher(texts, null);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        Assert.assertTrue(subscriber.error instanceof IllegalArgumentException);
+        Assert.assertTrue(publisher.cancelled.get());
+    }
+
+    @Test
+    public void passesOnUpstreamError() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 1, 4);
+        final IllegalStateException failure = new IllegalStateException("failure");
+        final TestPublisher publisher = new TestPublisher(texts.subList(0, 10), failure);
+        final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+        Assert.assertSame(failure, subscriber.error);
+        Assert.assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void completesEmptyStream() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 1, 4);
+        final TestSubscriber subscriber = new TestSubscriber(1);
+        new TestPublisher(Collections.emptyList(), null).subscribe(processor);
+        processor.subscribe(subscriber);
+        Assert.assertTrue(subscriber.completed);
+        Assert.assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void rejectsSecondSubscriber() {
+        final SentimentProcessor processor = new SentimentProcessor(DIRECT, 1, 4);
+        processor.subscribe(new TestSubscriber(0));
+        final TestSubscriber second = new TestSubscriber(0);
+        processor.subscribe(second);
+        Assert.assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    private static void assertMatchesSentimentAnalyzer(List<String> expected, TestSubscriber subscriber) {
+        Assert.assertNull(subscriber.violation, subscriber.violation);
+        Assert.assertEquals(expected.size(), subscriber.items.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), SentimentAnalyzer.getScoresFor(expected.get(i)).toString(),
+                subscriber.items.get(i).toString());
+        }
+    }
+
+    /**
+     * Publisher of a list of strings, which are sent on the thread requesting them, and which fails with the
+     * given error at the end of the list if there is one.
+     */
+    private static final class TestPublisher implements Flow.Publisher<String>, Flow.Subscription {
+        private final List<String> items;
+        private final Throwable failure;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean emitting = new AtomicBoolean();
+        private Flow.Subscriber<? super String> subscriber;
+        private int sent;
+
+        private TestPublisher(List<String> items, Throwable failure) {
+            this.items = items;
+            this.failure = failure;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super String> newSubscriber) {
+            subscriber = newSubscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long count) {
+            Assert.assertTrue(count > 0);
+            requested.addAndGet(count);
+            // a request made while sending only raises the demand of the loop below
+            while (!cancelled.get() && emitting.compareAndSet(false, true)) {
+                while (!cancelled.get() && sent < items.size() && sent < requested.get()) {
+                    subscriber.onNext(items.get(sent++));
+                }
+                if (!cancelled.get() && sent == items.size()) {
+                    cancelled.set(true);
+                    if (failure == null) {
+                        subscriber.onComplete();
+                    } else {
+                        subscriber.onError(failure);
+                    }
+                }
+                emitting.set(false);
+                if (cancelled.get() || sent == items.size() || sent >= requested.get()) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * Subscriber that records the scores, and the first rule it sees broken: more scores than requested, a
+     * signal after the end of the stream or two signals at the same time.
+     */
+    private static final class TestSubscriber implements Flow.Subscriber<SentimentPolarities> {
+        private final long initialRequest;
+        private final List<SentimentPolarities> items = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private final AtomicBoolean signalling = new AtomicBoolean();
+        private final AtomicLong demand = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean requestOnNext;
+        private volatile boolean completed;
+        private volatile Throwable error;
+        private volatile String violation;
+
+        private TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription newSubscription) {
+            subscription = new Flow.Subscription() {
+                @Override
+                public void request(long count) {
+                    demand.addAndGet(count);
+                    newSubscription.request(count);
+                }
+
+                @Override
+                public void cancel() {
+                    newSubscription.cancel();
+                }
+            };
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(SentimentPolarities item) {
+            enter("onNext");
+            if (demand.getAndDecrement() <= 0) {
+                violate("more scores than requested");
+            }
+            items.add(item);
+            leave();
+            if (requestOnNext && demand.get() == 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            enter("onError");
+            error = throwable;
+            leave();
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            enter("onComplete");
+            completed = true;
+            leave();
+            terminated.countDown();
+        }
+
+        private void enter(String signal) {
+            if (!signalling.compareAndSet(false, true)) {
+                violate("concurrent " + signal);
+            }
+            if (terminated.getCount() == 0) {
+                violate(signal + " after the end of the stream");
+            }
+        }
+
+        private void leave() {
+            signalling.set(false);
+        }
+
+        private void violate(String rule) {
+            if (violation == null) {
+                violation = rule;
+            }
+        }
+
+        private void await() throws InterruptedException {
+            Assert.assertTrue(terminated.await(1, TimeUnit.MINUTES));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that a {@link SentimentScorer} which is reused for many strings gives the same scores as
+ * {@link SentimentAnalyzer}, and that nothing is carried over from one string to the next.
+ *
+ * @author Animesh Pandey
+ */
+public class SentimentScorerTest {
+    @Test
+    public void matchesSentimentAnalyzerOnGroundTruth() {
+        for (TokenizerMode tokenizerMode : TokenizerMode.values()) {
+            final SentimentScorer scorer = new SentimentScorer(tokenizerMode);
+            final MutableSentimentPolarities result = new MutableSentimentPolarities();
+            final float[] polarities = new float[SentimentScorer.POLARITY_COUNT];
+            for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+                for (String inputString : corpus.readTexts()) {
+                    final SentimentPolarities expected = SentimentAnalyzer.getScoresFor(inputString, tokenizerMode);
+                    scorer.score(inputString, result);
+                    assertEquals(inputString, expected, result);
+                    scorer.score(inputString, polarities);
+                    assertEquals(inputString, expected, polarities);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void resetsBetweenStrings() {
+        final SentimentScorer scorer = new SentimentScorer();
+        final MutableSentimentPolarities result = new MutableSentimentPolarities();
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longText.append("The food was GREAT but the service was NOT good!!! ");
+        }
+        final String[] texts = {longText.toString(), "It was ok.", "", "a", "I hate it?!?", "VADER is VERY SMART",
+            "smile \uD83D\uDE00 x"};
+        for (String text : texts) {
+            scorer.score(text, result);
+            assertEquals(text, new SentimentScorer().getScoresFor(text, TokenizerMode.getDefault(),
+                SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON), result);
+        }
+        scorer.score("", result);
+        assertEquals("", SentimentPolarities.emptySentimentState(), result);
+    }
+
+    @Test
+    public void doesNotRetainLargeInputs() {
+        final SentimentScorer scorer = new SentimentScorer();
+        final MutableSentimentPolarities result = new MutableSentimentPolarities();
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 4 * SentimentScorer.MAX_RETAINED_VALENCE_CAPACITY; i++) {
+            longText.append("The food was GREAT but the service was NOT good!!! ");
+        }
+        final String text = longText.toString();
+        scorer.score(text, result);
+        assertEquals(text, new SentimentScorer().getScoresFor(text, TokenizerMode.getDefault(),
+            SentimentAnalyzer.MATCH_MULTI_WORD_LEXICON), result);
+
+        Assert.assertEquals("", scorer.getTextProperties().getTokens().getText());
+        Assert.assertEquals(0, scorer.getTextProperties().getTokens().size());
+        Assert.assertTrue(scorer.getValenceCapacity() <= SentimentScorer.MAX_RETAINED_VALENCE_CAPACITY);
+
+        scorer.score("It was ok.", result);
+        assertEquals("It was ok.", SentimentAnalyzer.getScoresFor("It was ok."), result);
+    }
+
+    @Test
+    public void scoresBatchesInInputOrder() {
+        final List<String> texts = new ArrayList<>(GroundTruthCorpus.TWEETS.readTexts());
+        texts.add("");
+
+        final List<SentimentPolarities> list = SentimentAnalyzer.getScoresForAll(texts);
+        final List<SentimentPolarities> array = SentimentAnalyzer.getScoresForAll(texts.toArray(new String[0]));
+        final SentimentColumns columns = SentimentAnalyzer.getColumnarScoresFor(texts::iterator);
+        Assert.assertEquals(texts.size(), list.size());
+        Assert.assertEquals(texts.size(), array.size());
+        Assert.assertEquals(texts.size(), columns.size());
+        for (int i = 0; i < texts.size(); i++) {
+            final String expected = SentimentAnalyzer.getScoresFor(texts.get(i)).toString();
+            Assert.assertEquals(texts.get(i), expected, list.get(i).toString());
+            Assert.assertEquals(texts.get(i), expected, array.get(i).toString());
+            Assert.assertEquals(texts.get(i), expected, columns.get(i).toString());
+            Assert.assertEquals(texts.get(i), list.get(i).getCompoundPolarity(),
+                columns.getCompoundPolarities()[i], 0.0F);
+        }
+
+        final SentimentScorer scorer = new SentimentScorer();
+        scorer.scoreAll(texts.subList(0, 2), columns);
+        Assert.assertEquals(2, columns.size());
+        Assert.assertEquals(list.get(1).toString(), columns.get(1).toString());
+        Assert.assertTrue(SentimentAnalyzer.getScoresForAll().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSmallArrayOfScores() {
+        new SentimentScorer().score("good", new float[SentimentScorer.POLARITY_COUNT - 1]);
+    }
+
+    private static void assertEquals(String message, SentimentPolarities expected,
+                                     MutableSentimentPolarities actual) {
+        Assert.assertEquals(message, expected.toString(), actual.toSentimentPolarities().toString());
+    }
+
+    private static void assertEquals(String message, SentimentPolarities expected, float[] actual) {
+        Assert.assertEquals(message, expected.getPositivePolarity(), actual[SentimentScorer.POSITIVE], 0.0F);
+        Assert.assertEquals(message, expected.getNegativePolarity(), actual[SentimentScorer.NEGATIVE], 0.0F);
+        Assert.assertEquals(message, expected.getNeutralPolarity(), actual[SentimentScorer.NEUTRAL], 0.0F);
+        Assert.assertEquals(message, expected.getCompoundPolarity(), actual[SentimentScorer.COMPOUND], 0.0F);
+    }
+}
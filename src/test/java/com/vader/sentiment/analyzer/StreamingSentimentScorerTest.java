@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.analyzer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import com.vader.sentiment.processor.TokenizerMode;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link StreamingSentimentScorer} gives the scores of the whole text, whatever the size
+ * of its windows.
+ *
+ * @author Animesh Pandey
+ */
+public class StreamingSentimentScorerTest {
+    private static List<String> tweets;
+    private static String editorials;
+
+    @BeforeClass
+    public static void setUpTexts() {
+        tweets = GroundTruthCorpus.TWEETS.readTexts();
+        editorials = String.join(" ", GroundTruthCorpus.NYT_EDITORIALS.readTexts());
+    }
+
+    private static void assertScoresLikeWholeText(String text, int windowSize) throws IOException {
+        final StreamingSentimentScorer scorer = new StreamingSentimentScorer(TokenizerMode.getDefault(), windowSize);
+        Assert.assertEquals(text, SentimentAnalyzer.getScoresFor(text).toString(),
+            scorer.score(new StringReader(text)).toString());
+    }
+
+    @Test
+    public void scoresTweetsLikeWholeText() throws IOException {
+        for (String tweet : tweets) {
+            assertScoresLikeWholeText(tweet, 1);
+            assertScoresLikeWholeText(tweet, 7);
+            assertScoresLikeWholeText(tweet, StreamingSentimentScorer.DEFAULT_WINDOW_SIZE);
+        }
+    }
+
+    @Test
+    public void carriesRulesAcrossWindows() throws IOException {
+        final String[] texts = {
+            "THE FOOD IS GREAT BUT THE SERVICE IS NOT VERY GOOD",
+            "THE FOOD IS GREAT BUT the service is kind of bad, but the drinks are the bomb",
+            "the food is great BUT the service is at least not that bad!!! :(",
+            "It was never so good, and then it was the shit?? I could not stand it",
+            "",
+            "   ",
+        };
+        for (String text : texts) {
+            for (int windowSize = 1; windowSize < 12; windowSize++) {
+                assertScoresLikeWholeText(text, windowSize);
+            }
+        }
+        Assert.assertEquals(SentimentPolarities.emptySentimentState().toString(),
+            new StreamingSentimentScorer().score(new StringReader("")).toString());
+    }
+
+    @Test
+    public void scoresLongTextLikeWholeText() throws IOException {
+        final String expected = SentimentAnalyzer.getScoresFor(editorials).toString();
+        final StreamingSentimentScorer scorer = new StreamingSentimentScorer(TokenizerMode.getDefault(), 1024);
+        final List<SentimentPolarities> running = new ArrayList<>();
+        Assert.assertEquals(expected, scorer.score(new StringReader(editorials), running::add).toString());
+        Assert.assertTrue(running.size() > editorials.length() / 2048);
+
+        final byte[] bytes = editorials.getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(expected,
+            scorer.score(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8).toString());
+        Assert.assertEquals(expected, scorer.score(Channels.newChannel(new ByteArrayInputStream(bytes)),
+            StandardCharsets.UTF_8).toString());
+    }
+}
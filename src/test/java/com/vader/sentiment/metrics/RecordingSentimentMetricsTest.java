@@ -0,0 +1,197 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.metrics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.analyzer.SentimentCache;
+import com.vader.sentiment.analyzer.SentimentPolarities;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link RecordingSentimentMetrics} counts what the analyzer does, and that recording the
+ * metrics does not change the scores.
+ *
+ * @author Animesh Pandey
+ */
+public class RecordingSentimentMetricsTest {
+    @After
+    public void uninstallMetrics() {
+        SentimentMetricsRegistry.uninstall();
+    }
+
+    @Test
+    public void noOpIsInstalledByDefault() {
+        Assert.assertSame(NoOpSentimentMetrics.INSTANCE, SentimentMetricsRegistry.current());
+        Assert.assertFalse(SentimentMetricsRegistry.current().isEnabled());
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics();
+        Assert.assertSame(NoOpSentimentMetrics.INSTANCE, SentimentMetricsRegistry.install(metrics));
+        Assert.assertSame(metrics, SentimentMetricsRegistry.uninstall());
+        Assert.assertSame(NoOpSentimentMetrics.INSTANCE, SentimentMetricsRegistry.current());
+    }
+
+    @Test
+    public void recordsEveryStageWithoutChangingScores() throws IOException {
+        final List<String> texts = new ArrayList<>(GroundTruthCorpus.TWEETS.readTexts());
+        texts.addAll(GroundTruthCorpus.NYT_EDITORIALS.readTexts());
+        texts.add("");
+        final List<SentimentPolarities> expected = new ArrayList<>();
+        long expectedTokens = 0L;
+        long textsWithTokens = 0L;
+        for (String text : texts) {
+            expected.add(SentimentAnalyzer.getScoresFor(text));
+            final int tokens = new TextProperties(text).getTokens().size();
+            expectedTokens += tokens;
+            textsWithTokens += tokens > 0 ? 1 : 0;
+        }
+
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics(1);
+        SentimentMetricsRegistry.install(metrics);
+        for (int index = 0; index < texts.size(); index++) {
+            Assert.assertEquals(texts.get(index), expected.get(index).toString(),
+                SentimentAnalyzer.getScoresFor(texts.get(index)).toString());
+        }
+
+        final SentimentMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(texts.size(), snapshot.getDocumentCount());
+        Assert.assertEquals(expectedTokens, snapshot.getTokenCount());
+        Assert.assertTrue(snapshot.getLexiconHitRatio() > 0.0 && snapshot.getLexiconHitRatio() < 1.0);
+        Assert.assertTrue(snapshot.getDocumentsPerSecond() > 0.0);
+        Assert.assertEquals(texts.size(), snapshot.getStageLatency(PipelineStage.TOKENIZATION).getCount());
+        for (PipelineStage stage : new PipelineStage[]{PipelineStage.TOKEN_VALENCE, PipelineStage.CONJUNCTION,
+            PipelineStage.NORMALIZATION}) {
+            final LatencySnapshot latency = snapshot.getStageLatency(stage);
+            Assert.assertEquals(stage.name(), textsWithTokens, latency.getCount());
+            Assert.assertTrue(stage.name(), latency.getP50() <= latency.getP99());
+            Assert.assertTrue(stage.name(), latency.getP99() <= latency.getMax());
+        }
+    }
+
+    @Test
+    public void samplesStageLatencies() {
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics(4);
+        SentimentMetricsRegistry.install(metrics);
+        for (int index = 0; index < 100; index++) {
+            SentimentAnalyzer.getScoresFor("VADER is smart, handsome, and funny.");
+        }
+        final SentimentMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(100L, snapshot.getDocumentCount());
+        final long timed = snapshot.getStageLatency(PipelineStage.TOKENIZATION).getCount();
+        Assert.assertTrue("Timed " + timed + " strings", timed >= 24L && timed <= 26L);
+    }
+
+    @Test
+    public void countsLexiconHits() {
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics();
+        SentimentMetricsRegistry.install(metrics);
+        SentimentAnalyzer.getScoresFor("The good and the bad");
+        final SentimentMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(5L, snapshot.getTokenCount());
+        Assert.assertEquals(2L, snapshot.getLexiconHitCount());
+        Assert.assertEquals(0.4, snapshot.getLexiconHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void countsCacheLookups() {
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics();
+        SentimentMetricsRegistry.install(metrics);
+        final SentimentCache cache = new SentimentCache(10);
+        cache.getScoresFor("The book was good.");
+        cache.getScoresFor("The book was good.");
+        cache.getScoresFor("The book was bad.");
+
+        final SentimentMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(cache.stats().hitCount(), snapshot.getCacheHitCount("SentimentCache"));
+        Assert.assertEquals(cache.stats().missCount(), snapshot.getCacheMissCount("SentimentCache"));
+        Assert.assertEquals(1.0 / 3.0, snapshot.getCacheHitRatio("SentimentCache"), 1e-9);
+        Assert.assertEquals(2L, snapshot.getDocumentCount());
+
+        final Map<String, Number> values = snapshot.toMap();
+        Assert.assertEquals(2L, values.get("vader.documents.count"));
+        Assert.assertEquals(1L, values.get("vader.cache.SentimentCache.hits.count"));
+        Assert.assertTrue(values.containsKey("vader.stage.token_valence.p99.nanos"));
+    }
+
+    @Test
+    public void exposesMetricsThroughJmx() throws JMException {
+        final RecordingSentimentMetrics metrics = new RecordingSentimentMetrics();
+        SentimentMetricsRegistry.install(metrics);
+        SentimentAnalyzer.getScoresFor("The book was good.");
+
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name = new JmxSentimentMetrics(metrics).register(server,
+            new ObjectName(JmxSentimentMetrics.DEFAULT_OBJECT_NAME));
+        Assert.assertEquals(1L, server.getAttribute(name, "DocumentCount"));
+        Assert.assertEquals(4L, server.getAttribute(name, "TokenCount"));
+        Assert.assertNotNull(server.getAttribute(name, "Metrics"));
+    }
+
+    @Test
+    public void histogramPercentilesAreAccurate() {
+        final ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.recordValue(value * 1000);
+        }
+        final LatencySnapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(100_000L, snapshot.getCount());
+        Assert.assertEquals(50_000_500.0, snapshot.getMean(), 1e-3);
+        Assert.assertEquals(50_000_000.0, snapshot.getP50(), 50_000_000.0 * 0.02);
+        Assert.assertEquals(99_000_000.0, snapshot.getP99(), 99_000_000.0 * 0.02);
+        Assert.assertEquals(100_000_000L, snapshot.getMax());
+    }
+
+    @Test
+    public void singleThreadedHistogramSharesBucketMath() {
+        final LatencyHistogram first = new LatencyHistogram();
+        final LatencyHistogram second = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            (value % 2 == 0 ? first : second).recordValue(value * 1000);
+        }
+        first.add(second);
+        Assert.assertEquals(100_000L, first.getTotalCount());
+        Assert.assertEquals(50_000_500.0, first.getMean(), 1e-3);
+        Assert.assertEquals(50_000_000.0, first.getValueAtPercentile(50.0), 50_000_000.0 * 0.01);
+        Assert.assertEquals(99_000_000.0, first.getValueAtPercentile(99.0), 99_000_000.0 * 0.01);
+        Assert.assertEquals(100_000_000L, first.getValueAtPercentile(100.0));
+
+        second.reset();
+        second.recordValueWithExpectedInterval(10_000L, 1_000L);
+        Assert.assertEquals(10L, second.getTotalCount());
+        Assert.assertEquals(1_000.0, second.getValueAtPercentile(0.0), 1_000.0 * 0.01);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.analyzer.SentimentPolarities;
+import com.vader.sentiment.util.GroundTruthCorpus;
+
+/**
+ * This tests confirms that {@link NativeInputAnalyzer} splits up the input string exactly like the Lucene
+ * tokenizers in {@link InputAnalyzer}, so that the sentiment scores do not depend on the {@link TokenizerMode}.
+ *
+ * @author Animesh Pandey
+ */
+public class NativeInputAnalyzerTest {
+    @Test
+    public void fallsBackToLuceneForUnknownTokenizer() {
+        Assert.assertSame(TokenizerMode.NATIVE, TokenizerMode.parse(" Native "));
+        Assert.assertSame(TokenizerMode.LUCENE, TokenizerMode.parse("lucene"));
+        Assert.assertSame(TokenizerMode.LUCENE, TokenizerMode.parse("natve"));
+        Assert.assertSame(TokenizerMode.LUCENE, TokenizerMode.parse(null));
+    }
+
+    @Test
+    public void matchesLuceneTokensOnGroundTruth() throws IOException {
+        for (String inputString : readGroundTruthTexts()) {
+            assertMatchesLuceneTokens(inputString);
+        }
+    }
+
+    @Test
+    public void matchesLuceneScoresOnGroundTruth() throws IOException {
+        for (String inputString : readGroundTruthTexts()) {
+            SentimentPolarities expected = SentimentAnalyzer.getScoresFor(inputString, TokenizerMode.LUCENE);
+            SentimentPolarities actual = SentimentAnalyzer.getScoresFor(inputString, TokenizerMode.NATIVE);
+            Assert.assertEquals(inputString, expected.toString(), actual.toString());
+        }
+    }
+
+    @Test
+    public void matchesLuceneTokensOnEdgeCases() throws IOException {
+        StringBuilder longToken = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            longToken.append((char) ('a' + i % 26));
+        }
+        assertMatchesLuceneTokens("");
+        assertMatchesLuceneTokens("a");
+        assertMatchesLuceneTokens("  \t\n ");
+        assertMatchesLuceneTokens(longToken + " good " + longToken + "!!");
+        assertMatchesLuceneTokens("it's 3.14, 1,000,000 or 1.2.3 but not a.b. c:d e::f g'h' 'i' j_k __l__ 12ab _");
+        assertMatchesLuceneTokens("mail me@example.com at http://www.example.com/x?y=1&z=2 #hashtag @user");
+        assertMatchesLuceneTokens("don't :) :-( <3 ... !!! ??? --- ___ a.. 1,, e'' x;y 1;2");
+        // accents and format characters
+        assertMatchesLuceneTokens("na\u00EFve caf\u00E9 cafe\u0301 a\u200Db a\u200Bb a\u00ADb");
+        assertMatchesLuceneTokens("\u05E9\"\u05DC \u05E9'\u05DC \u05E9' \u05D0\u05D1\""); // Hebrew letters with quotes
+        assertMatchesLuceneTokens("\u0E2A\u0E27\u0E31\u0E2A\u0E14\u0E35 \u0E04\u0E23\u0E31\u0E1A"); // Thai
+        // Japanese
+        assertMatchesLuceneTokens("\u65E5\u672C\u8A9E\u3068\u30AB\u30BF\u30AB\u30CA\u30FC_\u30A2 \u3072\u3089");
+        assertMatchesLuceneTokens("smile \uD83D\uDE00\uD83D\uDE00 \uD83D\uDE00 x\uD83D\uDE00y \uD835\uDC00\uD835\uDC01");
+    }
+
+    private static List<String> readGroundTruthTexts() {
+        final List<String> texts = new ArrayList<>();
+        for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+            texts.addAll(corpus.readTexts());
+        }
+        return texts;
+    }
+
+    private static void assertMatchesLuceneTokens(String inputString) throws IOException {
+        final InputAnalyzer lucene = new InputAnalyzer();
+        final NativeInputAnalyzer nativeAnalyzer = NativeInputAnalyzer.INSTANCE;
+
+        final List<String> expected = new ArrayList<>();
+        final List<String> actual = new ArrayList<>();
+        lucene.keepPunctuation(inputString, expected::add);
+        nativeAnalyzer.keepPunctuation(inputString, actual::add);
+        Assert.assertEquals(inputString, expected, actual);
+
+        expected.clear();
+        actual.clear();
+        lucene.removePunctuation(inputString, expected::add);
+        nativeAnalyzer.removePunctuation(inputString, actual::add);
+        Assert.assertEquals(inputString, expected, actual);
+
+        final TextProperties luceneProperties = new TextProperties(inputString, TokenizerMode.LUCENE);
+        final TextProperties nativeProperties = new TextProperties(inputString, TokenizerMode.NATIVE);
+        Assert.assertEquals(inputString, luceneProperties.getWordsAndEmoticons(),
+            nativeProperties.getWordsAndEmoticons());
+        Assert.assertEquals(inputString, luceneProperties.getWordsOnly(), nativeProperties.getWordsOnly());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.vader.sentiment.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link SentenceSegmenter} splits a document into trimmed sentences and numbers the
+ * paragraphs separated by blank lines.
+ *
+ * @author Animesh Pandey
+ */
+public class SentenceSegmenterTest {
+    @Test
+    public void splitsSentencesAndParagraphs() {
+        final String document = "  The plot was good. But the acting was awful!\nWhy?\n \n\nIt was long.\r\n\r\n";
+        Assert.assertEquals(Arrays.asList("0:The plot was good.", "0:But the acting was awful!", "0:Why?",
+            "1:It was long."), segment(document));
+    }
+
+    @Test
+    public void keepsSingleLineBreakInSentence() {
+        Assert.assertEquals(Collections.singletonList("0:a sentence\nover two lines"),
+            segment("a sentence\nover two lines"));
+    }
+
+    @Test
+    public void skipsBlankDocument() {
+        Assert.assertEquals(Collections.emptyList(), segment(""));
+        Assert.assertEquals(Collections.emptyList(), segment(" \n\n \t\n"));
+    }
+
+    private static List<String> segment(String document) {
+        final List<String> sentences = new ArrayList<>();
+        SentenceSegmenter.segment(document, (start, end, paragraph) ->
+            sentences.add(paragraph + ":" + document.substring(start, end)));
+        return sentences;
+    }
+}
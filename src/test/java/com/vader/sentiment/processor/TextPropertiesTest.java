@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import com.vader.sentiment.util.GroundTruthCorpus;
+import com.vader.sentiment.util.Utils;
+
+/**
+ * This tests confirms that the single pass over the input string in {@link TextProperties} gives the same
+ * tokens, yelling flag and punctuation counts as the Lucene based pre-processing that it replaces.
+ *
+ * @author Animesh Pandey
+ */
+public class TextPropertiesTest {
+    @Test
+    public void matchesLucenePipelineOnGroundTruth() throws IOException {
+        for (GroundTruthCorpus corpus : GroundTruthCorpus.values()) {
+            for (String text : corpus.readTexts()) {
+                assertMatchesLucenePipeline(text);
+            }
+        }
+    }
+
+    @Test
+    public void matchesLucenePipelineOnEdgeCases() throws IOException {
+        StringBuilder longToken = new StringBuilder();
+        for (int i = 0; i < 600; i++) {
+            longToken.append((char) ('a' + i % 26));
+        }
+        assertMatchesLucenePipeline("");
+        assertMatchesLucenePipeline("a");
+        assertMatchesLucenePipeline("  \t\n ");
+        assertMatchesLucenePipeline("VADER is VERY SMART, handsome, and FUNNY!!!");
+        assertMatchesLucenePipeline("Today kinda sux! But I'll get by, lol ??? !?!?there");
+        assertMatchesLucenePipeline(longToken + " good " + longToken + "!!");
+        assertMatchesLucenePipeline("smile \uD83D\uDE00\uD83D\uDE00 \uD83D\uDE00 x y z");
+    }
+
+    @Test
+    public void resetGivesSamePropertiesAsNewInstance() throws IOException {
+        final TextProperties reused = new TextProperties();
+        final String[] texts = {"VADER is VERY SMART, handsome, and FUNNY!!!", "", "good", "!?!?there ... not!",
+            "Today kinda sux! But I'll get by, lol ???", "smile \uD83D\uDE00 \u00C9T\u00C9 x"};
+        for (TokenizerMode tokenizerMode : TokenizerMode.values()) {
+            for (String text : texts) {
+                reused.reset(text, tokenizerMode, Utils.VOCABULARY);
+                final TextProperties expected = new TextProperties(text, tokenizerMode, Utils.VOCABULARY);
+                Assert.assertEquals(text, expected.getWordsAndEmoticons(), reused.getWordsAndEmoticons());
+                Assert.assertEquals(text, expected.getWordsOnly(), reused.getWordsOnly());
+                Assert.assertEquals(text, expected.isYelling(), reused.isYelling());
+                Assert.assertEquals(text, expected.getExclamationCount(), reused.getExclamationCount());
+                Assert.assertEquals(text, expected.getQuestionMarkCount(), reused.getQuestionMarkCount());
+                for (int i = 0; i < expected.getTokens().size(); i++) {
+                    Assert.assertEquals(text, expected.getTokens().getFlags(i), reused.getTokens().getFlags(i));
+                    Assert.assertSame(text, expected.getTokens().getEntry(i), reused.getTokens().getEntry(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void releaseDropsStringAndShrinksLargeArrays() throws IOException {
+        final StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 4 * TokenSequence.MAX_RETAINED_CAPACITY; i++) {
+            longText.append("good").append(i).append("!! ");
+        }
+        final TextProperties reused = new TextProperties();
+        reused.reset(longText.toString(), TokenizerMode.getDefault(), Utils.VOCABULARY);
+        Assert.assertEquals(4 * TokenSequence.MAX_RETAINED_CAPACITY, reused.getTokens().size());
+        Assert.assertTrue(reused.getTokens().capacity() > TokenSequence.MAX_RETAINED_CAPACITY);
+
+        reused.release();
+        Assert.assertEquals("", reused.getTokens().getText());
+        Assert.assertEquals(0, reused.getTokens().size());
+        Assert.assertTrue(reused.getWordsOnly().isEmpty());
+        Assert.assertTrue(reused.getTokens().capacity() <= TokenSequence.MAX_RETAINED_CAPACITY);
+        Assert.assertTrue(reused.getTokens().characterCapacity() <= TokenSequence.MAX_RETAINED_CHARACTERS);
+
+        final String shortText = "VADER is VERY SMART, handsome, and FUNNY!!!";
+        reused.reset(shortText, TokenizerMode.getDefault(), Utils.VOCABULARY);
+        Assert.assertEquals(new TextProperties(shortText).getWordsAndEmoticons(), reused.getWordsAndEmoticons());
+    }
+
+    private static void assertMatchesLucenePipeline(String inputString) throws IOException {
+        final TextProperties textProperties = new TextProperties(inputString);
+
+        final InputAnalyzer analyzer = new InputAnalyzer();
+        final Set<String> wordsOnly = new HashSet<>();
+        analyzer.removePunctuation(inputString, wordsOnly::add);
+        final List<String> wordsAndEmoticons = new ArrayList<>();
+        analyzer.keepPunctuation(inputString, wordsAndEmoticons::add);
+        wordsAndEmoticons.replaceAll(t -> stripPunctuations(t, wordsOnly));
+
+        Assert.assertEquals(inputString, wordsAndEmoticons, textProperties.getWordsAndEmoticons());
+        Assert.assertEquals(inputString, wordsOnly, textProperties.getWordsOnly());
+        Assert.assertEquals(inputString, hasCapDifferential(wordsAndEmoticons), textProperties.isYelling());
+        Assert.assertEquals(inputString, StringUtils.countMatches(inputString, "!"),
+            textProperties.getExclamationCount());
+        Assert.assertEquals(inputString, StringUtils.countMatches(inputString, "?"),
+            textProperties.getQuestionMarkCount());
+    }
+
+    private static String stripPunctuations(String token, Set<String> tokensWithoutPunctuations) {
+        for (final String punct : Utils.PUNCTUATIONS) {
+            if (token.startsWith(punct)) {
+                final String strippedToken = token.substring(punct.length());
+                if (tokensWithoutPunctuations.contains(strippedToken)) {
+                    return strippedToken;
+                }
+            } else if (token.endsWith(punct)) {
+                final String strippedToken = token.substring(0, token.length() - punct.length());
+                if (tokensWithoutPunctuations.contains(strippedToken)) {
+                    return strippedToken;
+                }
+            }
+        }
+        return token;
+    }
+
+    private static boolean hasCapDifferential(List<String> tokenList) {
+        int countAllCaps = 0;
+        for (String token : tokenList) {
+            if (Utils.isUpper(token)) {
+                countAllCaps++;
+            }
+        }
+        final int capDifferential = tokenList.size() - countAllCaps;
+        return (capDifferential > 0) && (capDifferential < tokenList.size());
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.processor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.util.Constants;
+import com.vader.sentiment.util.Utils;
+import com.vader.sentiment.util.Vocabulary;
+
+/**
+ * This tests the offsets, lower case forms and flags kept by {@link TokenSequence}. The flag for tokens in upper
+ * case is compared with the regex based definition that it replaces.
+ *
+ * @author Animesh Pandey
+ */
+public class TokenSequenceTest {
+    @Test
+    public void keepsOffsetsIntoTheInputText() throws IOException {
+        final String inputString = "  It was GOOD!!! ,really  ";
+        final TokenSequence tokens = new TextProperties(inputString).getTokens();
+
+        Assert.assertSame(inputString, tokens.getText());
+        Assert.assertEquals(Arrays.asList("It", "was", "GOOD", "really"), tokens.asList());
+        Assert.assertEquals(2, tokens.getStart(0));
+        Assert.assertEquals(4, tokens.getEnd(0));
+        Assert.assertEquals(9, tokens.getStart(2));
+        Assert.assertEquals(13, tokens.getEnd(2));
+        Assert.assertEquals(18, tokens.getStart(3));
+        Assert.assertEquals(24, tokens.getEnd(3));
+    }
+
+    @Test
+    public void keepsLowerCaseForms() {
+        final String inputString = "good Good GOOD \u0130stanbul \u03A3\u039F\u03A3";
+        final TokenSequence tokens = newTokenSequence(inputString);
+
+        for (int index = 0; index < tokens.size(); index++) {
+            final String token = tokens.get(index);
+            Assert.assertEquals(token, token.toLowerCase(Locale.ROOT), tokens.getLowerCase(index));
+            Assert.assertTrue(token, tokens.lowerCaseEquals(index, token.toLowerCase(Locale.ROOT)));
+        }
+        Assert.assertSame(tokens.get(0), tokens.getLowerCase(0));
+        Assert.assertSame(tokens.getLowerCase(1), tokens.getLowerCase(1));
+        Assert.assertFalse(tokens.lowerCaseEquals(1, "Good"));
+        Assert.assertEquals(3, tokens.getLexiconHitCount());
+    }
+
+    @Test
+    public void lowerCasesIndependentlyOfDefaultLocale() {
+        final String inputString = "I LIKE IT \u0130stanbul TITLE kind";
+        final TokenSequence expected = newTokenSequence(inputString);
+        final String expectedScores = SentimentAnalyzer.getScoresFor(inputString).toString();
+        final Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr", "TR"));
+            final TokenSequence tokens = newTokenSequence(inputString);
+            for (int index = 0; index < tokens.size(); index++) {
+                Assert.assertEquals(expected.getLowerCase(index), tokens.getLowerCase(index));
+                Assert.assertSame(expected.getEntry(index), tokens.getEntry(index));
+            }
+            Assert.assertEquals("like", tokens.getLowerCase(1));
+            Assert.assertEquals("i\u0307stanbul", tokens.getLowerCase(3));
+            Assert.assertEquals(expectedScores, SentimentAnalyzer.getScoresFor(inputString).toString());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void comparesTokensWithoutCreatingStrings() {
+        final TokenSequence tokens = newTokenSequence("I can't say but BUT it isn't");
+
+        Assert.assertTrue(tokens.contentEquals(0, "I"));
+        Assert.assertFalse(tokens.contentEquals(1, "can"));
+        Assert.assertTrue(tokens.endsWith(1, "n't"));
+        Assert.assertFalse(tokens.endsWith(0, "n't"));
+        Assert.assertEquals(3, tokens.indexOf("but"));
+        Assert.assertEquals(4, tokens.indexOf("BUT"));
+        Assert.assertEquals(-1, tokens.indexOf("But"));
+    }
+
+    @Test
+    public void flagsTokensInUpperCase() {
+        final TokenSequence tokens = newTokenSequence("GOOD Good 123 HTTP://X.COM A1 A\u0085B \u00C9T\u00C9 \u00C9");
+
+        Assert.assertTrue(tokens.hasFlag(0, TokenSequence.ALL_CAPS));
+        Assert.assertFalse(tokens.hasFlag(1, TokenSequence.ALL_CAPS));
+        Assert.assertFalse(tokens.hasFlag(2, TokenSequence.ALL_CAPS));
+        Assert.assertFalse(tokens.hasFlag(3, TokenSequence.ALL_CAPS));
+        Assert.assertTrue(tokens.hasFlag(4, TokenSequence.ALL_CAPS));
+        Assert.assertFalse(tokens.hasFlag(5, TokenSequence.ALL_CAPS));
+        Assert.assertTrue(tokens.hasFlag(6, TokenSequence.ALL_CAPS));
+        Assert.assertFalse(tokens.hasFlag(7, TokenSequence.ALL_CAPS));
+        for (int index = 0; index < tokens.size(); index++) {
+            final String token = tokens.get(index);
+            Assert.assertEquals(token, isUpperByRegex(token), tokens.hasFlag(index, TokenSequence.ALL_CAPS));
+            Assert.assertEquals(token, isUpperByRegex(token), Utils.isUpper(token));
+        }
+    }
+
+    @Test
+    public void flagsTokensOnceWhenAdded() {
+        final TokenSequence tokens = newTokenSequence("never nevER can't KINDA https://t.co 2:30 isn't");
+
+        final int lowerCaseLetters = TokenSequence.HAS_LETTER | TokenSequence.LOWER_CASE;
+        Assert.assertEquals(lowerCaseLetters | TokenSequence.NEGATION, tokens.getFlags(0));
+        Assert.assertEquals(TokenSequence.HAS_LETTER, tokens.getFlags(1));
+        Assert.assertEquals(lowerCaseLetters | TokenSequence.NEGATION | TokenSequence.CONTRACTION
+            | TokenSequence.PHRASE_START, tokens.getFlags(2));
+        Assert.assertEquals(TokenSequence.HAS_LETTER | TokenSequence.ALL_CAPS | TokenSequence.BOOSTER,
+            tokens.getFlags(3));
+        Assert.assertEquals(lowerCaseLetters | TokenSequence.URL, tokens.getFlags(4));
+        Assert.assertEquals(TokenSequence.LOWER_CASE, tokens.getFlags(5));
+        Assert.assertEquals(lowerCaseLetters | TokenSequence.NEGATION | TokenSequence.CONTRACTION,
+            tokens.getFlags(6));
+    }
+
+    @Test
+    public void findsPhrasesWithoutBuildingStrings() {
+        final TokenSequence tokens = newTokenSequence("Cut the mustard CAN'T stand it");
+
+        Assert.assertTrue(tokens.findPhrase(0, 2).isIdiom());
+        Assert.assertSame(Vocabulary.UNKNOWN, tokens.findPhrase(0, 1));
+        Assert.assertSame(Vocabulary.UNKNOWN, tokens.findPhrase(1, 2));
+        Assert.assertEquals(TokenSequence.HAS_LETTER, tokens.getFlags(0) & ~TokenSequence.PHRASE_START);
+        Assert.assertEquals(TokenSequence.HAS_LETTER | TokenSequence.LOWER_CASE | TokenSequence.PHRASE_START,
+            tokens.getFlags(1));
+        Assert.assertEquals(4, tokens.findLexiconPhraseEnd(3));
+        Assert.assertEquals(-2.0F, tokens.findPhrase(3, 4).getValence(), 0.0F);
+        Assert.assertEquals(0, tokens.findLexiconPhraseEnd(0));
+        Assert.assertEquals(5, tokens.findLexiconPhraseEnd(5));
+    }
+
+    @Test
+    public void findsBoosterPhrasesInAnyCase() {
+        final TokenSequence tokens = newTokenSequence("Kind OF good, sort of kind just enough kinda");
+
+        Assert.assertTrue(tokens.startsBoosterPhrase(0));
+        Assert.assertFalse(tokens.startsBoosterPhrase(1));
+        Assert.assertTrue(tokens.startsBoosterPhrase(3));
+        Assert.assertFalse(tokens.startsBoosterPhrase(5));
+        Assert.assertTrue(tokens.startsBoosterPhrase(6));
+        Assert.assertFalse(tokens.startsBoosterPhrase(8));
+    }
+
+    @Test
+    public void looksUpVocabularyOnceWhenAdded() {
+        final TokenSequence tokens = newTokenSequence("the Bomb The GOOD xyzzy");
+
+        Assert.assertEquals(TokenSequence.HAS_LETTER | TokenSequence.LOWER_CASE | TokenSequence.PHRASE_START,
+            tokens.getFlags(0));
+        Assert.assertSame(Utils.VOCABULARY.find("bomb"), tokens.getEntry(1));
+        Assert.assertEquals(TokenSequence.HAS_LETTER, tokens.getFlags(2));
+        Assert.assertSame(Utils.VOCABULARY.find("the"), tokens.getEntry(2));
+        Assert.assertEquals(Utils.VOCABULARY.getValencies().get("good"), tokens.getEntry(3).getValence(), 0.0F);
+        Assert.assertSame(Vocabulary.UNKNOWN, tokens.getEntry(4));
+    }
+
+    @Test
+    public void growsBeyondItsInitialCapacity() {
+        final StringBuilder inputString = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            inputString.append("Word").append(i).append(' ');
+        }
+        final TokenSequence tokens = newTokenSequence(inputString.toString());
+        final List<String> expected = Arrays.asList(inputString.toString().split(" "));
+
+        Assert.assertEquals(expected, tokens.asList());
+        for (int index = 0; index < tokens.size(); index++) {
+            Assert.assertEquals(expected.get(index).toLowerCase(), tokens.getLowerCase(index));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndicesOutOfBounds() {
+        newTokenSequence("one two").get(2);
+    }
+
+    private static boolean isUpperByRegex(String token) {
+        if (StringUtils.startsWithIgnoreCase(token, Constants.HTTP_URL_PREFIX)
+            || StringUtils.startsWithIgnoreCase(token, Constants.HTTPS_URL_PREFIX)
+            || !Constants.NON_NUMERIC_STRING_REGEX.matcher(token).matches()) {
+            return false;
+        }
+        return token.chars().noneMatch(Character::isLowerCase);
+    }
+
+    private static TokenSequence newTokenSequence(String inputString) {
+        final TokenSequence tokens = new TokenSequence(inputString, Utils.VOCABULARY);
+        int start = 0;
+        for (String token : inputString.split(" ")) {
+            tokens.add(start, start + token.length());
+            start += token.length() + 1;
+        }
+        return tokens;
+    }
+}
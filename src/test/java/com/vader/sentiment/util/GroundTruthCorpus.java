@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ground truth files bundled with the tests, which the tests read their input texts and expected scores from
+ * and which are used as datasets for the benchmarks.
+ *
+ * @author Animesh Pandey
+ */
+public enum GroundTruthCorpus {
+    /**
+     * Sentence-level snippets from customer reviews on Amazon.
+     */
+    AMAZON_REVIEWS("amazonReviewSnippets_GroundTruth_vader.tsv"),
+
+    /**
+     * Sentence-level snippets from reviews on rotten.tomatoes.com.
+     */
+    MOVIE_REVIEWS("movieReviewSnippets_GroundTruth_vader.tsv"),
+
+    /**
+     * Sentence-level snippets from New York Times opinion editorials.
+     */
+    NYT_EDITORIALS("nytEditorialSnippets_GroundTruth_vader.tsv"),
+
+    /**
+     * Tweet-like texts, the shortest texts of all the datasets.
+     */
+    TWEETS("tweets_GroundTruth_vader.tsv");
+
+    /**
+     * Column of a ground truth file which has the input text.
+     */
+    private static final int TEXT_COLUMN = 5;
+
+    /**
+     * Name of the ground truth file on the test classpath.
+     */
+    private final String fileName;
+
+    GroundTruthCorpus(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Read the input texts of this corpus.
+     *
+     * @return the texts in the same order as in the ground truth file
+     */
+    public List<String> readTexts() {
+        final List<String> texts = new ArrayList<>();
+        for (String[] row : readRows()) {
+            texts.add(row[TEXT_COLUMN]);
+        }
+        return Collections.unmodifiableList(texts);
+    }
+
+    /**
+     * Read the rows of the ground truth file of this corpus. The columns of a row are an identifier, the
+     * negative, neutral, positive and compound scores of the Python implementation, and the input text.
+     *
+     * @return the tab separated columns of every line, in the same order as in the ground truth file
+     */
+    public List<String[]> readRows() {
+        final InputStream inputStream = GroundTruthCorpus.class.getClassLoader().getResourceAsStream(fileName);
+        if (inputStream == null) {
+            throw new IllegalStateException(fileName + " was not found on the classpath");
+        }
+        final List<String[]> rows = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                rows.add(line.split("\\t"));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return Collections.unmodifiableList(rows);
+    }
+}
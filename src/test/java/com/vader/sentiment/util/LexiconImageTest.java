@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import com.google.common.io.ByteStreams;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * This tests confirms that a {@link Vocabulary} read back from its {@link LexiconImage} has the same entries, that
+ * the image on the class path was compiled from the text lexicon and that an image compiled from another lexicon is
+ * not loaded.
+ *
+ * @author Animesh Pandey
+ */
+public class LexiconImageTest {
+    @Test
+    public void readsBackTheSameVocabulary() throws IOException {
+        final Vocabulary vocabulary = LexiconImage.read(ByteBuffer.wrap(writeImage(Utils.VOCABULARY)));
+        assertSameEntries(Utils.VOCABULARY, vocabulary);
+        Assert.assertEquals(Utils.VOCABULARY.getValencies(), vocabulary.getValencies());
+    }
+
+    @Test
+    public void imageOnClassPathMatchesTextLexicon() throws IOException {
+        final ByteBuffer image;
+        try (InputStream input = LexiconImage.class.getClassLoader().getResourceAsStream(LexiconImage.RESOURCE)) {
+            // the image is compiled in the process-classes phase, which runs before the tests of the build
+            Assume.assumeNotNull(input);
+            image = ByteBuffer.wrap(ByteStreams.toByteArray(input));
+        }
+        final byte[] lexicon = LexiconImage.readSource();
+        Assert.assertEquals(lexicon.length, LexiconImage.getLexiconSize(image));
+        Assert.assertEquals(LexiconImage.hashLexicon(lexicon), LexiconImage.getLexiconHash(image));
+        Assert.assertEquals(LexiconImage.hashWordLists(), LexiconImage.getWordListsHash(image));
+    }
+
+    @Test
+    public void matchesTextLexicon() {
+        Assert.assertEquals(Utils.readLexiconFile(), Utils.VOCABULARY.getValencies());
+    }
+
+    @Test
+    public void ignoresImageOfAnotherLexicon() throws IOException {
+        final byte[] lexicon = LexiconImage.readSource();
+        final Path directory = Files.createTempDirectory("vader");
+        final Path image = directory.resolve(LexiconImage.RESOURCE);
+        final Path text = Files.write(directory.resolve(LexiconImage.SOURCE_RESOURCE), lexicon);
+        final Path otherDirectory = Files.createTempDirectory("vader");
+        final Path otherText = Files.write(otherDirectory.resolve(LexiconImage.SOURCE_RESOURCE), lexicon);
+        try {
+            final URL imageUrl = image.toUri().toURL();
+            Files.write(image, writeImage(Utils.VOCABULARY));
+            assertSameEntries(Utils.VOCABULARY, LexiconImage.load(imageUrl, text.toUri().toURL()));
+            Assert.assertNull(LexiconImage.load(imageUrl, null));
+            Assert.assertNull(LexiconImage.load(imageUrl, otherText.toUri().toURL()));
+
+            Files.write(image, writeImage(Utils.VOCABULARY, lexicon.length + 1));
+            Assert.assertNull(LexiconImage.load(imageUrl, text.toUri().toURL()));
+        } finally {
+            Files.delete(image);
+            Files.delete(text);
+            Files.delete(directory);
+            Files.delete(otherText);
+            Files.delete(otherDirectory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException {
+        LexiconImage.read(ByteBuffer.wrap("good\t1.9\t0.9434\t[2, 1, 1, 3, 2, 4, 2, 2, 1, 1]".getBytes("UTF-8")));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsTruncatedImage() throws IOException {
+        final byte[] image = writeImage(Utils.VOCABULARY);
+        LexiconImage.read(ByteBuffer.wrap(image, 0, image.length / 2));
+    }
+
+    /**
+     * Write the image of a vocabulary to memory, as compiled from the text lexicon on the class path.
+     *
+     * @param vocabulary the vocabulary
+     * @return the image
+     * @throws IOException if the image could not be written
+     */
+    private static byte[] writeImage(final Vocabulary vocabulary) throws IOException {
+        return writeImage(vocabulary, LexiconImage.readSource().length);
+    }
+
+    /**
+     * Write the image of a vocabulary to memory.
+     *
+     * @param vocabulary  the vocabulary
+     * @param lexiconSize the size of the text lexicon from which the vocabulary is said to be compiled
+     * @return the image
+     * @throws IOException if the image could not be written
+     */
+    private static byte[] writeImage(final Vocabulary vocabulary, final long lexiconSize) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        LexiconImage.write(vocabulary, lexiconSize, LexiconImage.hashLexicon(LexiconImage.readSource()), output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Check that two vocabularies have the same words with the same entries.
+     *
+     * @param expected the expected vocabulary
+     * @param actual   the actual vocabulary
+     */
+    private static void assertSameEntries(final Vocabulary expected, final Vocabulary actual) {
+        Assert.assertEquals(expected.size(), actual.size());
+        for (Vocabulary.Entry entry : expected.getEntries()) {
+            Assert.assertEquals(entry.toString(), actual.find(entry.getWord()).toString());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import com.google.common.collect.ImmutableMap;
+import com.vader.sentiment.analyzer.SentimentAnalyzer;
+import com.vader.sentiment.processor.TextProperties;
+import com.vader.sentiment.processor.TokenizerMode;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link LexiconRegistry} publishes a reloaded lexicon only if it is valid, and that
+ * a text keeps the vocabulary it started with.
+ *
+ * @author Animesh Pandey
+ */
+public class LexiconRegistryTest {
+    @After
+    public void restoreVocabulary() {
+        LexiconRegistry.publish(Utils.VOCABULARY);
+    }
+
+    @Test
+    public void publishesReloadedLexicon() throws IOException {
+        Assert.assertTrue(SentimentAnalyzer.getScoresFor("good").getCompoundPolarity() > 0.0F);
+        final long swapCount = LexiconRegistry.getSwapCount();
+
+        final Vocabulary vocabulary = LexiconRegistry.reload(writeLexicon("good\t-1.9\t0.9\t[-2]\nbad\t2.5"));
+
+        Assert.assertSame(vocabulary, LexiconRegistry.current());
+        Assert.assertEquals(ImmutableMap.of("good", -1.9F, "bad", 2.5F), vocabulary.getValencies());
+        Assert.assertEquals(swapCount + 1, LexiconRegistry.getSwapCount());
+        Assert.assertTrue(LexiconRegistry.getLastReloadNanos() > 0L);
+        Assert.assertTrue(SentimentAnalyzer.getScoresFor("good").getCompoundPolarity() < 0.0F);
+        Assert.assertTrue(SentimentAnalyzer.getScoresFor("bad").getCompoundPolarity() > 0.0F);
+    }
+
+    @Test
+    public void keepsCurrentLexiconIfReloadFails() throws IOException {
+        final Vocabulary current = LexiconRegistry.current();
+        final long failedReloadCount = LexiconRegistry.getFailedReloadCount();
+        for (String lexicon : new String[]{"good\t9.5", "good\tgreat", "good", "", "\t1.0"}) {
+            try {
+                LexiconRegistry.reload(writeLexicon(lexicon));
+                Assert.fail("Invalid lexicon was published: " + lexicon);
+            } catch (IOException ex) {
+                Assert.assertSame(current, LexiconRegistry.current());
+            }
+        }
+        Assert.assertEquals(failedReloadCount + 5, LexiconRegistry.getFailedReloadCount());
+    }
+
+    @Test
+    public void keepsSnapshotOfTextBeingAnalyzed() throws IOException, InterruptedException, ExecutionException {
+        final TextProperties before = new TextProperties("good", TokenizerMode.LUCENE);
+        final Vocabulary vocabulary = LexiconRegistry.reloadAsync(writeLexicon("good\t-1.9"), ForkJoinPool.commonPool())
+                                                     .get();
+        final TextProperties after = new TextProperties("good", TokenizerMode.LUCENE);
+
+        Assert.assertEquals(Utils.VOCABULARY.getValencies().get("good"), before.getTokens().getEntry(0).getValence(),
+            0.0F);
+        Assert.assertSame(vocabulary.find("good"), after.getTokens().getEntry(0));
+        Assert.assertEquals(-1.9F, after.getTokens().getEntry(0).getValence(), 0.0F);
+    }
+
+    /**
+     * Write a lexicon to a temporary file.
+     *
+     * @param lexicon the lines of the lexicon
+     * @return path of the file
+     * @throws IOException if the file could not be written
+     */
+    private static Path writeLexicon(final String lexicon) throws IOException {
+        final Path file = Files.createTempFile("vader_sentiment_lexicon", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, lexicon.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
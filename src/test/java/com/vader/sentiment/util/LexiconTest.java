@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.nio.CharBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that {@link Lexicon} holds the same words and valencies as the map of
+ * {@link Utils#VOCABULARY}, for every kind of lookup.
+ *
+ * @author Animesh Pandey
+ */
+public class LexiconTest {
+    private static final Lexicon lexicon = Lexicon.of(Utils.VOCABULARY.getValencies());
+
+    @Test
+    public void matchesValenceDictionary() {
+        Assert.assertEquals(Utils.VOCABULARY.getValencies().size(), lexicon.size());
+        for (Map.Entry<String, Float> entry : Utils.VOCABULARY.getValencies().entrySet()) {
+            final String word = entry.getKey();
+            final int slot = lexicon.find(word);
+            Assert.assertNotEquals(word, Lexicon.NOT_FOUND, slot);
+            Assert.assertEquals(word, lexicon.getWordAt(slot));
+            Assert.assertEquals(word, entry.getValue(), lexicon.getValenceAt(slot), 0.0F);
+
+            final String text = "<" + word + ">";
+            final char[] chars = text.toCharArray();
+            Assert.assertEquals(word, slot, lexicon.find(text, 1, text.length() - 1));
+            Assert.assertEquals(word, slot, lexicon.find(chars, 1, chars.length - 1));
+            Assert.assertEquals(word, slot, lexicon.find(word.hashCode(), chars, 1, chars.length - 1));
+            Assert.assertEquals(word, slot, lexicon.find(CharBuffer.wrap(word)));
+        }
+    }
+
+    @Test
+    public void doesNotFindOtherWords() {
+        Assert.assertFalse(lexicon.contains("Good"));
+        Assert.assertFalse(lexicon.contains("goo"));
+        Assert.assertFalse(lexicon.contains("goodd"));
+        Assert.assertFalse(lexicon.contains(""));
+        Assert.assertEquals(Lexicon.NOT_FOUND, lexicon.find("not good", 0, 3));
+        Assert.assertEquals(-7.5F, lexicon.getValence("Good", -7.5F), 0.0F);
+        Assert.assertEquals(Utils.VOCABULARY.getValencies().get("good"), lexicon.getValence("good", 0.0F), 0.0F);
+    }
+
+    @Test
+    public void handlesCollidingHashes() {
+        // "Aa" and "BB" have the same String.hashCode().
+        final Map<String, Float> entries = new HashMap<>();
+        entries.put("Aa", 1.0F);
+        entries.put("BB", 2.0F);
+        final Lexicon lexicon = Lexicon.of(entries);
+
+        Assert.assertEquals(1.0F, lexicon.getValence("Aa", 0.0F), 0.0F);
+        Assert.assertEquals(2.0F, lexicon.getValence("BB", 0.0F), 0.0F);
+        Assert.assertFalse(lexicon.contains("C#"));
+        Assert.assertEquals(0.0F, Lexicon.of(new HashMap<>()).getValence("Aa", 0.0F), 0.0F);
+    }
+
+    @Test
+    public void reportsMemoryFootprint() {
+        long chars = 0;
+        for (String word : Utils.VOCABULARY.getValencies().keySet()) {
+            chars += word.length();
+        }
+        Assert.assertTrue(lexicon.memoryFootprint() > chars * Character.BYTES + lexicon.size() * 16L);
+        Assert.assertTrue(lexicon.memoryFootprint() < chars * Character.BYTES + lexicon.size() * 64L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptySlots() {
+        Lexicon.of(new HashMap<>()).getValenceAt(0);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Animesh Pandey
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.vader.sentiment.util;
+
+import java.util.Map;
+import com.google.common.collect.ImmutableMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This tests confirms that one lookup in {@link Utils#VOCABULARY} gives the same answers as the separate word
+ * lists it is made of.
+ *
+ * @author Animesh Pandey
+ */
+public class VocabularyTest {
+    @Test
+    public void matchesWordLists() {
+        final Vocabulary vocabulary = Utils.VOCABULARY;
+        for (Map.Entry<String, Float> word : Utils.VOCABULARY.getValencies().entrySet()) {
+            final Vocabulary.Entry entry = vocabulary.find(word.getKey());
+            Assert.assertEquals(word.getKey(), entry.getWord());
+            Assert.assertTrue(word.getKey(), entry.hasValence());
+            Assert.assertEquals(word.getKey(), word.getValue(), entry.getValence(), 0.0F);
+        }
+        for (Map.Entry<String, Float> booster : Utils.BOOSTER_DICTIONARY.entrySet()) {
+            final Vocabulary.Entry entry = vocabulary.find(booster.getKey());
+            Assert.assertTrue(booster.getKey(), entry.isBooster());
+            Assert.assertEquals(booster.getKey(), booster.getValue(), entry.getBoosterScalar(), 0.0F);
+        }
+        for (String negativeWord : Utils.NEGATIVE_WORDS) {
+            Assert.assertTrue(negativeWord, vocabulary.find(negativeWord).isNegation());
+        }
+    }
+
+    @Test
+    public void combinesFlagsOfOneWord() {
+        final Vocabulary.Entry never = Utils.VOCABULARY.find("never");
+        Assert.assertTrue(never.isNegation());
+        Assert.assertFalse(never.hasValence());
+        Assert.assertFalse(never.isBooster());
+
+        final Vocabulary.Entry kind = Utils.VOCABULARY.find("kind");
+        Assert.assertTrue(kind.hasValence());
+        Assert.assertTrue(kind.startsPhrase());
+
+        final Vocabulary.Entry the = Utils.VOCABULARY.find("the");
+        Assert.assertFalse(the.hasValence());
+        Assert.assertTrue(the.startsPhrase());
+        Assert.assertFalse(Utils.VOCABULARY.find("bomb").startsPhrase());
+        Assert.assertTrue(Utils.VOCABULARY.find("fed").startsPhrase());
+    }
+
+    @Test
+    public void holdsPhrasesInTrie() {
+        final Vocabulary vocabulary = Utils.VOCABULARY;
+        final PhraseTrie phrases = vocabulary.getPhrases();
+        Assert.assertEquals(3, phrases.getMaxLength());
+        for (Map.Entry<String, Float> idiom : Utils.SENTIMENT_LADEN_IDIOMS_VALENCE_DICTIONARY.entrySet()) {
+            Assert.assertSame(vocabulary.find(idiom.getKey()), walk(phrases, vocabulary, idiom.getKey()));
+            Assert.assertEquals(idiom.getValue(), vocabulary.find(idiom.getKey()).getIdiomValence(), 0.0F);
+        }
+        Assert.assertTrue(walk(phrases, vocabulary, "kind of").isBooster());
+        Assert.assertTrue(walk(phrases, vocabulary, "just enough").isBooster());
+        Assert.assertEquals(-2.0F, walk(phrases, vocabulary, "can't stand").getValence(), 0.0F);
+        Assert.assertSame(Vocabulary.UNKNOWN, walk(phrases, vocabulary, "cut the"));
+        Assert.assertSame(Vocabulary.UNKNOWN, walk(phrases, vocabulary, "the bomb shit"));
+        Assert.assertSame(Vocabulary.UNKNOWN, walk(phrases, vocabulary, "good"));
+    }
+
+    /**
+     * Walk a trie with the entries of the words of a phrase.
+     *
+     * @param phrases    the trie
+     * @param vocabulary the vocabulary of the trie
+     * @param phrase     the phrase
+     * @return the entry of the phrase in the trie
+     */
+    private static Vocabulary.Entry walk(final PhraseTrie phrases, final Vocabulary vocabulary,
+                                         final String phrase) {
+        int state = PhraseTrie.ROOT;
+        for (String word : phrase.split(" ")) {
+            state = phrases.next(state, vocabulary.find(word));
+        }
+        return phrases.getPhrase(state);
+    }
+
+    @Test
+    public void returnsUnknownForOtherWords() {
+        Assert.assertSame(Vocabulary.UNKNOWN, Utils.VOCABULARY.find("Good"));
+        Assert.assertSame(Vocabulary.UNKNOWN, Utils.VOCABULARY.find("cut the"));
+        Assert.assertSame(Vocabulary.UNKNOWN, Utils.VOCABULARY.find(""));
+        Assert.assertFalse(Vocabulary.UNKNOWN.hasValence());
+        Assert.assertFalse(Vocabulary.UNKNOWN.isBooster());
+        Assert.assertFalse(Vocabulary.UNKNOWN.isNegation());
+        Assert.assertFalse(Vocabulary.UNKNOWN.startsPhrase());
+    }
+
+    @Test
+    public void fingerprintsSameLexiconAlike() {
+        final Vocabulary copy = Vocabulary.of(Utils.VOCABULARY.getEntries());
+        Assert.assertNotEquals(Utils.VOCABULARY.getVersion(), copy.getVersion());
+        Assert.assertEquals(Utils.VOCABULARY.getFingerprint(), copy.getFingerprint());
+        final Vocabulary other = Vocabulary.of(Utils.readLexiconFile(), Utils.BOOSTER_DICTIONARY,
+            Utils.NEGATIVE_WORDS, ImmutableMap.of("cut the mustard", 1.0F));
+        Assert.assertNotEquals(Utils.VOCABULARY.getFingerprint(), other.getFingerprint());
+    }
+}